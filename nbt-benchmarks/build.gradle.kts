@@ -0,0 +1,33 @@
+plugins {
+  id("java")
+  id("me.champeau.jmh") version "0.7.2"
+}
+
+group = "net.forthecrown"
+version = "1.0.0"
+
+repositories {
+  mavenCentral()
+}
+
+dependencies {
+  jmh(project(":nbt"))
+}
+
+jmh {
+  jmhVersion.set("1.37")
+  fork.set(1)
+  warmupIterations.set(3)
+  iterations.set(5)
+  profilers.set(listOf("gc"))
+  resultFormat.set("JSON")
+
+  // Run a subset with: ./gradlew :nbt-benchmarks:jmh -Pjmh.includes=TagIo
+  project.findProperty("jmh.includes")?.let {
+    includes.set(listOf(it.toString()))
+  }
+}
+
+java {
+  toolchain.languageVersion.set(JavaLanguageVersion.of(21))
+}
@@ -0,0 +1,75 @@
+package net.forthecrown.nbt.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import net.forthecrown.nbt.BinaryTag;
+import net.forthecrown.nbt.BinaryTags;
+import net.forthecrown.nbt.ColumnarListTag;
+import net.forthecrown.nbt.ListTag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Scans over the block list of the structure corpus, stored as a regular
+ * list of compounds and as a columnar list
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ColumnarBenchmark {
+
+  private ListTag blocks;
+  private ColumnarListTag columnar;
+
+  @Setup
+  public void setup() {
+    blocks = Corpus.STRUCTURE.create().getList("blocks");
+    columnar = BinaryTags.columnarList(blocks);
+  }
+
+  @Benchmark
+  public long sumCompounds() {
+    long sum = 0;
+
+    for (BinaryTag tag: blocks) {
+      sum += tag.asCompound().getInt("state");
+    }
+
+    return sum;
+  }
+
+  @Benchmark
+  public long sumColumnarRows() {
+    long sum = 0;
+
+    for (BinaryTag tag: columnar) {
+      sum += tag.asCompound().getInt("state");
+    }
+
+    return sum;
+  }
+
+  @Benchmark
+  public long sumColumn() {
+    return columnar.column("state").ints().sum();
+  }
+
+  @Benchmark
+  public ColumnarListTag toColumnar() {
+    return BinaryTags.columnarList(blocks);
+  }
+
+  @Benchmark
+  public ListTag copyCompounds() {
+    return blocks.copy();
+  }
+
+  @Benchmark
+  public ListTag copyColumnar() {
+    return columnar.copy();
+  }
+}
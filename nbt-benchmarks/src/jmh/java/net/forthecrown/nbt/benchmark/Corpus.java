@@ -0,0 +1,376 @@
+package net.forthecrown.nbt.benchmark;
+
+import java.util.Random;
+import java.util.UUID;
+import net.forthecrown.nbt.BinaryTags;
+import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.ListTag;
+
+/**
+ * Synthetic data sets shaped like the NBT the game produces.
+ * <p>
+ * Every corpus is generated from a fixed seed, so each benchmark run works on
+ * the same data.
+ */
+public enum Corpus {
+
+  /** A single item stack with display data, enchantments and attributes */
+  ITEM {
+    @Override
+    CompoundTag create(Random random) {
+      return item(random, 0, true);
+    }
+  },
+
+  /** A player data file, similar to the ones in {@code playerdata/} */
+  PLAYER {
+    @Override
+    CompoundTag create(Random random) {
+      CompoundTag tag = BinaryTags.compoundTag();
+      tag.putInt("DataVersion", 3955);
+      tag.putUUID("UUID", new UUID(random.nextLong(), random.nextLong()));
+      tag.putString("Dimension", "minecraft:overworld");
+      tag.putInt("playerGameType", 0);
+      tag.putFloat("Health", 20.0F);
+      tag.putShort("Air", 300);
+      tag.putShort("Fire", -20);
+      tag.putFloat("FallDistance", 0.0F);
+      tag.putBoolean("OnGround", true);
+      tag.putInt("XpLevel", random.nextInt(100));
+      tag.putFloat("XpP", random.nextFloat());
+      tag.putInt("foodLevel", 20);
+      tag.putFloat("foodSaturationLevel", 5.0F);
+      tag.putInt("SelectedItemSlot", random.nextInt(9));
+
+      tag.put("Pos", BinaryTags.doubleList(
+          random.nextDouble() * 10_000,
+          64 + random.nextDouble() * 100,
+          random.nextDouble() * 10_000
+      ));
+      tag.put("Motion", BinaryTags.doubleList(0, -0.0784, 0));
+      tag.put("Rotation", BinaryTags.floatList(
+          random.nextFloat() * 360, random.nextFloat() * 180 - 90
+      ));
+
+      CompoundTag abilities = BinaryTags.compoundTag();
+      abilities.putBoolean("flying", false);
+      abilities.putBoolean("instabuild", false);
+      abilities.putBoolean("invulnerable", false);
+      abilities.putBoolean("mayBuild", true);
+      abilities.putBoolean("mayfly", false);
+      abilities.putFloat("flySpeed", 0.05F);
+      abilities.putFloat("walkSpeed", 0.1F);
+      tag.put("abilities", abilities);
+
+      ListTag attributes = BinaryTags.listTag();
+      for (String name: ATTRIBUTES) {
+        CompoundTag attribute = BinaryTags.compoundTag();
+        attribute.putString("id", name);
+        attribute.putDouble("base", random.nextDouble() * 20);
+        attributes.add(attribute);
+      }
+      tag.put("attributes", attributes);
+
+      ListTag inventory = BinaryTags.listTag();
+      for (int slot = 0; slot < 36; slot++) {
+        if (random.nextInt(4) == 0) {
+          continue;
+        }
+        inventory.add(item(random, slot, random.nextInt(3) == 0));
+      }
+      tag.put("Inventory", inventory);
+
+      ListTag enderItems = BinaryTags.listTag();
+      for (int slot = 0; slot < 27; slot++) {
+        enderItems.add(item(random, slot, false));
+      }
+      tag.put("EnderItems", enderItems);
+
+      CompoundTag recipeBook = BinaryTags.compoundTag();
+      ListTag recipes = BinaryTags.listTag();
+      for (int i = 0; i < 400; i++) {
+        recipes.add(BinaryTags.stringTag("minecraft:" + word(random) + "_" + i));
+      }
+      recipeBook.put("recipes", recipes);
+      recipeBook.put("toBeDisplayed", recipes.copy());
+      recipeBook.putBoolean("isFurnaceGuiOpen", false);
+      tag.put("recipeBook", recipeBook);
+
+      return tag;
+    }
+  },
+
+  /** A chunk from a region file, with block states, light and heightmaps */
+  CHUNK {
+    @Override
+    CompoundTag create(Random random) {
+      CompoundTag tag = BinaryTags.compoundTag();
+      tag.putInt("DataVersion", 3955);
+      tag.putInt("xPos", random.nextInt(2000) - 1000);
+      tag.putInt("yPos", -4);
+      tag.putInt("zPos", random.nextInt(2000) - 1000);
+      tag.putString("Status", "minecraft:full");
+      tag.putLong("LastUpdate", random.nextLong() & Long.MAX_VALUE);
+      tag.putLong("InhabitedTime", random.nextInt(100_000));
+      tag.putBoolean("isLightOn", true);
+
+      ListTag sections = BinaryTags.listTag();
+      for (int y = -4; y < 20; y++) {
+        sections.add(section(random, y));
+      }
+      tag.put("sections", sections);
+
+      CompoundTag heightmaps = BinaryTags.compoundTag();
+      for (String name: HEIGHTMAPS) {
+        heightmaps.putLongArray(name, longs(random, 37));
+      }
+      tag.put("Heightmaps", heightmaps);
+
+      ListTag blockEntities = BinaryTags.listTag();
+      for (int i = 0; i < 8; i++) {
+        CompoundTag chest = BinaryTags.compoundTag();
+        chest.putString("id", "minecraft:chest");
+        chest.putInt("x", random.nextInt(16));
+        chest.putInt("y", random.nextInt(128));
+        chest.putInt("z", random.nextInt(16));
+        chest.putBoolean("keepPacked", false);
+
+        ListTag items = BinaryTags.listTag();
+        for (int slot = 0; slot < 27; slot += 1 + random.nextInt(3)) {
+          items.add(item(random, slot, false));
+        }
+        chest.put("Items", items);
+        blockEntities.add(chest);
+      }
+      tag.put("block_entities", blockEntities);
+
+      CompoundTag structures = BinaryTags.compoundTag();
+      structures.put("References", BinaryTags.compoundTag());
+      structures.put("starts", BinaryTags.compoundTag());
+      tag.put("structures", structures);
+
+      return tag;
+    }
+  },
+
+  /** A structure block template with a palette and a large block list */
+  STRUCTURE {
+    @Override
+    CompoundTag create(Random random) {
+      CompoundTag tag = BinaryTags.compoundTag();
+      tag.putInt("DataVersion", 3955);
+
+      int sizeX = 24;
+      int sizeY = 16;
+      int sizeZ = 24;
+      tag.put("size", BinaryTags.listTag(
+          BinaryTags.intTag(sizeX),
+          BinaryTags.intTag(sizeY),
+          BinaryTags.intTag(sizeZ)
+      ));
+
+      ListTag palette = BinaryTags.listTag();
+      for (int i = 0; i < 32; i++) {
+        palette.add(blockState(random, i));
+      }
+      tag.put("palette", palette);
+
+      ListTag blocks = BinaryTags.listTag();
+      for (int x = 0; x < sizeX; x++) {
+        for (int y = 0; y < sizeY; y++) {
+          for (int z = 0; z < sizeZ; z++) {
+            if (random.nextInt(3) == 0) {
+              continue;
+            }
+
+            CompoundTag block = BinaryTags.compoundTag();
+            block.put("pos", BinaryTags.listTag(
+                BinaryTags.intTag(x),
+                BinaryTags.intTag(y),
+                BinaryTags.intTag(z)
+            ));
+            block.putInt("state", random.nextInt(palette.size()));
+            blocks.add(block);
+          }
+        }
+      }
+      tag.put("blocks", blocks);
+
+      ListTag entities = BinaryTags.listTag();
+      for (int i = 0; i < 4; i++) {
+        CompoundTag entity = BinaryTags.compoundTag();
+        entity.put("blockPos", BinaryTags.listTag(
+            BinaryTags.intTag(random.nextInt(sizeX)),
+            BinaryTags.intTag(random.nextInt(sizeY)),
+            BinaryTags.intTag(random.nextInt(sizeZ))
+        ));
+
+        CompoundTag nbt = BinaryTags.compoundTag();
+        nbt.putString("id", "minecraft:armor_stand");
+        nbt.put("ArmorItems", BinaryTags.listTag(
+            item(random, 0, false),
+            item(random, 1, false)
+        ));
+        entity.put("nbt", nbt);
+        entities.add(entity);
+      }
+      tag.put("entities", entities);
+
+      return tag;
+    }
+  };
+
+  private static final long SEED = 0x4E4254L;
+
+  private static final String[] ATTRIBUTES = {
+      "minecraft:generic.max_health",
+      "minecraft:generic.movement_speed",
+      "minecraft:generic.attack_damage",
+      "minecraft:generic.armor",
+      "minecraft:generic.luck",
+      "minecraft:player.block_interaction_range",
+      "minecraft:player.entity_interaction_range"
+  };
+
+  private static final String[] HEIGHTMAPS = {
+      "MOTION_BLOCKING",
+      "MOTION_BLOCKING_NO_LEAVES",
+      "OCEAN_FLOOR",
+      "WORLD_SURFACE"
+  };
+
+  private static final String[] WORDS = {
+      "stone", "oak", "diamond", "iron", "golden", "netherite", "red", "blue",
+      "polished", "deepslate", "copper", "birch", "sword", "pickaxe", "stairs"
+  };
+
+  abstract CompoundTag create(Random random);
+
+  /**
+   * Creates this corpus' data
+   * @return Created data, the same on every call
+   */
+  public CompoundTag create() {
+    return create(new Random(SEED + ordinal()));
+  }
+
+  static CompoundTag item(Random random, int slot, boolean detailed) {
+    CompoundTag item = BinaryTags.compoundTag();
+    item.putByte("Slot", slot);
+    item.putString("id", "minecraft:" + word(random) + "_" + word(random));
+    item.putByte("Count", 1 + random.nextInt(64));
+
+    if (!detailed) {
+      return item;
+    }
+
+    CompoundTag tag = BinaryTags.compoundTag();
+    tag.putInt("Damage", random.nextInt(1500));
+    tag.putBoolean("Unbreakable", random.nextBoolean());
+    tag.putInt("CustomModelData", random.nextInt(10_000));
+
+    CompoundTag display = BinaryTags.compoundTag();
+    display.putString("Name",
+        "{\"text\":\"" + word(random) + " " + word(random)
+            + "\",\"italic\":false,\"color\":\"gold\"}"
+    );
+
+    ListTag lore = BinaryTags.listTag();
+    for (int i = 0; i < 4; i++) {
+      lore.add(BinaryTags.stringTag(
+          "{\"text\":\"" + word(random) + " " + word(random) + " "
+              + word(random) + "\",\"color\":\"gray\"}"
+      ));
+    }
+    display.put("Lore", lore);
+    display.putInt("color", random.nextInt(0xFFFFFF));
+    tag.put("display", display);
+
+    ListTag enchantments = BinaryTags.listTag();
+    for (int i = 0; i < 3; i++) {
+      CompoundTag enchantment = BinaryTags.compoundTag();
+      enchantment.putString("id", "minecraft:" + word(random));
+      enchantment.putShort("lvl", 1 + random.nextInt(5));
+      enchantments.add(enchantment);
+    }
+    tag.put("Enchantments", enchantments);
+
+    ListTag modifiers = BinaryTags.listTag();
+    for (int i = 0; i < 2; i++) {
+      CompoundTag modifier = BinaryTags.compoundTag();
+      modifier.putString("AttributeName", ATTRIBUTES[i]);
+      modifier.putString("Name", word(random));
+      modifier.putDouble("Amount", random.nextDouble() * 10);
+      modifier.putInt("Operation", random.nextInt(3));
+      modifier.putUUID("UUID", new UUID(random.nextLong(), random.nextLong()));
+      modifier.putString("Slot", "mainhand");
+      modifiers.add(modifier);
+    }
+    tag.put("AttributeModifiers", modifiers);
+
+    item.put("tag", tag);
+    return item;
+  }
+
+  static CompoundTag section(Random random, int y) {
+    CompoundTag section = BinaryTags.compoundTag();
+    section.putByte("Y", y);
+
+    CompoundTag blockStates = BinaryTags.compoundTag();
+    ListTag palette = BinaryTags.listTag();
+    int paletteSize = 2 + random.nextInt(14);
+
+    for (int i = 0; i < paletteSize; i++) {
+      palette.add(blockState(random, i));
+    }
+
+    blockStates.put("palette", palette);
+    // 4 bits per block, 4096 blocks
+    blockStates.putLongArray("data", longs(random, 256));
+    section.put("block_states", blockStates);
+
+    CompoundTag biomes = BinaryTags.compoundTag();
+    biomes.put("palette", BinaryTags.stringList(
+        "minecraft:plains", "minecraft:forest"
+    ));
+    biomes.putLongArray("data", longs(random, 1));
+    section.put("biomes", biomes);
+
+    section.putByteArray("BlockLight", bytes(random, 2048));
+    section.putByteArray("SkyLight", bytes(random, 2048));
+    return section;
+  }
+
+  static CompoundTag blockState(Random random, int index) {
+    CompoundTag state = BinaryTags.compoundTag();
+    state.putString("Name", "minecraft:" + word(random) + "_" + index);
+
+    if (random.nextBoolean()) {
+      CompoundTag properties = BinaryTags.compoundTag();
+      properties.putString("facing", "north");
+      properties.putString("half", random.nextBoolean() ? "top" : "bottom");
+      properties.putString("waterlogged", "false");
+      state.put("Properties", properties);
+    }
+
+    return state;
+  }
+
+  static String word(Random random) {
+    return WORDS[random.nextInt(WORDS.length)];
+  }
+
+  static long[] longs(Random random, int length) {
+    long[] result = new long[length];
+    for (int i = 0; i < length; i++) {
+      result[i] = random.nextLong();
+    }
+    return result;
+  }
+
+  static byte[] bytes(Random random, int length) {
+    byte[] result = new byte[length];
+    random.nextBytes(result);
+    return result;
+  }
+}
@@ -0,0 +1,46 @@
+package net.forthecrown.nbt.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.io.TagIo;
+import net.forthecrown.nbt.string.Snbt;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark state holding a corpus in every representation the benchmarks
+ * need: as a tag, as raw and compressed binary and as SNBT
+ */
+@State(Scope.Benchmark)
+public class CorpusState {
+
+  @Param({"ITEM", "PLAYER", "CHUNK", "STRUCTURE"})
+  public Corpus corpus;
+
+  public CompoundTag tag;
+
+  public byte[] raw;
+  public byte[] compressed;
+
+  public String snbt;
+  public String prettySnbt;
+
+  @Setup
+  public void setup() throws IOException {
+    tag = corpus.create();
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    TagIo.tagIo().write(out, tag);
+    raw = out.toByteArray();
+
+    out.reset();
+    TagIo.tagIo().writeCompressed(out, tag);
+    compressed = out.toByteArray();
+
+    snbt = Snbt.toString(tag);
+    prettySnbt = Snbt.toString(tag, true);
+  }
+}
@@ -0,0 +1,82 @@
+package net.forthecrown.nbt.benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import net.forthecrown.nbt.BinaryTags;
+import net.forthecrown.nbt.ByteTag;
+import net.forthecrown.nbt.DoubleTag;
+import net.forthecrown.nbt.IntTag;
+import net.forthecrown.nbt.LongTag;
+import net.forthecrown.nbt.ShortTag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Numeric tag creation with values spread over a small and a large range, to
+ * show the effect of any cached tag instances
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class NumberTagBenchmark {
+
+  private static final int VALUES = 1024;
+
+  private final int[] smallInts = new int[VALUES];
+  private final int[] largeInts = new int[VALUES];
+  private final long[] longs = new long[VALUES];
+  private final double[] doubles = new double[VALUES];
+
+  private int index;
+
+  @Setup
+  public void setup() {
+    SplittableRandom random = new SplittableRandom(VALUES);
+
+    for (int i = 0; i < VALUES; i++) {
+      smallInts[i] = random.nextInt(-128, 128);
+      largeInts[i] = random.nextInt();
+      longs[i] = random.nextLong();
+      doubles[i] = random.nextDouble();
+    }
+  }
+
+  private int next() {
+    return index = (index + 1) & (VALUES - 1);
+  }
+
+  @Benchmark
+  public ByteTag byteTag() {
+    return BinaryTags.byteTag(smallInts[next()]);
+  }
+
+  @Benchmark
+  public ShortTag shortTag() {
+    return BinaryTags.shortTag(smallInts[next()]);
+  }
+
+  @Benchmark
+  public IntTag intTagSmall() {
+    return BinaryTags.intTag(smallInts[next()]);
+  }
+
+  @Benchmark
+  public IntTag intTagLarge() {
+    return BinaryTags.intTag(largeInts[next()]);
+  }
+
+  @Benchmark
+  public LongTag longTag() {
+    return BinaryTags.longTag(longs[next()]);
+  }
+
+  @Benchmark
+  public DoubleTag doubleTag() {
+    return BinaryTags.doubleTag(doubles[next()]);
+  }
+}
@@ -0,0 +1,92 @@
+package net.forthecrown.nbt.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import net.forthecrown.nbt.BinaryTag;
+import net.forthecrown.nbt.BinaryTags;
+import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.ListTag;
+import net.forthecrown.nbt.io.TagIo;
+import net.forthecrown.nbt.string.Snbt;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * SNBT parsing and formatting, both flat and pretty printed
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SnbtBenchmark {
+
+  /**
+   * A large file of item templates, like a config reload would parse. Mostly
+   * made up of unquoted numbers and words
+   */
+  @State(Scope.Benchmark)
+  public static class ItemTemplates {
+    public String snbt;
+
+    @Setup
+    public void setup() {
+      Random random = new Random(1L);
+      ListTag templates = BinaryTags.listTag();
+
+      for (int i = 0; i < 2000; i++) {
+        templates.add(Corpus.item(random, i % 36, true));
+      }
+
+      snbt = Snbt.toString(templates, true);
+    }
+  }
+
+  @Benchmark
+  public BinaryTag parseItemTemplates(ItemTemplates templates) {
+    return Snbt.parse(templates.snbt);
+  }
+
+  @Benchmark
+  public BinaryTag parseFlat(CorpusState state) {
+    return Snbt.parse(state.snbt);
+  }
+
+  @Benchmark
+  public BinaryTag parsePretty(CorpusState state) {
+    return Snbt.parse(state.prettySnbt);
+  }
+
+  @Benchmark
+  public String toStringFlat(CorpusState state) {
+    return Snbt.toString(state.tag);
+  }
+
+  @Benchmark
+  public String toStringPretty(CorpusState state) {
+    return Snbt.toString(state.tag, true);
+  }
+
+  @Benchmark
+  public Writer writePretty(CorpusState state) throws IOException {
+    Writer writer = Writer.nullWriter();
+    Snbt.write(state.tag, writer, true, false);
+    return writer;
+  }
+
+  @Benchmark
+  public void parseAndWrite(CorpusState state) throws IOException {
+    CompoundTag tag = Snbt.parseCompound(state.snbt);
+    TagIo.tagIo().write(OutputStream.nullOutputStream(), tag);
+  }
+
+  @Benchmark
+  public void transcode(CorpusState state) throws IOException {
+    Snbt.transcode(state.snbt, OutputStream.nullOutputStream());
+  }
+}
@@ -0,0 +1,87 @@
+package net.forthecrown.nbt.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import net.forthecrown.nbt.CompoundShapes;
+import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.NbtDecoder;
+import net.forthecrown.nbt.io.TagBuffer;
+import net.forthecrown.nbt.io.TagIo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Binary reading and writing, with and without GZIP compression
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TagIoBenchmark {
+
+  private final TagIo io = TagIo.tagIo();
+  private final NbtDecoder decoder = NbtDecoder.create();
+  private final TagIo shapedIo = TagIo.tagIo()
+      .withShapes(CompoundShapes.create(CompoundShapes.DEFAULT_MAX_SHAPES));
+  private ByteArrayOutputStream output;
+
+  @Setup
+  public void setup(CorpusState state) {
+    output = new ByteArrayOutputStream(state.raw.length);
+  }
+
+  @Benchmark
+  public CompoundTag readRaw(CorpusState state) throws IOException {
+    return io.read(new ByteArrayInputStream(state.raw));
+  }
+
+  @Benchmark
+  public CompoundTag readShaped(CorpusState state) throws IOException {
+    return shapedIo.read(new ByteArrayInputStream(state.raw));
+  }
+
+  @Benchmark
+  public int decodeRecycled(CorpusState state) throws IOException {
+    int size = decoder.decode(state.raw).size();
+    decoder.reset();
+    return size;
+  }
+
+  @Benchmark
+  public int wrapBuffer(CorpusState state) throws IOException {
+    return TagBuffer.wrap(ByteBuffer.wrap(state.raw)).structureCount();
+  }
+
+  @Benchmark
+  public CompoundTag readCompressed(CorpusState state) throws IOException {
+    return io.readCompressed(new ByteArrayInputStream(state.compressed));
+  }
+
+  @Benchmark
+  public int writeRaw(CorpusState state) throws IOException {
+    output.reset();
+    io.write(output, state.tag);
+    return output.size();
+  }
+
+  @Benchmark
+  public int writeParallel(CorpusState state) throws IOException {
+    output.reset();
+    io.writeParallel(output, state.tag);
+    return output.size();
+  }
+
+  @Benchmark
+  public int writeCompressed(CorpusState state) throws IOException {
+    output.reset();
+    io.writeCompressed(output, state.tag);
+    return output.size();
+  }
+}
@@ -0,0 +1,68 @@
+package net.forthecrown.nbt.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import net.forthecrown.nbt.BinaryTags;
+import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.util.TagMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Tree operations: comparison, copying and merging
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TagOpsBenchmark {
+
+  private CompoundTag other;
+  private CompoundTag target;
+  private TagMatcher matcher;
+
+  @Setup
+  public void setup(CorpusState state) {
+    other = state.tag.copy();
+    target = state.tag.copy();
+    matcher = TagMatcher.compile(state.tag, true);
+  }
+
+  @Benchmark
+  public boolean compareTags(CorpusState state) {
+    return BinaryTags.compareTags(state.tag, other, false);
+  }
+
+  @Benchmark
+  public boolean compareTagsIgnoreListOrder(CorpusState state) {
+    return BinaryTags.compareTags(state.tag, other, true);
+  }
+
+  @Benchmark
+  public boolean matchIgnoreListOrder() {
+    return matcher.test(other);
+  }
+
+  @Benchmark
+  public CompoundTag copy(CorpusState state) {
+    return state.tag.copy();
+  }
+
+  @Benchmark
+  public CompoundTag copyParallel(CorpusState state) {
+    return state.tag.copyParallel();
+  }
+
+  @Benchmark
+  public CompoundTag mergeIntoEmpty(CorpusState state) {
+    return BinaryTags.compoundTag().merge(state.tag);
+  }
+
+  @Benchmark
+  public CompoundTag mergeIntoExisting(CorpusState state) {
+    return target.merge(state.tag);
+  }
+}
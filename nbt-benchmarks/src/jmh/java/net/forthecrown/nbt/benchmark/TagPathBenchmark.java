@@ -0,0 +1,165 @@
+package net.forthecrown.nbt.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.forthecrown.nbt.BinaryTag;
+import net.forthecrown.nbt.BinaryTags;
+import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.path.CompiledTagPath;
+import net.forthecrown.nbt.path.TagPath;
+import net.forthecrown.nbt.path.TagPathCache;
+import net.forthecrown.nbt.path.TagPathSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Tag path parsing, lookups and insertion.
+ * <p>
+ * Each corpus has a 'simple' path, made up of only key and index nodes, and a
+ * 'filtered' path, which uses compound filters and match-all nodes
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TagPathBenchmark {
+
+  @Param({"ITEM", "PLAYER", "CHUNK", "STRUCTURE"})
+  public Corpus corpus;
+
+  private String simpleInput;
+  private String filteredInput;
+
+  private TagPath simple;
+  private TagPath filtered;
+
+  private CompiledTagPath compiledSimple;
+  private CompiledTagPath compiledFiltered;
+
+  private TagPathSet pathSet;
+  private TagPathCache cache;
+
+  private CompoundTag tag;
+  private BinaryTag value;
+  private byte[] binary;
+
+  @Setup
+  public void setup() throws IOException {
+    switch (corpus) {
+      case ITEM -> {
+        simpleInput = "tag.display.Name";
+        filteredInput = "tag.Enchantments[{lvl:1s}].id";
+      }
+      case PLAYER -> {
+        simpleInput = "abilities.flySpeed";
+        filteredInput = "Inventory[].tag.display.Name";
+      }
+      case CHUNK -> {
+        simpleInput = "Heightmaps.WORLD_SURFACE";
+        filteredInput = "sections[{Y:3b}].block_states.palette[].Name";
+      }
+      case STRUCTURE -> {
+        simpleInput = "palette[0].Name";
+        filteredInput = "blocks[{state:3}].pos[1]";
+      }
+    }
+
+    simple = TagPath.parse(simpleInput);
+    filtered = TagPath.parse(filteredInput);
+
+    compiledSimple = simple.compile();
+    compiledFiltered = filtered.compile();
+
+    pathSet = TagPathSet.of(simple, filtered);
+    cache = TagPathCache.create(16);
+
+    // Each thread works on its own copy, as set() modifies the tag
+    tag = corpus.create();
+    value = BinaryTags.stringTag("value");
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryTags.write(out, tag);
+    binary = out.toByteArray();
+  }
+
+  @Benchmark
+  public TagPath parseSimple() {
+    return TagPath.parse(simpleInput);
+  }
+
+  @Benchmark
+  public TagPath parseFiltered() {
+    return TagPath.parse(filteredInput);
+  }
+
+  @Benchmark
+  public TagPath parseFilteredCached() {
+    return cache.parse(filteredInput);
+  }
+
+  @Benchmark
+  public List<BinaryTag> getSimple() {
+    return simple.get(tag);
+  }
+
+  @Benchmark
+  public List<BinaryTag> getFiltered() {
+    return filtered.get(tag);
+  }
+
+  @Benchmark
+  public BinaryTag getSimpleCompiled() {
+    return compiledSimple.getFirst(tag);
+  }
+
+  @Benchmark
+  public int getFilteredCompiled(Blackhole blackhole) {
+    return compiledFiltered.forEach(tag, blackhole::consume);
+  }
+
+  @Benchmark
+  public List<BinaryTag> readThenGetSimple() throws IOException {
+    return simple.get(BinaryTags.read(new ByteArrayInputStream(binary)));
+  }
+
+  @Benchmark
+  public List<BinaryTag> readSimpleBinary() throws IOException {
+    return compiledSimple.read(ByteBuffer.wrap(binary));
+  }
+
+  @Benchmark
+  public List<BinaryTag> readFilteredBinary() throws IOException {
+    return compiledFiltered.read(ByteBuffer.wrap(binary));
+  }
+
+  @Benchmark
+  public void getEach(Blackhole blackhole) {
+    blackhole.consume(simple.get(tag));
+    blackhole.consume(filtered.get(tag));
+  }
+
+  @Benchmark
+  public List<List<BinaryTag>> getSet() {
+    return pathSet.get(tag);
+  }
+
+  @Benchmark
+  public int setSimple() {
+    return simple.set(tag, value);
+  }
+
+  @Benchmark
+  public int setFiltered() {
+    return filtered.set(tag, value);
+  }
+}
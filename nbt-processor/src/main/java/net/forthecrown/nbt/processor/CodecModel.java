@@ -0,0 +1,413 @@
+package net.forthecrown.nbt.processor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import net.forthecrown.nbt.processor.ValueType.Kind;
+
+/**
+ * Describes the codec that will be generated for an annotated type
+ *
+ * @param packageName Package of the annotated type
+ * @param codecName Simple name of the generated codec class
+ * @param typeName Source name of the annotated type
+ * @param record {@code true}, if the type is a record, {@code false} if it's a
+ *               bean
+ * @param properties The type's properties
+ */
+record CodecModel(
+    String packageName,
+    String codecName,
+    String typeName,
+    boolean record,
+    List<PropertyModel> properties
+) {
+
+  static final String BINARY_TAG = "net.forthecrown.nbt.BinaryTag";
+
+  /**
+   * A single property
+   * @param name Property name, the key it's stored under
+   * @param getter Getter method name
+   * @param setter Setter method name, {@code null} for records
+   * @param type Property type
+   */
+  record PropertyModel(String name, String getter, String setter, ValueType type) {
+
+  }
+
+  static CodecModel create(TypeElement type, ProcessingEnvironment env) {
+    Resolver resolver = new Resolver(env);
+    boolean isRecord = type.getKind() == ElementKind.RECORD;
+
+    if (!isRecord && type.getKind() != ElementKind.CLASS) {
+      throw new ProcessingError(
+          "@GenerateCodec can only be used on records and classes", type
+      );
+    }
+
+    if (type.getModifiers().contains(Modifier.PRIVATE)) {
+      throw new ProcessingError("@GenerateCodec type cannot be private", type);
+    }
+
+    List<PropertyModel> properties = isRecord
+        ? recordProperties(type, resolver)
+        : beanProperties(type, resolver, env.getElementUtils());
+
+    PackageElement pkg = env.getElementUtils().getPackageOf(type);
+
+    return new CodecModel(
+        pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString(),
+        codecName(type),
+        type.getQualifiedName().toString(),
+        isRecord,
+        properties
+    );
+  }
+
+  static String codecName(TypeElement type) {
+    StringBuilder name = new StringBuilder(type.getSimpleName());
+    Element enclosing = type.getEnclosingElement();
+
+    while (enclosing instanceof TypeElement enclosingType) {
+      name.insert(0, enclosingType.getSimpleName() + "_");
+      enclosing = enclosingType.getEnclosingElement();
+    }
+
+    return name.append("Codec").toString();
+  }
+
+  private static List<PropertyModel> recordProperties(TypeElement type,
+                                                      Resolver resolver
+  ) {
+    List<PropertyModel> result = new ArrayList<>();
+
+    for (RecordComponentElement component: type.getRecordComponents()) {
+      String name = component.getSimpleName().toString();
+
+      result.add(new PropertyModel(
+          name,
+          component.getAccessor().getSimpleName().toString(),
+          null,
+          resolver.resolve(component.asType(), component)
+      ));
+    }
+
+    return result;
+  }
+
+  private static List<PropertyModel> beanProperties(TypeElement type,
+                                                    Resolver resolver,
+                                                    Elements elements
+  ) {
+    if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+      throw new ProcessingError("@GenerateCodec class cannot be abstract", type);
+    }
+
+    boolean hasNoArgs = ElementFilter.constructorsIn(type.getEnclosedElements())
+        .stream()
+        .anyMatch(c -> c.getParameters().isEmpty()
+            && !c.getModifiers().contains(Modifier.PRIVATE)
+        );
+
+    if (!hasNoArgs) {
+      throw new ProcessingError(
+          "@GenerateCodec class must have a non-private no-args constructor",
+          type
+      );
+    }
+
+    List<ExecutableElement> methods = ElementFilter.methodsIn(
+        elements.getAllMembers(type)
+    );
+
+    List<PropertyModel> result = new ArrayList<>();
+
+    // Only public accessors, like the Class.getMethods() lookup the
+    // reflective codecs use
+    for (ExecutableElement getter: methods) {
+      Set<Modifier> modifiers = getter.getModifiers();
+      TypeElement owner = (TypeElement) getter.getEnclosingElement();
+
+      if (modifiers.contains(Modifier.STATIC)
+          || !modifiers.contains(Modifier.PUBLIC)
+          || !getter.getParameters().isEmpty()
+          || owner.getQualifiedName().contentEquals("java.lang.Object")
+      ) {
+        continue;
+      }
+
+      String name = propertyName(getter);
+      if (name == null) {
+        continue;
+      }
+
+      String setterName = "set"
+          + Character.toUpperCase(name.charAt(0))
+          + name.substring(1);
+
+      boolean hasSetter = methods.stream().anyMatch(m ->
+          m.getSimpleName().contentEquals(setterName)
+              && m.getParameters().size() == 1
+              && !m.getModifiers().contains(Modifier.STATIC)
+              && m.getModifiers().contains(Modifier.PUBLIC)
+              && resolver.types.isSameType(
+                  m.getParameters().get(0).asType(),
+                  getter.getReturnType()
+              )
+      );
+
+      if (!hasSetter) {
+        continue;
+      }
+
+      result.add(new PropertyModel(
+          name,
+          getter.getSimpleName().toString(),
+          setterName,
+          resolver.resolve(getter.getReturnType(), getter)
+      ));
+    }
+
+    result.sort(Comparator.comparing(PropertyModel::name));
+    return result;
+  }
+
+  private static String propertyName(ExecutableElement getter) {
+    String name = getter.getSimpleName().toString();
+    TypeMirror returnType = getter.getReturnType();
+    String stripped;
+
+    if (returnType.getKind() == TypeKind.VOID) {
+      return null;
+    }
+
+    if (name.startsWith("get") && name.length() > 3) {
+      stripped = name.substring(3);
+    } else if (name.startsWith("is")
+        && name.length() > 2
+        && returnType.getKind() == TypeKind.BOOLEAN
+    ) {
+      stripped = name.substring(2);
+    } else {
+      return null;
+    }
+
+    return Character.toLowerCase(stripped.charAt(0)) + stripped.substring(1);
+  }
+
+  /**
+   * Resolves {@link TypeMirror}s to {@link ValueType}s
+   */
+  static class Resolver {
+    private final Types types;
+    private final Elements elements;
+
+    Resolver(ProcessingEnvironment env) {
+      this.types = env.getTypeUtils();
+      this.elements = env.getElementUtils();
+    }
+
+    ValueType resolve(TypeMirror type, Element source) {
+      TypeKind kind = type.getKind();
+
+      if (kind.isPrimitive()) {
+        return ValueType.primitive(Kind.PRIMITIVE, typeName(type), kind);
+      }
+
+      if (type instanceof ArrayType array) {
+        return switch (array.getComponentType().getKind()) {
+          case BYTE -> ValueType.simple(Kind.BYTE_ARRAY, "byte[]");
+          case INT -> ValueType.simple(Kind.INT_ARRAY, "int[]");
+          case LONG -> ValueType.simple(Kind.LONG_ARRAY, "long[]");
+          default -> throw unsupported(type, source);
+        };
+      }
+
+      if (!(type instanceof DeclaredType declared)) {
+        throw unsupported(type, source);
+      }
+
+      TypeElement element = (TypeElement) declared.asElement();
+      String qualified = element.getQualifiedName().toString();
+
+      switch (qualified) {
+        case "java.lang.String":
+          return ValueType.simple(Kind.STRING, qualified);
+        case "java.util.UUID":
+          return ValueType.simple(Kind.UUID, qualified);
+
+        case "java.util.List":
+        case "java.util.Collection":
+        case "java.util.Set":
+          if (declared.getTypeArguments().size() != 1) {
+            throw unsupported(type, source);
+          }
+
+          ValueType elementType = resolve(
+              declared.getTypeArguments().get(0), source
+          );
+
+          if (elementType.kind() == Kind.TAG) {
+            throw new ProcessingError(
+                "Collections of tags are not supported, use a ListTag instead",
+                source
+            );
+          }
+
+          return new ValueType(
+              Kind.COLLECTION,
+              typeName(type),
+              null,
+              null,
+              elementType,
+              qualified.equals("java.util.Set")
+                  ? "java.util.LinkedHashSet"
+                  : "java.util.ArrayList"
+          );
+
+        case "java.util.Map":
+          var args = declared.getTypeArguments();
+
+          if (args.size() != 2 || !isString(args.get(0))) {
+            throw new ProcessingError(
+                "Unsupported property type: " + type
+                    + ", only maps with String keys are supported",
+                source
+            );
+          }
+
+          return new ValueType(
+              Kind.MAP,
+              typeName(type),
+              null,
+              null,
+              resolve(args.get(1), source),
+              "java.util.LinkedHashMap"
+          );
+
+        default:
+      }
+
+      try {
+        TypeKind unboxed = types.unboxedType(type).getKind();
+        return ValueType.primitive(Kind.BOXED, qualified, unboxed);
+      } catch (IllegalArgumentException exc) {
+        // Not a boxed primitive
+      }
+
+      if (element.getKind() == ElementKind.ENUM) {
+        return ValueType.simple(Kind.ENUM, qualified);
+      }
+
+      TypeElement binaryTag = elements.getTypeElement(BINARY_TAG);
+      if (binaryTag != null
+          && types.isAssignable(type, types.erasure(binaryTag.asType()))
+      ) {
+        return ValueType.simple(Kind.TAG, qualified);
+      }
+
+      if (!isCodecType(element)) {
+        throw unsupported(type, source);
+      }
+
+      return new ValueType(
+          Kind.NESTED, qualified, null, codecReference(element), null, null
+      );
+    }
+
+    private boolean isString(TypeMirror type) {
+      return type instanceof DeclaredType declared
+          && ((TypeElement) declared.asElement()).getQualifiedName()
+              .contentEquals("java.lang.String");
+    }
+
+    /** Same check as {@code CodecFactory.isCodecType} */
+    private boolean isCodecType(TypeElement element) {
+      if (element.getKind() == ElementKind.RECORD) {
+        return true;
+      }
+
+      if (element.getKind() != ElementKind.CLASS
+          || element.getModifiers().contains(Modifier.ABSTRACT)
+          || element.getQualifiedName().contentEquals("java.lang.Object")
+      ) {
+        return false;
+      }
+
+      return ElementFilter.constructorsIn(element.getEnclosedElements())
+          .stream()
+          .anyMatch(c -> c.getParameters().isEmpty());
+    }
+
+    private String codecReference(TypeElement element) {
+      boolean generated = element.getAnnotationMirrors().stream()
+          .anyMatch(mirror -> {
+            var annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+            return annotationType.getQualifiedName()
+                .contentEquals(CodecProcessor.ANNOTATION);
+          });
+
+      if (!generated) {
+        return null;
+      }
+
+      PackageElement pkg = elements.getPackageOf(element);
+      String prefix = pkg.isUnnamed() ? "" : pkg.getQualifiedName() + ".";
+      return prefix + codecName(element) + ".INSTANCE";
+    }
+
+    String typeName(TypeMirror type) {
+      if (type.getKind().isPrimitive()) {
+        return type.getKind().name().toLowerCase();
+      }
+
+      if (type instanceof ArrayType array) {
+        return typeName(array.getComponentType()) + "[]";
+      }
+
+      if (!(type instanceof DeclaredType declared)) {
+        return types.erasure(type).toString();
+      }
+
+      var element = (TypeElement) declared.asElement();
+      StringBuilder builder = new StringBuilder(element.getQualifiedName());
+      var args = declared.getTypeArguments();
+
+      if (!args.isEmpty()) {
+        builder.append('<');
+
+        for (int i = 0; i < args.size(); i++) {
+          if (i > 0) {
+            builder.append(", ");
+          }
+          builder.append(typeName(args.get(i)));
+        }
+
+        builder.append('>');
+      }
+
+      return builder.toString();
+    }
+
+    private ProcessingError unsupported(TypeMirror type, Element source) {
+      return new ProcessingError("Unsupported property type: " + type, source);
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package net.forthecrown.nbt.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.JavaFileObject;
+
+/**
+ * Annotation processor that generates codec classes for types annotated with
+ * {@code net.forthecrown.nbt.codec.GenerateCodec}.
+ * <p>
+ * The generated codecs encode and decode the same properties, in the same
+ * format, as the reflective codecs returned by {@code TagCodec.of(Class)},
+ * but access properties with plain method calls and can write values straight
+ * to a {@link java.io.DataOutput} without creating any intermediate tags.
+ * <p>
+ * A few types the reflective codecs accept aren't supported, and are reported
+ * as compile errors instead:
+ * <ul>
+ *   <li>Beans with a private no-args constructor, which generated code
+ *   can't call</li>
+ *   <li>Collections of tags, which have to be a {@code ListTag} instead</li>
+ * </ul>
+ */
+@SupportedAnnotationTypes(CodecProcessor.ANNOTATION)
+public class CodecProcessor extends AbstractProcessor {
+
+  static final String ANNOTATION = "net.forthecrown.nbt.codec.GenerateCodec";
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations,
+                         RoundEnvironment roundEnv
+  ) {
+    for (TypeElement annotation: annotations) {
+      for (Element element: roundEnv.getElementsAnnotatedWith(annotation)) {
+        if (!(element instanceof TypeElement type)) {
+          continue;
+        }
+
+        try {
+          generate(type);
+        } catch (ProcessingError err) {
+          processingEnv.getMessager()
+              .printMessage(Kind.ERROR, err.getMessage(), err.getElement());
+        } catch (IOException exc) {
+          processingEnv.getMessager().printMessage(
+              Kind.ERROR,
+              "Failed to write codec: " + exc.getMessage(),
+              type
+          );
+        }
+      }
+    }
+
+    return true;
+  }
+
+  private void generate(TypeElement type) throws IOException {
+    CodecModel model = CodecModel.create(type, processingEnv);
+    String source = CodecWriter.write(model);
+
+    String name = model.packageName().isEmpty()
+        ? model.codecName()
+        : model.packageName() + "." + model.codecName();
+
+    JavaFileObject file = processingEnv.getFiler().createSourceFile(name, type);
+
+    try (Writer writer = file.openWriter()) {
+      writer.write(source);
+    }
+  }
+}
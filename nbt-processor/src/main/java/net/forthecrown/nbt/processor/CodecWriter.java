@@ -0,0 +1,624 @@
+package net.forthecrown.nbt.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.lang.model.type.TypeKind;
+import net.forthecrown.nbt.processor.CodecModel.PropertyModel;
+import net.forthecrown.nbt.processor.ValueType.Kind;
+
+/**
+ * Generates the source code of a codec class from a {@link CodecModel}
+ */
+class CodecWriter {
+
+  private static final String NBT = "net.forthecrown.nbt.";
+  private static final String CODEC = "net.forthecrown.nbt.codec.TagCodec";
+
+  private final CodecModel model;
+  private final StringBuilder out = new StringBuilder();
+  private int indent = 0;
+
+  /** Nested codec expressions, indexed by property */
+  private final List<String> codecs = new ArrayList<>();
+
+  private boolean usesEnums = false;
+
+  CodecWriter(CodecModel model) {
+    this.model = model;
+  }
+
+  static String write(CodecModel model) {
+    CodecWriter writer = new CodecWriter(model);
+    writer.writeClass();
+    return writer.out.toString();
+  }
+
+  private void writeClass() {
+    String type = model.typeName();
+    List<PropertyModel> properties = model.properties();
+
+    if (!model.packageName().isEmpty()) {
+      line("package " + model.packageName() + ";");
+      line("");
+    }
+
+    line("/**");
+    line(" * Generated codec for {@link " + type + "}");
+    line(" */");
+    line("@javax.annotation.processing.Generated(\""
+        + CodecProcessor.class.getName() + "\")"
+    );
+    open("public final class " + model.codecName()
+        + " implements " + CODEC + "<" + type + ">"
+    );
+
+    line("public static final " + model.codecName()
+        + " INSTANCE = new " + model.codecName() + "();"
+    );
+    line("");
+
+    for (PropertyModel p: properties) {
+      codecs.add(nestedCodec(p.type()));
+    }
+
+    line("private " + model.codecName() + "() {}");
+    line("");
+
+    writeType();
+    writeEncode();
+    writeDecode();
+    writeStreaming();
+
+    for (int i = 0; i < properties.size(); i++) {
+      PropertyModel p = properties.get(i);
+
+      if (p.type().kind() == Kind.PRIMITIVE) {
+        continue;
+      }
+
+      writeToTag(i, 0, p.type());
+      writeFromTag(i, 0, p.type());
+      writePayload(i, 0, p.type());
+    }
+
+    if (usesEnums) {
+      writeEnumHelper();
+    }
+
+    close();
+  }
+
+  private String nestedCodec(ValueType type) {
+    ValueType target = type;
+
+    while (target.isContainer()) {
+      target = target.element();
+    }
+
+    if (target.kind() != Kind.NESTED) {
+      return null;
+    }
+
+    if (target.codec() != null) {
+      return target.codec();
+    }
+
+    int index = codecs.size();
+    String field = "CODEC_" + index;
+
+    line("private static final " + CODEC + "<" + target.typeName() + "> "
+        + field + " = " + CODEC + ".of(" + target.typeName() + ".class);"
+    );
+    line("");
+
+    return field;
+  }
+
+  private void writeType() {
+    line("@Override");
+    open("public Class<" + model.typeName() + "> type()");
+    line("return " + model.typeName() + ".class;");
+    close();
+    line("");
+  }
+
+  /* ----------------------------- TREE ENCODING ------------------------------ */
+
+  private void writeEncode() {
+    line("@Override");
+    open("public void encode(" + model.typeName() + " value, "
+        + NBT + "CompoundTag tag)"
+    );
+    line("java.util.Objects.requireNonNull(value, \"Value\");");
+
+    List<PropertyModel> properties = model.properties();
+
+    for (int i = 0; i < properties.size(); i++) {
+      PropertyModel p = properties.get(i);
+      String getter = "value." + p.getter() + "()";
+
+      if (p.type().kind() == Kind.PRIMITIVE) {
+        line("tag." + primitivePut(p.type().primitive())
+            + "(\"" + p.name() + "\", " + getter + ");"
+        );
+        continue;
+      }
+
+      line("");
+      open("");
+      line(p.type().typeName() + " v" + i + " = " + getter + ";");
+      open("if (v" + i + " != null)");
+      line("tag.put(\"" + p.name() + "\", toTag" + i + "(v" + i + "));");
+      close();
+      close();
+    }
+
+    close();
+    line("");
+  }
+
+  private static String primitivePut(TypeKind kind) {
+    return switch (kind) {
+      case BOOLEAN -> "putBoolean";
+      case BYTE -> "putByte";
+      case SHORT -> "putShort";
+      case LONG -> "putLong";
+      case FLOAT -> "putFloat";
+      case DOUBLE -> "putDouble";
+      default -> "putInt";
+    };
+  }
+
+  /**
+   * Gets the name of the helper method generated for a property's value, or
+   * for a collection or map nested {@code depth} levels deep in the value
+   */
+  private static String helper(String prefix, int index, int depth) {
+    return prefix + index + (depth == 0 ? "" : "_" + depth);
+  }
+
+  private void writeToTag(int index, int depth, ValueType type) {
+    if (type.isContainer() && type.element().isContainer()) {
+      writeToTag(index, depth + 1, type.element());
+    }
+
+    open("private static " + NBT + "BinaryTag " + helper("toTag", index, depth)
+        + "(" + type.typeName() + " v)"
+    );
+
+    if (type.kind() == Kind.COLLECTION) {
+      line(NBT + "ListTag list = " + NBT + "BinaryTags.listTag();");
+      open("for (" + type.element().typeName() + " e: v)");
+      open("if (e == null)");
+      line("continue;");
+      close();
+      line("list.add(" + toTag(index, depth + 1, type.element(), "e") + ");");
+      close();
+      line("return list;");
+    } else if (type.kind() == Kind.MAP) {
+      line(NBT + "CompoundTag tag = " + NBT + "BinaryTags.compoundTag();");
+      open("for (var e: v.entrySet())");
+      open("if (e.getValue() == null)");
+      line("continue;");
+      close();
+      line("tag.put(e.getKey(), "
+          + toTag(index, depth + 1, type.element(), "e.getValue()") + ");"
+      );
+      close();
+      line("return tag;");
+    } else {
+      line("return " + toTag(index, depth, type, "v") + ";");
+    }
+
+    close();
+    line("");
+  }
+
+  private String toTag(int index, int depth, ValueType type, String v) {
+    if (type.isContainer()) {
+      return helper("toTag", index, depth) + "(" + v + ")";
+    }
+
+    return switch (type.kind()) {
+      case BOXED -> switch (type.primitive()) {
+        case BOOLEAN -> NBT + "BinaryTags.byteTag(" + v + " ? 1 : 0)";
+        case BYTE -> NBT + "BinaryTags.byteTag(" + v + ".byteValue())";
+        case SHORT -> NBT + "BinaryTags.shortTag(" + v + ".shortValue())";
+        case LONG -> NBT + "BinaryTags.longTag(" + v + ")";
+        case FLOAT -> NBT + "BinaryTags.floatTag(" + v + ")";
+        case DOUBLE -> NBT + "BinaryTags.doubleTag(" + v + ")";
+        default -> NBT + "BinaryTags.intTag(" + v + ")";
+      };
+      case STRING -> NBT + "BinaryTags.stringTag(" + v + ")";
+      case ENUM -> NBT + "BinaryTags.stringTag(" + v + ".name())";
+      case UUID -> NBT + "BinaryTags.saveUuid(" + v + ")";
+      case BYTE_ARRAY -> NBT + "BinaryTags.byteArrayTag(" + v + ")";
+      case INT_ARRAY -> NBT + "BinaryTags.intArrayTag(" + v + ")";
+      case LONG_ARRAY -> NBT + "BinaryTags.longArrayTag(" + v + ")";
+      case TAG -> v;
+      case NESTED -> codecs.get(index) + ".encode(" + v + ")";
+      default -> throw new IllegalStateException("Unexpected kind " + type);
+    };
+  }
+
+  /* ----------------------------- TREE DECODING ------------------------------ */
+
+  private void writeDecode() {
+    line("@Override");
+    open("public " + model.typeName() + " decode(" + NBT + "CompoundTag tag)");
+
+    List<PropertyModel> properties = model.properties();
+
+    if (model.record()) {
+      line("return new " + model.typeName() + "(");
+      indent += 2;
+
+      for (int i = 0; i < properties.size(); i++) {
+        String suffix = i == properties.size() - 1 ? "" : ",";
+        line(readProperty(i, properties.get(i)) + suffix);
+      }
+
+      indent -= 2;
+      line(");");
+      close();
+      line("");
+      return;
+    }
+
+    line(model.typeName() + " result = new " + model.typeName() + "();");
+
+    for (int i = 0; i < properties.size(); i++) {
+      PropertyModel p = properties.get(i);
+
+      if (p.type().kind() == Kind.PRIMITIVE) {
+        line("result." + p.setter() + "(" + readProperty(i, p) + ");");
+        continue;
+      }
+
+      line("");
+      open("");
+      line(p.type().typeName() + " v" + i + " = " + readProperty(i, p) + ";");
+      open("if (v" + i + " != null)");
+      line("result." + p.setter() + "(v" + i + ");");
+      close();
+      close();
+    }
+
+    line("");
+    line("return result;");
+    close();
+    line("");
+  }
+
+  private String readProperty(int index, PropertyModel p) {
+    String name = "\"" + p.name() + "\"";
+
+    if (p.type().kind() != Kind.PRIMITIVE) {
+      return "fromTag" + index + "(tag.get(" + name + "))";
+    }
+
+    return switch (p.type().primitive()) {
+      case BOOLEAN -> "tag.getBoolean(" + name + ")";
+      case BYTE -> "tag.getByte(" + name + ")";
+      case SHORT -> "tag.getShort(" + name + ")";
+      case CHAR -> "(char) tag.getInt(" + name + ")";
+      case LONG -> "tag.getLong(" + name + ")";
+      case FLOAT -> "tag.getFloat(" + name + ")";
+      case DOUBLE -> "tag.getDouble(" + name + ")";
+      default -> "tag.getInt(" + name + ")";
+    };
+  }
+
+  private void writeFromTag(int index, int depth, ValueType type) {
+    if (type.isContainer() && type.element().isContainer()) {
+      writeFromTag(index, depth + 1, type.element());
+    }
+
+    open("private static " + type.typeName() + " "
+        + helper("fromTag", index, depth) + "(" + NBT + "BinaryTag t)"
+    );
+
+    if (type.kind() == Kind.COLLECTION) {
+      ValueType element = type.element();
+
+      open("if (!(t instanceof " + NBT + "ListTag list))");
+      line("return null;");
+      close();
+      line("");
+
+      line(type.typeName() + " result = new " + type.collectionImpl()
+          + "<>(list.size());"
+      );
+      open("for (int i = 0; i < list.size(); i++)");
+      line(element.typeName() + " e = "
+          + fromTag(index, depth + 1, element, "list.get(i)") + ";"
+      );
+      open("if (e != null)");
+      line("result.add(e);");
+      close();
+      close();
+      line("return result;");
+    } else if (type.kind() == Kind.MAP) {
+      ValueType element = type.element();
+
+      open("if (!(t instanceof " + NBT + "CompoundTag compound))");
+      line("return null;");
+      close();
+      line("");
+
+      line(type.typeName() + " result = new " + type.collectionImpl() + "<>();");
+      open("for (var e: compound.entrySet())");
+      line(element.typeName() + " value = "
+          + fromTag(index, depth + 1, element, "e.getValue()") + ";"
+      );
+      open("if (value != null)");
+      line("result.put(e.getKey(), value);");
+      close();
+      close();
+      line("return result;");
+    } else {
+      line("return " + fromTag(index, depth, type, "t") + ";");
+    }
+
+    close();
+    line("");
+  }
+
+  private String fromTag(int index, int depth, ValueType type, String t) {
+    if (type.isContainer()) {
+      return helper("fromTag", index, depth) + "(" + t + ")";
+    }
+
+    String typeName = type.typeName();
+
+    return switch (type.kind()) {
+      case BOXED -> {
+        String number = switch (type.primitive()) {
+          case BOOLEAN -> "n.booleanValue()";
+          case BYTE -> "n.byteValue()";
+          case SHORT -> "n.shortValue()";
+          case CHAR -> "(char) n.intValue()";
+          case LONG -> "n.longValue()";
+          case FLOAT -> "n.floatValue()";
+          case DOUBLE -> "n.doubleValue()";
+          default -> "n.intValue()";
+        };
+
+        yield "(" + t + " instanceof " + NBT + "NumberTag n) ? "
+            + "(" + typeName + ") " + number + " : null";
+      }
+
+      case STRING -> "(" + t + " instanceof " + NBT + "StringTag s) "
+          + "? s.value() : null";
+
+      case ENUM -> {
+        usesEnums = true;
+        yield "(" + t + " instanceof " + NBT + "StringTag s) "
+            + "? enumValue(" + typeName + ".class, s.value()) : null";
+      }
+
+      case UUID -> "(" + t + " instanceof " + NBT + "IntArrayTag a && a.size() == 4) "
+          + "? " + NBT + "BinaryTags.loadUuid(a) : null";
+
+      case BYTE_ARRAY -> "(" + t + " instanceof " + NBT + "ByteArrayTag a) "
+          + "? a.toByteArray() : null";
+
+      case INT_ARRAY -> "(" + t + " instanceof " + NBT + "IntArrayTag a) "
+          + "? a.toIntArray() : null";
+
+      case LONG_ARRAY -> "(" + t + " instanceof " + NBT + "LongArrayTag a) "
+          + "? a.toLongArray() : null";
+
+      case TAG -> typeName.equals(CodecModel.BINARY_TAG)
+          ? t
+          : "(" + t + " instanceof " + typeName + " x) ? x : null";
+
+      case NESTED -> "(" + t + " instanceof " + NBT + "CompoundTag c) "
+          + "? " + codecs.get(index) + ".decode(c) : null";
+
+      default -> throw new IllegalStateException("Unexpected kind " + type);
+    };
+  }
+
+  private void writeEnumHelper() {
+    open("private static <E extends Enum<E>> E enumValue(Class<E> type, String name)");
+    open("try");
+    line("return Enum.valueOf(type, name);");
+    closeOpen("catch (IllegalArgumentException exc)");
+    line("return null;");
+    close();
+    close();
+    line("");
+  }
+
+  /* -------------------------------- STREAMING ------------------------------- */
+
+  private void writeStreaming() {
+    line("@Override");
+    open("public void write(" + model.typeName() + " value, "
+        + "java.io.DataOutput output) throws java.io.IOException"
+    );
+    line("java.util.Objects.requireNonNull(value, \"Value\");");
+
+    List<PropertyModel> properties = model.properties();
+
+    for (int i = 0; i < properties.size(); i++) {
+      PropertyModel p = properties.get(i);
+      ValueType type = p.type();
+      String getter = "value." + p.getter() + "()";
+
+      line("");
+
+      if (type.kind() == Kind.PRIMITIVE) {
+        writeHeader(type, p.name());
+        writePrimitive(type.primitive(), getter);
+        continue;
+      }
+
+      open("");
+      line(type.typeName() + " v" + i + " = " + getter + ";");
+      open("if (v" + i + " != null)");
+
+      if (type.kind() == Kind.TAG) {
+        line(NBT + "BinaryTags.writeNamedTag(\"" + p.name() + "\", v" + i
+            + ", output);"
+        );
+      } else {
+        writeHeader(type, p.name());
+        line("writePayload" + i + "(v" + i + ", output);");
+      }
+
+      close();
+      close();
+    }
+
+    line("");
+    line("output.writeByte(" + NBT + "TypeIds.END);");
+    close();
+    line("");
+  }
+
+  private void writeHeader(ValueType type, String name) {
+    line("output.writeByte(" + NBT + "TypeIds." + type.tagId() + ");");
+    line("output.writeUTF(\"" + name + "\");");
+  }
+
+  private void writePrimitive(TypeKind kind, String v) {
+    line(switch (kind) {
+      case BOOLEAN -> "output.writeByte(" + v + " ? 1 : 0);";
+      case BYTE -> "output.writeByte(" + v + ");";
+      case SHORT -> "output.writeShort(" + v + ");";
+      case LONG -> "output.writeLong(" + v + ");";
+      case FLOAT -> "output.writeFloat(" + v + ");";
+      case DOUBLE -> "output.writeDouble(" + v + ");";
+      default -> "output.writeInt(" + v + ");";
+    });
+  }
+
+  private void writePayload(int index, int depth, ValueType type) {
+    if (type.kind() == Kind.TAG) {
+      return;
+    }
+
+    if (type.isContainer() && type.element().isContainer()) {
+      writePayload(index, depth + 1, type.element());
+    }
+
+    open("private static void " + helper("writePayload", index, depth)
+        + "(" + type.typeName()
+        + " v, java.io.DataOutput output) throws java.io.IOException"
+    );
+
+    if (type.kind() == Kind.COLLECTION) {
+      ValueType element = type.element();
+
+      line("int size = 0;");
+      open("for (" + element.typeName() + " e: v)");
+      open("if (e != null)");
+      line("size++;");
+      close();
+      close();
+      line("");
+
+      line("output.writeByte(size == 0 ? " + NBT + "TypeIds.END : "
+          + NBT + "TypeIds." + element.tagId() + ");"
+      );
+      line("output.writeInt(size);");
+      line("");
+
+      open("for (" + element.typeName() + " e: v)");
+      open("if (e == null)");
+      line("continue;");
+      close();
+      writeValuePayload(index, depth + 1, element, "e");
+      close();
+    } else if (type.kind() == Kind.MAP) {
+      ValueType value = type.element();
+
+      open("for (var e: v.entrySet())");
+      open("if (e.getValue() == null)");
+      line("continue;");
+      close();
+
+      if (value.kind() == Kind.TAG) {
+        line(NBT + "BinaryTags.writeNamedTag(e.getKey(), e.getValue(), output);");
+      } else {
+        line("output.writeByte(" + NBT + "TypeIds." + value.tagId() + ");");
+        line("output.writeUTF(e.getKey());");
+        writeValuePayload(index, depth + 1, value, "e.getValue()");
+      }
+
+      close();
+      line("output.writeByte(" + NBT + "TypeIds.END);");
+    } else {
+      writeValuePayload(index, depth, type, "v");
+    }
+
+    close();
+    line("");
+  }
+
+  private void writeValuePayload(int index, int depth, ValueType type, String v) {
+    switch (type.kind()) {
+      case BOXED -> writePrimitive(type.primitive(), v);
+      case STRING -> line("output.writeUTF(" + v + ");");
+      case ENUM -> line("output.writeUTF(" + v + ".name());");
+
+      case UUID -> {
+        line("output.writeInt(4);");
+        line("output.writeLong(" + v + ".getMostSignificantBits());");
+        line("output.writeLong(" + v + ".getLeastSignificantBits());");
+      }
+
+      case BYTE_ARRAY -> {
+        line("output.writeInt(" + v + ".length);");
+        line("output.write(" + v + ");");
+      }
+
+      case INT_ARRAY, LONG_ARRAY -> {
+        String method = type.kind() == Kind.INT_ARRAY ? "writeInt" : "writeLong";
+        line("output.writeInt(" + v + ".length);");
+        open("for (var n: " + v + ")");
+        line("output." + method + "(n);");
+        close();
+      }
+
+      case NESTED -> line(codecs.get(index) + ".write(" + v + ", output);");
+
+      case COLLECTION, MAP -> line(
+          helper("writePayload", index, depth) + "(" + v + ", output);"
+      );
+
+      default -> throw new IllegalStateException("Unexpected kind " + type);
+    }
+  }
+
+  /* --------------------------------- OUTPUT --------------------------------- */
+
+  private void line(String s) {
+    if (!s.isEmpty()) {
+      out.append("  ".repeat(indent)).append(s);
+    }
+    out.append('\n');
+  }
+
+  private void open(String s) {
+    if (s.isEmpty()) {
+      line("{");
+    } else {
+      line(s + " {");
+    }
+    indent++;
+  }
+
+  private void closeOpen(String s) {
+    indent--;
+    line("} " + s + " {");
+    indent++;
+  }
+
+  private void close() {
+    indent--;
+    line("}");
+  }
+}
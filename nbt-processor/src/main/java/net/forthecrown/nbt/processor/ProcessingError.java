@@ -0,0 +1,21 @@
+package net.forthecrown.nbt.processor;
+
+import javax.lang.model.element.Element;
+
+/**
+ * Error thrown when an annotated type cannot have a codec generated for it
+ */
+class ProcessingError extends RuntimeException {
+  private static final long serialVersionUID = 1L;
+
+  private final transient Element element;
+
+  public ProcessingError(String message, Element element) {
+    super(message);
+    this.element = element;
+  }
+
+  public Element getElement() {
+    return element;
+  }
+}
@@ -0,0 +1,83 @@
+package net.forthecrown.nbt.processor;
+
+import javax.lang.model.type.TypeKind;
+
+/**
+ * The resolved type of a property or collection element
+ *
+ * @param kind Value kind
+ * @param typeName Source name of the type
+ * @param primitive Primitive kind, for {@link Kind#PRIMITIVE} and
+ *                  {@link Kind#BOXED} types
+ * @param codec Expression that references the nested codec, for
+ *              {@link Kind#NESTED} types
+ * @param element Element type, for {@link Kind#COLLECTION} types, or value
+ *                type, for {@link Kind#MAP} types
+ * @param collectionImpl Collection or map implementation used when decoding,
+ *                       for {@link Kind#COLLECTION} and {@link Kind#MAP} types
+ */
+record ValueType(
+    Kind kind,
+    String typeName,
+    TypeKind primitive,
+    String codec,
+    ValueType element,
+    String collectionImpl
+) {
+
+  enum Kind {
+    PRIMITIVE,
+    BOXED,
+    STRING,
+    UUID,
+    ENUM,
+    BYTE_ARRAY,
+    INT_ARRAY,
+    LONG_ARRAY,
+    TAG,
+    NESTED,
+    COLLECTION,
+    MAP
+  }
+
+  static ValueType simple(Kind kind, String typeName) {
+    return new ValueType(kind, typeName, null, null, null, null);
+  }
+
+  static ValueType primitive(Kind kind, String typeName, TypeKind primitive) {
+    return new ValueType(kind, typeName, primitive, null, null, null);
+  }
+
+  /**
+   * Tests if this type contains other values, stored with their own helper
+   * methods in generated codecs
+   * @return {@code true}, if this is a collection or a map
+   */
+  boolean isContainer() {
+    return kind == Kind.COLLECTION || kind == Kind.MAP;
+  }
+
+  /**
+   * Gets the {@code TypeIds} constant of the tag this type is stored as
+   * @return Type ID constant name
+   */
+  String tagId() {
+    return switch (kind) {
+      case PRIMITIVE, BOXED -> switch (primitive) {
+        case BOOLEAN, BYTE -> "BYTE";
+        case SHORT -> "SHORT";
+        case LONG -> "LONG";
+        case FLOAT -> "FLOAT";
+        case DOUBLE -> "DOUBLE";
+        default -> "INT";
+      };
+      case STRING, ENUM -> "STRING";
+      case UUID, INT_ARRAY -> "INT_ARRAY";
+      case BYTE_ARRAY -> "BYTE_ARRAY";
+      case LONG_ARRAY -> "LONG_ARRAY";
+      case NESTED, MAP -> "COMPOUND";
+      case COLLECTION -> "LIST";
+      case TAG -> throw new IllegalStateException("Tag IDs are dynamic");
+    };
+  }
+}
@@ -0,0 +1,293 @@
+package net.forthecrown.nbt.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import net.forthecrown.nbt.BinaryTags;
+import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.TypeIds;
+import net.forthecrown.nbt.codec.TagCodec;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CodecProcessorTest {
+
+  static final String SAMPLE = """
+      package sample;
+
+      import java.util.*;
+      import net.forthecrown.nbt.*;
+      import net.forthecrown.nbt.codec.GenerateCodec;
+
+      @GenerateCodec
+      public record Sample(
+          int level,
+          boolean flying,
+          char letter,
+          String name,
+          UUID id,
+          Integer boxed,
+          Mode mode,
+          List<String> tags,
+          Set<Mode> modes,
+          long[] data,
+          Settings settings,
+          List<Settings> history,
+          CompoundTag extra
+      ) {
+        public enum Mode { SURVIVAL, CREATIVE }
+
+        @GenerateCodec
+        public static class Settings {
+          private double volume;
+          private Boolean muted;
+
+          public double getVolume() { return volume; }
+          public void setVolume(double volume) { this.volume = volume; }
+
+          public Boolean getMuted() { return muted; }
+          public void setMuted(Boolean muted) { this.muted = muted; }
+        }
+
+        public static Sample create() {
+          Settings settings = new Settings();
+          settings.setVolume(0.5D);
+          settings.setMuted(true);
+
+          CompoundTag extra = BinaryTags.compoundTag();
+          extra.putString("key", "value");
+
+          return new Sample(
+              12, true, 'x', "Steve", new UUID(1L, 2L), null, Mode.CREATIVE,
+              List.of("a", "b"), new LinkedHashSet<>(List.of(Mode.SURVIVAL)),
+              new long[] { 1L, 2L }, settings, List.of(), extra
+          );
+        }
+      }
+      """;
+
+  static final String CONTAINERS = """
+      package sample;
+
+      import java.util.*;
+      import net.forthecrown.nbt.*;
+      import net.forthecrown.nbt.codec.GenerateCodec;
+
+      @GenerateCodec
+      public record Containers(
+          Map<String, Integer> counts,
+          Map<String, Point> points,
+          List<List<String>> rows,
+          Map<String, Set<Mode>> modes,
+          List<Map<String, Long>> stats,
+          Map<String, CompoundTag> extra
+      ) {
+        public enum Mode { SURVIVAL, CREATIVE }
+
+        public record Point(int x, int y) {}
+
+        @GenerateCodec
+        public static class Bean {
+          private int shown;
+          private int hidden;
+
+          public int getShown() { return shown; }
+          public void setShown(int shown) { this.shown = shown; }
+
+          int getHidden() { return hidden; }
+          void setHidden(int hidden) { this.hidden = hidden; }
+        }
+
+        public static Containers create() {
+          Map<String, Integer> counts = new LinkedHashMap<>();
+          counts.put("a", 1);
+          counts.put("b", 2);
+          counts.put("skipped", null);
+
+          CompoundTag extra = BinaryTags.compoundTag();
+          extra.putString("key", "value");
+
+          return new Containers(
+              counts,
+              Map.of("home", new Point(1, 2)),
+              List.of(List.of("a", "b"), List.of(), List.of("c")),
+              Map.of("main", Set.of(Mode.CREATIVE)),
+              List.of(Map.of("kills", 4L)),
+              Map.of("data", extra)
+          );
+        }
+      }
+      """;
+
+  static final String INVALID = """
+      package sample;
+
+      @net.forthecrown.nbt.codec.GenerateCodec
+      public record Invalid(Object value) {}
+      """;
+
+  static final String INVALID_MAP = """
+      package sample;
+
+      @net.forthecrown.nbt.codec.GenerateCodec
+      public record InvalidMap(java.util.Map<Integer, String> value) {}
+      """;
+
+  @Test
+  void generate(@TempDir Path dir) throws Exception {
+    assertTrue(compile(dir, "sample.Sample", SAMPLE).isEmpty());
+    assertTrue(Files.exists(dir.resolve("sample/SampleCodec.class")));
+    assertTrue(Files.exists(dir.resolve("sample/Sample_SettingsCodec.class")));
+
+    try (var loader = new URLClassLoader(new URL[] { dir.toUri().toURL() })) {
+      Class<?> type = loader.loadClass("sample.Sample");
+      Object value = type.getMethod("create").invoke(null);
+
+      @SuppressWarnings("unchecked")
+      TagCodec<Object> codec = (TagCodec<Object>) TagCodec.of(type);
+      assertEquals("sample.SampleCodec", codec.getClass().getName());
+
+      CompoundTag tag = codec.encode(value);
+      assertEquals(12, tag.getInt("level"));
+      assertEquals('x', tag.getInt("letter"));
+      assertEquals("CREATIVE", tag.getString("mode"));
+      assertEquals(BinaryTags.saveUuid(new UUID(1L, 2L)), tag.get("id"));
+      assertEquals(0.5D, tag.getCompound("settings").getDouble("volume"));
+      assertTrue(tag.getCompound("settings").getBoolean("muted"));
+      assertEquals(2, tag.getList("tags").size());
+      assertEquals(0, tag.getList("history").size());
+      assertFalse(tag.contains("boxed"));
+
+      assertEquals(tag, codec.encode(codec.decode(tag)));
+      assertEquals(tag, readStreamed(codec, value));
+    }
+  }
+
+  @Test
+  void generateContainers(@TempDir Path dir) throws Exception {
+    assertTrue(compile(dir, "sample.Containers", CONTAINERS).isEmpty());
+
+    try (var loader = new URLClassLoader(new URL[] { dir.toUri().toURL() })) {
+      Class<?> type = loader.loadClass("sample.Containers");
+      Object value = type.getMethod("create").invoke(null);
+
+      @SuppressWarnings("unchecked")
+      TagCodec<Object> codec = (TagCodec<Object>) TagCodec.of(type);
+      assertEquals("sample.ContainersCodec", codec.getClass().getName());
+
+      CompoundTag tag = codec.encode(value);
+      CompoundTag counts = tag.getCompound("counts");
+      assertEquals(2, counts.size());
+      assertEquals(2, counts.getInt("b"));
+      assertEquals(2, tag.getCompound("points").getCompound("home").getInt("y"));
+      assertEquals(3, tag.getList("rows").size());
+      assertEquals(
+          BinaryTags.stringTag("CREATIVE"),
+          tag.getCompound("modes").getList("main").get(0)
+      );
+      assertEquals(
+          4L,
+          tag.getList("stats").get(0).asCompound().getLong("kills")
+      );
+      assertEquals(
+          "value",
+          tag.getCompound("extra").getCompound("data").getString("key")
+      );
+
+      assertEquals(tag, codec.encode(codec.decode(tag)));
+      assertEquals(tag, readStreamed(codec, value));
+
+      // Only public accessors are properties, like the reflective codecs
+      @SuppressWarnings("unchecked")
+      TagCodec<Object> beanCodec = (TagCodec<Object>) TagCodec.of(
+          loader.loadClass("sample.Containers$Bean")
+      );
+      assertEquals("sample.Containers_BeanCodec", beanCodec.getClass().getName());
+
+      CompoundTag bean = beanCodec.encode(
+          loader.loadClass("sample.Containers$Bean")
+              .getConstructor()
+              .newInstance()
+      );
+      assertTrue(bean.contains("shown"));
+      assertFalse(bean.contains("hidden"));
+    }
+  }
+
+  @Test
+  void unsupportedType(@TempDir Path dir) throws Exception {
+    List<String> errors = compile(dir, "sample.Invalid", INVALID);
+
+    assertEquals(1, errors.size());
+    assertTrue(errors.get(0).contains("Unsupported property type"));
+  }
+
+  @Test
+  void unsupportedMapKey(@TempDir Path dir) {
+    List<String> errors = compile(dir, "sample.InvalidMap", INVALID_MAP);
+
+    assertEquals(1, errors.size());
+    assertTrue(errors.get(0).contains("String keys"));
+  }
+
+  static CompoundTag readStreamed(TagCodec<Object> codec, Object value)
+      throws IOException
+  {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream output = new DataOutputStream(bytes);
+
+    output.writeByte(TypeIds.COMPOUND);
+    output.writeUTF("");
+    codec.write(value, output);
+
+    return BinaryTags.read(new ByteArrayInputStream(bytes.toByteArray()));
+  }
+
+  static List<String> compile(Path dir, String name, String source) {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+    JavaFileObject file = new SimpleJavaFileObject(
+        URI.create("string:///" + name.replace('.', '/') + ".java"),
+        JavaFileObject.Kind.SOURCE
+    ) {
+      @Override
+      public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+        return source;
+      }
+    };
+
+    List<String> options = List.of(
+        "-d", dir.toString(),
+        "-classpath", System.getProperty("java.class.path"),
+        "-processor", CodecProcessor.class.getName()
+    );
+
+    compiler.getTask(null, null, diagnostics, options, null, List.of(file))
+        .call();
+
+    return diagnostics.getDiagnostics()
+        .stream()
+        .filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+        .map(d -> d.getMessage(null))
+        .toList();
+  }
+}
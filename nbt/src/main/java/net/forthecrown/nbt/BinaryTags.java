@@ -131,6 +131,44 @@ public class BinaryTags {
     return new CompoundTagImpl(tags);
   }
 
+  /**
+   * Creates a new {@link ConcurrentCompoundTag} with non-concurrent nested
+   * compounds
+   * @return created tag
+   */
+  public static ConcurrentCompoundTag concurrentCompoundTag() {
+    return concurrentCompoundTag(false);
+  }
+
+  /**
+   * Creates a new {@link ConcurrentCompoundTag}
+   * @param nestedConcurrent {@code true}, to make compounds created by the tag
+   *                         concurrent as well
+   * @return created tag
+   * @see ConcurrentCompoundTag#isNestedConcurrent()
+   */
+  public static ConcurrentCompoundTag concurrentCompoundTag(
+      boolean nestedConcurrent
+  ) {
+    return new ConcurrentCompoundTagImpl(nestedConcurrent);
+  }
+
+  /**
+   * Creates a {@link ConcurrentCompoundTag} deep copy of the specified
+   * {@code source}
+   *
+   * @param source Tag to copy
+   * @param nestedConcurrent {@code true}, to make every nested compound in the
+   *                         created tag concurrent
+   * @return created tag
+   */
+  public static ConcurrentCompoundTag concurrentCompoundTag(
+      CompoundTag source,
+      boolean nestedConcurrent
+  ) {
+    return ConcurrentCompoundTagImpl.copyOf(source, nestedConcurrent);
+  }
+
   /**
    * Creates an empty byte array tag
    * @return created tag
@@ -262,6 +300,29 @@ public class BinaryTags {
     return listTag(Arrays.asList(values));
   }
 
+  /**
+   * Creates an empty {@link ColumnarListTag}
+   * @return new list tag
+   */
+  public static ColumnarListTag columnarList() {
+    return new ColumnarListTagImpl();
+  }
+
+  /**
+   * Creates a new {@link ColumnarListTag} holding the compounds of the
+   * specified list.
+   * <p>
+   * The values of the compounds are copied into the created list's columns,
+   * the compounds themselves are not kept. If the specified list doesn't hold
+   * compounds, the created list is empty.
+   *
+   * @param source List to copy the compounds of
+   * @return created tag
+   */
+  public static ColumnarListTag columnarList(ListTag source) {
+    return new ColumnarListTagImpl(source);
+  }
+
   /**
    * Creates a new list {@link ListTag} with the specified double values
    * @param values Values to add to the created list
@@ -437,6 +498,21 @@ public class BinaryTags {
     TagIo.tagIo().write(outputStream, tag);
   }
 
+  /**
+   * Writes the specified {@code tag} to the {@code outputStream}, encoding
+   * large compounds and lists in parallel on the common fork join pool
+   *
+   * @param outputStream Stream to write to
+   * @param tag Tag to write
+   * @throws IOException If an IO error occurs
+   * @see TagIo#writeParallel(OutputStream, CompoundTag)
+   */
+  public static void writeParallel(OutputStream outputStream, CompoundTag tag)
+      throws IOException
+  {
+    TagIo.tagIo().writeParallel(outputStream, tag);
+  }
+
   /**
    * Compresses the {@code outputStream} and then writes the specified
    * {@code tag} to it.
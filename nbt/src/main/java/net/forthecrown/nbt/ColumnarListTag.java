@@ -0,0 +1,66 @@
+package net.forthecrown.nbt;
+
+import java.util.Set;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A list of compound tags that stores each name as a column instead of
+ * storing a hash map per compound.
+ * <p>
+ * Byte, short and int values are stored in {@code int[]} columns, longs in
+ * {@code long[]} columns, floats and doubles in {@code double[]} columns and
+ * strings are dictionary encoded, each distinct string is stored once and
+ * rows store an index into the dictionary. Any other value, or a name mapped
+ * to values of different types, is stored in a column of tags. This makes the
+ * list much smaller when it holds many compounds with the same names, and
+ * lets scans over a single name run over a primitive array:
+ * <pre>
+ * ColumnarListTag items = BinaryTags.columnarList(inventory);
+ * TagColumn count = items.column("Count");
+ * int total = count == null ? 0 : count.ints().sum();
+ * </pre>
+ * <p>
+ * This list only holds compound tags, other tags are not added. Compounds
+ * added to the list are not kept, their values are copied into the columns.
+ * Changes made to a compound after adding it are not reflected in the list.
+ * Nested compounds, lists and arrays are stored as they are, not copied.
+ * <p>
+ * The compounds returned by {@link #get(int)} are lightweight views of a
+ * single row, reading and writing them reads and writes the columns. A view
+ * is bound to an index, not a compound, so after rows before it are added or
+ * removed, it views a different row.
+ * <p>
+ * The list's type is {@link TagTypes#listType()}, so it's written and read as
+ * an ordinary list of compounds, in both binary and SNBT form.
+ *
+ * @see BinaryTags#columnarList()
+ * @see BinaryTags#columnarList(ListTag)
+ */
+public interface ColumnarListTag extends ListTag {
+
+  /**
+   * Gets the names of the columns that have a value in at least 1 row
+   * @return Column names, in the order the names were first added
+   */
+  @NotNull Set<String> columnNames();
+
+  /**
+   * Gets the column with the specified {@code name}
+   * @param name Column name
+   * @return Column, or {@code null}, if no row has a value with the
+   *         specified name
+   */
+  @Nullable TagColumn column(String name);
+
+  /**
+   * Produces a copy of this list.
+   * <p>
+   * Primitive and string columns are copied as arrays, tags in other columns
+   * are copied with {@link BinaryTag#copy()}.
+   *
+   * @return Copied list
+   */
+  @Override
+  ColumnarListTag copy();
+}
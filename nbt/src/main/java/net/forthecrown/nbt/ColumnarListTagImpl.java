@@ -0,0 +1,377 @@
+package net.forthecrown.nbt;
+
+import it.unimi.dsi.fastutil.objects.AbstractObjectList;
+import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+class ColumnarListTagImpl
+    extends AbstractObjectList<BinaryTag>
+    implements ColumnarListTag, RandomAccess
+{
+  static final int DEFAULT_CAPACITY = 10;
+
+  final Map<String, TagColumnImpl> columns
+      = new Object2ObjectLinkedOpenHashMap<>();
+
+  private int size;
+  private int capacity;
+
+  public ColumnarListTagImpl() {
+  }
+
+  public ColumnarListTagImpl(ListTag source) {
+    ensureCapacity(source.size());
+    addAll(source);
+  }
+
+  @Override
+  public @NotNull TagType<? extends BinaryTag> getType() {
+    return TagTypes.listType();
+  }
+
+  private void ensureCapacity(int minCapacity) {
+    if (minCapacity <= capacity) {
+      return;
+    }
+
+    int newCapacity = Math.max(
+        minCapacity,
+        Math.max(DEFAULT_CAPACITY, capacity + (capacity >> 1))
+    );
+
+    for (TagColumnImpl column: columns.values()) {
+      column.grow(newCapacity);
+    }
+
+    capacity = newCapacity;
+  }
+
+  /* ----------------------------- COLUMNS ----------------------------- */
+
+  @Override
+  public @NotNull Set<String> columnNames() {
+    Set<String> names = new LinkedHashSet<>();
+
+    for (TagColumnImpl column: columns.values()) {
+      if (column.count > 0) {
+        names.add(column.name);
+      }
+    }
+
+    return Collections.unmodifiableSet(names);
+  }
+
+  @Override
+  public @Nullable TagColumn column(String name) {
+    TagColumnImpl column = columns.get(name);
+    return column == null || column.count == 0 ? null : column;
+  }
+
+  /* ------------------------------- ROWS ------------------------------- */
+
+  BinaryTag getValue(int row, Object name) {
+    TagColumnImpl column = columns.get(name);
+
+    if (column == null || !column.present.get(row)) {
+      return null;
+    }
+
+    return column.load(row);
+  }
+
+  BinaryTag setValue(int row, String name, BinaryTag value) {
+    TagColumnImpl column = columns.get(name);
+
+    if (column == null || column.count == 0) {
+      column = TagColumnImpl.create(name, this, value.getId(), capacity);
+      columns.put(name, column);
+    } else if (!column.accepts(value)) {
+      column = TagColumnImpl.toObjectColumn(column, capacity);
+      columns.put(name, column);
+    }
+
+    BinaryTag previous = column.present.get(row) ? column.load(row) : null;
+    column.set(row, value);
+    return previous;
+  }
+
+  BinaryTag removeValue(int row, Object name) {
+    TagColumnImpl column = columns.get(name);
+
+    if (column == null || !column.present.get(row)) {
+      return null;
+    }
+
+    BinaryTag previous = column.load(row);
+    column.clear(row);
+    return previous;
+  }
+
+  int rowSize(int row) {
+    int result = 0;
+
+    for (TagColumnImpl column: columns.values()) {
+      if (column.present.get(row)) {
+        result++;
+      }
+    }
+
+    return result;
+  }
+
+  void clearRow(int row) {
+    for (TagColumnImpl column: columns.values()) {
+      column.clear(row);
+    }
+  }
+
+  /** Copies a row into a regular compound, without copying the values */
+  CompoundTag detachRow(int row) {
+    CompoundTag result = new CompoundTagImpl(rowSize(row));
+
+    for (TagColumnImpl column: columns.values()) {
+      if (column.present.get(row)) {
+        result.put(column.name, column.load(row));
+      }
+    }
+
+    return result;
+  }
+
+  private void writeRow(int row, CompoundTag tag) {
+    for (var e: tag.entrySet()) {
+      BinaryTag value = e.getValue();
+
+      // Same as when written, end tags are not values
+      if (value == null || value.getId() == TypeIds.END) {
+        continue;
+      }
+
+      setValue(row, e.getKey(), value);
+    }
+  }
+
+  private CompoundTag toRow(BinaryTag tag) {
+    if (!(tag instanceof CompoundTag compound)) {
+      return null;
+    }
+
+    // Rows of this list change as the list is modified, so detach them first
+    if (compound instanceof ColumnarRow r && r.owner == this) {
+      return detachRow(r.row);
+    }
+
+    return compound;
+  }
+
+  /* ------------------------------- LIST ------------------------------- */
+
+  @Override
+  public TagType<? extends BinaryTag> listType() {
+    return isEmpty() ? null : TagTypes.compoundType();
+  }
+
+  @Override
+  public boolean typeMatches(TagType<?> type) {
+    return type.getId() == TypeIds.COMPOUND;
+  }
+
+  @Override
+  public <T extends BinaryTag> T get(int index, TagType<T> type) {
+    Objects.checkIndex(index, size);
+
+    if (!typeMatches(type)) {
+      return null;
+    }
+
+    @SuppressWarnings("unchecked") // Every element is a compound
+    T result = (T) get(index);
+    return result;
+  }
+
+  @Override
+  public ListTag merge(ListTag other) {
+    addAll(other);
+    return this;
+  }
+
+  @Override
+  public BinaryTag get(int index) {
+    Objects.checkIndex(index, size);
+    return new ColumnarRow(this, index);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean add(BinaryTag tag) {
+    Objects.requireNonNull(tag);
+    CompoundTag row = toRow(tag);
+
+    if (row == null) {
+      return false;
+    }
+
+    ensureCapacity(size + 1);
+    writeRow(size++, row);
+    return true;
+  }
+
+  @Override
+  public void add(int index, BinaryTag tag) {
+    Objects.requireNonNull(tag);
+    Objects.checkIndex(index, size + 1);
+    CompoundTag row = toRow(tag);
+
+    if (row == null) {
+      return;
+    }
+
+    ensureCapacity(size + 1);
+
+    for (TagColumnImpl column: columns.values()) {
+      column.insertRow(index, size);
+    }
+
+    size++;
+    writeRow(index, row);
+  }
+
+  @Override
+  public BinaryTag set(int index, BinaryTag tag) {
+    Objects.requireNonNull(tag);
+    Objects.checkIndex(index, size);
+    CompoundTag row = toRow(tag);
+
+    if (row == null) {
+      return null;
+    }
+
+    CompoundTag previous = detachRow(index);
+    clearRow(index);
+    writeRow(index, row);
+
+    return previous;
+  }
+
+  @Override
+  public BinaryTag remove(int index) {
+    Objects.checkIndex(index, size);
+    CompoundTag previous = detachRow(index);
+
+    for (TagColumnImpl column: columns.values()) {
+      column.removeRow(index, size);
+    }
+
+    size--;
+    return previous;
+  }
+
+  @Override
+  public void clear() {
+    columns.clear();
+    size = 0;
+    capacity = 0;
+  }
+
+  @Override
+  public void forEachTag(@NotNull Consumer<BinaryTag> consumer) {
+    for (int i = 0; i < size; i++) {
+      consumer.accept(get(i));
+    }
+  }
+
+  @Override
+  public boolean addTag(BinaryTag tag) {
+    return add(tag);
+  }
+
+  @Override
+  public void removeTag(int index) {
+    remove(index);
+  }
+
+  @Override
+  public BinaryTag getTag(int index) {
+    return get(index);
+  }
+
+  @Override
+  public boolean setTag(int index, BinaryTag newTag) {
+    if (!(newTag instanceof CompoundTag)) {
+      return false;
+    }
+
+    set(index, newTag);
+    return true;
+  }
+
+  @Override
+  public int removeMatchingTags(Predicate<BinaryTag> filter) {
+    int removed = 0;
+    int i = 0;
+
+    while (i < size) {
+      if (!filter.test(get(i))) {
+        i++;
+        continue;
+      }
+
+      removed++;
+      remove(i);
+    }
+
+    return removed;
+  }
+
+  @Override
+  public ColumnarListTag copy() {
+    ColumnarListTagImpl result = new ColumnarListTagImpl();
+    result.size = size;
+    result.capacity = capacity;
+
+    for (TagColumnImpl column: columns.values()) {
+      if (column.count > 0) {
+        result.columns.put(column.name, column.copy(result));
+      }
+    }
+
+    return result;
+  }
+
+  @Override
+  public ListTag copyParallel() {
+    return copy();
+  }
+
+  @Override
+  public ListTag copyParallel(ForkJoinPool pool) {
+    return copy();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    return o instanceof ListTag && super.equals(o);
+  }
+
+  @Override
+  public String toString() {
+    return toNbtString();
+  }
+}
@@ -0,0 +1,227 @@
+package net.forthecrown.nbt;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Compound view of a single row of a {@link ColumnarListTagImpl}. Reads and
+ * writes go straight to the list's columns
+ * @see ColumnarListTag#get(int)
+ */
+class ColumnarRow
+    extends AbstractMap<String, BinaryTag>
+    implements CompoundTag
+{
+
+  final ColumnarListTagImpl owner;
+  final int row;
+
+  private Set<Entry<String, BinaryTag>> entrySet;
+
+  ColumnarRow(ColumnarListTagImpl owner, int row) {
+    this.owner = owner;
+    this.row = row;
+  }
+
+  @Override
+  public @NotNull TagType<? extends BinaryTag> getType() {
+    return TagTypes.compoundType();
+  }
+
+  private TagColumnImpl column(String name) {
+    return owner.columns.get(name);
+  }
+
+  /* ------------------------------ READING ------------------------------- */
+
+  @Override
+  public int size() {
+    return owner.rowSize(row);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return owner.getValue(row, key) != null;
+  }
+
+  @Override
+  public BinaryTag get(Object key) {
+    return owner.getValue(row, key);
+  }
+
+  @Override
+  public <T extends BinaryTag> @Nullable T get(String name, TagType<T> type) {
+    BinaryTag tag = get(name);
+
+    if (tag == null || tag.getId() != type.getId()) {
+      return null;
+    }
+
+    @SuppressWarnings("unchecked") // Same ID, so the tag is a T
+    T result = (T) tag;
+    return result;
+  }
+
+  @Override
+  public int getInt(String name, int def) {
+    TagColumnImpl column = column(name);
+    return column == null ? def : column.getInt(row, def);
+  }
+
+  @Override
+  public long getLong(String name, long def) {
+    TagColumnImpl column = column(name);
+    return column == null ? def : column.getLong(row, def);
+  }
+
+  @Override
+  public double getDouble(String name, double def) {
+    TagColumnImpl column = column(name);
+    return column == null ? def : column.getDouble(row, def);
+  }
+
+  @Override
+  public String getString(String name, String def) {
+    TagColumnImpl column = column(name);
+    return column == null ? def : column.getString(row, def);
+  }
+
+  @Override
+  public @NotNull Set<Entry<String, BinaryTag>> entrySet() {
+    if (entrySet == null) {
+      entrySet = new AbstractSet<>() {
+        @Override
+        public Iterator<Entry<String, BinaryTag>> iterator() {
+          return new RowIterator();
+        }
+
+        @Override
+        public int size() {
+          return owner.rowSize(row);
+        }
+      };
+    }
+
+    return entrySet;
+  }
+
+  @Override
+  public CompoundTag copy() {
+    CompoundTag result = new CompoundTagImpl(size());
+
+    for (var e: entrySet()) {
+      result.put(e.getKey(), e.getValue().copy());
+    }
+
+    return result;
+  }
+
+  /* ------------------------------ WRITING ------------------------------- */
+
+  @Override
+  public CompoundTag merge(CompoundTag source) {
+    for (var e: source.entrySet()) {
+      if (e.getValue() instanceof CompoundTag compoundTag) {
+        CompoundTag ours = getCompound(e.getKey());
+        ours.merge(compoundTag);
+
+        put(e.getKey(), ours);
+        continue;
+      }
+
+      put(e.getKey(), e.getValue());
+    }
+
+    return this;
+  }
+
+  @Override
+  public BinaryTag put(String key, BinaryTag value) {
+    Objects.requireNonNull(key);
+    Objects.requireNonNull(value);
+    return owner.setValue(row, key, value);
+  }
+
+  @Override
+  public BinaryTag remove(Object key) {
+    return owner.removeValue(row, key);
+  }
+
+  @Override
+  public void clear() {
+    owner.clearRow(row);
+  }
+
+  /* ------------------------------- OBJECT ------------------------------- */
+
+  @Override
+  public boolean equals(Object o) {
+    if (!(o instanceof CompoundTag)) {
+      return false;
+    }
+    return super.equals(o);
+  }
+
+  @Override
+  public String toString() {
+    return toNbtString();
+  }
+
+  private class RowIterator implements Iterator<Entry<String, BinaryTag>> {
+    private final Iterator<TagColumnImpl> columns
+        = owner.columns.values().iterator();
+
+    private TagColumnImpl next;
+    private String last;
+
+    @Override
+    public boolean hasNext() {
+      while (next == null && columns.hasNext()) {
+        TagColumnImpl column = columns.next();
+
+        if (column.present.get(row)) {
+          next = column;
+        }
+      }
+
+      return next != null;
+    }
+
+    @Override
+    public Entry<String, BinaryTag> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+
+      String name = next.name;
+      BinaryTag value = next.load(row);
+
+      next = null;
+      last = name;
+
+      return new SimpleEntry<>(name, value) {
+        @Override
+        public BinaryTag setValue(BinaryTag value) {
+          super.setValue(value);
+          return put(name, value);
+        }
+      };
+    }
+
+    @Override
+    public void remove() {
+      if (last == null) {
+        throw new IllegalStateException();
+      }
+
+      ColumnarRow.this.remove(last);
+      last = null;
+    }
+  }
+}
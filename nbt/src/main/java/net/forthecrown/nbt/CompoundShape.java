@@ -0,0 +1,205 @@
+package net.forthecrown.nbt;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The names of a {@link ShapedCompoundTag}, in the order they were added.
+ * <p>
+ * Shared shapes belong to a {@link CompoundShapes} registry and are
+ * immutable, apart from their transition caches. A compound whose shape
+ * can't be shared, because the registry is full or the shape would be too
+ * large, gets an owned shape, which it modifies in place.
+ */
+final class CompoundShape {
+
+  /**
+   * Shapes with more names than this look names up with a hash map instead
+   * of a linear scan
+   */
+  static final int INDEX_THRESHOLD = 8;
+
+  final CompoundShapes registry;
+  final boolean shared;
+
+  String[] keys;
+  int size;
+
+  private Object2IntOpenHashMap<String> index;
+
+  private volatile Map<String, CompoundShape> added;
+  private volatile Map<String, CompoundShape> removed;
+
+  /** Creates a shared shape */
+  CompoundShape(CompoundShapes registry, String[] keys) {
+    this.registry = registry;
+    this.shared = true;
+    this.keys = keys;
+    this.size = keys.length;
+
+    if (size > INDEX_THRESHOLD) {
+      index = createIndex();
+    }
+  }
+
+  /** Creates an owned copy of a shape */
+  private CompoundShape(CompoundShape source) {
+    this.registry = source.registry;
+    this.shared = false;
+    this.keys = Arrays.copyOf(source.keys, Math.max(source.size, 4));
+    this.size = source.size;
+    this.index = createIndex();
+  }
+
+  private Object2IntOpenHashMap<String> createIndex() {
+    Object2IntOpenHashMap<String> result = new Object2IntOpenHashMap<>(size);
+    result.defaultReturnValue(-1);
+
+    for (int i = 0; i < size; i++) {
+      result.put(keys[i], i);
+    }
+
+    return result;
+  }
+
+  int indexOf(Object key) {
+    if (index != null) {
+      return index.getInt(key);
+    }
+
+    for (int i = 0; i < size; i++) {
+      String k = keys[i];
+
+      if (k == key || k.equals(key)) {
+        return i;
+      }
+    }
+
+    return -1;
+  }
+
+  /**
+   * Creates an owned copy of this shape
+   */
+  CompoundShape toOwned() {
+    return new CompoundShape(this);
+  }
+
+  /* --------------------------- TRANSITIONS ---------------------------- */
+
+  /**
+   * Gets the shared shape with the specified {@code key} added to the end of
+   * this shape. The key must not already be in this shape
+   * @return Shape, or {@code null}, if the shape can't be shared
+   */
+  CompoundShape withKey(String key) {
+    Map<String, CompoundShape> added = this.added;
+
+    if (added != null) {
+      CompoundShape cached = added.get(key);
+
+      if (cached != null) {
+        return cached;
+      }
+    }
+
+    if (size >= CompoundShapes.MAX_SHAPE_SIZE) {
+      return null;
+    }
+
+    String[] newKeys = Arrays.copyOf(keys, size + 1);
+    newKeys[size] = key;
+
+    CompoundShape result = registry.shape(newKeys);
+
+    if (result != null) {
+      addedTransitions().putIfAbsent(key, result);
+    }
+
+    return result;
+  }
+
+  /**
+   * Gets the shared shape with the key at the specified {@code index}
+   * removed from this shape
+   * @return Shape, or {@code null}, if the shape can't be shared
+   */
+  CompoundShape withoutKey(int index) {
+    String key = keys[index];
+    Map<String, CompoundShape> removed = this.removed;
+
+    if (removed != null) {
+      CompoundShape cached = removed.get(key);
+
+      if (cached != null) {
+        return cached;
+      }
+    }
+
+    String[] newKeys = new String[size - 1];
+    System.arraycopy(keys, 0, newKeys, 0, index);
+    System.arraycopy(keys, index + 1, newKeys, index, size - index - 1);
+
+    CompoundShape result = registry.shape(newKeys);
+
+    if (result != null) {
+      removedTransitions().putIfAbsent(key, result);
+    }
+
+    return result;
+  }
+
+  private Map<String, CompoundShape> addedTransitions() {
+    if (added == null) {
+      synchronized (this) {
+        if (added == null) {
+          added = new ConcurrentHashMap<>();
+        }
+      }
+    }
+
+    return added;
+  }
+
+  private Map<String, CompoundShape> removedTransitions() {
+    if (removed == null) {
+      synchronized (this) {
+        if (removed == null) {
+          removed = new ConcurrentHashMap<>();
+        }
+      }
+    }
+
+    return removed;
+  }
+
+  /* ------------------------- OWNED SHAPES -------------------------- */
+
+  /** Adds a key to the end of an owned shape */
+  void add(String key) {
+    if (size == keys.length) {
+      keys = Arrays.copyOf(keys, size * 2);
+    }
+
+    index.put(key, size);
+    keys[size++] = key;
+  }
+
+  /** Removes the key at an index of an owned shape */
+  void removeAt(int i) {
+    index.removeInt(keys[i]);
+    System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+    keys[--size] = null;
+
+    for (int j = i; j < size; j++) {
+      index.put(keys[j], j);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "CompoundShape" + Arrays.toString(Arrays.copyOf(keys, size));
+  }
+}
@@ -0,0 +1,181 @@
+package net.forthecrown.nbt;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A thread-safe, size bounded registry of compound shapes.
+ * <p>
+ * A shape is the ordered set of names in a compound. Compounds created by a
+ * registry, or decoded with one (see
+ * {@link net.forthecrown.nbt.io.TagIo#withShapes(CompoundShapes)}), don't
+ * store a hash table of their own, they store a reference to a shape shared
+ * by every compound with the same names, and an array of values. When many
+ * compounds have the same names, like the entities or items of a world, this
+ * uses much less memory than a hash map per compound.
+ * <p>
+ * Adding or removing a name from a shaped compound moves it to another
+ * shape. These transitions are cached by the shape, so building many
+ * compounds the same way only looks the resulting shapes up once.
+ * <p>
+ * Shapes are ordered: compounds with the same names added, or decoded, in a
+ * different order have different shapes, so {@code {a, b}} and
+ * {@code {b, a}} are two shapes in the registry. The compounds are still
+ * equal, the order only affects how many shapes are created. Data written by
+ * the same code usually has a consistent order, but compounds whose names
+ * come in varying orders use up more of the registry, and may reach
+ * {@link #getMaxShapes()} sooner.
+ * <p>
+ * Once the registry holds {@link #getMaxShapes()} shapes, no new shapes are
+ * created. Compounds decoded with a full registry that don't match an
+ * existing shape are decoded as regular compounds, and shaped compounds that
+ * can't transition to a new shape switch to a shape of their own, which isn't
+ * shared. The same happens to compounds with more than
+ * {@link #MAX_SHAPE_SIZE} names.
+ * <p>
+ * Shaped compounds behave exactly like regular compounds, and are written as
+ * regular compounds. Like regular compounds, they are not thread-safe, only
+ * the registry is.
+ * <pre>
+ * CompoundShapes shapes = CompoundShapes.create(4096);
+ * TagIo io = TagIo.tagIo().withShapes(shapes);
+ *
+ * for (Path file: entityFiles) {
+ *   entities.add(io.readCompressed(Files.newInputStream(file)));
+ * }
+ * </pre>
+ */
+public final class CompoundShapes {
+
+  /**
+   * Default maximum amount of shapes
+   */
+  public static final int DEFAULT_MAX_SHAPES = 4096;
+
+  /**
+   * Maximum amount of names in a shared shape
+   */
+  public static final int MAX_SHAPE_SIZE = 64;
+
+  private final int maxShapes;
+  private final Map<List<String>, CompoundShape> shapes;
+
+  final CompoundShape empty;
+
+  private CompoundShapes(int maxShapes) {
+    this.maxShapes = maxShapes;
+    this.shapes = new ConcurrentHashMap<>();
+
+    this.empty = new CompoundShape(this, new String[0]);
+    shapes.put(List.of(), empty);
+  }
+
+  /**
+   * Creates a new registry
+   * @param maxShapes Maximum amount of shapes the registry holds
+   * @return Created registry
+   * @throws IllegalArgumentException If {@code maxShapes} is less than 1
+   */
+  public static CompoundShapes create(int maxShapes) {
+    if (maxShapes < 1) {
+      throw new IllegalArgumentException("Max shapes must be at least 1");
+    }
+
+    return new CompoundShapes(maxShapes);
+  }
+
+  /**
+   * Gets the shared shape with the specified names, in the specified order,
+   * creating it if it doesn't exist
+   * @return Found shape, or {@code null}, if the registry is full
+   */
+  CompoundShape shape(String[] keys) {
+    if (keys.length > MAX_SHAPE_SIZE) {
+      return null;
+    }
+
+    List<String> key = List.of(keys);
+    CompoundShape shape = shapes.get(key);
+
+    if (shape != null || shapes.size() >= maxShapes) {
+      return shape;
+    }
+
+    // Concurrent misses may take the size slightly above the maximum, that's
+    // fine, the bound is only there to stop unbounded growth
+    return shapes.computeIfAbsent(key, k -> new CompoundShape(this, keys));
+  }
+
+  /**
+   * Creates a new empty compound that shares its shapes with other compounds
+   * created by this registry
+   * @return Created compound
+   */
+  public @NotNull CompoundTag compoundTag() {
+    return new ShapedCompoundTag(empty);
+  }
+
+  /**
+   * Creates a shaped copy of the specified {@code tag}. Nested compounds are
+   * copied into shaped compounds as well
+   *
+   * @param tag Tag to copy
+   * @return Copied tag
+   */
+  public @NotNull CompoundTag copyOf(@NotNull CompoundTag tag) {
+    CompoundTag result = compoundTag();
+
+    for (var e: tag.entrySet()) {
+      result.put(e.getKey(), copyValue(e.getValue()));
+    }
+
+    return result;
+  }
+
+  private BinaryTag copyValue(BinaryTag tag) {
+    if (tag instanceof CompoundTag compound) {
+      return copyOf(compound);
+    }
+
+    if (!(tag instanceof ListTag list)
+        || list.listType() == null
+        || list.listType().getId() != TypeIds.COMPOUND
+    ) {
+      return tag.copy();
+    }
+
+    ListTag result = BinaryTags.listTag();
+
+    for (BinaryTag element: list) {
+      result.add(copyOf(element.asCompound()));
+    }
+
+    return result;
+  }
+
+  /**
+   * Gets the amount of shapes in this registry
+   * @return Shape count
+   */
+  public int size() {
+    return shapes.size();
+  }
+
+  /**
+   * Gets the maximum amount of shapes this registry holds
+   * @return Max shapes
+   */
+  public int getMaxShapes() {
+    return maxShapes;
+  }
+
+  @Override
+  public String toString() {
+    return "CompoundShapes{"
+        + "size=" + size()
+        + ", maxShapes=" + maxShapes
+        + "}";
+  }
+}
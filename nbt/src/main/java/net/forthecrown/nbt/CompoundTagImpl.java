@@ -33,6 +33,12 @@ class CompoundTagImpl
 
     @Override
     public CompoundTag read(ScopedDataInput input) throws IOException {
+      CompoundShapes shapes = input.shapes();
+
+      if (shapes != null) {
+        return ShapedCompoundTag.read(input, shapes);
+      }
+
       CompoundTag tag = new CompoundTagImpl();
       input.enterScope();
 
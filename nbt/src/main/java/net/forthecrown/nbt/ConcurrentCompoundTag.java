@@ -0,0 +1,81 @@
+package net.forthecrown.nbt;
+
+import java.util.concurrent.ConcurrentMap;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link CompoundTag} that can be safely read and modified by multiple
+ * threads at once.
+ * <p>
+ * Reads never block, and the {@link ConcurrentMap} methods, like
+ * {@link #compute(Object, java.util.function.BiFunction)} and
+ * {@link #merge(Object, Object, java.util.function.BiFunction)}, are atomic.
+ * {@link #merge(CompoundTag)} is atomic per mapping, not for the entire
+ * source compound.
+ * <p>
+ * Iterating over this compound never throws a
+ * {@link java.util.ConcurrentModificationException}. Iterators are weakly
+ * consistent: they see every mapping that existed when iteration began and
+ * wasn't removed during it, and may or may not see changes made during
+ * iteration. This means a concurrent compound can be serialized while other
+ * threads keep modifying it. For a copy that isn't affected by later changes,
+ * use {@link #snapshot()}.
+ * <p>
+ * Only the mappings of this compound are thread-safe, the tags themselves are
+ * not. If nested compounds are concurrent (see {@link #isNestedConcurrent()}),
+ * compounds this tag creates with {@link #getOrCreateCompound(String)},
+ * {@link #merge(CompoundTag)} or {@link #copy()} are concurrent as well.
+ * Compounds placed into this tag with {@code put} are stored as they are.
+ * <p>
+ * Like {@link java.util.concurrent.ConcurrentHashMap}, {@code null} names and
+ * values are not allowed.
+ *
+ * @see BinaryTags#concurrentCompoundTag()
+ */
+public interface ConcurrentCompoundTag
+    extends CompoundTag, ConcurrentMap<String, BinaryTag>
+{
+
+  /**
+   * Tests if compounds created by this tag are concurrent as well
+   * @return {@code true}, if nested compounds are concurrent
+   */
+  boolean isNestedConcurrent();
+
+  /**
+   * Gets the compound mapped to the specified {@code name}, or atomically maps
+   * a new empty compound to it.
+   * <p>
+   * Unlike {@link #getCompound(String)}, which returns a detached compound
+   * when there's no mapping, the returned compound is always contained in
+   * this tag, so multiple threads calling this method get the same compound.
+   * Non-compound values mapped to {@code name} are replaced.
+   *
+   * @param name Name of the mapping
+   * @return Mapped compound
+   */
+  @NotNull CompoundTag getOrCreateCompound(String name);
+
+  /**
+   * Produces a copy of this tag that is not affected by later changes to this
+   * tag.
+   * <p>
+   * The returned tag is a regular, non-concurrent compound. Concurrent
+   * compounds in this tag are snapshotted recursively, all other values are
+   * copied with {@link BinaryTag#copy()}.
+   *
+   * @return Snapshot of this tag
+   */
+  @NotNull CompoundTag snapshot();
+
+  /**
+   * Produces a concurrent deep copy of this tag.
+   * <p>
+   * If nested compounds are concurrent, every compound in the returned tag is
+   * concurrent.
+   *
+   * @return Deep copy of this compound tag
+   */
+  @Override
+  ConcurrentCompoundTag copy();
+}
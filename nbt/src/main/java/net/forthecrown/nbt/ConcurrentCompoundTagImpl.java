@@ -0,0 +1,145 @@
+package net.forthecrown.nbt;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+class ConcurrentCompoundTagImpl
+    extends ConcurrentHashMap<String, BinaryTag>
+    implements ConcurrentCompoundTag
+{
+  private static final long serialVersionUID = 1L;
+
+  private final boolean nestedConcurrent;
+
+  public ConcurrentCompoundTagImpl(boolean nestedConcurrent) {
+    this.nestedConcurrent = nestedConcurrent;
+  }
+
+  public ConcurrentCompoundTagImpl(boolean nestedConcurrent, int expected) {
+    super(expected);
+    this.nestedConcurrent = nestedConcurrent;
+  }
+
+  /**
+   * Creates a concurrent deep copy of the specified {@code source}
+   */
+  static ConcurrentCompoundTag copyOf(CompoundTag source,
+                                      boolean nestedConcurrent
+  ) {
+    var result = new ConcurrentCompoundTagImpl(nestedConcurrent, source.size());
+
+    for (var e: source.entrySet()) {
+      result.put(e.getKey(), result.copyValue(e.getValue()));
+    }
+
+    return result;
+  }
+
+  @Override
+  public @NotNull TagType<? extends BinaryTag> getType() {
+    return CompoundTagImpl.TYPE;
+  }
+
+  @Override
+  public boolean isNestedConcurrent() {
+    return nestedConcurrent;
+  }
+
+  private CompoundTag createNested() {
+    return nestedConcurrent
+        ? new ConcurrentCompoundTagImpl(true)
+        : new CompoundTagImpl();
+  }
+
+  private BinaryTag copyValue(BinaryTag value) {
+    if (nestedConcurrent
+        && value instanceof CompoundTag compound
+        && !(value instanceof ConcurrentCompoundTag)
+    ) {
+      return copyOf(compound, true);
+    }
+
+    return value.copy();
+  }
+
+  @Override
+  public @NotNull CompoundTag getOrCreateCompound(String name) {
+    return (CompoundTag) compute(name, (key, existing) -> {
+      return existing instanceof CompoundTag ? existing : createNested();
+    });
+  }
+
+  @Override
+  public CompoundTag merge(CompoundTag source) {
+    for (var e: source.entrySet()) {
+      if (!(e.getValue() instanceof CompoundTag compoundTag)) {
+        put(e.getKey(), e.getValue());
+        continue;
+      }
+
+      compute(e.getKey(), (key, existing) -> {
+        CompoundTag ours = existing instanceof CompoundTag c
+            ? c
+            : createNested();
+
+        return ours.merge(compoundTag);
+      });
+    }
+
+    return this;
+  }
+
+  @Override
+  public <T extends BinaryTag> @Nullable T get(String name, TagType<T> type) {
+    BinaryTag tag = get(name);
+
+    if (tag == null || tag.getId() != type.getId()) {
+      return null;
+    }
+
+    @SuppressWarnings("unchecked") // Same ID, so the tag is a T
+    T result = (T) tag;
+    return result;
+  }
+
+  @Override
+  public @NotNull CompoundTag snapshot() {
+    CompoundTag result = new CompoundTagImpl(size());
+
+    for (var e: entrySet()) {
+      BinaryTag value = e.getValue();
+
+      result.put(
+          e.getKey(),
+          value instanceof ConcurrentCompoundTag c ? c.snapshot() : value.copy()
+      );
+    }
+
+    return result;
+  }
+
+  @Override
+  public ConcurrentCompoundTag copy() {
+    return copyOf(this, nestedConcurrent);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (!(o instanceof CompoundTag)) {
+      return false;
+    }
+    return super.equals(o);
+  }
+
+  @Override
+  public int hashCode() {
+    return super.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return toNbtString();
+  }
+}
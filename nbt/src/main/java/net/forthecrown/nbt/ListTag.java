@@ -2,6 +2,7 @@ package net.forthecrown.nbt;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import org.jetbrains.annotations.Nullable;
 
 /**
@@ -35,6 +36,52 @@ public interface ListTag extends CollectionTag, List<BinaryTag> {
   @Override
   ListTag copy();
 
+  /**
+   * Creates a read-only view of this list tag.
+   * <p>
+   * The view reflects changes made to this tag, but throws an
+   * {@link UnsupportedOperationException} when it's modified. Structures and
+   * arrays accessed through the view are returned as read-only views as well,
+   * which are only created when accessed, so creating a view doesn't copy or
+   * allocate anything for the rest of the tree.
+   * <p>
+   * Calling {@link #copy()} on the view produces a regular, modifiable deep
+   * copy.
+   *
+   * @return Read-only view of this tag
+   */
+  default ListTag unmodifiableView() {
+    return UnmodifiableTags.view(this);
+  }
+
+  /**
+   * Produces a deep copy of this list tag on the common fork join pool
+   * @return Deep copy of this list tag
+   * @see #copyParallel(ForkJoinPool)
+   */
+  default ListTag copyParallel() {
+    return copyParallel(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Produces a deep copy of this list tag, splitting the work across the
+   * specified {@code pool}.
+   * <p>
+   * Structures with more than a few hundred children are copied in chunks by
+   * separate tasks, and children that are large structures themselves are
+   * copied by their own task. This is only faster than {@link #copy()} for
+   * large trees, and the tag must not be modified while it's being copied.
+   * <p>
+   * Only regular compounds and lists are split, other implementations are
+   * copied with their own {@link #copy()} and keep their implementation.
+   *
+   * @param pool Pool to copy on
+   * @return Deep copy of this list tag
+   */
+  default ListTag copyParallel(ForkJoinPool pool) {
+    return ParallelCopy.copy(this, pool);
+  }
+
   /**
    * Tests if the specified {@code type} matches this list's type
    * @param type Type to test
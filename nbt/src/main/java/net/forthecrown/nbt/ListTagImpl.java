@@ -249,10 +249,10 @@ class ListTagImpl extends AbstractObjectList<BinaryTag> implements ListTag {
     if (this == o) {
       return true;
     }
-    if (!(o instanceof ListTagImpl that)) {
-      return false;
+    if (o instanceof ListTagImpl that) {
+      return list.equals(that.list);
     }
-    return list.equals(that.list);
+    return o instanceof ListTag && list.equals(o);
   }
 
   @Override
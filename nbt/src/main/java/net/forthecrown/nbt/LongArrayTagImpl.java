@@ -96,7 +96,7 @@ class LongArrayTagImpl extends LongArrayList implements LongArrayTag {
 
   @Override
   public BinaryTag getTag(int index) {
-    long l = removeLong(index);
+    long l = getLong(index);
     return BinaryTags.longTag(l);
   }
 
@@ -0,0 +1,171 @@
+package net.forthecrown.nbt;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * A reusable decoder for short-lived trees of binary NBT.
+ * <p>
+ * A decoder owns its input buffer, its string scratch space and pools of
+ * compound and list tags. Compounds and lists are taken from those pools
+ * while decoding, and every one of them is returned to the pools when
+ * {@link #reset()} is called. This makes decoding, inspecting and then
+ * discarding many small trees close to allocation-free for the structures
+ * themselves. Short strings, like compound keys, are also cached per decoder,
+ * so repeated keys and values don't allocate new strings.
+ * <p>
+ * <b>Tags returned by a decoder are only valid until the next {@link #reset()}
+ * call</b>, after which the compounds and lists in them are cleared and
+ * reused. Use {@link BinaryTag#copy()} to keep a decoded tag, or any part of
+ * it, past a reset.
+ * <p>
+ * A decoder keeps every compound and list it decoded reachable until it is
+ * reset, so <b>{@link #reset()} must be called once the decoded tags are no
+ * longer needed</b>, otherwise each decoded tree is retained for the life of
+ * the decoder.
+ * <p>
+ * Decoders are not thread-safe, each thread should use its own decoder:
+ * <pre>
+ * ThreadLocal&lt;NbtDecoder&gt; decoders
+ *     = ThreadLocal.withInitial(NbtDecoder::create);
+ *
+ * NbtDecoder decoder = decoders.get();
+ * CompoundTag tag = decoder.decode(packetData);
+ * inspect(tag);
+ * decoder.reset();
+ * </pre>
+ *
+ * @see BinaryTags#read(InputStream)
+ */
+public interface NbtDecoder {
+
+  /**
+   * Default maximum amount of compounds and lists each kept in a decoder's
+   * pools
+   */
+  int DEFAULT_MAX_POOLED = 4096;
+
+  /**
+   * Creates a decoder with the default pool size
+   * @return Created decoder
+   */
+  static NbtDecoder create() {
+    return create(DEFAULT_MAX_POOLED);
+  }
+
+  /**
+   * Creates a decoder
+   *
+   * @param maxPooled Maximum amount of compounds and lists each kept in the
+   *                  decoder's pools, any tags above this limit are left to be
+   *                  garbage collected on reset
+   * @return Created decoder
+   * @throws IllegalArgumentException If {@code maxPooled} is less than 0
+   */
+  static NbtDecoder create(int maxPooled) {
+    if (maxPooled < 0) {
+      throw new IllegalArgumentException("Max pooled must be at least 0");
+    }
+
+    return new NbtDecoderImpl(maxPooled);
+  }
+
+  /**
+   * Decodes a named root compound, as written by
+   * {@link BinaryTags#write(java.io.OutputStream, CompoundTag)}
+   *
+   * @param data Binary data
+   * @return Decoded tag, valid until the next {@link #reset()} call
+   * @throws IOException If the data is malformed, or the tag depth goes above
+   *                     {@link net.forthecrown.nbt.io.ScopedDataInput#MAX_DEPTH}
+   */
+  default CompoundTag decode(byte[] data) throws IOException {
+    return decode(data, 0, data.length);
+  }
+
+  /**
+   * Decodes a named root compound from a range of the specified {@code data}.
+   * <p>
+   * The decoded tree is retained by this decoder until {@link #reset()} is
+   * called, decoding many trees without resetting in between keeps all of
+   * them in memory.
+   *
+   * @param data Binary data
+   * @param offset Index of the first byte of the tag
+   * @param length Length of the data range
+   * @return Decoded tag, valid until the next {@link #reset()} call
+   * @throws IOException If the data is malformed, or the tag depth goes above
+   *                     {@link net.forthecrown.nbt.io.ScopedDataInput#MAX_DEPTH}
+   */
+  CompoundTag decode(byte[] data, int offset, int length) throws IOException;
+
+  /**
+   * Decodes a named root compound from the remaining bytes of the specified
+   * {@code buffer}. The buffer's position is not changed.
+   *
+   * @param buffer Binary data
+   * @return Decoded tag, valid until the next {@link #reset()} call
+   * @throws IOException If the data is malformed, or the tag depth goes above
+   *                     {@link net.forthecrown.nbt.io.ScopedDataInput#MAX_DEPTH}
+   */
+  CompoundTag decode(ByteBuffer buffer) throws IOException;
+
+  /**
+   * Reads the specified {@code input} fully into this decoder's buffer and
+   * decodes a named root compound from it, without a size limit. The input
+   * is not closed.
+   *
+   * @param input Input to read
+   * @return Decoded tag, valid until the next {@link #reset()} call
+   * @throws IOException If an IO error occurs, if the data is malformed, if
+   *                     the input is too large to fit in an array, or the
+   *                     tag depth goes above
+   *                     {@link net.forthecrown.nbt.io.ScopedDataInput#MAX_DEPTH}
+   * @see #decode(InputStream, long)
+   */
+  default CompoundTag decode(InputStream input) throws IOException {
+    return decode(input, 0);
+  }
+
+  /**
+   * Reads the specified {@code input} fully into this decoder's buffer and
+   * decodes a named root compound from it. The input is not closed.
+   * <p>
+   * Like {@link net.forthecrown.nbt.io.TagIo#read(InputStream, long)}, this
+   * fails once more than {@code maxBytes} bytes have been read, so untrusted
+   * input can't make the decoder allocate a huge buffer.
+   * <p>
+   * The decoded tree is retained by this decoder until {@link #reset()} is
+   * called. Buffers grown past 1MB for large inputs are also only released
+   * on reset.
+   *
+   * @param input Input to read
+   * @param maxBytes Maximum amount of bytes to read, 0 or less for no limit
+   * @return Decoded tag, valid until the next {@link #reset()} call
+   * @throws IOException If an IO error occurs, if the data is malformed, if
+   *                     the input is longer than {@code maxBytes} or too large
+   *                     to fit in an array, or the tag depth goes above
+   *                     {@link net.forthecrown.nbt.io.ScopedDataInput#MAX_DEPTH}
+   */
+  CompoundTag decode(InputStream input, long maxBytes) throws IOException;
+
+  /**
+   * Clears every compound and list decoded since the last reset and returns
+   * them to this decoder's pools. Tags previously returned by this decoder
+   * must not be used after calling this.
+   */
+  void reset();
+
+  /**
+   * Gets the amount of compounds and lists currently in this decoder's pools
+   * @return Pooled tag count
+   */
+  int getPooledCount();
+
+  /**
+   * Gets the amount of compounds and lists decoded since the last reset
+   * @return In-use tag count
+   */
+  int getInUseCount();
+}
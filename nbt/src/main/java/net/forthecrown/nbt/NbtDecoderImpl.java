@@ -0,0 +1,560 @@
+package net.forthecrown.nbt;
+
+import static net.forthecrown.nbt.TypeIds.BYTE;
+import static net.forthecrown.nbt.TypeIds.BYTE_ARRAY;
+import static net.forthecrown.nbt.TypeIds.COMPOUND;
+import static net.forthecrown.nbt.TypeIds.DOUBLE;
+import static net.forthecrown.nbt.TypeIds.END;
+import static net.forthecrown.nbt.TypeIds.FLOAT;
+import static net.forthecrown.nbt.TypeIds.INT;
+import static net.forthecrown.nbt.TypeIds.INT_ARRAY;
+import static net.forthecrown.nbt.TypeIds.LIST;
+import static net.forthecrown.nbt.TypeIds.LONG;
+import static net.forthecrown.nbt.TypeIds.LONG_ARRAY;
+import static net.forthecrown.nbt.TypeIds.SHORT;
+import static net.forthecrown.nbt.TypeIds.STRING;
+import static net.forthecrown.nbt.io.ScopedDataInput.MAX_DEPTH;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Decoder implementation. Reads big-endian data straight from a byte array
+ * instead of going through a {@link java.io.DataInput}.
+ */
+class NbtDecoderImpl implements NbtDecoder {
+
+  /**
+   * Compounds and lists with more elements than this aren't returned to the
+   * pools, so a single large tree doesn't keep large tables alive forever
+   */
+  static final int MAX_RECYCLED_SIZE = 256;
+
+  /** Slot count of the string cache, must be a power of 2 */
+  static final int CACHE_SIZE = 1024;
+
+  /** Longest string, in encoded bytes, kept in the string cache */
+  static final int MAX_CACHED_LENGTH = 32;
+
+  static final int INITIAL_BUFFER_SIZE = 8192;
+
+  /** Largest array size VMs reliably allow */
+  static final int MAX_BUFFER_SIZE = Integer.MAX_VALUE - 8;
+
+  /**
+   * Largest input buffer kept past a {@link #reset()}, larger buffers are
+   * dropped, so a single large input doesn't pin its buffer forever
+   */
+  static final int MAX_RETAINED_BUFFER_SIZE = 1 << 20;
+
+  private final int maxPooled;
+
+  private final List<CompoundTagImpl> compoundPool = new ArrayList<>();
+  private final List<ListTagImpl> listPool = new ArrayList<>();
+
+  private final List<CompoundTagImpl> compoundsInUse = new ArrayList<>();
+  private final List<ListTagImpl> listsInUse = new ArrayList<>();
+
+  private final byte[][] cachedBytes = new byte[CACHE_SIZE][];
+  private final String[] cachedStrings = new String[CACHE_SIZE];
+  private final StringTag[] cachedTags = new StringTag[CACHE_SIZE];
+
+  private char[] chars = new char[64];
+
+  /** Buffer owned by this decoder, used for stream input */
+  private byte[] ownBuffer;
+
+  private byte[] buf;
+  private int pos;
+  private int limit;
+  private int depth;
+
+  NbtDecoderImpl(int maxPooled) {
+    this.maxPooled = maxPooled;
+  }
+
+  @Override
+  public CompoundTag decode(byte[] data, int offset, int length)
+      throws IOException
+  {
+    Objects.checkFromIndexSize(offset, length, data.length);
+
+    this.buf = data;
+    this.pos = offset;
+    this.limit = offset + length;
+    this.depth = 0;
+
+    try {
+      return readRoot();
+    } finally {
+      // Don't hold on to the caller's data
+      this.buf = null;
+    }
+  }
+
+  @Override
+  public CompoundTag decode(ByteBuffer buffer) throws IOException {
+    int length = buffer.remaining();
+
+    if (buffer.hasArray()) {
+      int offset = buffer.arrayOffset() + buffer.position();
+      return decode(buffer.array(), offset, length);
+    }
+
+    byte[] data = ensureBuffer(length);
+    buffer.duplicate().get(data, 0, length);
+    return decode(data, 0, length);
+  }
+
+  @Override
+  public CompoundTag decode(InputStream input, long maxBytes)
+      throws IOException
+  {
+    int cap = maxBytes > 0
+        ? (int) Math.min(maxBytes, MAX_BUFFER_SIZE)
+        : MAX_BUFFER_SIZE;
+
+    byte[] data = ensureBuffer(Math.min(INITIAL_BUFFER_SIZE, cap));
+    int length = 0;
+    int read;
+
+    while (true) {
+      int end = Math.min(data.length, cap);
+      read = input.read(data, length, end - length);
+
+      if (read == -1) {
+        break;
+      }
+
+      length += read;
+
+      if (length < end) {
+        continue;
+      }
+
+      if (length >= cap) {
+        if (input.read() == -1) {
+          break;
+        }
+
+        throw tooLarge(maxBytes);
+      }
+
+      data = ensureBuffer((int) Math.min(data.length * 2L, cap));
+    }
+
+    return decode(data, 0, length);
+  }
+
+  private static IOException tooLarge(long maxBytes) {
+    if (maxBytes > 0 && maxBytes <= MAX_BUFFER_SIZE) {
+      return new IOException(
+          "NBT too large! input is longer than the "
+              + maxBytes + " bytes permitted"
+      );
+    }
+
+    return new IOException(
+        "Input is larger than the maximum of " + MAX_BUFFER_SIZE + " bytes"
+    );
+  }
+
+  private byte[] ensureBuffer(int size) {
+    if (ownBuffer == null || ownBuffer.length < size) {
+      int newSize = Math.max(size, INITIAL_BUFFER_SIZE);
+
+      ownBuffer = ownBuffer == null
+          ? new byte[newSize]
+          : Arrays.copyOf(ownBuffer, newSize);
+    }
+
+    return ownBuffer;
+  }
+
+  @Override
+  public void reset() {
+    for (CompoundTagImpl tag: compoundsInUse) {
+      if (compoundPool.size() >= maxPooled || tag.size() > MAX_RECYCLED_SIZE) {
+        continue;
+      }
+
+      tag.clear();
+      compoundPool.add(tag);
+    }
+
+    for (ListTagImpl tag: listsInUse) {
+      if (listPool.size() >= maxPooled || tag.size() > MAX_RECYCLED_SIZE) {
+        continue;
+      }
+
+      tag.clear();
+      listPool.add(tag);
+    }
+
+    compoundsInUse.clear();
+    listsInUse.clear();
+
+    if (ownBuffer != null && ownBuffer.length > MAX_RETAINED_BUFFER_SIZE) {
+      ownBuffer = null;
+    }
+  }
+
+  /** Gets the size of the retained input buffer, or 0 if there's none */
+  int getBufferSize() {
+    return ownBuffer == null ? 0 : ownBuffer.length;
+  }
+
+  @Override
+  public int getPooledCount() {
+    return compoundPool.size() + listPool.size();
+  }
+
+  @Override
+  public int getInUseCount() {
+    return compoundsInUse.size() + listsInUse.size();
+  }
+
+  /* ----------------------------- STRUCTURES ----------------------------- */
+
+  private CompoundTag readRoot() throws IOException {
+    byte typeId = readByte();
+
+    if (typeId != COMPOUND) {
+      throw new IOException(
+          "Expected TAG_Compound (" + COMPOUND + "), found : " + typeId
+      );
+    }
+
+    // The root's name is never used, skip it without decoding
+    int nameLength = readUnsignedShort();
+    require(nameLength);
+    pos += nameLength;
+
+    return readCompound();
+  }
+
+  private BinaryTag readValue(byte typeId) throws IOException {
+    return switch (typeId) {
+      case BYTE -> BinaryTags.byteTag(readByte());
+      case SHORT -> BinaryTags.shortTag(readShort());
+      case INT -> BinaryTags.intTag(readInt());
+      case LONG -> BinaryTags.longTag(readLong());
+      case FLOAT -> BinaryTags.floatTag(Float.intBitsToFloat(readInt()));
+      case DOUBLE -> BinaryTags.doubleTag(Double.longBitsToDouble(readLong()));
+      case STRING -> readStringTag();
+      case LIST -> readList();
+      case COMPOUND -> readCompound();
+      case BYTE_ARRAY -> readByteArray();
+      case INT_ARRAY -> readIntArray();
+      case LONG_ARRAY -> readLongArray();
+      default -> throw new IOException("Unknown type: " + typeId);
+    };
+  }
+
+  private CompoundTag readCompound() throws IOException {
+    enterScope();
+
+    CompoundTagImpl tag = compoundPool.isEmpty()
+        ? new CompoundTagImpl()
+        : compoundPool.remove(compoundPool.size() - 1);
+
+    compoundsInUse.add(tag);
+    byte typeId;
+
+    while ((typeId = readByte()) != END) {
+      String name = readString();
+      tag.put(name, readValue(typeId));
+    }
+
+    depth--;
+    return tag;
+  }
+
+  private ListTag readList() throws IOException {
+    byte typeId = readByte();
+    int size = readInt();
+
+    ListTagImpl.validateListStructure(typeId, size);
+
+    ListTagImpl tag = listPool.isEmpty()
+        ? new ListTagImpl()
+        : listPool.remove(listPool.size() - 1);
+
+    listsInUse.add(tag);
+
+    if (size <= 0) {
+      return tag;
+    }
+
+    // Every element takes up at least 1 byte, this prevents a corrupt size
+    // from being trusted before any of the elements are read
+    require(size);
+    enterScope();
+
+    for (int i = 0; i < size; i++) {
+      tag.add(readValue(typeId));
+    }
+
+    depth--;
+    return tag;
+  }
+
+  private void enterScope() throws IOException {
+    if (++depth > MAX_DEPTH) {
+      throw new IOException("Max tag depth (" + MAX_DEPTH + ") surpassed");
+    }
+  }
+
+  /* ------------------------------- ARRAYS ------------------------------- */
+
+  private int readArraySize(int elementBytes) throws IOException {
+    int size = readInt();
+
+    if (size < 0) {
+      throw new IOException("Negative array size: " + size);
+    }
+
+    require((long) size * elementBytes);
+    return size;
+  }
+
+  private ByteArrayTag readByteArray() throws IOException {
+    int size = readArraySize(Byte.BYTES);
+
+    ByteArrayTagImpl tag = new ByteArrayTagImpl();
+    tag.size(size);
+    System.arraycopy(buf, pos, tag.elements(), 0, size);
+    pos += size;
+
+    return tag;
+  }
+
+  private IntArrayTag readIntArray() throws IOException {
+    int size = readArraySize(Integer.BYTES);
+
+    IntArrayTagImpl tag = new IntArrayTagImpl(size);
+    tag.size(size);
+    int[] elements = tag.elements();
+
+    for (int i = 0; i < size; i++) {
+      elements[i] = readInt();
+    }
+
+    return tag;
+  }
+
+  private LongArrayTag readLongArray() throws IOException {
+    int size = readArraySize(Long.BYTES);
+
+    LongArrayTagImpl tag = new LongArrayTagImpl(size);
+    tag.size(size);
+    long[] elements = tag.elements();
+
+    for (int i = 0; i < size; i++) {
+      elements[i] = readLong();
+    }
+
+    return tag;
+  }
+
+  /* ------------------------------ STRINGS ------------------------------- */
+
+  private StringTag readStringTag() throws IOException {
+    int length = readUnsignedShort();
+    require(length);
+
+    int slot = cacheSlot(length);
+
+    if (slot == -1) {
+      return StringTagImpl.of(decodeString(length));
+    }
+
+    StringTag tag = cachedTags[slot];
+
+    if (tag == null) {
+      tag = StringTagImpl.of(cachedStrings[slot]);
+      cachedTags[slot] = tag;
+    }
+
+    return tag;
+  }
+
+  private String readString() throws IOException {
+    int length = readUnsignedShort();
+    require(length);
+
+    int slot = cacheSlot(length);
+    return slot == -1 ? decodeString(length) : cachedStrings[slot];
+  }
+
+  /**
+   * Looks up the string of the specified {@code length} at the current
+   * position in the string cache, and caches it if it's not cached yet. The
+   * string's bytes are consumed when it's found or cached.
+   *
+   * @return Cache slot holding the string, or {@code -1}, if the string is not
+   *         cacheable
+   */
+  private int cacheSlot(int length) throws IOException {
+    if (length > MAX_CACHED_LENGTH) {
+      return -1;
+    }
+
+    int hash = 0;
+    for (int i = pos; i < pos + length; i++) {
+      hash = 31 * hash + buf[i];
+    }
+
+    int slot = (hash ^ (hash >>> 16)) & (CACHE_SIZE - 1);
+    byte[] cached = cachedBytes[slot];
+
+    if (cached != null
+        && Arrays.equals(cached, 0, cached.length, buf, pos, pos + length)
+    ) {
+      pos += length;
+      return slot;
+    }
+
+    byte[] key = Arrays.copyOfRange(buf, pos, pos + length);
+    String value = decodeString(length);
+
+    cachedBytes[slot] = key;
+    cachedStrings[slot] = value;
+    cachedTags[slot] = null;
+
+    return slot;
+  }
+
+  /**
+   * Decodes a modified UTF-8 string, as written by
+   * {@link java.io.DataOutput#writeUTF(String)}
+   */
+  private String decodeString(int length) throws IOException {
+    int start = pos;
+    int end = pos + length;
+
+    // ASCII fast path
+    int i = start;
+    while (i < end && buf[i] > 0) {
+      i++;
+    }
+
+    if (i == end) {
+      pos = end;
+      return new String(buf, start, length, StandardCharsets.ISO_8859_1);
+    }
+
+    if (chars.length < length) {
+      chars = new char[Math.max(length, chars.length * 2)];
+    }
+
+    int count = 0;
+    for (int j = start; j < i; j++) {
+      chars[count++] = (char) buf[j];
+    }
+
+    while (i < end) {
+      int b = buf[i] & 0xFF;
+
+      switch (b >> 4) {
+        case 0, 1, 2, 3, 4, 5, 6, 7 -> {
+          chars[count++] = (char) b;
+          i++;
+        }
+
+        case 12, 13 -> {
+          if (i + 2 > end) {
+            throw malformed(i);
+          }
+
+          int b2 = buf[i + 1];
+          if ((b2 & 0xC0) != 0x80) {
+            throw malformed(i + 1);
+          }
+
+          chars[count++] = (char) (((b & 0x1F) << 6) | (b2 & 0x3F));
+          i += 2;
+        }
+
+        case 14 -> {
+          if (i + 3 > end) {
+            throw malformed(i);
+          }
+
+          int b2 = buf[i + 1];
+          int b3 = buf[i + 2];
+          if ((b2 & 0xC0) != 0x80 || (b3 & 0xC0) != 0x80) {
+            throw malformed(i + 1);
+          }
+
+          chars[count++] = (char) (
+              ((b & 0x0F) << 12) | ((b2 & 0x3F) << 6) | (b3 & 0x3F)
+          );
+          i += 3;
+        }
+
+        default -> throw malformed(i);
+      }
+    }
+
+    pos = end;
+    return new String(chars, 0, count);
+  }
+
+  private UTFDataFormatException malformed(int index) {
+    return new UTFDataFormatException(
+        "Malformed input around byte " + (index - pos)
+    );
+  }
+
+  /* ----------------------------- PRIMITIVES ----------------------------- */
+
+  private void require(long bytes) throws EOFException {
+    if (bytes > limit - pos) {
+      throw new EOFException(
+          "Expected " + bytes + " more bytes, only " + (limit - pos) + " left"
+      );
+    }
+  }
+
+  private byte readByte() throws IOException {
+    require(Byte.BYTES);
+    return buf[pos++];
+  }
+
+  private short readShort() throws IOException {
+    require(Short.BYTES);
+    short value = (short) ((buf[pos] << 8) | (buf[pos + 1] & 0xFF));
+    pos += Short.BYTES;
+    return value;
+  }
+
+  private int readUnsignedShort() throws IOException {
+    return readShort() & 0xFFFF;
+  }
+
+  private int readInt() throws IOException {
+    require(Integer.BYTES);
+    int value = ((buf[pos] & 0xFF) << 24)
+        | ((buf[pos + 1] & 0xFF) << 16)
+        | ((buf[pos + 2] & 0xFF) << 8)
+        | (buf[pos + 3] & 0xFF);
+
+    pos += Integer.BYTES;
+    return value;
+  }
+
+  private long readLong() throws IOException {
+    long high = readInt() & 0xFFFFFFFFL;
+    long low = readInt() & 0xFFFFFFFFL;
+    return (high << 32) | low;
+  }
+}
@@ -0,0 +1,175 @@
+package net.forthecrown.nbt;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Deep copies tag structures on a {@link ForkJoinPool}.
+ * <p>
+ * Structures with more than {@link #CHUNK_SIZE} children have their children
+ * copied in chunks by separate tasks, and children with at least
+ * {@link #FORK_THRESHOLD} children of their own are copied by their own task.
+ * Everything else is copied by the task that finds it, as splitting small
+ * structures costs more than copying them. Pools with a single worker can't
+ * gain anything from splitting at all, so those fall back to a regular copy.
+ * <p>
+ * Only regular compounds and lists are split. Other implementations, like
+ * concurrent, shaped or columnar tags and read-only views, are copied with
+ * their own {@link BinaryTag#copy()}, so the copy keeps their implementation.
+ */
+final class ParallelCopy {
+  private ParallelCopy() {}
+
+  static final int FORK_THRESHOLD = 64;
+  static final int CHUNK_SIZE = 256;
+
+  static CompoundTag copy(CompoundTag tag, ForkJoinPool pool) {
+    if (pool.getParallelism() < 2 || !(tag instanceof CompoundTagImpl)) {
+      return tag.copy();
+    }
+
+    return (CompoundTag) pool.invoke(new CopyTask(tag));
+  }
+
+  static ListTag copy(ListTag tag, ForkJoinPool pool) {
+    if (pool.getParallelism() < 2 || !(tag instanceof ListTagImpl)) {
+      return tag.copy();
+    }
+
+    return (ListTag) pool.invoke(new CopyTask(tag));
+  }
+
+  private static boolean shouldFork(BinaryTag tag) {
+    return (tag instanceof CompoundTagImpl c && c.size() >= FORK_THRESHOLD)
+        || (tag instanceof ListTagImpl l && l.size() >= FORK_THRESHOLD);
+  }
+
+  private static BinaryTag copyValue(BinaryTag tag) {
+    if (tag instanceof CompoundTagImpl compound) {
+      return copyCompound(compound);
+    }
+
+    if (tag instanceof ListTagImpl list) {
+      return copyList(list);
+    }
+
+    return tag.copy();
+  }
+
+  private static CompoundTag copyCompound(CompoundTag tag) {
+    @SuppressWarnings("unchecked")
+    Entry<String, BinaryTag>[] entries = tag.entrySet().toArray(Entry[]::new);
+    BinaryTag[] values = new BinaryTag[entries.length];
+
+    for (int i = 0; i < entries.length; i++) {
+      values[i] = entries[i].getValue();
+    }
+
+    copyAll(values);
+
+    CompoundTag result = new CompoundTagImpl(entries.length);
+
+    for (int i = 0; i < entries.length; i++) {
+      result.put(entries[i].getKey(), values[i]);
+    }
+
+    return result;
+  }
+
+  private static ListTag copyList(ListTag tag) {
+    BinaryTag[] values = tag.toArray(BinaryTag[]::new);
+    copyAll(values);
+    return new ListTagImpl(Arrays.asList(values));
+  }
+
+  /**
+   * Replaces every tag in the array with its copy
+   */
+  private static void copyAll(BinaryTag[] values) {
+    if (values.length <= CHUNK_SIZE) {
+      copyRange(values, 0, values.length);
+      return;
+    }
+
+    List<ChunkTask> chunks = new ArrayList<>();
+
+    for (int from = 0; from < values.length; from += CHUNK_SIZE) {
+      int to = Math.min(from + CHUNK_SIZE, values.length);
+      chunks.add(new ChunkTask(values, from, to));
+    }
+
+    ForkJoinTask.invokeAll(chunks);
+  }
+
+  private static void copyRange(BinaryTag[] values, int from, int to) {
+    List<CopyTask> forked = null;
+    int[] forkedIndices = null;
+
+    for (int i = from; i < to; i++) {
+      BinaryTag value = values[i];
+
+      if (!shouldFork(value)) {
+        values[i] = copyValue(value);
+        continue;
+      }
+
+      if (forked == null) {
+        forked = new ArrayList<>();
+        forkedIndices = new int[to - i];
+      }
+
+      forkedIndices[forked.size()] = i;
+      CopyTask task = new CopyTask(value);
+      task.fork();
+      forked.add(task);
+    }
+
+    if (forked == null) {
+      return;
+    }
+
+    for (int i = 0; i < forked.size(); i++) {
+      values[forkedIndices[i]] = forked.get(i).join();
+    }
+  }
+
+  private static class CopyTask extends RecursiveTask<BinaryTag> {
+    private static final long serialVersionUID = 1L;
+
+    private final transient BinaryTag tag;
+
+    CopyTask(BinaryTag tag) {
+      this.tag = tag;
+    }
+
+    @Override
+    protected BinaryTag compute() {
+      return copyValue(tag);
+    }
+  }
+
+  private static class ChunkTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final transient BinaryTag[] values;
+    private final int from;
+    private final int to;
+
+    ChunkTask(BinaryTag[] values, int from, int to) {
+      this.values = values;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      copyRange(values, from, to);
+    }
+  }
+}
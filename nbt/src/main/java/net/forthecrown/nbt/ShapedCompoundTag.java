@@ -0,0 +1,340 @@
+package net.forthecrown.nbt;
+
+import static net.forthecrown.nbt.TypeIds.END;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import net.forthecrown.nbt.io.ScopedDataInput;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Compound that stores its names in a shape shared with other compounds, and
+ * only its values itself
+ * @see CompoundShapes
+ */
+class ShapedCompoundTag
+    extends AbstractMap<String, BinaryTag>
+    implements CompoundTag
+{
+  private static final BinaryTag[] EMPTY_VALUES = new BinaryTag[0];
+
+  private CompoundShape shape;
+  private BinaryTag[] values;
+
+  private Set<Entry<String, BinaryTag>> entrySet;
+
+  ShapedCompoundTag(CompoundShape shape) {
+    this(shape, EMPTY_VALUES);
+  }
+
+  ShapedCompoundTag(CompoundShape shape, BinaryTag[] values) {
+    this.shape = shape;
+    this.values = values;
+  }
+
+  /**
+   * Reads a compound's entries, following shape transitions as names are
+   * read. If the registry can't provide a shape for the names, a regular
+   * compound is returned instead
+   */
+  static CompoundTag read(ScopedDataInput input, CompoundShapes shapes)
+      throws IOException
+  {
+    input.enterScope();
+
+    CompoundShape shape = shapes.empty;
+    BinaryTag[] values = new BinaryTag[8];
+    CompoundTag fallback = null;
+
+    byte typeId;
+
+    while ((typeId = input.readByte()) != END) {
+      var entry = BinaryTags.readNamedTag(typeId, input);
+      String key = entry.getKey();
+      BinaryTag value = entry.getValue();
+
+      if (fallback != null) {
+        fallback.put(key, value);
+        continue;
+      }
+
+      int index = shape.indexOf(key);
+
+      if (index != -1) {
+        values[index] = value;
+        continue;
+      }
+
+      CompoundShape next = shape.withKey(key);
+
+      if (next == null) {
+        fallback = new CompoundTagImpl();
+
+        for (int i = 0; i < shape.size; i++) {
+          fallback.put(shape.keys[i], values[i]);
+        }
+
+        fallback.put(key, value);
+        continue;
+      }
+
+      if (shape.size == values.length) {
+        values = Arrays.copyOf(values, values.length * 2);
+      }
+
+      values[shape.size] = value;
+      shape = next;
+    }
+
+    input.endScope();
+
+    if (fallback != null) {
+      return fallback;
+    }
+
+    if (shape.size != values.length) {
+      values = shape.size == 0
+          ? EMPTY_VALUES
+          : Arrays.copyOf(values, shape.size);
+    }
+
+    return new ShapedCompoundTag(shape, values);
+  }
+
+  @Override
+  public @NotNull TagType<? extends BinaryTag> getType() {
+    return TagTypes.compoundType();
+  }
+
+  /* ------------------------------ READING ------------------------------- */
+
+  @Override
+  public int size() {
+    return shape.size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return shape.size == 0;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return shape.indexOf(key) != -1;
+  }
+
+  @Override
+  public BinaryTag get(Object key) {
+    int index = shape.indexOf(key);
+    return index == -1 ? null : values[index];
+  }
+
+  @Override
+  public <T extends BinaryTag> @Nullable T get(String name, TagType<T> type) {
+    BinaryTag tag = get(name);
+
+    if (tag == null || tag.getId() != type.getId()) {
+      return null;
+    }
+
+    @SuppressWarnings("unchecked") // Same ID, so the tag is a T
+    T result = (T) tag;
+    return result;
+  }
+
+  @Override
+  public @NotNull Set<Entry<String, BinaryTag>> entrySet() {
+    if (entrySet == null) {
+      entrySet = new AbstractSet<>() {
+        @Override
+        public Iterator<Entry<String, BinaryTag>> iterator() {
+          return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+          return shape.size;
+        }
+      };
+    }
+
+    return entrySet;
+  }
+
+  @Override
+  public CompoundTag copy() {
+    int size = shape.size;
+    BinaryTag[] copied = new BinaryTag[size];
+
+    for (int i = 0; i < size; i++) {
+      copied[i] = values[i].copy();
+    }
+
+    return new ShapedCompoundTag(
+        shape.shared ? shape : shape.toOwned(),
+        copied
+    );
+  }
+
+  /* ------------------------------ WRITING ------------------------------- */
+
+  @Override
+  public CompoundTag merge(CompoundTag source) {
+    for (var e: source.entrySet()) {
+      if (e.getValue() instanceof CompoundTag compoundTag) {
+        CompoundTag ours = getCompound(e.getKey());
+        ours.merge(compoundTag);
+
+        put(e.getKey(), ours);
+        continue;
+      }
+
+      put(e.getKey(), e.getValue());
+    }
+
+    return this;
+  }
+
+  @Override
+  public BinaryTag put(String key, BinaryTag value) {
+    Objects.requireNonNull(key);
+    Objects.requireNonNull(value);
+
+    int index = shape.indexOf(key);
+
+    if (index != -1) {
+      BinaryTag previous = values[index];
+      values[index] = value;
+      return previous;
+    }
+
+    CompoundShape next = shape.shared ? shape.withKey(key) : null;
+
+    if (next == null) {
+      if (shape.shared) {
+        shape = shape.toOwned();
+      }
+
+      shape.add(key);
+    } else {
+      shape = next;
+    }
+
+    int size = shape.size;
+
+    if (size > values.length) {
+      values = Arrays.copyOf(values, Math.max(size, values.length * 2));
+    }
+
+    values[size - 1] = value;
+    return null;
+  }
+
+  @Override
+  public BinaryTag remove(Object key) {
+    int index = shape.indexOf(key);
+
+    if (index == -1) {
+      return null;
+    }
+
+    BinaryTag previous = values[index];
+    removeAt(index);
+    return previous;
+  }
+
+  private void removeAt(int index) {
+    int size = shape.size;
+    CompoundShape next = shape.shared ? shape.withoutKey(index) : null;
+
+    if (next == null) {
+      if (shape.shared) {
+        shape = shape.toOwned();
+      }
+
+      shape.removeAt(index);
+    } else {
+      shape = next;
+    }
+
+    System.arraycopy(values, index + 1, values, index, size - index - 1);
+    values[size - 1] = null;
+  }
+
+  @Override
+  public void clear() {
+    shape = shape.registry.empty;
+    values = EMPTY_VALUES;
+  }
+
+  /* ------------------------------- OBJECT ------------------------------- */
+
+  @Override
+  public boolean equals(Object o) {
+    if (!(o instanceof CompoundTag)) {
+      return false;
+    }
+    return super.equals(o);
+  }
+
+  @Override
+  public String toString() {
+    return toNbtString();
+  }
+
+  private class EntryIterator implements Iterator<Entry<String, BinaryTag>> {
+    private int next;
+    private int last = -1;
+    private CompoundShape expected = shape;
+
+    @Override
+    public boolean hasNext() {
+      return next < shape.size;
+    }
+
+    @Override
+    public Entry<String, BinaryTag> next() {
+      if (expected != shape) {
+        throw new ConcurrentModificationException();
+      }
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+
+      last = next++;
+      String key = shape.keys[last];
+
+      return new SimpleEntry<>(key, values[last]) {
+        @Override
+        public BinaryTag setValue(BinaryTag value) {
+          super.setValue(value);
+          return put(key, value);
+        }
+      };
+    }
+
+    @Override
+    public void remove() {
+      if (last == -1) {
+        throw new IllegalStateException();
+      }
+      if (expected != shape) {
+        throw new ConcurrentModificationException();
+      }
+
+      removeAt(last);
+      expected = shape;
+
+      next = last;
+      last = -1;
+    }
+  }
+}
@@ -20,7 +20,7 @@ class ShortTagImpl implements ShortTag {
 
     @Override
     public void skip(ScopedDataInput input) throws IOException {
-      input.skipBytes(Byte.BYTES);
+      input.skipBytes(Short.BYTES);
     }
 
     @Override
@@ -0,0 +1,136 @@
+package net.forthecrown.nbt;
+
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A single column of a {@link ColumnarListTag}, the values mapped to one name
+ * in every compound of the list.
+ * <p>
+ * Rows that don't have a value for the column's name are absent. Reading an
+ * absent row returns {@code null} or the given default value, and absent rows
+ * are skipped by the column's streams.
+ * <p>
+ * A column is a live view, it reflects changes made to its list. If the list
+ * stops storing its values in this column, for example because a value of a
+ * different type was added under the column's name, the column no longer
+ * reflects changes, and the list's {@link ColumnarListTag#column(String)} has
+ * to be called again.
+ *
+ * @see ColumnarListTag#column(String)
+ */
+public interface TagColumn {
+
+  /**
+   * Gets the name this column's values are mapped to
+   * @return Column name
+   */
+  @NotNull String name();
+
+  /**
+   * Gets the type of the values in this column
+   * @return Value type, or {@code null}, if this column holds values of
+   *         different types, or no values at all
+   */
+  @Nullable TagType<? extends BinaryTag> type();
+
+  /**
+   * Gets the amount of rows in this column, present or not. This is always
+   * equal to the size of the list
+   *
+   * @return Row count
+   */
+  int size();
+
+  /**
+   * Gets the amount of rows that have a value in this column
+   * @return Present value count
+   */
+  int count();
+
+  /**
+   * Tests if the specified {@code row} has a value in this column
+   * @param row Row index
+   * @return {@code true}, if the row has a value
+   * @throws IndexOutOfBoundsException If the row index is out of bounds
+   */
+  boolean isPresent(int row) throws IndexOutOfBoundsException;
+
+  /**
+   * Gets the value of the specified {@code row}
+   * @param row Row index
+   * @return Row's value, or {@code null}, if the row has no value
+   * @throws IndexOutOfBoundsException If the row index is out of bounds
+   */
+  @Nullable BinaryTag get(int row) throws IndexOutOfBoundsException;
+
+  /**
+   * Gets the {@code int} value of the specified {@code row}
+   * @param row Row index
+   * @param def Default value
+   * @return Row's value, or {@code def}, if the row's value is missing or
+   *         isn't a number
+   * @throws IndexOutOfBoundsException If the row index is out of bounds
+   */
+  int getInt(int row, int def) throws IndexOutOfBoundsException;
+
+  /**
+   * Gets the {@code long} value of the specified {@code row}
+   * @param row Row index
+   * @param def Default value
+   * @return Row's value, or {@code def}, if the row's value is missing or
+   *         isn't a number
+   * @throws IndexOutOfBoundsException If the row index is out of bounds
+   */
+  long getLong(int row, long def) throws IndexOutOfBoundsException;
+
+  /**
+   * Gets the {@code double} value of the specified {@code row}
+   * @param row Row index
+   * @param def Default value
+   * @return Row's value, or {@code def}, if the row's value is missing or
+   *         isn't a number
+   * @throws IndexOutOfBoundsException If the row index is out of bounds
+   */
+  double getDouble(int row, double def) throws IndexOutOfBoundsException;
+
+  /**
+   * Gets the string value of the specified {@code row}
+   * @param row Row index
+   * @param def Default value
+   * @return Row's value, or {@code def}, if the row's value is missing or
+   *         isn't a string
+   * @throws IndexOutOfBoundsException If the row index is out of bounds
+   */
+  String getString(int row, String def) throws IndexOutOfBoundsException;
+
+  /**
+   * Streams the numeric values of this column as {@code int}s, in row order.
+   * Absent rows and values that aren't numbers are skipped.
+   * <p>
+   * For byte, short and int columns, this streams the column's backing array
+   * directly, so {@code column.ints().sum()} is a loop over an {@code int[]}.
+   *
+   * @return Value stream
+   */
+  IntStream ints();
+
+  /**
+   * Streams the numeric values of this column as {@code long}s, in row order.
+   * Absent rows and values that aren't numbers are skipped.
+   *
+   * @return Value stream
+   */
+  LongStream longs();
+
+  /**
+   * Streams the numeric values of this column as {@code double}s, in row
+   * order. Absent rows and values that aren't numbers are skipped.
+   *
+   * @return Value stream
+   */
+  DoubleStream doubles();
+}
@@ -0,0 +1,700 @@
+package net.forthecrown.nbt;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Base column implementation.
+ * <p>
+ * Which rows have a value is tracked by a bit set, subclasses only store the
+ * values. Value arrays are sized to the capacity of the owning list, and are
+ * grown and shifted by it.
+ */
+abstract class TagColumnImpl implements TagColumn {
+
+  final String name;
+  final ColumnarListTagImpl owner;
+
+  final BitSet present = new BitSet();
+  int count;
+
+  TagColumnImpl(String name, ColumnarListTagImpl owner) {
+    this.name = name;
+    this.owner = owner;
+  }
+
+  /**
+   * Creates an empty column that stores tags of the specified type
+   */
+  static TagColumnImpl create(String name,
+                              ColumnarListTagImpl owner,
+                              byte typeId,
+                              int capacity
+  ) {
+    return switch (typeId) {
+      case TypeIds.BYTE, TypeIds.SHORT, TypeIds.INT
+          -> new IntColumn(name, owner, typeId, capacity);
+      case TypeIds.LONG -> new LongColumn(name, owner, capacity);
+      case TypeIds.FLOAT, TypeIds.DOUBLE
+          -> new DoubleColumn(name, owner, typeId, capacity);
+      case TypeIds.STRING -> new StringColumn(name, owner, capacity);
+      default -> new ObjectColumn(name, owner, capacity);
+    };
+  }
+
+  /**
+   * Creates a column of tags, holding the same values as the specified column
+   */
+  static TagColumnImpl toObjectColumn(TagColumnImpl column, int capacity) {
+    ObjectColumn result = new ObjectColumn(column.name, column.owner, capacity);
+    BitSet present = column.present;
+
+    for (int i = present.nextSetBit(0); i >= 0; i = present.nextSetBit(i + 1)) {
+      result.values[i] = column.load(i);
+    }
+
+    result.present.or(present);
+    result.count = column.count;
+    return result;
+  }
+
+  /* ---------------------------- STORAGE ----------------------------- */
+
+  abstract boolean accepts(BinaryTag tag);
+
+  abstract void store(int row, BinaryTag tag);
+
+  abstract BinaryTag load(int row);
+
+  abstract void grow(int capacity);
+
+  /** Moves {@code length} values from {@code from} to {@code to} */
+  abstract void move(int from, int to, int length);
+
+  /** Releases the value at a row that's no longer present */
+  void release(int row) {
+  }
+
+  abstract TagColumnImpl copy(ColumnarListTagImpl owner);
+
+  TagColumnImpl copyPresence(TagColumnImpl source) {
+    present.or(source.present);
+    count = source.count;
+    return this;
+  }
+
+  final void set(int row, BinaryTag tag) {
+    store(row, tag);
+
+    if (!present.get(row)) {
+      present.set(row);
+      count++;
+    }
+  }
+
+  final boolean clear(int row) {
+    if (!present.get(row)) {
+      return false;
+    }
+
+    present.clear(row);
+    release(row);
+    count--;
+    return true;
+  }
+
+  /**
+   * Shifts rows starting at {@code row} up by 1, leaving an absent row at the
+   * index
+   * @param size List size before the insertion
+   */
+  final void insertRow(int row, int size) {
+    move(row, row + 1, size - row);
+
+    for (int i = size - 1; i >= row; i--) {
+      present.set(i + 1, present.get(i));
+    }
+
+    present.clear(row);
+    release(row);
+  }
+
+  /**
+   * Removes the row at {@code row}, shifting the rows after it down by 1
+   * @param size List size before the removal
+   */
+  final void removeRow(int row, int size) {
+    if (present.get(row)) {
+      count--;
+    }
+
+    move(row + 1, row, size - row - 1);
+
+    for (int i = row; i < size - 1; i++) {
+      present.set(i, present.get(i + 1));
+    }
+
+    present.clear(size - 1);
+    release(size - 1);
+  }
+
+  /* ----------------------------- READING ----------------------------- */
+
+  @Override
+  public @NotNull String name() {
+    return name;
+  }
+
+  @Override
+  public @Nullable TagType<? extends BinaryTag> type() {
+    BinaryTag first = count == 0 ? null : load(present.nextSetBit(0));
+    return first == null ? null : first.getType();
+  }
+
+  @Override
+  public int size() {
+    return owner.size();
+  }
+
+  @Override
+  public int count() {
+    return count;
+  }
+
+  @Override
+  public boolean isPresent(int row) {
+    Objects.checkIndex(row, owner.size());
+    return present.get(row);
+  }
+
+  @Override
+  public @Nullable BinaryTag get(int row) {
+    return isPresent(row) ? load(row) : null;
+  }
+
+  @Override
+  public int getInt(int row, int def) {
+    return get(row) instanceof NumberTag n ? n.intValue() : def;
+  }
+
+  @Override
+  public long getLong(int row, long def) {
+    return get(row) instanceof NumberTag n ? n.longValue() : def;
+  }
+
+  @Override
+  public double getDouble(int row, double def) {
+    return get(row) instanceof NumberTag n ? n.doubleValue() : def;
+  }
+
+  @Override
+  public String getString(int row, String def) {
+    return get(row) instanceof StringTag s ? s.value() : def;
+  }
+
+  /** Indices of present rows */
+  IntStream rows() {
+    return present.stream();
+  }
+
+  boolean isDense() {
+    return count == owner.size();
+  }
+
+  @Override
+  public IntStream ints() {
+    return rows()
+        .mapToObj(this::load)
+        .filter(NumberTag.class::isInstance)
+        .mapToInt(tag -> ((NumberTag) tag).intValue());
+  }
+
+  @Override
+  public LongStream longs() {
+    return rows()
+        .mapToObj(this::load)
+        .filter(NumberTag.class::isInstance)
+        .mapToLong(tag -> ((NumberTag) tag).longValue());
+  }
+
+  @Override
+  public DoubleStream doubles() {
+    return rows()
+        .mapToObj(this::load)
+        .filter(NumberTag.class::isInstance)
+        .mapToDouble(tag -> ((NumberTag) tag).doubleValue());
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "{"
+        + "name=" + name
+        + ", count=" + count
+        + ", size=" + size()
+        + "}";
+  }
+
+  /* --------------------------- INT COLUMN ---------------------------- */
+
+  /** Column of byte, short or int values */
+  static final class IntColumn extends TagColumnImpl {
+    private final byte typeId;
+    int[] values;
+
+    IntColumn(String name, ColumnarListTagImpl owner, byte typeId, int cap) {
+      super(name, owner);
+      this.typeId = typeId;
+      this.values = new int[cap];
+    }
+
+    @Override
+    boolean accepts(BinaryTag tag) {
+      return tag.getId() == typeId;
+    }
+
+    @Override
+    void store(int row, BinaryTag tag) {
+      values[row] = ((NumberTag) tag).intValue();
+    }
+
+    @Override
+    BinaryTag load(int row) {
+      return switch (typeId) {
+        case TypeIds.BYTE -> BinaryTags.byteTag(values[row]);
+        case TypeIds.SHORT -> BinaryTags.shortTag(values[row]);
+        default -> BinaryTags.intTag(values[row]);
+      };
+    }
+
+    @Override
+    void grow(int capacity) {
+      values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    void move(int from, int to, int length) {
+      System.arraycopy(values, from, values, to, length);
+    }
+
+    @Override
+    TagColumnImpl copy(ColumnarListTagImpl owner) {
+      IntColumn result = new IntColumn(name, owner, typeId, 0);
+      result.values = values.clone();
+      return result.copyPresence(this);
+    }
+
+    @Override
+    public TagType<? extends BinaryTag> type() {
+      return count == 0 ? null : TagTypes.getType(typeId);
+    }
+
+    @Override
+    public int getInt(int row, int def) {
+      return isPresent(row) ? values[row] : def;
+    }
+
+    @Override
+    public long getLong(int row, long def) {
+      return isPresent(row) ? values[row] : def;
+    }
+
+    @Override
+    public double getDouble(int row, double def) {
+      return isPresent(row) ? values[row] : def;
+    }
+
+    @Override
+    public String getString(int row, String def) {
+      return def;
+    }
+
+    @Override
+    public IntStream ints() {
+      if (isDense()) {
+        return Arrays.stream(values, 0, owner.size());
+      }
+
+      return rows().map(row -> values[row]);
+    }
+
+    @Override
+    public LongStream longs() {
+      return ints().asLongStream();
+    }
+
+    @Override
+    public DoubleStream doubles() {
+      return ints().asDoubleStream();
+    }
+  }
+
+  /* --------------------------- LONG COLUMN --------------------------- */
+
+  /** Column of long values */
+  static final class LongColumn extends TagColumnImpl {
+    long[] values;
+
+    LongColumn(String name, ColumnarListTagImpl owner, int capacity) {
+      super(name, owner);
+      this.values = new long[capacity];
+    }
+
+    @Override
+    boolean accepts(BinaryTag tag) {
+      return tag.getId() == TypeIds.LONG;
+    }
+
+    @Override
+    void store(int row, BinaryTag tag) {
+      values[row] = ((NumberTag) tag).longValue();
+    }
+
+    @Override
+    BinaryTag load(int row) {
+      return BinaryTags.longTag(values[row]);
+    }
+
+    @Override
+    void grow(int capacity) {
+      values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    void move(int from, int to, int length) {
+      System.arraycopy(values, from, values, to, length);
+    }
+
+    @Override
+    TagColumnImpl copy(ColumnarListTagImpl owner) {
+      LongColumn result = new LongColumn(name, owner, 0);
+      result.values = values.clone();
+      return result.copyPresence(this);
+    }
+
+    @Override
+    public TagType<? extends BinaryTag> type() {
+      return count == 0 ? null : TagTypes.longType();
+    }
+
+    @Override
+    public int getInt(int row, int def) {
+      return isPresent(row) ? (int) values[row] : def;
+    }
+
+    @Override
+    public long getLong(int row, long def) {
+      return isPresent(row) ? values[row] : def;
+    }
+
+    @Override
+    public double getDouble(int row, double def) {
+      return isPresent(row) ? values[row] : def;
+    }
+
+    @Override
+    public String getString(int row, String def) {
+      return def;
+    }
+
+    @Override
+    public LongStream longs() {
+      if (isDense()) {
+        return Arrays.stream(values, 0, owner.size());
+      }
+
+      return rows().mapToLong(row -> values[row]);
+    }
+
+    @Override
+    public IntStream ints() {
+      return longs().mapToInt(value -> (int) value);
+    }
+
+    @Override
+    public DoubleStream doubles() {
+      return longs().asDoubleStream();
+    }
+  }
+
+  /* -------------------------- DOUBLE COLUMN -------------------------- */
+
+  /** Column of float or double values */
+  static final class DoubleColumn extends TagColumnImpl {
+    private final byte typeId;
+    double[] values;
+
+    DoubleColumn(String name, ColumnarListTagImpl owner, byte typeId, int cap) {
+      super(name, owner);
+      this.typeId = typeId;
+      this.values = new double[cap];
+    }
+
+    @Override
+    boolean accepts(BinaryTag tag) {
+      return tag.getId() == typeId;
+    }
+
+    @Override
+    void store(int row, BinaryTag tag) {
+      values[row] = ((NumberTag) tag).doubleValue();
+    }
+
+    @Override
+    BinaryTag load(int row) {
+      return typeId == TypeIds.FLOAT
+          ? BinaryTags.floatTag((float) values[row])
+          : BinaryTags.doubleTag(values[row]);
+    }
+
+    @Override
+    void grow(int capacity) {
+      values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    void move(int from, int to, int length) {
+      System.arraycopy(values, from, values, to, length);
+    }
+
+    @Override
+    TagColumnImpl copy(ColumnarListTagImpl owner) {
+      DoubleColumn result = new DoubleColumn(name, owner, typeId, 0);
+      result.values = values.clone();
+      return result.copyPresence(this);
+    }
+
+    @Override
+    public TagType<? extends BinaryTag> type() {
+      return count == 0 ? null : TagTypes.getType(typeId);
+    }
+
+    @Override
+    public int getInt(int row, int def) {
+      return isPresent(row) ? (int) values[row] : def;
+    }
+
+    @Override
+    public long getLong(int row, long def) {
+      return isPresent(row) ? (long) values[row] : def;
+    }
+
+    @Override
+    public double getDouble(int row, double def) {
+      return isPresent(row) ? values[row] : def;
+    }
+
+    @Override
+    public String getString(int row, String def) {
+      return def;
+    }
+
+    @Override
+    public DoubleStream doubles() {
+      if (isDense()) {
+        return Arrays.stream(values, 0, owner.size());
+      }
+
+      return rows().mapToDouble(row -> values[row]);
+    }
+
+    @Override
+    public IntStream ints() {
+      return doubles().mapToInt(value -> (int) value);
+    }
+
+    @Override
+    public LongStream longs() {
+      return doubles().mapToLong(value -> (long) value);
+    }
+  }
+
+  /* -------------------------- STRING COLUMN -------------------------- */
+
+  /**
+   * Dictionary encoded string column. Each distinct string is stored once,
+   * along with the first tag it was read from, so loading a row doesn't
+   * allocate
+   */
+  static final class StringColumn extends TagColumnImpl {
+    int[] codes;
+
+    final ObjectArrayList<StringTag> dictionary;
+    final Object2IntOpenHashMap<String> lookup;
+
+    StringColumn(String name, ColumnarListTagImpl owner, int capacity) {
+      super(name, owner);
+      this.codes = new int[capacity];
+      this.dictionary = new ObjectArrayList<>();
+      this.lookup = new Object2IntOpenHashMap<>();
+      this.lookup.defaultReturnValue(-1);
+    }
+
+    private StringColumn(StringColumn source, ColumnarListTagImpl owner) {
+      super(source.name, owner);
+      this.codes = source.codes.clone();
+      this.dictionary = source.dictionary.clone();
+      this.lookup = source.lookup.clone();
+    }
+
+    @Override
+    boolean accepts(BinaryTag tag) {
+      return tag.getId() == TypeIds.STRING;
+    }
+
+    @Override
+    void store(int row, BinaryTag tag) {
+      StringTag string = (StringTag) tag;
+      int code = lookup.getInt(string.value());
+
+      if (code == -1) {
+        code = dictionary.size();
+        dictionary.add(string);
+        lookup.put(string.value(), code);
+      }
+
+      codes[row] = code;
+    }
+
+    @Override
+    BinaryTag load(int row) {
+      return dictionary.get(codes[row]);
+    }
+
+    @Override
+    void grow(int capacity) {
+      codes = Arrays.copyOf(codes, capacity);
+    }
+
+    @Override
+    void move(int from, int to, int length) {
+      System.arraycopy(codes, from, codes, to, length);
+    }
+
+    @Override
+    TagColumnImpl copy(ColumnarListTagImpl owner) {
+      return new StringColumn(this, owner).copyPresence(this);
+    }
+
+    @Override
+    public TagType<? extends BinaryTag> type() {
+      return count == 0 ? null : TagTypes.stringType();
+    }
+
+    @Override
+    public int getInt(int row, int def) {
+      return def;
+    }
+
+    @Override
+    public long getLong(int row, long def) {
+      return def;
+    }
+
+    @Override
+    public double getDouble(int row, double def) {
+      return def;
+    }
+
+    @Override
+    public String getString(int row, String def) {
+      return isPresent(row) ? dictionary.get(codes[row]).value() : def;
+    }
+
+    @Override
+    public IntStream ints() {
+      return IntStream.empty();
+    }
+
+    @Override
+    public LongStream longs() {
+      return LongStream.empty();
+    }
+
+    @Override
+    public DoubleStream doubles() {
+      return DoubleStream.empty();
+    }
+  }
+
+  /* -------------------------- OBJECT COLUMN -------------------------- */
+
+  /** Column of arbitrary tags */
+  static final class ObjectColumn extends TagColumnImpl {
+    BinaryTag[] values;
+
+    ObjectColumn(String name, ColumnarListTagImpl owner, int capacity) {
+      super(name, owner);
+      this.values = new BinaryTag[capacity];
+    }
+
+    @Override
+    boolean accepts(BinaryTag tag) {
+      return true;
+    }
+
+    @Override
+    void store(int row, BinaryTag tag) {
+      values[row] = tag;
+    }
+
+    @Override
+    BinaryTag load(int row) {
+      return values[row];
+    }
+
+    @Override
+    void release(int row) {
+      values[row] = null;
+    }
+
+    @Override
+    void grow(int capacity) {
+      values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    void move(int from, int to, int length) {
+      System.arraycopy(values, from, values, to, length);
+    }
+
+    @Override
+    TagColumnImpl copy(ColumnarListTagImpl owner) {
+      ObjectColumn result = new ObjectColumn(name, owner, values.length);
+
+      for (int i = present.nextSetBit(0); i >= 0;
+           i = present.nextSetBit(i + 1)
+      ) {
+        result.values[i] = values[i].copy();
+      }
+
+      return result.copyPresence(this);
+    }
+
+    @Override
+    public TagType<? extends BinaryTag> type() {
+      byte typeId = TypeIds.END;
+
+      for (int i = present.nextSetBit(0); i >= 0;
+           i = present.nextSetBit(i + 1)
+      ) {
+        byte id = values[i].getId();
+
+        if (typeId == TypeIds.END) {
+          typeId = id;
+        } else if (typeId != id) {
+          return null;
+        }
+      }
+
+      return typeId == TypeIds.END ? null : TagTypes.getType(typeId);
+    }
+  }
+}
@@ -0,0 +1,195 @@
+package net.forthecrown.nbt;
+
+import static net.forthecrown.nbt.UnmodifiableTags.unmodifiable;
+
+import it.unimi.dsi.fastutil.bytes.ByteLists;
+import it.unimi.dsi.fastutil.ints.IntLists;
+import it.unimi.dsi.fastutil.longs.LongLists;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Read-only views of primitive array tags, built on fastutil's unmodifiable
+ * lists
+ */
+final class UnmodifiableArrayTags {
+  private UnmodifiableArrayTags() {}
+
+  static class ByteArrayView
+      extends ByteLists.UnmodifiableRandomAccessList
+      implements ByteArrayTag
+  {
+    private static final long serialVersionUID = 1L;
+
+    private final transient ByteArrayTag tag;
+
+    ByteArrayView(ByteArrayTag tag) {
+      super(tag);
+      this.tag = tag;
+    }
+
+    @Override
+    public @NotNull TagType<? extends BinaryTag> getType() {
+      return tag.getType();
+    }
+
+    @Override
+    public void forEachTag(@NotNull Consumer<BinaryTag> consumer) {
+      tag.forEachTag(consumer);
+    }
+
+    @Override
+    public BinaryTag getTag(int index) {
+      return tag.getTag(index);
+    }
+
+    @Override
+    public boolean addTag(BinaryTag tag) {
+      throw unmodifiable();
+    }
+
+    @Override
+    public void removeTag(int index) {
+      throw unmodifiable();
+    }
+
+    @Override
+    public boolean setTag(int index, BinaryTag newTag) {
+      throw unmodifiable();
+    }
+
+    @Override
+    public int removeMatchingTags(Predicate<BinaryTag> filter) {
+      throw unmodifiable();
+    }
+
+    @Override
+    public ByteArrayTag copy() {
+      return tag.copy();
+    }
+
+    @Override
+    public String toString() {
+      return toNbtString();
+    }
+  }
+
+  static class IntArrayView
+      extends IntLists.UnmodifiableRandomAccessList
+      implements IntArrayTag
+  {
+    private static final long serialVersionUID = 1L;
+
+    private final transient IntArrayTag tag;
+
+    IntArrayView(IntArrayTag tag) {
+      super(tag);
+      this.tag = tag;
+    }
+
+    @Override
+    public @NotNull TagType<? extends BinaryTag> getType() {
+      return tag.getType();
+    }
+
+    @Override
+    public void forEachTag(@NotNull Consumer<BinaryTag> consumer) {
+      tag.forEachTag(consumer);
+    }
+
+    @Override
+    public BinaryTag getTag(int index) {
+      return tag.getTag(index);
+    }
+
+    @Override
+    public boolean addTag(BinaryTag tag) {
+      throw unmodifiable();
+    }
+
+    @Override
+    public void removeTag(int index) {
+      throw unmodifiable();
+    }
+
+    @Override
+    public boolean setTag(int index, BinaryTag newTag) {
+      throw unmodifiable();
+    }
+
+    @Override
+    public int removeMatchingTags(Predicate<BinaryTag> filter) {
+      throw unmodifiable();
+    }
+
+    @Override
+    public IntArrayTag copy() {
+      return tag.copy();
+    }
+
+    @Override
+    public String toString() {
+      return toNbtString();
+    }
+  }
+
+  static class LongArrayView
+      extends LongLists.UnmodifiableRandomAccessList
+      implements LongArrayTag
+  {
+    private static final long serialVersionUID = 1L;
+
+    private final transient LongArrayTag tag;
+
+    LongArrayView(LongArrayTag tag) {
+      super(tag);
+      this.tag = tag;
+    }
+
+    @Override
+    public @NotNull TagType<? extends BinaryTag> getType() {
+      return tag.getType();
+    }
+
+    @Override
+    public void forEachTag(@NotNull Consumer<BinaryTag> consumer) {
+      tag.forEachTag(consumer);
+    }
+
+    @Override
+    public BinaryTag getTag(int index) {
+      return tag.getTag(index);
+    }
+
+    @Override
+    public boolean addTag(BinaryTag tag) {
+      throw unmodifiable();
+    }
+
+    @Override
+    public void removeTag(int index) {
+      throw unmodifiable();
+    }
+
+    @Override
+    public boolean setTag(int index, BinaryTag newTag) {
+      throw unmodifiable();
+    }
+
+    @Override
+    public int removeMatchingTags(Predicate<BinaryTag> filter) {
+      throw unmodifiable();
+    }
+
+    @Override
+    public LongArrayTag copy() {
+      return tag.copy();
+    }
+
+    @Override
+    public String toString() {
+      return toNbtString();
+    }
+  }
+}
@@ -0,0 +1,254 @@
+package net.forthecrown.nbt;
+
+import static net.forthecrown.nbt.UnmodifiableTags.unmodifiable;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Read-only view of a compound tag
+ * @see CompoundTag#unmodifiableView()
+ */
+class UnmodifiableCompoundTag
+    extends AbstractMap<String, BinaryTag>
+    implements CompoundTag
+{
+  private final CompoundTag tag;
+
+  private Set<Entry<String, BinaryTag>> entrySet;
+  private Collection<BinaryTag> values;
+
+  UnmodifiableCompoundTag(CompoundTag tag) {
+    this.tag = tag;
+  }
+
+  @Override
+  public @NotNull TagType<? extends BinaryTag> getType() {
+    return tag.getType();
+  }
+
+  @Override
+  public CompoundTag unmodifiableView() {
+    return this;
+  }
+
+  /* ------------------------------ READING ------------------------------- */
+
+  @Override
+  public int size() {
+    return tag.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return tag.isEmpty();
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return tag.containsKey(key);
+  }
+
+  @Override
+  public BinaryTag get(Object key) {
+    return UnmodifiableTags.wrap(tag.get(key));
+  }
+
+  @Override
+  public <T extends BinaryTag> @Nullable T get(String name, TagType<T> type) {
+    return UnmodifiableTags.wrap(tag.get(name, type));
+  }
+
+  @Override
+  public @NotNull Set<String> keySet() {
+    return Collections.unmodifiableSet(tag.keySet());
+  }
+
+  @Override
+  public @NotNull Collection<BinaryTag> values() {
+    if (values == null) {
+      values = new AbstractCollection<>() {
+        @Override
+        public Iterator<BinaryTag> iterator() {
+          Iterator<BinaryTag> it = tag.values().iterator();
+
+          return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+              return it.hasNext();
+            }
+
+            @Override
+            public BinaryTag next() {
+              return UnmodifiableTags.wrap(it.next());
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return tag.size();
+        }
+      };
+    }
+
+    return values;
+  }
+
+  @Override
+  public @NotNull Set<Entry<String, BinaryTag>> entrySet() {
+    if (entrySet == null) {
+      entrySet = new AbstractSet<>() {
+        @Override
+        public Iterator<Entry<String, BinaryTag>> iterator() {
+          var it = tag.entrySet().iterator();
+
+          return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+              return it.hasNext();
+            }
+
+            @Override
+            public Entry<String, BinaryTag> next() {
+              var e = it.next();
+              return new SimpleImmutableEntry<>(
+                  e.getKey(),
+                  UnmodifiableTags.wrap(e.getValue())
+              );
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return tag.size();
+        }
+      };
+    }
+
+    return entrySet;
+  }
+
+  @Override
+  public CompoundTag copy() {
+    return tag.copy();
+  }
+
+  /* ------------------------------ WRITING ------------------------------- */
+
+  @Override
+  public CompoundTag merge(CompoundTag source) {
+    throw unmodifiable();
+  }
+
+  @Override
+  public BinaryTag put(String key, BinaryTag value) {
+    throw unmodifiable();
+  }
+
+  @Override
+  public void putAll(@NotNull Map<? extends String, ? extends BinaryTag> m) {
+    throw unmodifiable();
+  }
+
+  @Override
+  public BinaryTag remove(Object key) {
+    throw unmodifiable();
+  }
+
+  @Override
+  public boolean remove(Object key, Object value) {
+    throw unmodifiable();
+  }
+
+  @Override
+  public void clear() {
+    throw unmodifiable();
+  }
+
+  @Override
+  public BinaryTag putIfAbsent(String key, BinaryTag value) {
+    throw unmodifiable();
+  }
+
+  @Override
+  public BinaryTag replace(String key, BinaryTag value) {
+    throw unmodifiable();
+  }
+
+  @Override
+  public boolean replace(String key, BinaryTag oldValue, BinaryTag newValue) {
+    throw unmodifiable();
+  }
+
+  @Override
+  public void replaceAll(
+      BiFunction<? super String, ? super BinaryTag, ? extends BinaryTag> fn
+  ) {
+    throw unmodifiable();
+  }
+
+  @Override
+  public BinaryTag computeIfAbsent(
+      String key,
+      Function<? super String, ? extends BinaryTag> fn
+  ) {
+    throw unmodifiable();
+  }
+
+  @Override
+  public BinaryTag computeIfPresent(
+      String key,
+      BiFunction<? super String, ? super BinaryTag, ? extends BinaryTag> fn
+  ) {
+    throw unmodifiable();
+  }
+
+  @Override
+  public BinaryTag compute(
+      String key,
+      BiFunction<? super String, ? super BinaryTag, ? extends BinaryTag> fn
+  ) {
+    throw unmodifiable();
+  }
+
+  @Override
+  public BinaryTag merge(
+      String key,
+      @NotNull BinaryTag value,
+      @NotNull BiFunction<? super BinaryTag, ? super BinaryTag, ? extends BinaryTag> fn
+  ) {
+    throw unmodifiable();
+  }
+
+  /* ------------------------------- OBJECT ------------------------------- */
+
+  @Override
+  public boolean equals(Object o) {
+    if (!(o instanceof CompoundTag)) {
+      return false;
+    }
+    return super.equals(o);
+  }
+
+  @Override
+  public int hashCode() {
+    return tag.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return toNbtString();
+  }
+}
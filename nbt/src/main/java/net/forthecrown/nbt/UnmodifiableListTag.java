@@ -0,0 +1,201 @@
+package net.forthecrown.nbt;
+
+import static net.forthecrown.nbt.UnmodifiableTags.unmodifiable;
+
+import it.unimi.dsi.fastutil.objects.AbstractObjectList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Read-only view of a list tag
+ * @see ListTag#unmodifiableView()
+ */
+class UnmodifiableListTag
+    extends AbstractObjectList<BinaryTag>
+    implements ListTag, RandomAccess
+{
+  private final ListTag tag;
+
+  UnmodifiableListTag(ListTag tag) {
+    this.tag = tag;
+  }
+
+  @Override
+  public @NotNull TagType<? extends BinaryTag> getType() {
+    return tag.getType();
+  }
+
+  @Override
+  public ListTag unmodifiableView() {
+    return this;
+  }
+
+  /* ------------------------------ READING ------------------------------- */
+
+  @Override
+  public TagType<? extends BinaryTag> listType() {
+    return tag.listType();
+  }
+
+  @Override
+  public boolean typeMatches(TagType<?> type) {
+    return tag.typeMatches(type);
+  }
+
+  @Override
+  public BinaryTag get(int index) {
+    return UnmodifiableTags.wrap(tag.get(index));
+  }
+
+  @Override
+  public <T extends BinaryTag> T get(int index, TagType<T> type) {
+    return UnmodifiableTags.wrap(tag.get(index, type));
+  }
+
+  @Override
+  public BinaryTag getTag(int index) {
+    return get(index);
+  }
+
+  @Override
+  public int size() {
+    return tag.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return tag.isEmpty();
+  }
+
+  @Override
+  public void forEachTag(@NotNull Consumer<BinaryTag> consumer) {
+    tag.forEachTag(t -> consumer.accept(UnmodifiableTags.wrap(t)));
+  }
+
+  @Override
+  public ListTag copy() {
+    return tag.copy();
+  }
+
+  /* ------------------------------ WRITING ------------------------------- */
+
+  @Override
+  public ListTag merge(ListTag other) {
+    throw unmodifiable();
+  }
+
+  @Override
+  public boolean addTag(BinaryTag tag) {
+    throw unmodifiable();
+  }
+
+  @Override
+  public void removeTag(int index) {
+    throw unmodifiable();
+  }
+
+  @Override
+  public boolean setTag(int index, BinaryTag newTag) {
+    throw unmodifiable();
+  }
+
+  @Override
+  public int removeMatchingTags(Predicate<BinaryTag> filter) {
+    throw unmodifiable();
+  }
+
+  @Override
+  public boolean add(BinaryTag tag) {
+    throw unmodifiable();
+  }
+
+  @Override
+  public void add(int index, BinaryTag tag) {
+    throw unmodifiable();
+  }
+
+  @Override
+  public boolean addAll(@NotNull Collection<? extends BinaryTag> c) {
+    throw unmodifiable();
+  }
+
+  @Override
+  public boolean addAll(int index, @NotNull Collection<? extends BinaryTag> c) {
+    throw unmodifiable();
+  }
+
+  @Override
+  public BinaryTag set(int index, BinaryTag tag) {
+    throw unmodifiable();
+  }
+
+  @Override
+  public BinaryTag remove(int index) {
+    throw unmodifiable();
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    throw unmodifiable();
+  }
+
+  @Override
+  public boolean removeAll(@NotNull Collection<?> c) {
+    throw unmodifiable();
+  }
+
+  @Override
+  public boolean retainAll(@NotNull Collection<?> c) {
+    throw unmodifiable();
+  }
+
+  @Override
+  public boolean removeIf(Predicate<? super BinaryTag> filter) {
+    throw unmodifiable();
+  }
+
+  @Override
+  public void replaceAll(UnaryOperator<BinaryTag> operator) {
+    throw unmodifiable();
+  }
+
+  @Override
+  public void sort(Comparator<? super BinaryTag> c) {
+    throw unmodifiable();
+  }
+
+  @Override
+  public void removeElements(int from, int to) {
+    throw unmodifiable();
+  }
+
+  @Override
+  public void clear() {
+    throw unmodifiable();
+  }
+
+  /* ------------------------------- OBJECT ------------------------------- */
+
+  @Override
+  public boolean equals(Object o) {
+    if (!(o instanceof ListTag)) {
+      return false;
+    }
+    return super.equals(o);
+  }
+
+  @Override
+  public int hashCode() {
+    return tag.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return toNbtString();
+  }
+}
@@ -0,0 +1,73 @@
+package net.forthecrown.nbt;
+
+/**
+ * Creates read-only views of tags.
+ * <p>
+ * Views wrap the live tag, so changes made to the tag are visible through its
+ * view. Structures accessed through a view are wrapped in views of their own
+ * when they're accessed, which means a view costs nothing for the parts of the
+ * tree that are never touched. Strings and numbers are immutable and are
+ * returned as they are.
+ * <p>
+ * Copying a view with {@link BinaryTag#copy()} produces a regular, mutable
+ * deep copy of the viewed tag.
+ */
+final class UnmodifiableTags {
+  private UnmodifiableTags() {}
+
+  static UnsupportedOperationException unmodifiable() {
+    return new UnsupportedOperationException("Tag is unmodifiable");
+  }
+
+  static CompoundTag view(CompoundTag tag) {
+    if (tag instanceof UnmodifiableCompoundTag) {
+      return tag;
+    }
+
+    return new UnmodifiableCompoundTag(tag);
+  }
+
+  static ListTag view(ListTag tag) {
+    if (tag instanceof UnmodifiableListTag) {
+      return tag;
+    }
+
+    return new UnmodifiableListTag(tag);
+  }
+
+  /**
+   * Wraps the specified {@code tag} in a view, if it can be modified
+   * @param tag Tag to wrap, may be {@code null}
+   * @return Read-only tag, or {@code null}, if {@code tag} was null
+   */
+  @SuppressWarnings("unchecked")
+  static <T extends BinaryTag> T wrap(T tag) {
+    if (tag instanceof CompoundTag compound) {
+      return (T) view(compound);
+    }
+
+    if (tag instanceof ListTag list) {
+      return (T) view(list);
+    }
+
+    if (tag instanceof ByteArrayTag arr
+        && !(tag instanceof UnmodifiableArrayTags.ByteArrayView)
+    ) {
+      return (T) new UnmodifiableArrayTags.ByteArrayView(arr);
+    }
+
+    if (tag instanceof IntArrayTag arr
+        && !(tag instanceof UnmodifiableArrayTags.IntArrayView)
+    ) {
+      return (T) new UnmodifiableArrayTags.IntArrayView(arr);
+    }
+
+    if (tag instanceof LongArrayTag arr
+        && !(tag instanceof UnmodifiableArrayTags.LongArrayView)
+    ) {
+      return (T) new UnmodifiableArrayTags.LongArrayView(arr);
+    }
+
+    return tag;
+  }
+}
@@ -0,0 +1,260 @@
+package net.forthecrown.nbt.codec;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Turns method handles into functional interface instances.
+ * <p>
+ * Where possible, {@link LambdaMetafactory} is used to spin a hidden class
+ * which calls the target directly. If the metafactory refuses the lookup, for
+ * example because the target class lives in a different class loader, the
+ * returned function falls back to calling an exact-typed method handle
+ */
+final class Accessors {
+  private Accessors() {}
+
+  static Lookup lookup(Class<?> type) {
+    try {
+      return MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+    } catch (IllegalAccessException exc) {
+      if (Modifier.isPublic(type.getModifiers())) {
+        return MethodHandles.publicLookup();
+      }
+
+      throw new TagCodecException(
+          "Cannot access " + type.getName() + ": " + exc.getMessage(),
+          exc
+      );
+    }
+  }
+
+  private static Object spin(Lookup lookup,
+                             Class<?> iface,
+                             String methodName,
+                             MethodType erasedType,
+                             MethodType instantiatedType,
+                             MethodHandle impl
+  ) {
+    try {
+      CallSite site = LambdaMetafactory.metafactory(
+          lookup,
+          methodName,
+          methodType(iface),
+          erasedType,
+          impl,
+          instantiatedType
+      );
+
+      return site.getTarget().invoke();
+    } catch (Throwable t) {
+      return null;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  static ToIntFunction<Object> intGetter(Lookup lookup, MethodHandle getter) {
+    var spun = spin(
+        lookup, ToIntFunction.class, "applyAsInt",
+        methodType(int.class, Object.class),
+        getter.type().changeReturnType(int.class),
+        getter
+    );
+
+    if (spun != null) {
+      return (ToIntFunction<Object>) spun;
+    }
+
+    MethodHandle mh = getter.asType(methodType(int.class, Object.class));
+    return o -> {
+      try {
+        return (int) mh.invokeExact(o);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  static ToLongFunction<Object> longGetter(Lookup lookup, MethodHandle getter) {
+    var spun = spin(
+        lookup, ToLongFunction.class, "applyAsLong",
+        methodType(long.class, Object.class),
+        getter.type(),
+        getter
+    );
+
+    if (spun != null) {
+      return (ToLongFunction<Object>) spun;
+    }
+
+    MethodHandle mh = getter.asType(methodType(long.class, Object.class));
+    return o -> {
+      try {
+        return (long) mh.invokeExact(o);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  static ToDoubleFunction<Object> doubleGetter(Lookup lookup,
+                                               MethodHandle getter
+  ) {
+    var spun = spin(
+        lookup, ToDoubleFunction.class, "applyAsDouble",
+        methodType(double.class, Object.class),
+        getter.type().changeReturnType(double.class),
+        getter
+    );
+
+    if (spun != null) {
+      return (ToDoubleFunction<Object>) spun;
+    }
+
+    MethodHandle mh = getter.asType(methodType(double.class, Object.class));
+    return o -> {
+      try {
+        return (double) mh.invokeExact(o);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  static Predicate<Object> booleanGetter(Lookup lookup, MethodHandle getter) {
+    var spun = spin(
+        lookup, Predicate.class, "test",
+        methodType(boolean.class, Object.class),
+        getter.type(),
+        getter
+    );
+
+    if (spun != null) {
+      return (Predicate<Object>) spun;
+    }
+
+    MethodHandle mh = getter.asType(methodType(boolean.class, Object.class));
+    return o -> {
+      try {
+        return (boolean) mh.invokeExact(o);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  static Function<Object, Object> objectGetter(Lookup lookup,
+                                               MethodHandle getter
+  ) {
+    var spun = spin(
+        lookup, Function.class, "apply",
+        methodType(Object.class, Object.class),
+        getter.type().wrap(),
+        getter
+    );
+
+    if (spun != null) {
+      return (Function<Object, Object>) spun;
+    }
+
+    MethodHandle mh = getter.asType(methodType(Object.class, Object.class));
+    return o -> {
+      try {
+        return (Object) mh.invokeExact(o);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  static BiConsumer<Object, Object> setter(Lookup lookup, MethodHandle setter) {
+    var spun = spin(
+        lookup, BiConsumer.class, "accept",
+        methodType(void.class, Object.class, Object.class),
+        setter.type().wrap().changeReturnType(void.class),
+        setter
+    );
+
+    if (spun != null) {
+      return (BiConsumer<Object, Object>) spun;
+    }
+
+    MethodHandle mh = setter.asType(
+        methodType(void.class, Object.class, Object.class)
+    );
+
+    return (o, value) -> {
+      try {
+        mh.invokeExact(o, value);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  static Supplier<Object> constructor(Lookup lookup, MethodHandle ctor) {
+    var spun = spin(
+        lookup, Supplier.class, "get",
+        methodType(Object.class),
+        ctor.type(),
+        ctor
+    );
+
+    if (spun != null) {
+      return (Supplier<Object>) spun;
+    }
+
+    MethodHandle mh = ctor.asType(methodType(Object.class));
+    return () -> {
+      try {
+        return (Object) mh.invokeExact();
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    };
+  }
+
+  /**
+   * Adapts a constructor handle to the {@code (Object[])Object} shape so it
+   * can be invoked exactly with an argument array
+   */
+  static MethodHandle spreadConstructor(MethodHandle ctor) {
+    int count = ctor.type().parameterCount();
+
+    return ctor
+        .asSpreader(Object[].class, count)
+        .asType(methodType(Object.class, Object[].class));
+  }
+
+  static RuntimeException rethrow(Throwable t) {
+    if (t instanceof RuntimeException exc) {
+      return exc;
+    }
+
+    if (t instanceof Error err) {
+      throw err;
+    }
+
+    return new TagCodecException(t.getMessage(), t);
+  }
+}
@@ -0,0 +1,353 @@
+package net.forthecrown.nbt.codec;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import net.forthecrown.nbt.CompoundTag;
+
+/**
+ * Introspects record and bean classes and creates their codecs
+ */
+final class CodecFactory {
+  private CodecFactory() {}
+
+  static final ClassValue<TagCodec<?>> CACHE = new ClassValue<>() {
+    @Override
+    protected TagCodec<?> computeValue(Class<?> type) {
+      return create(type);
+    }
+  };
+
+  static boolean isCodecType(Class<?> type) {
+    if (type.isRecord()) {
+      return true;
+    }
+
+    if (type == Object.class
+        || type.isInterface()
+        || type.isPrimitive()
+        || type.isArray()
+        || Modifier.isAbstract(type.getModifiers())
+    ) {
+      return false;
+    }
+
+    try {
+      type.getDeclaredConstructor();
+      return true;
+    } catch (NoSuchMethodException exc) {
+      return false;
+    }
+  }
+
+  static <T> TagCodec<T> create(Class<T> type) {
+    if (!isCodecType(type)) {
+      throw new TagCodecException(
+          type.getName() + " is neither a record, nor a class with a no-args "
+              + "constructor"
+      );
+    }
+
+    if (type.isAnnotationPresent(GenerateCodec.class)) {
+      TagCodec<T> generated = findGenerated(type);
+
+      if (generated != null) {
+        return generated;
+      }
+    }
+
+    Lookup lookup = Accessors.lookup(type);
+
+    try {
+      if (type.isRecord()) {
+        return createRecordCodec(type, lookup);
+      }
+
+      return createBeanCodec(type, lookup);
+    } catch (IllegalAccessException | NoSuchMethodException exc) {
+      throw new TagCodecException(
+          "Failed to create codec for " + type.getName(),
+          exc
+      );
+    }
+  }
+
+  /**
+   * Gets the name of the codec class generated for the specified type
+   * @param type Type
+   * @return Generated codec's binary class name
+   * @see GenerateCodec
+   */
+  static String generatedName(Class<?> type) {
+    StringBuilder name = new StringBuilder(type.getSimpleName());
+    Class<?> enclosing = type.getEnclosingClass();
+
+    while (enclosing != null) {
+      name.insert(0, enclosing.getSimpleName() + "_");
+      enclosing = enclosing.getEnclosingClass();
+    }
+
+    String packageName = type.getPackageName();
+
+    if (!packageName.isEmpty()) {
+      name.insert(0, packageName + ".");
+    }
+
+    return name.append("Codec").toString();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> TagCodec<T> findGenerated(Class<T> type) {
+    Class<?> codecClass;
+
+    try {
+      codecClass = Class.forName(generatedName(type), true, type.getClassLoader());
+    } catch (ClassNotFoundException exc) {
+      return null;
+    }
+
+    try {
+      Object instance = codecClass.getField("INSTANCE").get(null);
+
+      if (instance instanceof TagCodec<?> codec && codec.type() == type) {
+        return (TagCodec<T>) codec;
+      }
+
+      return null;
+    } catch (ReflectiveOperationException exc) {
+      throw new TagCodecException(
+          "Failed to load generated codec for " + type.getName(),
+          exc
+      );
+    }
+  }
+
+  private static <T> TagCodec<T> createRecordCodec(Class<T> type,
+                                                   Lookup lookup
+  ) throws IllegalAccessException, NoSuchMethodException {
+    RecordComponent[] components = type.getRecordComponents();
+    Property[] properties = new Property[components.length];
+    Class<?>[] paramTypes = new Class<?>[components.length];
+
+    for (int i = 0; i < components.length; i++) {
+      RecordComponent component = components[i];
+      MethodHandle getter = lookup.unreflect(component.getAccessor());
+
+      properties[i] = Property.create(
+          component.getName(),
+          component.getGenericType(),
+          lookup,
+          getter
+      );
+
+      paramTypes[i] = component.getType();
+    }
+
+    Constructor<T> ctor = type.getDeclaredConstructor(paramTypes);
+    MethodHandle handle = lookup.unreflectConstructor(ctor);
+
+    return new RecordCodec<>(
+        type,
+        properties,
+        Accessors.spreadConstructor(handle)
+    );
+  }
+
+  private static <T> TagCodec<T> createBeanCodec(Class<T> type, Lookup lookup)
+      throws IllegalAccessException, NoSuchMethodException
+  {
+    List<Method> getters = new ArrayList<>();
+
+    for (Method m: type.getMethods()) {
+      if (Modifier.isStatic(m.getModifiers())
+          || m.getParameterCount() != 0
+          || m.getDeclaringClass() == Object.class
+          || propertyName(m) == null
+      ) {
+        continue;
+      }
+
+      getters.add(m);
+    }
+
+    getters.sort(Comparator.comparing(CodecFactory::propertyName));
+
+    List<Property> properties = new ArrayList<>();
+    List<BiConsumer<Object, Object>> setters = new ArrayList<>();
+
+    for (Method getter: getters) {
+      String name = propertyName(getter);
+      Method setter = findSetter(type, name, getter.getReturnType());
+
+      if (setter == null) {
+        continue;
+      }
+
+      properties.add(Property.create(
+          name,
+          getter.getGenericReturnType(),
+          lookup,
+          lookup.unreflect(getter)
+      ));
+
+      setters.add(Accessors.setter(lookup, lookup.unreflect(setter)));
+    }
+
+    Constructor<T> ctor = type.getDeclaredConstructor();
+    Supplier<Object> factory
+        = Accessors.constructor(lookup, lookup.unreflectConstructor(ctor));
+
+    return new BeanCodec<>(
+        type,
+        properties.toArray(Property[]::new),
+        List.copyOf(setters),
+        factory
+    );
+  }
+
+  private static String propertyName(Method getter) {
+    String name = getter.getName();
+    String stripped;
+
+    if (name.startsWith("get") && name.length() > 3) {
+      stripped = name.substring(3);
+    } else if (name.startsWith("is")
+        && name.length() > 2
+        && getter.getReturnType() == boolean.class
+    ) {
+      stripped = name.substring(2);
+    } else {
+      return null;
+    }
+
+    if (getter.getReturnType() == void.class) {
+      return null;
+    }
+
+    return Character.toLowerCase(stripped.charAt(0)) + stripped.substring(1);
+  }
+
+  private static Method findSetter(Class<?> type, String property, Class<?> valueType) {
+    String name = "set"
+        + Character.toUpperCase(property.charAt(0))
+        + property.substring(1);
+
+    try {
+      Method m = type.getMethod(name, valueType);
+      return Modifier.isStatic(m.getModifiers()) ? null : m;
+    } catch (NoSuchMethodException exc) {
+      return null;
+    }
+  }
+
+  static final class RecordCodec<T> implements TagCodec<T> {
+    private final Class<T> type;
+    private final Property[] properties;
+
+    // (Object[])Object
+    private final MethodHandle constructor;
+
+    RecordCodec(Class<T> type, Property[] properties, MethodHandle constructor) {
+      this.type = type;
+      this.properties = properties;
+      this.constructor = constructor;
+    }
+
+    @Override
+    public Class<T> type() {
+      return type;
+    }
+
+    @Override
+    public void encode(T value, CompoundTag tag) {
+      Objects.requireNonNull(value, "Value");
+
+      for (Property p: properties) {
+        p.write(value, tag);
+      }
+    }
+
+    @Override
+    public T decode(CompoundTag tag) {
+      Object[] args = new Object[properties.length];
+
+      for (int i = 0; i < args.length; i++) {
+        args[i] = properties[i].read(tag);
+      }
+
+      try {
+        return type.cast((Object) constructor.invokeExact(args));
+      } catch (Throwable t) {
+        throw Accessors.rethrow(t);
+      }
+    }
+
+    @Override
+    public String toString() {
+      return "RecordCodec(" + type.getName() + ")";
+    }
+  }
+
+  static final class BeanCodec<T> implements TagCodec<T> {
+    private final Class<T> type;
+    private final Property[] properties;
+    private final List<BiConsumer<Object, Object>> setters;
+    private final Supplier<Object> factory;
+
+    BeanCodec(Class<T> type,
+              Property[] properties,
+              List<BiConsumer<Object, Object>> setters,
+              Supplier<Object> factory
+    ) {
+      this.type = type;
+      this.properties = properties;
+      this.setters = setters;
+      this.factory = factory;
+    }
+
+    @Override
+    public Class<T> type() {
+      return type;
+    }
+
+    @Override
+    public void encode(T value, CompoundTag tag) {
+      Objects.requireNonNull(value, "Value");
+
+      for (Property p: properties) {
+        p.write(value, tag);
+      }
+    }
+
+    @Override
+    public T decode(CompoundTag tag) {
+      Object instance = factory.get();
+
+      for (int i = 0; i < properties.length; i++) {
+        Object value = properties[i].read(tag);
+
+        if (value == null) {
+          continue;
+        }
+
+        setters.get(i).accept(instance, value);
+      }
+
+      return type.cast(instance);
+    }
+
+    @Override
+    public String toString() {
+      return "BeanCodec(" + type.getName() + ")";
+    }
+  }
+}
@@ -0,0 +1,33 @@
+package net.forthecrown.nbt.codec;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a record or bean for compile-time codec generation.
+ * <p>
+ * When the {@code nbt-processor} annotation processor is present on the
+ * annotation processor path, it will generate a {@link TagCodec}
+ * implementation for the annotated type in the same package. The generated
+ * class is named after the type's nesting path joined with underscores and
+ * suffixed with {@code Codec}, for example: {@code Home} generates
+ * {@code HomeCodec} and {@code Player.Home} generates
+ * {@code Player_HomeCodec}. The codec instance is available from the
+ * generated class' {@code INSTANCE} field.
+ * <p>
+ * {@link TagCodec#of(Class)} will return the generated codec, if it exists,
+ * instead of creating one at runtime.
+ * <p>
+ * Generated codecs also override {@link TagCodec#write(Object, java.io.DataOutput)}
+ * to write objects straight to binary NBT without creating an intermediate
+ * {@link net.forthecrown.nbt.CompoundTag}
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface GenerateCodec {
+
+}
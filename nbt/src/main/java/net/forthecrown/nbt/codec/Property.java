@@ -0,0 +1,226 @@
+package net.forthecrown.nbt.codec;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.reflect.Type;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import net.forthecrown.nbt.BinaryTag;
+import net.forthecrown.nbt.CompoundTag;
+
+/**
+ * A single named property of a record or bean, handles moving the property's
+ * value between an object and a compound tag
+ */
+abstract class Property {
+
+  final String name;
+
+  Property(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Creates a property
+   * @param name Property's name, used as the key in the compound
+   * @param type Property's generic type
+   * @param lookup Lookup with access to the getter
+   * @param getter Getter handle, {@code (Owner)Type}
+   * @return Created property
+   */
+  static Property create(String name,
+                         Type type,
+                         Lookup lookup,
+                         MethodHandle getter
+  ) {
+    if (type == int.class
+        || type == short.class
+        || type == byte.class
+        || type == char.class
+    ) {
+      return new IntProperty(name, (Class<?>) type,
+          Accessors.intGetter(lookup, getter)
+      );
+    }
+
+    if (type == long.class) {
+      return new LongProperty(name, Accessors.longGetter(lookup, getter));
+    }
+
+    if (type == float.class || type == double.class) {
+      return new DoubleProperty(name, type == float.class,
+          Accessors.doubleGetter(lookup, getter)
+      );
+    }
+
+    if (type == boolean.class) {
+      return new BooleanProperty(name, Accessors.booleanGetter(lookup, getter));
+    }
+
+    return new ObjectProperty(name,
+        ValueCodec.of(type),
+        Accessors.objectGetter(lookup, getter)
+    );
+  }
+
+  /**
+   * Writes this property's value from the {@code owner} into the {@code tag}
+   * @param owner Object to get the property value from
+   * @param tag Tag to write to
+   */
+  abstract void write(Object owner, CompoundTag tag);
+
+  /**
+   * Reads this property's value from the {@code tag}
+   * @param tag Tag to read from
+   * @return Read value, boxed if primitive
+   */
+  abstract Object read(CompoundTag tag);
+
+  static final class IntProperty extends Property {
+    private final Class<?> type;
+    private final ToIntFunction<Object> getter;
+
+    IntProperty(String name, Class<?> type, ToIntFunction<Object> getter) {
+      super(name);
+      this.type = type;
+      this.getter = getter;
+    }
+
+    @Override
+    void write(Object owner, CompoundTag tag) {
+      int value = getter.applyAsInt(owner);
+
+      if (type == byte.class) {
+        tag.putByte(name, value);
+      } else if (type == short.class) {
+        tag.putShort(name, value);
+      } else {
+        tag.putInt(name, value);
+      }
+    }
+
+    @Override
+    Object read(CompoundTag tag) {
+      if (type == byte.class) {
+        return tag.getByte(name);
+      } else if (type == short.class) {
+        return tag.getShort(name);
+      } else if (type == char.class) {
+        return (char) tag.getInt(name);
+      }
+
+      return tag.getInt(name);
+    }
+  }
+
+  static final class LongProperty extends Property {
+    private final ToLongFunction<Object> getter;
+
+    LongProperty(String name, ToLongFunction<Object> getter) {
+      super(name);
+      this.getter = getter;
+    }
+
+    @Override
+    void write(Object owner, CompoundTag tag) {
+      tag.putLong(name, getter.applyAsLong(owner));
+    }
+
+    @Override
+    Object read(CompoundTag tag) {
+      return tag.getLong(name);
+    }
+  }
+
+  static final class DoubleProperty extends Property {
+    private final boolean isFloat;
+    private final ToDoubleFunction<Object> getter;
+
+    DoubleProperty(String name,
+                   boolean isFloat,
+                   ToDoubleFunction<Object> getter
+    ) {
+      super(name);
+      this.isFloat = isFloat;
+      this.getter = getter;
+    }
+
+    @Override
+    void write(Object owner, CompoundTag tag) {
+      double value = getter.applyAsDouble(owner);
+
+      if (isFloat) {
+        tag.putFloat(name, (float) value);
+      } else {
+        tag.putDouble(name, value);
+      }
+    }
+
+    @Override
+    Object read(CompoundTag tag) {
+      if (isFloat) {
+        return tag.getFloat(name);
+      }
+      return tag.getDouble(name);
+    }
+  }
+
+  static final class BooleanProperty extends Property {
+    private final Predicate<Object> getter;
+
+    BooleanProperty(String name, Predicate<Object> getter) {
+      super(name);
+      this.getter = getter;
+    }
+
+    @Override
+    void write(Object owner, CompoundTag tag) {
+      tag.putBoolean(name, getter.test(owner));
+    }
+
+    @Override
+    Object read(CompoundTag tag) {
+      return tag.getBoolean(name);
+    }
+  }
+
+  static final class ObjectProperty extends Property {
+    private final ValueCodec codec;
+    private final Function<Object, Object> getter;
+
+    ObjectProperty(String name,
+                   ValueCodec codec,
+                   Function<Object, Object> getter
+    ) {
+      super(name);
+      this.codec = codec;
+      this.getter = getter;
+    }
+
+    @Override
+    void write(Object owner, CompoundTag tag) {
+      Object value = getter.apply(owner);
+
+      if (value == null) {
+        return;
+      }
+
+      tag.put(name, codec.toTag(value));
+    }
+
+    @Override
+    Object read(CompoundTag tag) {
+      BinaryTag found = tag.get(name);
+
+      if (found == null) {
+        return null;
+      }
+
+      return codec.fromTag(found);
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package net.forthecrown.nbt.codec;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.UUID;
+import net.forthecrown.nbt.BinaryTags;
+import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.TagTypes;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Encodes objects of a specific type into {@link CompoundTag}s and decodes them
+ * back again.
+ * <p>
+ * Codecs for records and java beans can be obtained with {@link #of(Class)}.
+ * The type is introspected once, when the codec is first requested, after which
+ * property accessors are invoked through generated lambdas or method handles,
+ * meaning no reflection takes place when encoding or decoding a value.
+ * <p>
+ * Supported property types are:
+ * <ul>
+ *   <li>All primitives and their wrappers</li>
+ *   <li>{@link String}s and enums, stored as string tags</li>
+ *   <li>{@link UUID}s, stored with {@link BinaryTags#saveUuid(UUID)}</li>
+ *   <li>{@code byte[]}, {@code int[]} and {@code long[]} arrays</li>
+ *   <li>{@link java.util.List}, {@link java.util.Set} and
+ *       {@link java.util.Collection}s of supported types, stored as list tags
+ *   </li>
+ *   <li>{@link java.util.Map}s with {@link String} keys, stored as compounds</li>
+ *   <li>{@link net.forthecrown.nbt.BinaryTag}s</li>
+ *   <li>Nested records and beans</li>
+ * </ul>
+ *
+ * A 'bean' in this context is any class with a no-args constructor and
+ * public {@code getX}/{@code isX} and {@code setX} method pairs.
+ * <p>
+ * Example:
+ * <pre>
+ * record Home(String name, UUID owner, List&lt;Integer&gt; position) {}
+ *
+ * TagCodec&lt;Home&gt; codec = TagCodec.of(Home.class);
+ *
+ * CompoundTag tag = codec.encode(home);
+ * Home decoded = codec.decode(tag);
+ * </pre>
+ *
+ * @param <T> Type of object the codec handles
+ */
+public interface TagCodec<T> {
+
+  /**
+   * Gets the codec for the specified {@code type}.
+   * <p>
+   * Codecs are cached, so calling this multiple times with the same type will
+   * return the same codec instance.
+   * <p>
+   * If the type is annotated with {@link GenerateCodec} and a generated codec
+   * class exists, the generated codec is returned.
+   *
+   * @param type Record or bean class
+   * @return Codec for the specified type
+   * @throws TagCodecException If the type is not a record or bean, or if any
+   *                           of its properties has an unsupported type
+   */
+  @SuppressWarnings("unchecked")
+  static <T> @NotNull TagCodec<T> of(@NotNull Class<T> type)
+      throws TagCodecException
+  {
+    Objects.requireNonNull(type, "Type");
+    return (TagCodec<T>) CodecFactory.CACHE.get(type);
+  }
+
+  /**
+   * Gets the type this codec handles
+   * @return Codec type
+   */
+  Class<T> type();
+
+  /**
+   * Encodes the specified {@code value} into a new compound tag
+   * @param value Value to encode
+   * @return Encoded value
+   */
+  default CompoundTag encode(@NotNull T value) {
+    CompoundTag tag = BinaryTags.compoundTag();
+    encode(value, tag);
+    return tag;
+  }
+
+  /**
+   * Encodes the specified {@code value} into the specified {@code tag}
+   * <p>
+   * Properties with {@code null} values are not written.
+   *
+   * @param value Value to encode
+   * @param tag Tag to write the value's properties into
+   */
+  void encode(@NotNull T value, @NotNull CompoundTag tag);
+
+  /**
+   * Decodes a value from the specified {@code tag}.
+   * <p>
+   * Missing or mismatched primitive properties are given the same defaults as
+   * the typed {@link CompoundTag} getters return, for example
+   * {@link CompoundTag#getInt(String)}. Any other missing property is
+   * {@code null}
+   *
+   * @param tag Tag to decode
+   * @return Decoded value
+   */
+  T decode(@NotNull CompoundTag tag);
+
+  /**
+   * Writes the specified {@code value} as the payload of a
+   * {@link CompoundTag}, without the tag ID or name.
+   * <p>
+   * The written data is the same as encoding the value and writing it with
+   * {@link TagTypes#compoundType()}. Generated codecs override this method to
+   * write the value directly, without an intermediate tag.
+   *
+   * @param value Value to write
+   * @param output Output to write to
+   * @throws IOException If an IO error occurs
+   */
+  default void write(@NotNull T value, @NotNull DataOutput output)
+      throws IOException
+  {
+    TagTypes.compoundType().write(encode(value), output);
+  }
+}
@@ -0,0 +1,14 @@
+package net.forthecrown.nbt.codec;
+
+public class TagCodecException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  public TagCodecException(String message) {
+    super(message);
+  }
+
+  public TagCodecException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,426 @@
+package net.forthecrown.nbt.codec;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+import net.forthecrown.nbt.BinaryTag;
+import net.forthecrown.nbt.BinaryTags;
+import net.forthecrown.nbt.ByteArrayTag;
+import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.IntArrayTag;
+import net.forthecrown.nbt.ListTag;
+import net.forthecrown.nbt.LongArrayTag;
+import net.forthecrown.nbt.NumberTag;
+import net.forthecrown.nbt.StringTag;
+
+/**
+ * Converts non-primitive property values to and from tags.
+ * <p>
+ * {@link #fromTag(BinaryTag)} returns {@code null} if the given tag's type
+ * doesn't match the value type, the same way the typed {@link CompoundTag}
+ * getters fall back to defaults
+ */
+interface ValueCodec {
+
+  BinaryTag toTag(Object value);
+
+  Object fromTag(BinaryTag tag);
+
+  static ValueCodec of(Type type) {
+    if (type instanceof ParameterizedType parameterized) {
+      return ofParameterized(parameterized);
+    }
+
+    if (!(type instanceof Class<?> c)) {
+      throw new TagCodecException("Unsupported type: " + type.getTypeName());
+    }
+
+    if (c == String.class) {
+      return STRING;
+    }
+    if (c == Integer.class) {
+      return INT;
+    }
+    if (c == Long.class) {
+      return LONG;
+    }
+    if (c == Short.class) {
+      return SHORT;
+    }
+    if (c == Byte.class) {
+      return BYTE;
+    }
+    if (c == Float.class) {
+      return FLOAT;
+    }
+    if (c == Double.class) {
+      return DOUBLE;
+    }
+    if (c == Boolean.class) {
+      return BOOLEAN;
+    }
+    if (c == Character.class) {
+      return CHAR;
+    }
+    if (c == UUID.class) {
+      return UUID_CODEC;
+    }
+    if (c == byte[].class) {
+      return BYTE_ARRAY;
+    }
+    if (c == int[].class) {
+      return INT_ARRAY;
+    }
+    if (c == long[].class) {
+      return LONG_ARRAY;
+    }
+
+    if (c.isEnum()) {
+      return new EnumCodec(c);
+    }
+
+    if (BinaryTag.class.isAssignableFrom(c)) {
+      return new TagValueCodec(c);
+    }
+
+    if (c.isPrimitive()
+        || c.isArray()
+        || c.isInterface()
+        || Collection.class.isAssignableFrom(c)
+        || Map.class.isAssignableFrom(c)
+        || !CodecFactory.isCodecType(c)
+    ) {
+      throw new TagCodecException("Unsupported type: " + c.getName());
+    }
+
+    return new NestedCodec(c);
+  }
+
+  private static ValueCodec ofParameterized(ParameterizedType type) {
+    Type raw = type.getRawType();
+    Type[] args = type.getActualTypeArguments();
+
+    if (raw == List.class || raw == Collection.class) {
+      return new CollectionCodec(of(args[0]), ArrayList::new);
+    }
+
+    if (raw == Set.class) {
+      return new CollectionCodec(of(args[0]), LinkedHashSet::new);
+    }
+
+    if (raw == Map.class && args[0] == String.class) {
+      return new MapCodec(of(args[1]));
+    }
+
+    throw new TagCodecException("Unsupported type: " + type.getTypeName());
+  }
+
+  ValueCodec STRING = new ValueCodec() {
+    @Override
+    public BinaryTag toTag(Object value) {
+      return BinaryTags.stringTag((String) value);
+    }
+
+    @Override
+    public Object fromTag(BinaryTag tag) {
+      return tag instanceof StringTag str ? str.value() : null;
+    }
+  };
+
+  ValueCodec INT = new ValueCodec() {
+    @Override
+    public BinaryTag toTag(Object value) {
+      return BinaryTags.intTag((Integer) value);
+    }
+
+    @Override
+    public Object fromTag(BinaryTag tag) {
+      return tag instanceof NumberTag n ? n.intValue() : null;
+    }
+  };
+
+  ValueCodec LONG = new ValueCodec() {
+    @Override
+    public BinaryTag toTag(Object value) {
+      return BinaryTags.longTag((Long) value);
+    }
+
+    @Override
+    public Object fromTag(BinaryTag tag) {
+      return tag instanceof NumberTag n ? n.longValue() : null;
+    }
+  };
+
+  ValueCodec SHORT = new ValueCodec() {
+    @Override
+    public BinaryTag toTag(Object value) {
+      return BinaryTags.shortTag((Short) value);
+    }
+
+    @Override
+    public Object fromTag(BinaryTag tag) {
+      return tag instanceof NumberTag n ? n.shortValue() : null;
+    }
+  };
+
+  ValueCodec BYTE = new ValueCodec() {
+    @Override
+    public BinaryTag toTag(Object value) {
+      return BinaryTags.byteTag((Byte) value);
+    }
+
+    @Override
+    public Object fromTag(BinaryTag tag) {
+      return tag instanceof NumberTag n ? n.byteValue() : null;
+    }
+  };
+
+  ValueCodec FLOAT = new ValueCodec() {
+    @Override
+    public BinaryTag toTag(Object value) {
+      return BinaryTags.floatTag((Float) value);
+    }
+
+    @Override
+    public Object fromTag(BinaryTag tag) {
+      return tag instanceof NumberTag n ? n.floatValue() : null;
+    }
+  };
+
+  ValueCodec DOUBLE = new ValueCodec() {
+    @Override
+    public BinaryTag toTag(Object value) {
+      return BinaryTags.doubleTag((Double) value);
+    }
+
+    @Override
+    public Object fromTag(BinaryTag tag) {
+      return tag instanceof NumberTag n ? n.doubleValue() : null;
+    }
+  };
+
+  ValueCodec BOOLEAN = new ValueCodec() {
+    @Override
+    public BinaryTag toTag(Object value) {
+      return BinaryTags.byteTag((Boolean) value ? 1 : 0);
+    }
+
+    @Override
+    public Object fromTag(BinaryTag tag) {
+      return tag instanceof NumberTag n ? n.booleanValue() : null;
+    }
+  };
+
+  ValueCodec CHAR = new ValueCodec() {
+    @Override
+    public BinaryTag toTag(Object value) {
+      return BinaryTags.intTag((Character) value);
+    }
+
+    @Override
+    public Object fromTag(BinaryTag tag) {
+      return tag instanceof NumberTag n ? (char) n.intValue() : null;
+    }
+  };
+
+  ValueCodec UUID_CODEC = new ValueCodec() {
+    @Override
+    public BinaryTag toTag(Object value) {
+      return BinaryTags.saveUuid((UUID) value);
+    }
+
+    @Override
+    public Object fromTag(BinaryTag tag) {
+      if (!(tag instanceof IntArrayTag arr) || arr.size() != 4) {
+        return null;
+      }
+      return BinaryTags.loadUuid(arr);
+    }
+  };
+
+  ValueCodec BYTE_ARRAY = new ValueCodec() {
+    @Override
+    public BinaryTag toTag(Object value) {
+      return BinaryTags.byteArrayTag((byte[]) value);
+    }
+
+    @Override
+    public Object fromTag(BinaryTag tag) {
+      return tag instanceof ByteArrayTag arr ? arr.toByteArray() : null;
+    }
+  };
+
+  ValueCodec INT_ARRAY = new ValueCodec() {
+    @Override
+    public BinaryTag toTag(Object value) {
+      return BinaryTags.intArrayTag((int[]) value);
+    }
+
+    @Override
+    public Object fromTag(BinaryTag tag) {
+      return tag instanceof IntArrayTag arr ? arr.toIntArray() : null;
+    }
+  };
+
+  ValueCodec LONG_ARRAY = new ValueCodec() {
+    @Override
+    public BinaryTag toTag(Object value) {
+      return BinaryTags.longArrayTag((long[]) value);
+    }
+
+    @Override
+    public Object fromTag(BinaryTag tag) {
+      return tag instanceof LongArrayTag arr ? arr.toLongArray() : null;
+    }
+  };
+
+  final class EnumCodec implements ValueCodec {
+    private final Map<String, Object> constants = new HashMap<>();
+
+    EnumCodec(Class<?> type) {
+      for (Object o: type.getEnumConstants()) {
+        constants.put(((Enum<?>) o).name(), o);
+      }
+    }
+
+    @Override
+    public BinaryTag toTag(Object value) {
+      return BinaryTags.stringTag(((Enum<?>) value).name());
+    }
+
+    @Override
+    public Object fromTag(BinaryTag tag) {
+      return tag instanceof StringTag str ? constants.get(str.value()) : null;
+    }
+  }
+
+  record TagValueCodec(Class<?> type) implements ValueCodec {
+    @Override
+    public BinaryTag toTag(Object value) {
+      return (BinaryTag) value;
+    }
+
+    @Override
+    public Object fromTag(BinaryTag tag) {
+      return type.isInstance(tag) ? tag : null;
+    }
+  }
+
+  final class NestedCodec implements ValueCodec {
+    private final Class<?> type;
+
+    // Resolved lazily to allow for self-referencing types
+    private TagCodec<Object> codec;
+
+    NestedCodec(Class<?> type) {
+      this.type = type;
+    }
+
+    @SuppressWarnings("unchecked")
+    private TagCodec<Object> codec() {
+      if (codec == null) {
+        codec = (TagCodec<Object>) TagCodec.of(type);
+      }
+      return codec;
+    }
+
+    @Override
+    public BinaryTag toTag(Object value) {
+      return codec().encode(value);
+    }
+
+    @Override
+    public Object fromTag(BinaryTag tag) {
+      return tag instanceof CompoundTag compound ? codec().decode(compound) : null;
+    }
+  }
+
+  record CollectionCodec(ValueCodec elementCodec,
+                         Supplier<Collection<Object>> factory
+  ) implements ValueCodec {
+
+    @Override
+    public BinaryTag toTag(Object value) {
+      ListTag list = BinaryTags.listTag();
+
+      for (Object o: (Collection<?>) value) {
+        if (o == null) {
+          continue;
+        }
+
+        list.add(elementCodec.toTag(o));
+      }
+
+      return list;
+    }
+
+    @Override
+    public Object fromTag(BinaryTag tag) {
+      if (!(tag instanceof ListTag list)) {
+        return null;
+      }
+
+      Collection<Object> result = factory.get();
+
+      for (int i = 0; i < list.size(); i++) {
+        Object element = elementCodec.fromTag(list.get(i));
+
+        if (element == null) {
+          continue;
+        }
+
+        result.add(element);
+      }
+
+      return result;
+    }
+  }
+
+  record MapCodec(ValueCodec valueCodec) implements ValueCodec {
+
+    @Override
+    public BinaryTag toTag(Object value) {
+      CompoundTag tag = BinaryTags.compoundTag();
+
+      for (var e: ((Map<?, ?>) value).entrySet()) {
+        if (e.getValue() == null) {
+          continue;
+        }
+
+        tag.put((String) e.getKey(), valueCodec.toTag(e.getValue()));
+      }
+
+      return tag;
+    }
+
+    @Override
+    public Object fromTag(BinaryTag tag) {
+      if (!(tag instanceof CompoundTag compound)) {
+        return null;
+      }
+
+      Map<String, Object> result = new LinkedHashMap<>();
+
+      for (var e: compound.entrySet()) {
+        Object value = valueCodec.fromTag(e.getValue());
+
+        if (value == null) {
+          continue;
+        }
+
+        result.put(e.getKey(), value);
+      }
+
+      return result;
+    }
+  }
+}
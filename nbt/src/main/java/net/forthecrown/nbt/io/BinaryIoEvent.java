@@ -0,0 +1,48 @@
+package net.forthecrown.nbt.io;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR events emitted when reading and writing binary NBT
+ */
+@Category({"NBT", "Binary"})
+@StackTrace(false)
+abstract class BinaryIoEvent extends Event {
+
+  @Label("Bytes")
+  @Description("Uncompressed size of the NBT data")
+  @DataAmount
+  long bytes;
+
+  @Label("Compressed Bytes")
+  @Description("Compressed size of the NBT data, -1 if not compressed")
+  @DataAmount
+  long compressedBytes;
+
+  @Label("Compression")
+  String compression;
+
+  @Label("Tag Count")
+  long tagCount;
+
+  @Label("Max Depth")
+  int maxDepth;
+
+  @Name("net.forthecrown.nbt.BinaryRead")
+  @Label("NBT Read")
+  static final class Read extends BinaryIoEvent {
+
+  }
+
+  @Name("net.forthecrown.nbt.BinaryWrite")
+  @Label("NBT Write")
+  static final class Write extends BinaryIoEvent {
+
+  }
+}
@@ -0,0 +1,143 @@
+package net.forthecrown.nbt.io;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Data input reading from a {@link ByteBuffer}.
+ * <p>
+ * Reads from a big-endian view of the buffer, so the source buffer's position
+ * and byte order are not changed. Skipping bytes only moves the view's
+ * position, nothing is copied.
+ */
+class ByteBufferDataInput implements DataInput {
+
+  private final ByteBuffer buffer;
+
+  public ByteBufferDataInput(ByteBuffer buffer) {
+    this.buffer = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+  }
+
+  private void require(int bytes) throws EOFException {
+    if (buffer.remaining() < bytes) {
+      throw new EOFException();
+    }
+  }
+
+  @Override
+  public void readFully(byte @NotNull [] b) throws IOException {
+    readFully(b, 0, b.length);
+  }
+
+  @Override
+  public void readFully(byte @NotNull [] b, int off, int len)
+      throws IOException
+  {
+    require(len);
+    buffer.get(b, off, len);
+  }
+
+  @Override
+  public int skipBytes(int n) {
+    int skipped = Math.max(0, Math.min(n, buffer.remaining()));
+    buffer.position(buffer.position() + skipped);
+    return skipped;
+  }
+
+  @Override
+  public boolean readBoolean() throws IOException {
+    return readByte() != 0;
+  }
+
+  @Override
+  public byte readByte() throws IOException {
+    require(Byte.BYTES);
+    return buffer.get();
+  }
+
+  @Override
+  public int readUnsignedByte() throws IOException {
+    return readByte() & 0xFF;
+  }
+
+  @Override
+  public short readShort() throws IOException {
+    require(Short.BYTES);
+    return buffer.getShort();
+  }
+
+  @Override
+  public int readUnsignedShort() throws IOException {
+    return readShort() & 0xFFFF;
+  }
+
+  @Override
+  public char readChar() throws IOException {
+    require(Character.BYTES);
+    return buffer.getChar();
+  }
+
+  @Override
+  public int readInt() throws IOException {
+    require(Integer.BYTES);
+    return buffer.getInt();
+  }
+
+  @Override
+  public long readLong() throws IOException {
+    require(Long.BYTES);
+    return buffer.getLong();
+  }
+
+  @Override
+  public float readFloat() throws IOException {
+    require(Float.BYTES);
+    return buffer.getFloat();
+  }
+
+  @Override
+  public double readDouble() throws IOException {
+    require(Double.BYTES);
+    return buffer.getDouble();
+  }
+
+  @Override
+  public String readLine() {
+    if (!buffer.hasRemaining()) {
+      return null;
+    }
+
+    StringBuilder builder = new StringBuilder();
+
+    while (buffer.hasRemaining()) {
+      char c = (char) (buffer.get() & 0xFF);
+
+      if (c == '\n') {
+        break;
+      }
+
+      if (c == '\r') {
+        if (buffer.hasRemaining() && buffer.get(buffer.position()) == '\n') {
+          buffer.get();
+        }
+
+        break;
+      }
+
+      builder.append(c);
+    }
+
+    return builder.toString();
+  }
+
+  @NotNull
+  @Override
+  public String readUTF() throws IOException {
+    return DataInputStream.readUTF(this);
+  }
+}
@@ -1,20 +1,27 @@
 package net.forthecrown.nbt.io;
 
 import java.io.DataInput;
+import java.io.DataInputStream;
 import java.io.IOException;
 import java.util.Objects;
+import net.forthecrown.nbt.CompoundShapes;
 import org.jetbrains.annotations.NotNull;
 
 class CountingDataInput implements ScopedDataInput {
 
   private final DataInput base;
   private final long maximumBytes;
+  private final CompoundShapes shapes;
   private long readBytes;
   private int depth;
 
-  public CountingDataInput(DataInput base, long maximumBytes) {
+  public CountingDataInput(DataInput base,
+                           long maximumBytes,
+                           CompoundShapes shapes
+  ) {
     this.base = Objects.requireNonNull(base);
     this.maximumBytes = maximumBytes;
+    this.shapes = shapes;
   }
 
   @Override
@@ -45,10 +52,19 @@ class CountingDataInput implements ScopedDataInput {
     return maximumBytes;
   }
 
+  @Override
+  public CompoundShapes shapes() {
+    return shapes;
+  }
+
+  /**
+   * Adds the specified amount to the read bytes, and fails once they pass the
+   * maximum, a maximum of 0 or less means there's no limit
+   */
   private void accountBytes(long bytes) throws IOException {
     readBytes += bytes;
 
-    if (maximumBytes <= 0 || maximumBytes <= readBytes) {
+    if (maximumBytes <= 0 || readBytes <= maximumBytes) {
       return;
     }
 
@@ -75,8 +91,10 @@ class CountingDataInput implements ScopedDataInput {
 
   @Override
   public int skipBytes(int n) throws IOException {
-    accountBytes(n);
-    return base.skipBytes(n);
+    // May skip fewer bytes than requested, only count what was skipped
+    int skipped = base.skipBytes(n);
+    accountBytes(skipped);
+    return skipped;
   }
 
   @Override
@@ -153,8 +171,8 @@ class CountingDataInput implements ScopedDataInput {
   @NotNull
   @Override
   public String readUTF() throws IOException {
-    String utf = base.readUTF();
-    accountBytes((utf.length() * 2L) + 2L);
-    return utf;
+    // Reads the length and bytes through this input, so the exact encoded
+    // size is accounted for
+    return DataInputStream.readUTF(this);
   }
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package net.forthecrown.nbt.io;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Streams that count the bytes passing through them
+ */
+final class CountingStreams {
+  private CountingStreams() {}
+
+  static final class Input extends FilterInputStream {
+    long count;
+
+    Input(InputStream in) {
+      super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+      int read = super.read();
+
+      if (read != -1) {
+        count++;
+      }
+
+      return read;
+    }
+
+    @Override
+    public int read(byte @NotNull [] b, int off, int len) throws IOException {
+      int read = in.read(b, off, len);
+
+      if (read > 0) {
+        count += read;
+      }
+
+      return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      long skipped = super.skip(n);
+      count += skipped;
+      return skipped;
+    }
+  }
+
+  static final class Output extends FilterOutputStream {
+    long count;
+
+    Output(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+      count++;
+    }
+
+    @Override
+    public void write(byte @NotNull [] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+      count += len;
+    }
+  }
+}
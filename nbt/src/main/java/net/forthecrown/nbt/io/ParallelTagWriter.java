@@ -0,0 +1,228 @@
+package net.forthecrown.nbt.io;
+
+import static net.forthecrown.nbt.TypeIds.END;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import net.forthecrown.nbt.BinaryTag;
+import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.ListTag;
+import net.forthecrown.nbt.TagType;
+import net.forthecrown.nbt.TypeIds;
+
+/**
+ * Encodes tags into binary NBT on a {@link ForkJoinPool}.
+ * <p>
+ * Each task encodes its part of the tree into its own buffers, producing an
+ * ordered list of byte segments. Where a task forks a subtask, it closes its
+ * current segment and later splices the subtask's segments in its place, so
+ * concatenating the final segments produces exactly the bytes a sequential
+ * write would. The same size thresholds as parallel copying are used to
+ * decide what gets split.
+ */
+final class ParallelTagWriter {
+  private ParallelTagWriter() {}
+
+  static final int FORK_THRESHOLD = 64;
+  static final int CHUNK_SIZE = 256;
+
+  /**
+   * Writes a named root tag
+   */
+  static void write(OutputStream output,
+                    String name,
+                    CompoundTag tag,
+                    ForkJoinPool pool
+  ) throws IOException {
+    List<byte[]> segments;
+
+    try {
+      segments = pool.invoke(new EncodeTask(root -> {
+        root.out.writeByte(TypeIds.COMPOUND);
+        root.out.writeUTF(name);
+        encodeCompound(tag, root);
+      }));
+    } catch (UncheckedIOException exc) {
+      throw exc.getCause();
+    }
+
+    for (byte[] segment: segments) {
+      output.write(segment);
+    }
+  }
+
+  private static boolean shouldFork(BinaryTag tag) {
+    return (tag instanceof CompoundTag c && c.size() >= FORK_THRESHOLD)
+        || (tag instanceof ListTag l && l.size() >= FORK_THRESHOLD);
+  }
+
+  /** Writes a tag's payload */
+  @SuppressWarnings("unchecked")
+  private static void encodeValue(BinaryTag tag, Segments segments)
+      throws IOException
+  {
+    if (tag instanceof CompoundTag compound) {
+      encodeCompound(compound, segments);
+    } else if (tag instanceof ListTag list) {
+      encodeList(list, segments);
+    } else {
+      ((TagType<BinaryTag>) tag.getType()).write(tag, segments.out);
+    }
+  }
+
+  private static void encodeChild(BinaryTag tag, Segments segments)
+      throws IOException
+  {
+    if (shouldFork(tag)) {
+      segments.fork(s -> encodeValue(tag, s));
+    } else {
+      encodeValue(tag, segments);
+    }
+  }
+
+  private static void encodeCompound(CompoundTag tag, Segments segments)
+      throws IOException
+  {
+    if (tag.size() <= CHUNK_SIZE) {
+      encodeEntries(tag.entrySet(), segments);
+    } else {
+      List<Entry<String, BinaryTag>> entries = new ArrayList<>(tag.entrySet());
+
+      for (int from = 0; from < entries.size(); from += CHUNK_SIZE) {
+        int to = Math.min(from + CHUNK_SIZE, entries.size());
+        var chunk = entries.subList(from, to);
+        segments.fork(s -> encodeEntries(chunk, s));
+      }
+    }
+
+    segments.out.writeByte(END);
+  }
+
+  private static void encodeEntries(Iterable<Entry<String, BinaryTag>> entries,
+                                    Segments segments
+  ) throws IOException {
+    for (var e: entries) {
+      BinaryTag value = e.getValue();
+
+      // Do NOT write end tags that somehow end up in the compound
+      if (value.getId() == END) {
+        continue;
+      }
+
+      segments.out.writeByte(value.getId());
+      segments.out.writeUTF(e.getKey());
+      encodeChild(value, segments);
+    }
+  }
+
+  private static void encodeList(ListTag tag, Segments segments)
+      throws IOException
+  {
+    int size = tag.size();
+    var listType = tag.listType();
+
+    segments.out.writeByte(listType == null ? END : listType.getId());
+    segments.out.writeInt(size);
+
+    if (tag.isEmpty() || listType == null) {
+      return;
+    }
+
+    if (size <= CHUNK_SIZE) {
+      encodeElements(tag, segments);
+      return;
+    }
+
+    for (int from = 0; from < size; from += CHUNK_SIZE) {
+      var chunk = tag.subList(from, Math.min(from + CHUNK_SIZE, size));
+      segments.fork(s -> encodeElements(chunk, s));
+    }
+  }
+
+  private static void encodeElements(List<BinaryTag> elements,
+                                     Segments segments
+  ) throws IOException {
+    for (int i = 0; i < elements.size(); i++) {
+      encodeChild(elements.get(i), segments);
+    }
+  }
+
+  private interface Encoder {
+    void encode(Segments segments) throws IOException;
+  }
+
+  /**
+   * Ordered output of a single task, made up of written bytes and forked
+   * subtasks
+   */
+  private static class Segments {
+    private final List<Object> parts = new ArrayList<>();
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    final DataOutputStream out = new DataOutputStream(buffer);
+
+    void fork(Encoder encoder) {
+      cut();
+
+      EncodeTask task = new EncodeTask(encoder);
+      task.fork();
+      parts.add(task);
+    }
+
+    private void cut() {
+      if (buffer.size() == 0) {
+        return;
+      }
+
+      parts.add(buffer.toByteArray());
+      buffer.reset();
+    }
+
+    @SuppressWarnings("unchecked")
+    List<byte[]> join() {
+      cut();
+      List<byte[]> result = new ArrayList<>(parts.size());
+
+      for (Object part: parts) {
+        if (part instanceof byte[] bytes) {
+          result.add(bytes);
+        } else {
+          result.addAll(((ForkJoinTask<List<byte[]>>) part).join());
+        }
+      }
+
+      return result;
+    }
+  }
+
+  private static class EncodeTask extends RecursiveTask<List<byte[]>> {
+    private static final long serialVersionUID = 1L;
+
+    private final transient Encoder encoder;
+
+    EncodeTask(Encoder encoder) {
+      this.encoder = encoder;
+    }
+
+    @Override
+    protected List<byte[]> compute() {
+      Segments segments = new Segments();
+
+      try {
+        encoder.encode(segments);
+      } catch (IOException exc) {
+        throw new UncheckedIOException(exc);
+      }
+
+      return segments.join();
+    }
+  }
+}
@@ -2,6 +2,9 @@ package net.forthecrown.nbt.io;
 
 import java.io.DataInput;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import net.forthecrown.nbt.CompoundShapes;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * A data input which tracks 2 extra variables.
@@ -20,6 +23,63 @@ public interface ScopedDataInput extends DataInput {
    */
   int MAX_DEPTH = 512;
 
+  /**
+   * Creates a scoped data input that reads from the specified {@code input}
+   * without any size limit
+   *
+   * @param input Input to read from
+   * @return Created input
+   */
+  static ScopedDataInput create(DataInput input) {
+    return create(input, 0);
+  }
+
+  /**
+   * Creates a scoped data input that reads from the specified {@code input}
+   *
+   * @param input Input to read from
+   * @param maxBytes Maximum amount of bytes that may be read, 0 or less for
+   *                 no limit
+   * @return Created input
+   */
+  static ScopedDataInput create(DataInput input, long maxBytes) {
+    return create(input, maxBytes, null);
+  }
+
+  /**
+   * Creates a scoped data input that reads from the specified {@code input},
+   * and decodes compounds as shaped compounds of the specified registry
+   *
+   * @param input Input to read from
+   * @param maxBytes Maximum amount of bytes that may be read, 0 or less for
+   *                 no limit
+   * @param shapes Shape registry, or {@code null}, to decode regular
+   *               compounds
+   * @return Created input
+   * @see #shapes()
+   */
+  static ScopedDataInput create(DataInput input,
+                                long maxBytes,
+                                @Nullable CompoundShapes shapes
+  ) {
+    return new CountingDataInput(input, maxBytes, shapes);
+  }
+
+  /**
+   * Creates a scoped data input that reads from the specified {@code buffer}
+   * without any size limit.
+   * <p>
+   * Reading starts at the buffer's current position, and the data is always
+   * read as big-endian. The buffer's own position and byte order are not
+   * changed by the returned input.
+   *
+   * @param buffer Buffer to read from
+   * @return Created input
+   */
+  static ScopedDataInput create(ByteBuffer buffer) {
+    return create(new ByteBufferDataInput(buffer), 0);
+  }
+
   /**
    * Increases tag depth and performs a depth check
    * @throws IOException If the depth check fails
@@ -48,4 +108,16 @@ public interface ScopedDataInput extends DataInput {
    * @return Max readable bytes, 0 or less, if no limit
    */
   long maxBytes();
+
+  /**
+   * Gets the shape registry compounds read from this input share their
+   * shapes with
+   *
+   * @return Shape registry, or {@code null}, if compounds are read as regular
+   *         compounds
+   * @see CompoundShapes
+   */
+  default @Nullable CompoundShapes shapes() {
+    return null;
+  }
 }
\ No newline at end of file
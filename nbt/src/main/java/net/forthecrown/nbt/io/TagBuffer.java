@@ -0,0 +1,135 @@
+package net.forthecrown.nbt.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import net.forthecrown.nbt.CompoundTag;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A read-only NBT document kept in a single {@link ByteBuffer} in its binary
+ * form.
+ * <p>
+ * A tag tree of objects takes up many times the size of its binary form, and
+ * every one of those objects is scanned by the garbage collector. A tag buffer
+ * instead holds the document's bytes, usually off-heap in a direct buffer,
+ * along with a small index of primitive arrays. The index records where each
+ * compound and list ends, so navigating never has to walk through the
+ * contents of a skipped structure.
+ * <p>
+ * The document is navigated with {@link TagCursor}s, starting at
+ * {@link #root()}. Cursors read values straight from the buffer and don't
+ * create tag objects, unless a subtree is converted into tags with
+ * {@link TagCursor#toTag()}.
+ * <pre>
+ * TagBuffer template = TagBuffer.of(compoundTag);
+ *
+ * TagCursor root = template.root();
+ * int level = root.getInt("level");
+ * TagCursor display = root.getCompound("display");
+ *
+ * root.getList("Items").forEach(item -> { ... });
+ * </pre>
+ * Tag buffers and their cursors are immutable and can be shared between
+ * threads.
+ */
+public interface TagBuffer {
+
+  /**
+   * Creates a tag buffer from the remaining bytes of the specified
+   * {@code buffer}, which must hold a named root compound, as written by
+   * {@link TagIo#write(java.io.OutputStream, CompoundTag)}.
+   * <p>
+   * The data is not copied, so the buffer must not be modified afterwards.
+   * The buffer's position is not changed. The data is validated and indexed
+   * when the tag buffer is created, so a malformed buffer fails here instead
+   * of while it's being navigated.
+   *
+   * @param buffer Buffer holding binary NBT
+   * @return Created tag buffer
+   * @throws IOException If the data is malformed, or the tag depth goes above
+   *                     {@link ScopedDataInput#MAX_DEPTH}
+   */
+  static TagBuffer wrap(@NotNull ByteBuffer buffer) throws IOException {
+    return TagBufferImpl.create(buffer);
+  }
+
+  /**
+   * Writes the specified {@code tag} into a direct, off-heap buffer
+   * @param tag Tag to write
+   * @return Created tag buffer
+   */
+  static TagBuffer of(@NotNull CompoundTag tag) {
+    return of(tag, true);
+  }
+
+  /**
+   * Writes the specified {@code tag} into a new buffer
+   *
+   * @param tag Tag to write
+   * @param direct {@code true}, to allocate a direct buffer, {@code false} to
+   *               allocate a heap buffer
+   * @return Created tag buffer
+   */
+  static TagBuffer of(@NotNull CompoundTag tag, boolean direct) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    try {
+      TagIo.tagIo().write(out, tag);
+      return TagBufferImpl.create(TagBufferImpl.allocate(out, direct));
+    } catch (IOException exc) {
+      // Neither writing to a byte array nor reading back what was just
+      // written can fail
+      throw new IllegalStateException(exc);
+    }
+  }
+
+  /**
+   * Reads the specified {@code input} fully into a direct buffer. The input
+   * is not closed.
+   *
+   * @param input Input holding uncompressed binary NBT
+   * @return Created tag buffer
+   * @throws IOException If an IO error occurs, if the data is malformed, or
+   *                     the tag depth goes above
+   *                     {@link ScopedDataInput#MAX_DEPTH}
+   */
+  static TagBuffer read(@NotNull InputStream input) throws IOException {
+    byte[] data = input.readAllBytes();
+    ByteBuffer buffer = ByteBuffer.allocateDirect(data.length).put(data);
+    return TagBufferImpl.create(buffer.flip());
+  }
+
+  /**
+   * Gets a cursor pointing at the document's root compound
+   * @return Root cursor
+   */
+  @NotNull TagCursor root();
+
+  /**
+   * Converts the entire document into a regular compound tag
+   * @return Decoded document
+   */
+  @NotNull CompoundTag toCompound();
+
+  /**
+   * Gets a read-only view of the document's binary data
+   * @return Data buffer, starting at the root tag's type ID
+   */
+  @NotNull ByteBuffer data();
+
+  /**
+   * Gets the size of the document's binary data
+   * @return Byte size
+   */
+  int byteSize();
+
+  /**
+   * Gets the amount of compounds and lists in the document, each of which
+   * takes up 12 bytes in the index
+   *
+   * @return Structure count
+   */
+  int structureCount();
+}
@@ -0,0 +1,372 @@
+package net.forthecrown.nbt.io;
+
+import static net.forthecrown.nbt.TypeIds.BYTE;
+import static net.forthecrown.nbt.TypeIds.BYTE_ARRAY;
+import static net.forthecrown.nbt.TypeIds.COMPOUND;
+import static net.forthecrown.nbt.TypeIds.DOUBLE;
+import static net.forthecrown.nbt.TypeIds.END;
+import static net.forthecrown.nbt.TypeIds.FLOAT;
+import static net.forthecrown.nbt.TypeIds.INT;
+import static net.forthecrown.nbt.TypeIds.INT_ARRAY;
+import static net.forthecrown.nbt.TypeIds.LIST;
+import static net.forthecrown.nbt.TypeIds.LONG;
+import static net.forthecrown.nbt.TypeIds.LONG_ARRAY;
+import static net.forthecrown.nbt.TypeIds.SHORT;
+import static net.forthecrown.nbt.TypeIds.STRING;
+import static net.forthecrown.nbt.io.ScopedDataInput.MAX_DEPTH;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Objects;
+import net.forthecrown.nbt.BinaryTag;
+import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.TagTypes;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Tag buffer implementation.
+ * <p>
+ * Every compound and list in the document is assigned a slot, in the order
+ * they appear in the data. Since a structure's children come right after it,
+ * a structure's descendants occupy the slots directly following its own, so
+ * {@link #next} holds the first slot after a structure's subtree. Together
+ * with {@link #ends}, this lets a cursor step over a structure without
+ * reading any of it.
+ */
+final class TagBufferImpl implements TagBuffer {
+
+  /** Big-endian, read-only data, starting at the root's type ID */
+  final ByteBuffer data;
+
+  /** End offset of each structure's payload */
+  final int[] ends;
+
+  /** First slot after each structure's subtree */
+  final int[] next;
+
+  /** Entry count of each compound, element count of each list */
+  final int[] counts;
+
+  private final int rootOffset;
+
+  private TagBufferImpl(ByteBuffer data,
+                        int[] ends,
+                        int[] next,
+                        int[] counts,
+                        int rootOffset
+  ) {
+    this.data = data;
+    this.ends = ends;
+    this.next = next;
+    this.counts = counts;
+    this.rootOffset = rootOffset;
+  }
+
+  static TagBufferImpl create(ByteBuffer buffer) throws IOException {
+    Objects.requireNonNull(buffer, "Null buffer");
+
+    ByteBuffer data = buffer.slice()
+        .asReadOnlyBuffer()
+        .order(ByteOrder.BIG_ENDIAN);
+
+    Indexer indexer = new Indexer(data);
+    int rootOffset = indexer.indexRoot();
+
+    if (indexer.pos != data.limit()) {
+      throw new IOException(
+          (data.limit() - indexer.pos) + " trailing bytes after root tag"
+      );
+    }
+
+    return new TagBufferImpl(
+        data,
+        Arrays.copyOf(indexer.ends, indexer.structures),
+        Arrays.copyOf(indexer.next, indexer.structures),
+        Arrays.copyOf(indexer.counts, indexer.structures),
+        rootOffset
+    );
+  }
+
+  static ByteBuffer allocate(ByteArrayOutputStream out, boolean direct) {
+    byte[] bytes = out.toByteArray();
+
+    if (!direct) {
+      return ByteBuffer.wrap(bytes);
+    }
+
+    return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+  }
+
+  @Override
+  public @NotNull TagCursor root() {
+    return new TagCursorImpl(this, COMPOUND, rootOffset, 0);
+  }
+
+  @Override
+  public @NotNull CompoundTag toCompound() {
+    return root().toCompound();
+  }
+
+  @Override
+  public @NotNull ByteBuffer data() {
+    return data.duplicate().order(ByteOrder.BIG_ENDIAN);
+  }
+
+  @Override
+  public int byteSize() {
+    return data.limit();
+  }
+
+  @Override
+  public int structureCount() {
+    return ends.length;
+  }
+
+  /* ------------------------------ READING ------------------------------- */
+
+  static int fixedSize(byte typeId) {
+    return switch (typeId) {
+      case BYTE -> Byte.BYTES;
+      case SHORT -> Short.BYTES;
+      case INT, FLOAT -> Integer.BYTES;
+      case LONG, DOUBLE -> Long.BYTES;
+      default -> -1;
+    };
+  }
+
+  static boolean isStructure(byte typeId) {
+    return typeId == COMPOUND || typeId == LIST;
+  }
+
+  int unsignedShort(int offset) {
+    return data.getShort(offset) & 0xFFFF;
+  }
+
+  /**
+   * Gets the end offset of the value at the specified {@code offset}
+   * @param slot Slot of the value, if it's a structure
+   */
+  int skip(byte typeId, int offset, int slot) {
+    int fixed = fixedSize(typeId);
+
+    if (fixed != -1) {
+      return offset + fixed;
+    }
+
+    return switch (typeId) {
+      case STRING -> offset + Short.BYTES + unsignedShort(offset);
+      case BYTE_ARRAY -> offset + Integer.BYTES + data.getInt(offset);
+      case INT_ARRAY -> {
+        yield offset + Integer.BYTES + data.getInt(offset) * Integer.BYTES;
+      }
+      case LONG_ARRAY -> {
+        yield offset + Integer.BYTES + data.getInt(offset) * Long.BYTES;
+      }
+      default -> ends[slot];
+    };
+  }
+
+  /**
+   * Decodes the value at the specified {@code offset} into a tag
+   */
+  BinaryTag decode(byte typeId, int offset) {
+    ByteBuffer view = data.duplicate().position(offset);
+
+    try {
+      return TagTypes.getType(typeId).read(ScopedDataInput.create(view));
+    } catch (IOException exc) {
+      // The data was validated when this buffer was created
+      throw new UncheckedIOException(exc);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "TagBuffer{"
+        + "bytes=" + byteSize()
+        + ", structures=" + structureCount()
+        + "}";
+  }
+
+  /* ------------------------------ INDEXING ------------------------------ */
+
+  /**
+   * Validates the data in a single pass while assigning slots to structures
+   */
+  private static class Indexer {
+    private final ByteBuffer data;
+    private int pos;
+
+    private int[] ends = new int[16];
+    private int[] next = new int[16];
+    private int[] counts = new int[16];
+    private int structures;
+
+    Indexer(ByteBuffer data) {
+      this.data = data;
+    }
+
+    int indexRoot() throws IOException {
+      require(Byte.BYTES);
+      byte typeId = data.get(pos++);
+
+      if (typeId != COMPOUND) {
+        throw new IOException(
+            "Expected TAG_Compound (" + COMPOUND + "), found : " + typeId
+        );
+      }
+
+      skipName();
+      int rootOffset = pos;
+      index(COMPOUND, 0);
+
+      return rootOffset;
+    }
+
+    private void require(long bytes) throws EOFException {
+      if (bytes > data.limit() - pos) {
+        throw new EOFException(
+            "Expected " + bytes + " more bytes, only "
+                + (data.limit() - pos) + " left"
+        );
+      }
+    }
+
+    private void skipName() throws IOException {
+      require(Short.BYTES);
+      int length = data.getShort(pos) & 0xFFFF;
+      pos += Short.BYTES;
+
+      require(length);
+      pos += length;
+    }
+
+    private int readInt() throws IOException {
+      require(Integer.BYTES);
+      int value = data.getInt(pos);
+      pos += Integer.BYTES;
+      return value;
+    }
+
+    private int readArraySize(int elementBytes) throws IOException {
+      int size = readInt();
+
+      if (size < 0) {
+        throw new IOException("Negative array size: " + size);
+      }
+
+      require((long) size * elementBytes);
+      return size;
+    }
+
+    private int allocateSlot() {
+      if (structures == ends.length) {
+        int newLength = ends.length * 2;
+        ends = Arrays.copyOf(ends, newLength);
+        next = Arrays.copyOf(next, newLength);
+        counts = Arrays.copyOf(counts, newLength);
+      }
+
+      return structures++;
+    }
+
+    /**
+     * Checks the depth of a structure. The root is at depth 0, while the
+     * streaming reader counts it as depth 1, so this fails at the same
+     * nesting as {@link ScopedDataInput#enterScope()}
+     */
+    private static void checkDepth(int depth) throws IOException {
+      if (depth + 1 > MAX_DEPTH) {
+        throw new IOException("Max tag depth (" + MAX_DEPTH + ") surpassed");
+      }
+    }
+
+    private void index(byte typeId, int depth) throws IOException {
+      int fixed = fixedSize(typeId);
+
+      if (fixed != -1) {
+        require(fixed);
+        pos += fixed;
+        return;
+      }
+
+      switch (typeId) {
+        case STRING -> {
+          require(Short.BYTES);
+          int length = data.getShort(pos) & 0xFFFF;
+          pos += Short.BYTES;
+
+          require(length);
+          pos += length;
+        }
+
+        case BYTE_ARRAY, INT_ARRAY, LONG_ARRAY -> {
+          int elementBytes = typeId == BYTE_ARRAY ? Byte.BYTES
+              : typeId == INT_ARRAY ? Integer.BYTES
+              : Long.BYTES;
+
+          // The size must be read before pos is, as reading it moves pos
+          int size = readArraySize(elementBytes);
+          pos += size * elementBytes;
+        }
+
+        case LIST -> {
+          checkDepth(depth);
+
+          int slot = allocateSlot();
+
+          require(Byte.BYTES);
+          byte elementType = data.get(pos++);
+          int size = readInt();
+
+          if (elementType == END && size > 0) {
+            throw new IOException("ListTag is missing type");
+          }
+
+          // Every element takes up at least 1 byte
+          require(Math.max(size, 0));
+
+          for (int i = 0; i < size; i++) {
+            index(elementType, depth + 1);
+          }
+
+          ends[slot] = pos;
+          next[slot] = structures;
+          counts[slot] = Math.max(size, 0);
+        }
+
+        case COMPOUND -> {
+          checkDepth(depth);
+
+          int slot = allocateSlot();
+          int count = 0;
+          byte entryType;
+
+          while (true) {
+            require(Byte.BYTES);
+            entryType = data.get(pos++);
+
+            if (entryType == END) {
+              break;
+            }
+
+            skipName();
+            index(entryType, depth + 1);
+            count++;
+          }
+
+          ends[slot] = pos;
+          next[slot] = structures;
+          counts[slot] = count;
+        }
+
+        default -> throw new IOException("Unknown type: " + typeId);
+      }
+    }
+  }
+}
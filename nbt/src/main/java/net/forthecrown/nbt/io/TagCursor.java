@@ -0,0 +1,243 @@
+package net.forthecrown.nbt.io;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import net.forthecrown.nbt.BinaryTag;
+import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.TagType;
+import net.forthecrown.nbt.TypeIds;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Points at a single value inside a {@link TagBuffer}.
+ * <p>
+ * Compound methods, like {@link #getInt(String)}, read their values straight
+ * from the buffer and return the same defaults that {@link CompoundTag}'s
+ * methods do when a mapping is missing or has a different type. Methods that
+ * don't apply to the cursor's type, like calling {@link #get(int)} on a
+ * compound, throw an {@link IllegalStateException}.
+ * <p>
+ * If a compound maps the same name more than once, compound methods use the
+ * last mapping, just like reading the compound into a {@link CompoundTag}
+ * does.
+ *
+ * @see TagBuffer#root()
+ */
+public interface TagCursor {
+
+  /**
+   * Gets the type ID of the value this cursor points at
+   * @return Type ID
+   */
+  byte getId();
+
+  /**
+   * Gets the type of the value this cursor points at
+   * @return Value type
+   */
+  @NotNull TagType<? extends BinaryTag> getType();
+
+  default boolean isCompound() {
+    return getId() == TypeIds.COMPOUND;
+  }
+
+  default boolean isList() {
+    return getId() == TypeIds.LIST;
+  }
+
+  /**
+   * Gets the amount of entries in a compound, elements in a list or elements
+   * in an array
+   *
+   * @return Size of the value
+   * @throws IllegalStateException If the value isn't a compound, list or array
+   */
+  int size();
+
+  /**
+   * Decodes the value this cursor points at into a tag
+   * @return Decoded tag
+   */
+  @NotNull BinaryTag toTag();
+
+  /**
+   * Decodes the compound this cursor points at
+   * @return Decoded compound
+   * @throws IllegalStateException If the value isn't a compound
+   */
+  @NotNull CompoundTag toCompound();
+
+  /* ------------------------------ COMPOUND ------------------------------ */
+
+  /**
+   * Gets a cursor pointing at the specified mapping
+   * @param name Name of the mapping
+   * @return Mapping cursor, or {@code null}, if there is no such mapping
+   * @throws IllegalStateException If the value isn't a compound
+   */
+  @Nullable TagCursor get(String name);
+
+  /**
+   * Tests if the compound contains the specified mapping
+   * @param name Name of the mapping
+   * @return {@code true}, if the mapping exists
+   * @throws IllegalStateException If the value isn't a compound
+   */
+  boolean contains(String name);
+
+  /**
+   * Gets a cursor pointing at the specified compound mapping
+   * @param name Name of the mapping
+   * @return Compound cursor, or {@code null}, if there is no compound mapped
+   *         to {@code name}
+   * @throws IllegalStateException If the value isn't a compound
+   */
+  @Nullable TagCursor getCompound(String name);
+
+  /**
+   * Gets a cursor pointing at the specified list mapping
+   * @param name Name of the mapping
+   * @return List cursor, or {@code null}, if there is no list mapped to
+   *         {@code name}
+   * @throws IllegalStateException If the value isn't a compound
+   */
+  @Nullable TagCursor getList(String name);
+
+  default byte getByte(String name) {
+    return getByte(name, (byte) 0);
+  }
+
+  byte getByte(String name, byte def);
+
+  default boolean getBoolean(String name) {
+    return getByte(name) != 0;
+  }
+
+  default short getShort(String name) {
+    return getShort(name, (short) 0);
+  }
+
+  short getShort(String name, short def);
+
+  default int getInt(String name) {
+    return getInt(name, 0);
+  }
+
+  int getInt(String name, int def);
+
+  default long getLong(String name) {
+    return getLong(name, 0L);
+  }
+
+  long getLong(String name, long def);
+
+  default float getFloat(String name) {
+    return getFloat(name, 0F);
+  }
+
+  float getFloat(String name, float def);
+
+  default double getDouble(String name) {
+    return getDouble(name, 0D);
+  }
+
+  double getDouble(String name, double def);
+
+  default String getString(String name) {
+    return getString(name, "");
+  }
+
+  String getString(String name, String def);
+
+  /**
+   * Calls the specified {@code consumer} for each mapping in the compound, in
+   * the order they're stored in
+   *
+   * @param consumer Mapping consumer
+   * @throws IllegalStateException If the value isn't a compound
+   */
+  void forEachEntry(@NotNull BiConsumer<String, TagCursor> consumer);
+
+  /* -------------------------------- LIST -------------------------------- */
+
+  /**
+   * Gets the type ID of a list's elements
+   * @return Element type ID, {@link TypeIds#END} for empty untyped lists
+   * @throws IllegalStateException If the value isn't a list
+   */
+  byte listTypeId();
+
+  /**
+   * Gets a cursor pointing at a list element
+   * @param index Element index
+   * @return Element cursor
+   * @throws IllegalStateException If the value isn't a list
+   * @throws IndexOutOfBoundsException If the index is out of bounds
+   */
+  @NotNull TagCursor get(int index);
+
+  /**
+   * Calls the specified {@code consumer} for each element in the list
+   * @param consumer Element consumer
+   * @throws IllegalStateException If the value isn't a list
+   */
+  void forEach(@NotNull Consumer<TagCursor> consumer);
+
+  /* ------------------------------- VALUES ------------------------------- */
+
+  /**
+   * Gets the value of a number
+   * @return Number value
+   * @throws IllegalStateException If the value isn't a number
+   */
+  int intValue();
+
+  /**
+   * Gets the value of a number
+   * @return Number value
+   * @throws IllegalStateException If the value isn't a number
+   */
+  long longValue();
+
+  /**
+   * Gets the value of a number
+   * @return Number value
+   * @throws IllegalStateException If the value isn't a number
+   */
+  double doubleValue();
+
+  /**
+   * Gets the value of a string
+   * @return String value
+   * @throws IllegalStateException If the value isn't a string
+   */
+  @NotNull String stringValue();
+
+  /**
+   * Gets an element of a byte array
+   * @param index Element index
+   * @return Element
+   * @throws IllegalStateException If the value isn't a byte array
+   * @throws IndexOutOfBoundsException If the index is out of bounds
+   */
+  byte byteAt(int index);
+
+  /**
+   * Gets an element of an int array
+   * @param index Element index
+   * @return Element
+   * @throws IllegalStateException If the value isn't an int array
+   * @throws IndexOutOfBoundsException If the index is out of bounds
+   */
+  int intAt(int index);
+
+  /**
+   * Gets an element of a long array
+   * @param index Element index
+   * @return Element
+   * @throws IllegalStateException If the value isn't a long array
+   * @throws IndexOutOfBoundsException If the index is out of bounds
+   */
+  long longAt(int index);
+}
@@ -0,0 +1,577 @@
+package net.forthecrown.nbt.io;
+
+import static net.forthecrown.nbt.TypeIds.BYTE;
+import static net.forthecrown.nbt.TypeIds.BYTE_ARRAY;
+import static net.forthecrown.nbt.TypeIds.COMPOUND;
+import static net.forthecrown.nbt.TypeIds.DOUBLE;
+import static net.forthecrown.nbt.TypeIds.END;
+import static net.forthecrown.nbt.TypeIds.FLOAT;
+import static net.forthecrown.nbt.TypeIds.INT;
+import static net.forthecrown.nbt.TypeIds.INT_ARRAY;
+import static net.forthecrown.nbt.TypeIds.LIST;
+import static net.forthecrown.nbt.TypeIds.LONG;
+import static net.forthecrown.nbt.TypeIds.LONG_ARRAY;
+import static net.forthecrown.nbt.TypeIds.SHORT;
+import static net.forthecrown.nbt.TypeIds.STRING;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import net.forthecrown.nbt.BinaryTag;
+import net.forthecrown.nbt.BinaryTags;
+import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.NumberTag;
+import net.forthecrown.nbt.TagType;
+import net.forthecrown.nbt.TagTypes;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Cursor implementation.
+ * <p>
+ * For compounds, {@link #offset} is the offset of the first entry, for lists
+ * it's the offset of the element type ID, and for all other values it's the
+ * offset of the value's payload. {@link #slot} is only set for compounds and
+ * lists.
+ */
+final class TagCursorImpl implements TagCursor {
+
+  private final TagBufferImpl buffer;
+  private final byte typeId;
+  private final int offset;
+  private final int slot;
+
+  TagCursorImpl(TagBufferImpl buffer, byte typeId, int offset, int slot) {
+    this.buffer = buffer;
+    this.typeId = typeId;
+    this.offset = offset;
+    this.slot = slot;
+  }
+
+  private TagCursorImpl cursor(byte typeId, int valueOffset, int slot) {
+    return new TagCursorImpl(buffer, typeId, valueOffset, slot);
+  }
+
+  @Override
+  public byte getId() {
+    return typeId;
+  }
+
+  @Override
+  public @NotNull TagType<? extends BinaryTag> getType() {
+    return TagTypes.getType(typeId);
+  }
+
+  private IllegalStateException wrongType(String expected) {
+    return new IllegalStateException(
+        "Expected " + expected + ", found " + getType().getName()
+    );
+  }
+
+  private void ensureType(byte expected) {
+    if (typeId != expected) {
+      throw wrongType(TagTypes.getType(expected).getName());
+    }
+  }
+
+  @Override
+  public int size() {
+    return switch (typeId) {
+      case COMPOUND, LIST -> buffer.counts[slot];
+      case BYTE_ARRAY, INT_ARRAY, LONG_ARRAY -> buffer.data.getInt(offset);
+      default -> throw wrongType("a compound, list or array");
+    };
+  }
+
+  @Override
+  public @NotNull BinaryTag toTag() {
+    // Compounds and lists are decoded from their own payload, which is
+    // where the offset already points
+    return buffer.decode(typeId, offset);
+  }
+
+  @Override
+  public @NotNull CompoundTag toCompound() {
+    ensureType(COMPOUND);
+    return toTag().asCompound();
+  }
+
+  /* ------------------------------ COMPOUND ------------------------------ */
+
+  /**
+   * Finds a mapping in this compound. If the name is mapped more than once,
+   * the last mapping is found, as that's the one reading the compound keeps
+   * @return The mapping's slot in the upper 32 bits, and the offset of the
+   *         mapping's type ID in the lower 32 bits, or {@code -1}, if the
+   *         mapping wasn't found
+   */
+  private long find(String name) {
+    ensureType(COMPOUND);
+    Objects.requireNonNull(name, "Null name");
+
+    byte[] encoded = isAscii(name) ? null : encode(name);
+    var data = buffer.data;
+
+    int pos = offset;
+    int childSlot = slot + 1;
+    long found = -1;
+
+    while (true) {
+      byte entryType = data.get(pos);
+
+      if (entryType == END) {
+        return found;
+      }
+
+      int nameLength = buffer.unsignedShort(pos + 1);
+      int namePos = pos + 3;
+      int valuePos = namePos + nameLength;
+
+      if (nameEquals(namePos, nameLength, name, encoded)) {
+        long entrySlot = TagBufferImpl.isStructure(entryType) ? childSlot : -1;
+        found = (entrySlot << 32) | (pos & 0xFFFFFFFFL);
+      }
+
+      pos = buffer.skip(entryType, valuePos, childSlot);
+
+      if (TagBufferImpl.isStructure(entryType)) {
+        childSlot = buffer.next[childSlot];
+      }
+    }
+  }
+
+  private static boolean isAscii(String name) {
+    for (int i = 0; i < name.length(); i++) {
+      char c = name.charAt(i);
+
+      if (c == 0 || c >= 0x80) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private static byte[] encode(String name) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(name.length() * 3);
+
+    try {
+      new DataOutputStream(out).writeUTF(name);
+    } catch (IOException exc) {
+      throw new UncheckedIOException(exc);
+    }
+
+    // Drop the length prefix
+    byte[] bytes = out.toByteArray();
+    byte[] result = new byte[bytes.length - 2];
+    System.arraycopy(bytes, 2, result, 0, result.length);
+    return result;
+  }
+
+  private boolean nameEquals(int pos, int length, String name, byte[] encoded) {
+    var data = buffer.data;
+
+    if (encoded == null) {
+      if (length != name.length()) {
+        return false;
+      }
+
+      for (int i = 0; i < length; i++) {
+        if (data.get(pos + i) != name.charAt(i)) {
+          return false;
+        }
+      }
+
+      return true;
+    }
+
+    if (length != encoded.length) {
+      return false;
+    }
+
+    for (int i = 0; i < length; i++) {
+      if (data.get(pos + i) != encoded[i]) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private static int entryOffset(long found) {
+    return (int) found;
+  }
+
+  private static int entrySlot(long found) {
+    return (int) (found >> 32);
+  }
+
+  private byte entryType(long found) {
+    return buffer.data.get(entryOffset(found));
+  }
+
+  private int valueOffset(long found) {
+    int pos = entryOffset(found);
+    return pos + 3 + buffer.unsignedShort(pos + 1);
+  }
+
+  private TagCursorImpl entryCursor(long found) {
+    byte entryType = entryType(found);
+    int valuePos = valueOffset(found);
+    return cursor(entryType, valuePos, entrySlot(found));
+  }
+
+  @Override
+  public @Nullable TagCursor get(String name) {
+    long found = find(name);
+    return found == -1 ? null : entryCursor(found);
+  }
+
+  @Override
+  public boolean contains(String name) {
+    return find(name) != -1;
+  }
+
+  @Override
+  public @Nullable TagCursor getCompound(String name) {
+    long found = find(name);
+
+    if (found == -1 || entryType(found) != COMPOUND) {
+      return null;
+    }
+
+    return entryCursor(found);
+  }
+
+  @Override
+  public @Nullable TagCursor getList(String name) {
+    long found = find(name);
+
+    if (found == -1 || entryType(found) != LIST) {
+      return null;
+    }
+
+    return entryCursor(found);
+  }
+
+  /**
+   * Gets the number mapped to the specified {@code name}
+   * @return Found number, or {@code null}, if the mapping doesn't exist, or
+   *         isn't a number
+   */
+  private NumberTag number(String name) {
+    long found = find(name);
+
+    if (found == -1) {
+      return null;
+    }
+
+    return number(entryType(found), valueOffset(found));
+  }
+
+  private NumberTag number(byte typeId, int pos) {
+    var data = buffer.data;
+
+    return switch (typeId) {
+      case BYTE -> BinaryTags.byteTag(data.get(pos));
+      case SHORT -> BinaryTags.shortTag(data.getShort(pos));
+      case INT -> BinaryTags.intTag(data.getInt(pos));
+      case LONG -> BinaryTags.longTag(data.getLong(pos));
+      case FLOAT -> BinaryTags.floatTag(data.getFloat(pos));
+      case DOUBLE -> BinaryTags.doubleTag(data.getDouble(pos));
+      default -> null;
+    };
+  }
+
+  // Each typed getter reads the value directly when the mapping has the
+  // requested type, and otherwise converts it the same way NumberTag does
+
+  @Override
+  public byte getByte(String name, byte def) {
+    long found = find(name);
+
+    if (found != -1 && entryType(found) == BYTE) {
+      return buffer.data.get(valueOffset(found));
+    }
+
+    NumberTag number = found == -1
+        ? null
+        : number(entryType(found), valueOffset(found));
+
+    return number == null ? def : number.byteValue();
+  }
+
+  @Override
+  public short getShort(String name, short def) {
+    long found = find(name);
+
+    if (found != -1 && entryType(found) == SHORT) {
+      return buffer.data.getShort(valueOffset(found));
+    }
+
+    NumberTag number = found == -1
+        ? null
+        : number(entryType(found), valueOffset(found));
+
+    return number == null ? def : number.shortValue();
+  }
+
+  @Override
+  public int getInt(String name, int def) {
+    long found = find(name);
+
+    if (found != -1 && entryType(found) == INT) {
+      return buffer.data.getInt(valueOffset(found));
+    }
+
+    NumberTag number = found == -1
+        ? null
+        : number(entryType(found), valueOffset(found));
+
+    return number == null ? def : number.intValue();
+  }
+
+  @Override
+  public long getLong(String name, long def) {
+    long found = find(name);
+
+    if (found != -1 && entryType(found) == LONG) {
+      return buffer.data.getLong(valueOffset(found));
+    }
+
+    NumberTag number = found == -1
+        ? null
+        : number(entryType(found), valueOffset(found));
+
+    return number == null ? def : number.longValue();
+  }
+
+  @Override
+  public float getFloat(String name, float def) {
+    long found = find(name);
+
+    if (found != -1 && entryType(found) == FLOAT) {
+      return buffer.data.getFloat(valueOffset(found));
+    }
+
+    NumberTag number = found == -1
+        ? null
+        : number(entryType(found), valueOffset(found));
+
+    return number == null ? def : number.floatValue();
+  }
+
+  @Override
+  public double getDouble(String name, double def) {
+    long found = find(name);
+
+    if (found != -1 && entryType(found) == DOUBLE) {
+      return buffer.data.getDouble(valueOffset(found));
+    }
+
+    NumberTag number = found == -1
+        ? null
+        : number(entryType(found), valueOffset(found));
+
+    return number == null ? def : number.doubleValue();
+  }
+
+  @Override
+  public String getString(String name, String def) {
+    long found = find(name);
+
+    if (found == -1 || entryType(found) != STRING) {
+      return def;
+    }
+
+    return readString(valueOffset(found));
+  }
+
+  @Override
+  public void forEachEntry(@NotNull BiConsumer<String, TagCursor> consumer) {
+    ensureType(COMPOUND);
+    Objects.requireNonNull(consumer);
+
+    var data = buffer.data;
+    int pos = offset;
+    int childSlot = slot + 1;
+    byte entryType;
+
+    while ((entryType = data.get(pos)) != END) {
+      String name = readString(pos + 1);
+      int valuePos = pos + 3 + buffer.unsignedShort(pos + 1);
+      boolean structure = TagBufferImpl.isStructure(entryType);
+
+      consumer.accept(
+          name,
+          cursor(entryType, valuePos, structure ? childSlot : -1)
+      );
+
+      pos = buffer.skip(entryType, valuePos, childSlot);
+
+      if (structure) {
+        childSlot = buffer.next[childSlot];
+      }
+    }
+  }
+
+  /* -------------------------------- LIST -------------------------------- */
+
+  @Override
+  public byte listTypeId() {
+    ensureType(LIST);
+    return buffer.data.get(offset);
+  }
+
+  @Override
+  public @NotNull TagCursor get(int index) {
+    ensureType(LIST);
+    Objects.checkIndex(index, buffer.counts[slot]);
+
+    byte elementType = buffer.data.get(offset);
+    int pos = offset + 5;
+    int fixed = TagBufferImpl.fixedSize(elementType);
+
+    if (fixed != -1) {
+      return cursor(elementType, pos + index * fixed, -1);
+    }
+
+    boolean structure = TagBufferImpl.isStructure(elementType);
+    int childSlot = slot + 1;
+
+    for (int i = 0; i < index; i++) {
+      pos = buffer.skip(elementType, pos, childSlot);
+
+      if (structure) {
+        childSlot = buffer.next[childSlot];
+      }
+    }
+
+    return cursor(elementType, pos, structure ? childSlot : -1);
+  }
+
+  @Override
+  public void forEach(@NotNull Consumer<TagCursor> consumer) {
+    ensureType(LIST);
+    Objects.requireNonNull(consumer);
+
+    int size = buffer.counts[slot];
+    byte elementType = buffer.data.get(offset);
+    boolean structure = TagBufferImpl.isStructure(elementType);
+
+    int pos = offset + 5;
+    int childSlot = slot + 1;
+
+    for (int i = 0; i < size; i++) {
+      consumer.accept(cursor(elementType, pos, structure ? childSlot : -1));
+      pos = buffer.skip(elementType, pos, childSlot);
+
+      if (structure) {
+        childSlot = buffer.next[childSlot];
+      }
+    }
+  }
+
+  /* ------------------------------- VALUES ------------------------------- */
+
+  private NumberTag ownNumber() {
+    NumberTag number = number(typeId, offset);
+
+    if (number == null) {
+      throw wrongType("a number");
+    }
+
+    return number;
+  }
+
+  @Override
+  public int intValue() {
+    return typeId == INT ? buffer.data.getInt(offset) : ownNumber().intValue();
+  }
+
+  @Override
+  public long longValue() {
+    return typeId == LONG
+        ? buffer.data.getLong(offset)
+        : ownNumber().longValue();
+  }
+
+  @Override
+  public double doubleValue() {
+    return typeId == DOUBLE
+        ? buffer.data.getDouble(offset)
+        : ownNumber().doubleValue();
+  }
+
+  @Override
+  public @NotNull String stringValue() {
+    ensureType(STRING);
+    return readString(offset);
+  }
+
+  /**
+   * Reads a length-prefixed modified UTF-8 string
+   */
+  private String readString(int pos) {
+    var data = buffer.data;
+    int length = buffer.unsignedShort(pos);
+
+    byte[] bytes = new byte[length];
+    data.get(pos + 2, bytes);
+
+    boolean ascii = true;
+    for (byte b: bytes) {
+      if (b <= 0) {
+        ascii = false;
+        break;
+      }
+    }
+
+    if (ascii) {
+      return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    try {
+      return DataInputStream.readUTF(
+          new ByteBufferDataInput(data.duplicate().position(pos))
+      );
+    } catch (IOException exc) {
+      throw new UncheckedIOException(exc);
+    }
+  }
+
+  private int arrayIndex(byte expected, int index) {
+    ensureType(expected);
+    Objects.checkIndex(index, buffer.data.getInt(offset));
+    return offset + Integer.BYTES;
+  }
+
+  @Override
+  public byte byteAt(int index) {
+    int start = arrayIndex(BYTE_ARRAY, index);
+    return buffer.data.get(start + index);
+  }
+
+  @Override
+  public int intAt(int index) {
+    int start = arrayIndex(INT_ARRAY, index);
+    return buffer.data.getInt(start + index * Integer.BYTES);
+  }
+
+  @Override
+  public long longAt(int index) {
+    int start = arrayIndex(LONG_ARRAY, index);
+    return buffer.data.getLong(start + index * Long.BYTES);
+  }
+
+  @Override
+  public String toString() {
+    return "TagCursor{type=" + getType().getName() + ", offset=" + offset + "}";
+  }
+}
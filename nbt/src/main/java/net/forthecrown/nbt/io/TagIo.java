@@ -5,8 +5,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Map.Entry;
+import java.util.concurrent.ForkJoinPool;
 import net.forthecrown.nbt.BinaryTag;
+import net.forthecrown.nbt.CompoundShapes;
 import net.forthecrown.nbt.CompoundTag;
+import org.jetbrains.annotations.Nullable;
 
 public interface TagIo {
 
@@ -14,9 +17,91 @@ public interface TagIo {
     return TagIoImpl.INSTANCE;
   }
 
+  /**
+   * Creates a tag IO that decodes compounds as shaped compounds, which share
+   * their names with other compounds read with the same registry. Writing is
+   * not affected.
+   * <p>
+   * Compounds read this way are regular compounds to their users, but when
+   * many compounds with the same names are loaded, like entities or items,
+   * they use a fraction of the memory regular compounds use.
+   * <p>
+   * Shapes depend on the order names are read in, compounds with the same
+   * names in a different order don't share a shape, see
+   * {@link CompoundShapes}.
+   * <p>
+   * The default implementation only supports decoding regular compounds, it
+   * returns this tag IO for a {@code null} registry.
+   *
+   * @param shapes Shape registry, or {@code null}, to decode regular compounds
+   * @return Tag IO using the registry
+   * @throws UnsupportedOperationException If {@code shapes} is not
+   *         {@code null} and this tag IO can't decode shaped compounds
+   * @see CompoundShapes
+   */
+  default TagIo withShapes(@Nullable CompoundShapes shapes) {
+    if (shapes == null) {
+      return this;
+    }
+
+    throw new UnsupportedOperationException(
+        getClass().getName() + " can't decode shaped compounds"
+    );
+  }
+
+  /**
+   * Gets the shape registry compounds are decoded with
+   * @return Shape registry, or {@code null}, if compounds are decoded as
+   *         regular compounds. The default implementation returns
+   *         {@code null}
+   * @see #withShapes(CompoundShapes)
+   */
+  default @Nullable CompoundShapes shapes() {
+    return null;
+  }
+
   void write(OutputStream output, CompoundTag tag)
       throws IOException;
 
+  /**
+   * Writes the specified {@code tag} in parallel, using the common fork join
+   * pool
+   * @see #writeParallel(OutputStream, CompoundTag, ForkJoinPool)
+   */
+  default void writeParallel(OutputStream output, CompoundTag tag)
+      throws IOException
+  {
+    writeParallel(output, tag, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Writes the specified {@code tag} with its large compounds and lists
+   * encoded in parallel on the specified {@code pool}.
+   * <p>
+   * Structures are encoded into independent buffers which are then written to
+   * the output in order, so the written bytes are identical to the ones
+   * {@link #write(OutputStream, CompoundTag)} would write. Small trees gain
+   * nothing from this, as only structures with at least 64 elements are split
+   * off into their own tasks.
+   * <p>
+   * To write compressed output, wrap the output with
+   * {@link #compress(OutputStream)}, compression itself stays sequential.
+   * <p>
+   * The default implementation ignores the pool and writes the tag with
+   * {@link #write(OutputStream, CompoundTag)}.
+   *
+   * @param output Output to write to
+   * @param tag Tag to write
+   * @param pool Pool to encode on
+   * @throws IOException If an IO error occurs
+   */
+  default void writeParallel(OutputStream output,
+                             CompoundTag tag,
+                             ForkJoinPool pool
+  ) throws IOException {
+    write(output, tag);
+  }
+
   default void writeCompressed(OutputStream stream, CompoundTag tag)
       throws IOException
   {
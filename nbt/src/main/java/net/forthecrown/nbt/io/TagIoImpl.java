@@ -11,25 +11,222 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 import net.forthecrown.nbt.BinaryTag;
+import net.forthecrown.nbt.CompoundShapes;
 import net.forthecrown.nbt.CompoundTag;
 import net.forthecrown.nbt.TagType;
 import net.forthecrown.nbt.TagTypes;
+import net.forthecrown.nbt.metrics.NbtMetrics;
+import net.forthecrown.nbt.util.TagCounter;
 
 final class TagIoImpl implements TagIo {
-  static final TagIoImpl INSTANCE = new TagIoImpl();
+  static final TagIoImpl INSTANCE = new TagIoImpl(null);
+
+  private final CompoundShapes shapes;
+
+  private TagIoImpl(CompoundShapes shapes) {
+    this.shapes = shapes;
+  }
+
+  @Override
+  public TagIo withShapes(CompoundShapes shapes) {
+    return shapes == null ? INSTANCE : new TagIoImpl(shapes);
+  }
+
+  @Override
+  public CompoundShapes shapes() {
+    return shapes;
+  }
 
   @Override
   public void write(OutputStream output, CompoundTag tag) throws IOException {
-    DataOutput dataOutput = createOutput(output);
-    writeNamedTag("", tag, dataOutput);
+    write(output, tag, false, null);
+  }
+
+  @Override
+  public void writeParallel(OutputStream output,
+                            CompoundTag tag,
+                            ForkJoinPool pool
+  ) throws IOException {
+    Objects.requireNonNull(pool, "Null pool");
+    write(output, tag, false, pool);
+  }
+
+  @Override
+  public void writeCompressed(OutputStream stream, CompoundTag tag)
+      throws IOException
+  {
+    write(stream, tag, true, null);
   }
 
   @Override
   public CompoundTag read(InputStream input, long maxBytes) throws IOException {
-    ScopedDataInput dataInput = createInput(input, maxBytes);
+    return read(input, maxBytes, false);
+  }
+
+  @Override
+  public CompoundTag readCompressed(InputStream input, long maxBytes)
+      throws IOException
+  {
+    return read(input, maxBytes, true);
+  }
+
+  private void write(OutputStream output,
+                     CompoundTag tag,
+                     boolean compressed,
+                     ForkJoinPool pool
+  ) throws IOException {
+    NbtMetrics metrics = NbtMetrics.metrics();
+    BinaryIoEvent event = new BinaryIoEvent.Write();
+
+    if (!metrics.isEnabled() && !event.isEnabled()) {
+      if (!compressed) {
+        writeRoot(output, tag, pool);
+        return;
+      }
+
+      var out = compress(output);
+      writeRoot(out, tag, pool);
+      out.close();
+      return;
+    }
+
+    event.begin();
+    long start = System.nanoTime();
+
+    CountingStreams.Output counting = null;
+    long bytes;
+
+    // Counted with a long, DataOutputStream.size() stops at 2GB
+    if (compressed) {
+      counting = new CountingStreams.Output(output);
+
+      var out = compress(counting);
+      var uncompressed = new CountingStreams.Output(out);
+
+      writeRoot(uncompressed, tag, pool);
+      bytes = uncompressed.count;
+      out.close();
+    } else {
+      var uncompressed = new CountingStreams.Output(output);
+
+      writeRoot(uncompressed, tag, pool);
+      bytes = uncompressed.count;
+    }
+
+    long elapsed = System.nanoTime() - start;
+    event.end();
+
+    long compressedBytes = counting == null ? -1 : counting.count;
+    TagCounter counter = count(metrics, event, tag);
+
+    if (metrics.isEnabled()) {
+      metrics.binaryWrite(
+          bytes,
+          compressedBytes,
+          metrics.countTags() ? counter : null,
+          elapsed
+      );
+    }
+
+    commit(event, bytes, compressedBytes, counter);
+  }
+
+  private CompoundTag read(InputStream input, long maxBytes, boolean compressed)
+      throws IOException
+  {
+    NbtMetrics metrics = NbtMetrics.metrics();
+    BinaryIoEvent event = new BinaryIoEvent.Read();
+
+    if (!metrics.isEnabled() && !event.isEnabled()) {
+      InputStream in = compressed ? decompress(input) : input;
+      return readRoot(createInput(in, maxBytes));
+    }
+
+    event.begin();
+    long start = System.nanoTime();
+
+    CountingStreams.Input compressedInput = null;
+    CountingStreams.Input counting;
+
+    if (compressed) {
+      compressedInput = new CountingStreams.Input(input);
+      counting = new CountingStreams.Input(decompress(compressedInput));
+    } else {
+      counting = new CountingStreams.Input(input);
+    }
+
+    CompoundTag tag = readRoot(createInput(counting, maxBytes));
+
+    long elapsed = System.nanoTime() - start;
+    event.end();
+
+    long compressedBytes = compressedInput == null ? -1 : compressedInput.count;
+    TagCounter counter = count(metrics, event, tag);
+
+    if (metrics.isEnabled()) {
+      metrics.binaryRead(
+          counting.count,
+          compressedBytes,
+          metrics.countTags() ? counter : null,
+          elapsed
+      );
+    }
+
+    commit(event, counting.count, compressedBytes, counter);
+    return tag;
+  }
+
+  private static TagCounter count(NbtMetrics metrics,
+                                  BinaryIoEvent event,
+                                  BinaryTag tag
+  ) {
+    if (metrics.countTags() || event.shouldCommit()) {
+      return TagCounter.count(tag);
+    }
+    return null;
+  }
+
+  private static void commit(BinaryIoEvent event,
+                             long bytes,
+                             long compressedBytes,
+                             TagCounter counter
+  ) {
+    if (!event.shouldCommit()) {
+      return;
+    }
+
+    event.bytes = bytes;
+    event.compressedBytes = compressedBytes;
+    event.compression = compressedBytes < 0 ? "none" : "gzip";
+
+    if (counter != null) {
+      event.tagCount = counter.getTotal();
+      event.maxDepth = counter.getMaxDepth();
+    }
+
+    event.commit();
+  }
+
+  private void writeRoot(OutputStream output,
+                         CompoundTag tag,
+                         ForkJoinPool pool
+  ) throws IOException {
+    // Splitting the tree on a single worker only adds overhead
+    if (pool != null && pool.getParallelism() > 1) {
+      ParallelTagWriter.write(output, "", tag, pool);
+      return;
+    }
+
+    DataOutputStream dataOutput = createOutput(output);
+    writeNamedTag("", tag, dataOutput);
+  }
+
+  private CompoundTag readRoot(ScopedDataInput dataInput) throws IOException {
     byte typeId = dataInput.readByte();
 
     if (typeId != COMPOUND) {
@@ -76,11 +273,15 @@ final class TagIoImpl implements TagIo {
     return new GZIPOutputStream(output);
   }
 
-  static ScopedDataInput createInput(InputStream inputStream, long maxBytes) {
-    return new CountingDataInput(new DataInputStream(inputStream), maxBytes);
+  ScopedDataInput createInput(InputStream inputStream, long maxBytes) {
+    return new CountingDataInput(
+        new DataInputStream(inputStream),
+        maxBytes,
+        shapes
+    );
   }
 
-  static DataOutput createOutput(OutputStream outputStream) {
+  static DataOutputStream createOutput(OutputStream outputStream) {
     return new DataOutputStream(outputStream);
   }
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+package net.forthecrown.nbt.json;
+
+import java.util.Objects;
+
+/**
+ * Options for converting between JSON and NBT.
+ *
+ * @param numberTyping Determines the tag types JSON numbers are read as
+ * @param primitiveArrays If {@code true}, JSON arrays that only contain
+ *                        integers are read as byte, int or long array tags,
+ *                        depending on the widest element, instead of as list
+ *                        tags
+ * @param longsAsStrings If {@code true}, long tags and long array elements
+ *                       are written as JSON strings, so their values
+ *                       survive JSON readers that store all numbers as
+ *                       doubles
+ * @param byteArraysAsBase64 If {@code true}, byte arrays are written as a
+ *                           single Base64 string instead of as an array of
+ *                           numbers
+ * @param prettyPrinting If {@code true}, JSON is written with newlines and
+ *                       indentation
+ */
+public record JsonOptions(
+    NumberTyping numberTyping,
+    boolean primitiveArrays,
+    boolean longsAsStrings,
+    boolean byteArraysAsBase64,
+    boolean prettyPrinting
+) {
+
+  private static final JsonOptions DEFAULTS
+      = new JsonOptions(NumberTyping.INT_OR_LONG, false, false, false, false);
+
+  public JsonOptions {
+    Objects.requireNonNull(numberTyping, "Null number typing");
+  }
+
+  /**
+   * Gets the default options: integers are read as int or long tags, arrays
+   * are read as lists and JSON is written without any formatting
+   *
+   * @return Default options
+   */
+  public static JsonOptions defaults() {
+    return DEFAULTS;
+  }
+
+  public JsonOptions withNumberTyping(NumberTyping numberTyping) {
+    return new JsonOptions(
+        numberTyping, primitiveArrays, longsAsStrings, byteArraysAsBase64,
+        prettyPrinting
+    );
+  }
+
+  public JsonOptions withPrimitiveArrays(boolean primitiveArrays) {
+    return new JsonOptions(
+        numberTyping, primitiveArrays, longsAsStrings, byteArraysAsBase64,
+        prettyPrinting
+    );
+  }
+
+  public JsonOptions withLongsAsStrings(boolean longsAsStrings) {
+    return new JsonOptions(
+        numberTyping, primitiveArrays, longsAsStrings, byteArraysAsBase64,
+        prettyPrinting
+    );
+  }
+
+  public JsonOptions withByteArraysAsBase64(boolean byteArraysAsBase64) {
+    return new JsonOptions(
+        numberTyping, primitiveArrays, longsAsStrings, byteArraysAsBase64,
+        prettyPrinting
+    );
+  }
+
+  public JsonOptions withPrettyPrinting(boolean prettyPrinting) {
+    return new JsonOptions(
+        numberTyping, primitiveArrays, longsAsStrings, byteArraysAsBase64,
+        prettyPrinting
+    );
+  }
+}
@@ -0,0 +1,39 @@
+package net.forthecrown.nbt.json;
+
+public class JsonParseException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  private String context;
+  private int position;
+
+  public JsonParseException(String message) {
+    super(message);
+  }
+
+  public JsonParseException(String message, Throwable cause) {
+    super(message, cause);
+  }
+
+  public void setPosition(int position) {
+    this.position = position;
+  }
+
+  public void setContext(String context) {
+    this.context = context;
+  }
+
+  public int getPosition() {
+    return position;
+  }
+
+  public String getContext() {
+    return context;
+  }
+
+  @Override
+  public String getMessage() {
+    return super.getMessage()
+        + (context != null ? ", at (" + position + "): '" + context + "'<-" : "");
+  }
+}
@@ -0,0 +1,454 @@
+package net.forthecrown.nbt.json;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import net.forthecrown.nbt.BinaryTag;
+import net.forthecrown.nbt.BinaryTags;
+import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.ListTag;
+import net.forthecrown.nbt.NumberTag;
+import net.forthecrown.nbt.TagTypes;
+import net.forthecrown.nbt.TypeIds;
+import net.forthecrown.nbt.io.ScopedDataInput;
+import net.forthecrown.nbt.util.ReaderWrapper;
+
+/**
+ * Parses JSON text directly into tags.
+ * <p>
+ * JSON objects become compound tags, strings become string tags and booleans
+ * become byte tags. {@code null} values are skipped. Numbers are typed by
+ * the {@link NumberTyping} in the options.
+ * <p>
+ * Since list tags can only hold one type of tag, the numbers in a JSON array
+ * are all converted into the widest number type in that array. Arrays mixing
+ * any other types cannot be converted.
+ * <p>
+ * Objects and arrays can't be nested deeper than
+ * {@link ScopedDataInput#MAX_DEPTH}, the same limit binary input has.
+ */
+class JsonParser {
+
+  private static final int EOF = -1;
+
+  private final ReaderWrapper reader;
+  private final JsonOptions options;
+
+  private final StringBuilder buffer = new StringBuilder();
+
+  /** Amount of objects and arrays the parser is currently inside of */
+  private int depth;
+
+  public JsonParser(ReaderWrapper reader, JsonOptions options) {
+    this.reader = reader;
+    this.options = options;
+  }
+
+  public BinaryTag parse() {
+    try {
+      reader.skipEmpty();
+      BinaryTag tag = parseValue();
+
+      if (tag == null) {
+        throw new JsonParseException("Input is null");
+      }
+
+      reader.skipEmpty();
+
+      if (reader.peek() != EOF) {
+        throw new JsonParseException(
+            "Unexpected trailing character: '"
+                + Character.toString(reader.peek()) + "'"
+        );
+      }
+
+      return tag;
+    } catch (IOException exc) {
+      var err = new JsonParseException(exc.getMessage(), exc);
+      fillContext(err);
+      throw err;
+    } catch (JsonParseException exc) {
+      fillContext(exc);
+      throw exc;
+    }
+  }
+
+  private void fillContext(JsonParseException exc) {
+    exc.setContext(reader.getContext().toString());
+    exc.setPosition(reader.getPosition());
+  }
+
+  /**
+   * Parses a single value
+   * @return Parsed value, or {@code null}, if the value was a JSON null
+   */
+  private BinaryTag parseValue() throws IOException {
+    int peek = reader.peek();
+
+    return switch (peek) {
+      case '{' -> {
+        enterScope();
+        CompoundTag tag = parseObject();
+        depth--;
+        yield tag;
+      }
+      case '[' -> {
+        enterScope();
+        BinaryTag tag = parseArray();
+        depth--;
+        yield tag;
+      }
+      case '"' -> {
+        reader.read();
+        yield BinaryTags.stringTag(parseString());
+      }
+      case 't' -> {
+        expectWord("true");
+        yield BinaryTags.byteTag(1);
+      }
+      case 'f' -> {
+        expectWord("false");
+        yield BinaryTags.byteTag(0);
+      }
+      case 'n' -> {
+        expectWord("null");
+        yield null;
+      }
+      case EOF -> throw new JsonParseException("Unexpected end of input");
+
+      default -> {
+        if (peek == '-' || (peek >= '0' && peek <= '9')) {
+          yield parseNumber();
+        }
+
+        throw new JsonParseException(
+            "Unexpected character: '" + Character.toString(peek) + "'"
+        );
+      }
+    };
+  }
+
+  private void enterScope() {
+    if (++depth > ScopedDataInput.MAX_DEPTH) {
+      throw new JsonParseException(
+          "Max depth (" + ScopedDataInput.MAX_DEPTH + ") surpassed"
+      );
+    }
+  }
+
+  private void expectWord(String word) throws IOException {
+    for (int i = 0; i < word.length(); i++) {
+      if (reader.read() != word.charAt(i)) {
+        throw new JsonParseException("Invalid literal, expected " + word);
+      }
+    }
+  }
+
+  private CompoundTag parseObject() throws IOException {
+    CompoundTag tag = BinaryTags.compoundTag();
+    reader.expect('{');
+    reader.skipEmpty();
+
+    if (reader.peek() == '}') {
+      reader.read();
+      return tag;
+    }
+
+    while (true) {
+      reader.skipEmpty();
+      reader.expect('"');
+      String key = parseString();
+
+      reader.skipEmpty();
+      reader.expect(':');
+      reader.skipEmpty();
+
+      BinaryTag value = parseValue();
+
+      if (value != null) {
+        tag.put(key, value);
+      }
+
+      reader.skipEmpty();
+
+      if (reader.peek() == ',') {
+        reader.read();
+        continue;
+      }
+
+      reader.expect('}');
+      return tag;
+    }
+  }
+
+  private BinaryTag parseArray() throws IOException {
+    List<BinaryTag> elements = new ArrayList<>();
+    reader.expect('[');
+    reader.skipEmpty();
+
+    if (reader.peek() == ']') {
+      reader.read();
+      return BinaryTags.listTag();
+    }
+
+    while (true) {
+      reader.skipEmpty();
+      BinaryTag value = parseValue();
+
+      if (value != null) {
+        elements.add(value);
+      }
+
+      reader.skipEmpty();
+
+      if (reader.peek() == ',') {
+        reader.read();
+        continue;
+      }
+
+      reader.expect(']');
+      return toListOrArray(elements);
+    }
+  }
+
+  private BinaryTag toListOrArray(List<BinaryTag> elements) {
+    byte typeId = TypeIds.END;
+    boolean numeric = true;
+
+    for (BinaryTag tag: elements) {
+      byte id = tag.getId();
+      boolean isNumber = tag instanceof NumberTag;
+
+      if (typeId != TypeIds.END && id != typeId && !(numeric && isNumber)) {
+        throw new JsonParseException(
+            "Array mixes " + TagTypes.getType(typeId).getName()
+                + " and " + tag.getType().getName() + " elements"
+        );
+      }
+
+      numeric &= isNumber;
+
+      // Number type IDs are ordered from narrowest to widest
+      if (typeId == TypeIds.END || id > typeId) {
+        typeId = id;
+      }
+    }
+
+    if (!numeric || elements.isEmpty()) {
+      return BinaryTags.listTag(elements);
+    }
+
+    int size = elements.size();
+
+    if (options.primitiveArrays() && typeId <= TypeIds.LONG) {
+      if (typeId == TypeIds.BYTE) {
+        byte[] arr = new byte[size];
+        for (int i = 0; i < size; i++) {
+          arr[i] = ((NumberTag) elements.get(i)).byteValue();
+        }
+        return BinaryTags.byteArrayTag(arr);
+      }
+
+      if (typeId == TypeIds.LONG) {
+        long[] arr = new long[size];
+        for (int i = 0; i < size; i++) {
+          arr[i] = ((NumberTag) elements.get(i)).longValue();
+        }
+        return BinaryTags.longArrayTag(arr);
+      }
+
+      int[] arr = new int[size];
+      for (int i = 0; i < size; i++) {
+        arr[i] = ((NumberTag) elements.get(i)).intValue();
+      }
+      return BinaryTags.intArrayTag(arr);
+    }
+
+    ListTag list = BinaryTags.listTag();
+
+    for (BinaryTag element: elements) {
+      list.add(widen((NumberTag) element, typeId));
+    }
+
+    return list;
+  }
+
+  private static BinaryTag widen(NumberTag tag, byte typeId) {
+    if (tag.getId() == typeId) {
+      return tag;
+    }
+
+    return switch (typeId) {
+      case TypeIds.SHORT -> BinaryTags.shortTag(tag.shortValue());
+      case TypeIds.INT -> BinaryTags.intTag(tag.intValue());
+      case TypeIds.LONG -> BinaryTags.longTag(tag.longValue());
+      case TypeIds.FLOAT -> BinaryTags.floatTag(tag.floatValue());
+      default -> BinaryTags.doubleTag(tag.doubleValue());
+    };
+  }
+
+  /**
+   * Parses a string, expects the opening quote to already have been read
+   * @return Parsed string
+   */
+  private String parseString() throws IOException {
+    buffer.setLength(0);
+
+    while (true) {
+      int c = reader.read();
+
+      if (c == '"') {
+        return buffer.toString();
+      }
+
+      if (c == EOF) {
+        throw new JsonParseException("End of input while inside string");
+      }
+
+      if (c < 0x20) {
+        throw new JsonParseException("Unescaped control character in string");
+      }
+
+      if (c != '\\') {
+        buffer.append((char) c);
+        continue;
+      }
+
+      int escape = reader.read();
+
+      switch (escape) {
+        case '"', '\\', '/' -> buffer.append((char) escape);
+        case 'b' -> buffer.append('\b');
+        case 'f' -> buffer.append('\f');
+        case 'n' -> buffer.append('\n');
+        case 'r' -> buffer.append('\r');
+        case 't' -> buffer.append('\t');
+        case 'u' -> buffer.append(parseUnicodeEscape());
+
+        default -> throw new JsonParseException(
+            "Invalid escape sequence: '\\" + Character.toString(escape) + "'"
+        );
+      }
+    }
+  }
+
+  private char parseUnicodeEscape() throws IOException {
+    int value = 0;
+
+    for (int i = 0; i < 4; i++) {
+      int digit = Character.digit(reader.read(), 16);
+
+      if (digit == -1) {
+        throw new JsonParseException("Invalid unicode escape");
+      }
+
+      value = (value << 4) | digit;
+    }
+
+    return (char) value;
+  }
+
+  private BinaryTag parseNumber() throws IOException {
+    buffer.setLength(0);
+
+    boolean negative = false;
+    boolean integer = true;
+    boolean overflow = false;
+    long value = 0;
+
+    if (reader.peek() == '-') {
+      negative = true;
+      buffer.append((char) reader.read());
+    }
+
+    int digits = readDigits();
+
+    if (digits == 0) {
+      throw new JsonParseException("Expected digit");
+    }
+
+    if (digits > 1 && buffer.charAt(negative ? 1 : 0) == '0') {
+      throw new JsonParseException("Leading zeros are not allowed");
+    }
+
+    // Accumulate negatively, the negative range is larger than the positive
+    // range
+    for (int i = negative ? 1 : 0; i < buffer.length(); i++) {
+      int digit = buffer.charAt(i) - '0';
+
+      if (value < (Long.MIN_VALUE + digit) / 10) {
+        overflow = true;
+        break;
+      }
+
+      value = value * 10 - digit;
+    }
+
+    if (reader.peek() == '.') {
+      integer = false;
+      buffer.append((char) reader.read());
+
+      if (readDigits() == 0) {
+        throw new JsonParseException("Expected digit after decimal point");
+      }
+    }
+
+    int peek = reader.peek();
+
+    if (peek == 'e' || peek == 'E') {
+      integer = false;
+      buffer.append((char) reader.read());
+
+      peek = reader.peek();
+      if (peek == '+' || peek == '-') {
+        buffer.append((char) reader.read());
+      }
+
+      if (readDigits() == 0) {
+        throw new JsonParseException("Expected digit in exponent");
+      }
+    }
+
+    if (!negative && value == Long.MIN_VALUE) {
+      overflow = true;
+    }
+
+    if (!integer || overflow || options.numberTyping() == NumberTyping.DOUBLE) {
+      return BinaryTags.doubleTag(Double.parseDouble(buffer.toString()));
+    }
+
+    return integerTag(negative ? value : -value);
+  }
+
+  private int readDigits() throws IOException {
+    int count = 0;
+    int peek;
+
+    while ((peek = reader.peek()) >= '0' && peek <= '9') {
+      buffer.append((char) reader.read());
+      count++;
+    }
+
+    return count;
+  }
+
+  private BinaryTag integerTag(long value) {
+    if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+      int i = (int) value;
+
+      if (options.numberTyping() == NumberTyping.NARROWEST) {
+        if (i >= Byte.MIN_VALUE && i <= Byte.MAX_VALUE) {
+          return BinaryTags.byteTag(i);
+        }
+
+        if (i >= Short.MIN_VALUE && i <= Short.MAX_VALUE) {
+          return BinaryTags.shortTag(i);
+        }
+      }
+
+      return BinaryTags.intTag(i);
+    }
+
+    return BinaryTags.longTag(value);
+  }
+}
@@ -0,0 +1,303 @@
+package net.forthecrown.nbt.json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Base64;
+import net.forthecrown.nbt.BinaryTagVisitor;
+import net.forthecrown.nbt.ByteArrayTag;
+import net.forthecrown.nbt.ByteTag;
+import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.DoubleTag;
+import net.forthecrown.nbt.FloatTag;
+import net.forthecrown.nbt.IntArrayTag;
+import net.forthecrown.nbt.IntTag;
+import net.forthecrown.nbt.ListTag;
+import net.forthecrown.nbt.LongArrayTag;
+import net.forthecrown.nbt.LongTag;
+import net.forthecrown.nbt.ShortTag;
+import net.forthecrown.nbt.StringTag;
+
+/**
+ * Visitor that writes tags as JSON.
+ * <p>
+ * Like the SNBT visitor, text is collected in a small buffer that's flushed to
+ * the output every {@link #FLUSH_THRESHOLD} characters, and IO errors thrown
+ * by the output are rethrown as {@link UncheckedIOException}s.
+ */
+class JsonVisitor implements BinaryTagVisitor {
+  public static final int INDENT_CHANGE = 2;
+  public static final int FLUSH_THRESHOLD = 8192;
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private final StringBuilder builder;
+  private final Appendable output;
+  private final JsonOptions options;
+
+  private int indent = 0;
+  private char[] flushBuffer;
+
+  public JsonVisitor(Appendable output, JsonOptions options) {
+    this.options = options;
+
+    if (output instanceof StringBuilder sb) {
+      this.builder = sb;
+      this.output = null;
+    } else {
+      this.builder = new StringBuilder(FLUSH_THRESHOLD);
+      this.output = output;
+    }
+  }
+
+  public void flush() {
+    if (output == null || builder.isEmpty()) {
+      return;
+    }
+
+    int len = builder.length();
+
+    try {
+      if (output instanceof Writer writer) {
+        if (flushBuffer == null || flushBuffer.length < len) {
+          flushBuffer = new char[Math.max(len, FLUSH_THRESHOLD)];
+        }
+
+        builder.getChars(0, len, flushBuffer, 0);
+        writer.write(flushBuffer, 0, len);
+      } else {
+        output.append(builder);
+      }
+    } catch (IOException exc) {
+      throw new UncheckedIOException(exc);
+    }
+
+    builder.setLength(0);
+  }
+
+  private void checkFlush() {
+    if (output != null && builder.length() >= FLUSH_THRESHOLD) {
+      flush();
+    }
+  }
+
+  private void appendString(String s) {
+    builder.append('"');
+
+    int len = s.length();
+    int start = 0;
+
+    for (int i = 0; i < len; i++) {
+      char c = s.charAt(i);
+
+      if (c >= 0x20 && c != '"' && c != '\\') {
+        continue;
+      }
+
+      builder.append(s, start, i);
+      start = i + 1;
+
+      switch (c) {
+        case '"' -> builder.append("\\\"");
+        case '\\' -> builder.append("\\\\");
+        case '\n' -> builder.append("\\n");
+        case '\r' -> builder.append("\\r");
+        case '\t' -> builder.append("\\t");
+        case '\b' -> builder.append("\\b");
+        case '\f' -> builder.append("\\f");
+        default -> builder.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+      }
+    }
+
+    if (start == 0) {
+      builder.append(s);
+    } else {
+      builder.append(s, start, len);
+    }
+
+    builder.append('"');
+  }
+
+  private void appendLong(long value) {
+    if (options.longsAsStrings()) {
+      builder.append('"').append(value).append('"');
+    } else {
+      builder.append(value);
+    }
+  }
+
+  private void appendDecimal(double value) {
+    // NaN and infinity have no JSON representation
+    if (Double.isFinite(value)) {
+      builder.append(value);
+    } else {
+      builder.append('"').append(value).append('"');
+    }
+  }
+
+  private void beginStructure(char open) {
+    builder.append(open);
+    indent += INDENT_CHANGE;
+  }
+
+  private void entry(int index) {
+    if (index > 0) {
+      builder.append(',');
+    }
+
+    nlIndent();
+  }
+
+  private void endStructure(char close, int size) {
+    indent -= INDENT_CHANGE;
+
+    if (size > 0) {
+      nlIndent();
+    }
+
+    builder.append(close);
+  }
+
+  private void nlIndent() {
+    if (!options.prettyPrinting()) {
+      return;
+    }
+
+    builder.append('\n');
+
+    for (int i = 0; i < indent; i++) {
+      builder.append(' ');
+    }
+  }
+
+  @Override
+  public void visitString(StringTag tag) {
+    appendString(tag.value());
+  }
+
+  @Override
+  public void visitByte(ByteTag tag) {
+    builder.append(tag.byteValue());
+  }
+
+  @Override
+  public void visitShort(ShortTag tag) {
+    builder.append(tag.shortValue());
+  }
+
+  @Override
+  public void visitInt(IntTag tag) {
+    builder.append(tag.intValue());
+  }
+
+  @Override
+  public void visitLong(LongTag tag) {
+    appendLong(tag.longValue());
+  }
+
+  @Override
+  public void visitFloat(FloatTag tag) {
+    float value = tag.floatValue();
+
+    if (Float.isFinite(value)) {
+      builder.append(value);
+    } else {
+      appendDecimal(value);
+    }
+  }
+
+  @Override
+  public void visitDouble(DoubleTag tag) {
+    appendDecimal(tag.doubleValue());
+  }
+
+  @Override
+  public void visitByteArray(ByteArrayTag tag) {
+    if (options.byteArraysAsBase64()) {
+      builder.append('"')
+          .append(Base64.getEncoder().encodeToString(tag.toByteArray()))
+          .append('"');
+
+      return;
+    }
+
+    int size = tag.size();
+    beginStructure('[');
+
+    for (int i = 0; i < size; i++) {
+      entry(i);
+      builder.append(tag.getByte(i));
+      checkFlush();
+    }
+
+    endStructure(']', size);
+  }
+
+  @Override
+  public void visitIntArray(IntArrayTag tag) {
+    int size = tag.size();
+    beginStructure('[');
+
+    for (int i = 0; i < size; i++) {
+      entry(i);
+      builder.append(tag.getInt(i));
+      checkFlush();
+    }
+
+    endStructure(']', size);
+  }
+
+  @Override
+  public void visitLongArray(LongArrayTag tag) {
+    int size = tag.size();
+    beginStructure('[');
+
+    for (int i = 0; i < size; i++) {
+      entry(i);
+      appendLong(tag.getLong(i));
+      checkFlush();
+    }
+
+    endStructure(']', size);
+  }
+
+  @Override
+  public void visitList(ListTag tag) {
+    int size = tag.size();
+    beginStructure('[');
+
+    for (int i = 0; i < size; i++) {
+      entry(i);
+      tag.get(i).visit(this);
+      checkFlush();
+    }
+
+    endStructure(']', size);
+  }
+
+  @Override
+  public void visitCompound(CompoundTag tag) {
+    int index = 0;
+    beginStructure('{');
+
+    for (var e: tag.entrySet()) {
+      entry(index++);
+      appendString(e.getKey());
+      builder.append(':');
+
+      if (options.prettyPrinting()) {
+        builder.append(' ');
+      }
+
+      e.getValue().visit(this);
+      checkFlush();
+    }
+
+    endStructure('}', index);
+  }
+
+  @Override
+  public String toString() {
+    return builder.toString();
+  }
+}
@@ -0,0 +1,159 @@
+package net.forthecrown.nbt.json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import net.forthecrown.nbt.BinaryTag;
+import net.forthecrown.nbt.util.CharSequenceWrapper;
+import net.forthecrown.nbt.util.ReaderWrapper;
+
+/**
+ * Converts tags to and from JSON text.
+ * <p>
+ * Neither direction goes through an intermediate JSON tree. Tags are written
+ * as JSON straight to an output and JSON text is parsed straight into tags.
+ * <p>
+ * Tags are written as follows:
+ * <ul>
+ *   <li>Compounds are written as JSON objects</li>
+ *   <li>Lists and primitive arrays are written as JSON arrays</li>
+ *   <li>Strings are written as JSON strings</li>
+ *   <li>
+ *     Numbers are written as JSON numbers, except for NaN and infinite
+ *     values, which have no JSON representation and are written as strings
+ *   </li>
+ * </ul>
+ * JSON is parsed as described in {@link JsonOptions} and {@link NumberTyping}.
+ * Booleans are parsed into byte tags, and {@code null} values in arrays and
+ * objects are skipped.
+ */
+public final class NbtJson {
+  private NbtJson() {}
+
+  /* ----------------------------- TO JSON ------------------------------ */
+
+  /**
+   * Formats the specified {@code tag} as JSON with the default options
+   * @param tag Tag to format
+   * @return JSON string
+   */
+  public static String toJson(BinaryTag tag) {
+    return toJson(tag, JsonOptions.defaults());
+  }
+
+  /**
+   * Formats the specified {@code tag} as JSON
+   * @param tag Tag to format
+   * @param options Conversion options
+   * @return JSON string
+   */
+  public static String toJson(BinaryTag tag, JsonOptions options) {
+    JsonVisitor visitor = new JsonVisitor(new StringBuilder(), options);
+    tag.visit(visitor);
+    return visitor.toString();
+  }
+
+  /**
+   * Writes the specified {@code tag} as JSON with the default options
+   * @param tag Tag to write
+   * @param output Output to write to
+   * @throws IOException If an IO error occurs
+   */
+  public static void write(BinaryTag tag, Appendable output)
+      throws IOException
+  {
+    write(tag, output, JsonOptions.defaults());
+  }
+
+  /**
+   * Writes the specified {@code tag} as JSON to the specified {@code output}.
+   * <p>
+   * Unless the output is a {@link StringBuilder}, JSON is written in small
+   * chunks as the tag is visited, instead of being built into a single string
+   * first. The output is not flushed or closed.
+   *
+   * @param tag Tag to write
+   * @param output Output to write to
+   * @param options Conversion options
+   * @throws IOException If an IO error occurs
+   */
+  public static void write(BinaryTag tag, Appendable output, JsonOptions options)
+      throws IOException
+  {
+    JsonVisitor visitor = new JsonVisitor(output, options);
+
+    try {
+      tag.visit(visitor);
+      visitor.flush();
+    } catch (UncheckedIOException exc) {
+      throw exc.getCause();
+    }
+  }
+
+  /* ---------------------------- FROM JSON ----------------------------- */
+
+  /**
+   * Parses a JSON value into a tag with the default options
+   * @param input JSON input
+   * @return Parsed tag
+   * @throws JsonParseException If the input cannot be parsed
+   */
+  public static BinaryTag parse(CharSequence input) throws JsonParseException {
+    return parse(input, JsonOptions.defaults());
+  }
+
+  /**
+   * Parses a JSON value into a tag
+   * @param input JSON input
+   * @param options Conversion options
+   * @return Parsed tag
+   * @throws JsonParseException If the input cannot be parsed
+   */
+  public static BinaryTag parse(CharSequence input, JsonOptions options)
+      throws JsonParseException
+  {
+    return parse(new CharSequenceWrapper(input), options);
+  }
+
+  /**
+   * Parses a JSON value into a tag with the default options
+   * @param reader JSON input
+   * @return Parsed tag
+   * @throws JsonParseException If the input cannot be parsed, or if an IO
+   *                            error occurs
+   */
+  public static BinaryTag parse(Reader reader) throws JsonParseException {
+    return parse(reader, JsonOptions.defaults());
+  }
+
+  /**
+   * Parses a JSON value into a tag
+   * @param reader JSON input
+   * @param options Conversion options
+   * @return Parsed tag
+   * @throws JsonParseException If the input cannot be parsed, or if an IO
+   *                            error occurs
+   */
+  public static BinaryTag parse(Reader reader, JsonOptions options)
+      throws JsonParseException
+  {
+    return parse(new ReaderWrapper(reader), options);
+  }
+
+  /**
+   * Parses a JSON value into a tag.
+   * <p>
+   * This method only parses a value at the beginning of the input
+   *
+   * @param reader JSON input
+   * @param options Conversion options
+   * @return Parsed tag
+   * @throws JsonParseException If the input cannot be parsed, if the input is
+   *                            {@code null}, or if an IO error occurs
+   */
+  public static BinaryTag parse(ReaderWrapper reader, JsonOptions options)
+      throws JsonParseException
+  {
+    return new JsonParser(reader, options).parse();
+  }
+}
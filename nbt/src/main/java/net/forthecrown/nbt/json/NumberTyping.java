@@ -0,0 +1,27 @@
+package net.forthecrown.nbt.json;
+
+/**
+ * Determines which tag type JSON numbers are converted into.
+ * <p>
+ * Numbers with a fraction or an exponent are always converted into double
+ * tags, and so are integers too large to fit into a long.
+ */
+public enum NumberTyping {
+  /**
+   * Integers are converted into the smallest tag type that can hold them,
+   * byte, short, int or long
+   */
+  NARROWEST,
+
+  /**
+   * Integers are converted into int tags, or into long tags if they don't
+   * fit into an int
+   */
+  INT_OR_LONG,
+
+  /**
+   * All numbers are converted into double tags, the same way JSON numbers
+   * are treated in JavaScript
+   */
+  DOUBLE
+}
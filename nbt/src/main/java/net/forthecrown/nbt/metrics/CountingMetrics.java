@@ -0,0 +1,260 @@
+package net.forthecrown.nbt.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import net.forthecrown.nbt.TagType;
+import net.forthecrown.nbt.TypeIds;
+import net.forthecrown.nbt.util.TagCounter;
+
+/**
+ * Thread safe {@link NbtMetrics} implementation that keeps running totals and
+ * latency histograms of every operation type
+ */
+public class CountingMetrics implements NbtMetrics {
+
+  private final Stats reads = new Stats();
+  private final Stats writes = new Stats();
+  private final Stats snbtParses = new Stats();
+  private final Map<PathOperation, Stats> paths = new EnumMap<>(PathOperation.class);
+
+  private final LongAdder[] tagCounts = new LongAdder[TypeIds.ID_COUNT];
+  private final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0);
+
+  public CountingMetrics() {
+    for (PathOperation op: PathOperation.values()) {
+      paths.put(op, new Stats());
+    }
+
+    for (int i = 0; i < tagCounts.length; i++) {
+      tagCounts[i] = new LongAdder();
+    }
+  }
+
+  @Override
+  public void binaryRead(long bytes,
+                         long compressedBytes,
+                         TagCounter tags,
+                         long elapsedNanos
+  ) {
+    reads.record(bytes, compressedBytes, elapsedNanos);
+    addTags(tags);
+  }
+
+  @Override
+  public void binaryWrite(long bytes,
+                          long compressedBytes,
+                          TagCounter tags,
+                          long elapsedNanos
+  ) {
+    writes.record(bytes, compressedBytes, elapsedNanos);
+    addTags(tags);
+  }
+
+  @Override
+  public void snbtParsed(long characters, TagCounter tags, long elapsedNanos) {
+    snbtParses.record(characters, -1, elapsedNanos);
+    addTags(tags);
+  }
+
+  @Override
+  public void pathEvaluated(PathOperation operation,
+                            int results,
+                            long elapsedNanos
+  ) {
+    paths.get(operation).record(results, -1, elapsedNanos);
+  }
+
+  private void addTags(TagCounter tags) {
+    if (tags == null) {
+      return;
+    }
+
+    for (byte id = 0; id < TypeIds.ID_COUNT; id++) {
+      long count = tags.getCount(id);
+
+      if (count > 0) {
+        tagCounts[id].add(count);
+      }
+    }
+
+    maxDepth.accumulate(tags.getMaxDepth());
+  }
+
+  /**
+   * Gets the binary read statistics
+   * @return Read stats
+   */
+  public Stats getReads() {
+    return reads;
+  }
+
+  /**
+   * Gets the binary write statistics
+   * @return Write stats
+   */
+  public Stats getWrites() {
+    return writes;
+  }
+
+  /**
+   * Gets the SNBT parsing statistics, the byte count of these stats is the
+   * amount of parsed characters
+   *
+   * @return SNBT parse stats
+   */
+  public Stats getSnbtParses() {
+    return snbtParses;
+  }
+
+  /**
+   * Gets the statistics of a tag path operation. The byte count of these
+   * stats is the sum of the results of each operation.
+   *
+   * @param operation Path operation
+   * @return Path operation stats
+   */
+  public Stats getPathStats(PathOperation operation) {
+    return paths.get(operation);
+  }
+
+  /**
+   * Gets the amount of tags with the specified ID that have been read,
+   * written or parsed
+   *
+   * @param typeId Type ID
+   * @return Tag count
+   */
+  public long getTagCount(byte typeId) {
+    return tagCounts[typeId].sum();
+  }
+
+  /**
+   * Gets the amount of tags of the specified type that have been read,
+   * written or parsed
+   *
+   * @param type Tag type
+   * @return Tag count
+   */
+  public long getTagCount(TagType<?> type) {
+    return getTagCount(type.getId());
+  }
+
+  /**
+   * Gets the deepest tag depth encountered
+   * @return Max tag depth
+   */
+  public int getMaxDepth() {
+    return (int) maxDepth.get();
+  }
+
+  /**
+   * Clears all counters and histograms
+   */
+  public void reset() {
+    reads.reset();
+    writes.reset();
+    snbtParses.reset();
+    paths.values().forEach(Stats::reset);
+
+    for (LongAdder count: tagCounts) {
+      count.reset();
+    }
+
+    maxDepth.reset();
+  }
+
+  /**
+   * Statistics of a single operation type
+   */
+  public static final class Stats {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder compressedBytes = new LongAdder();
+    private final LongAdder uncompressedBytes = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    void record(long bytes, long compressedBytes, long nanos) {
+      this.count.increment();
+      this.bytes.add(bytes);
+      this.nanos.add(nanos);
+
+      if (compressedBytes >= 0) {
+        this.compressedBytes.add(compressedBytes);
+        this.uncompressedBytes.add(bytes);
+      }
+
+      latency.record(nanos);
+    }
+
+    void reset() {
+      count.reset();
+      bytes.reset();
+      compressedBytes.reset();
+      uncompressedBytes.reset();
+      nanos.reset();
+      latency.reset();
+    }
+
+    /**
+     * Gets the amount of recorded operations
+     * @return Operation count
+     */
+    public long getCount() {
+      return count.sum();
+    }
+
+    /**
+     * Gets the total amount of uncompressed bytes
+     * @return Byte count
+     */
+    public long getBytes() {
+      return bytes.sum();
+    }
+
+    /**
+     * Gets the total amount of compressed bytes, operations on uncompressed
+     * data don't contribute to this
+     *
+     * @return Compressed byte count
+     */
+    public long getCompressedBytes() {
+      return compressedBytes.sum();
+    }
+
+    /**
+     * Gets the ratio of compressed bytes to uncompressed bytes, only counting
+     * operations on compressed data
+     *
+     * @return Compression ratio, or {@code 0}, if no compressed data has been
+     *         recorded
+     */
+    public double getCompressionRatio() {
+      long uncompressed = uncompressedBytes.sum();
+
+      if (uncompressed == 0) {
+        return 0;
+      }
+
+      return (double) compressedBytes.sum() / uncompressed;
+    }
+
+    /**
+     * Gets the total time spent on these operations
+     * @return Total time, in nanoseconds
+     */
+    public long getTotalNanos() {
+      return nanos.sum();
+    }
+
+    /**
+     * Gets the latency histogram of these operations
+     * @return Latency histogram
+     */
+    public LatencyHistogram getLatency() {
+      return latency;
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package net.forthecrown.nbt.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread safe histogram of nanosecond latencies with power-of-two buckets.
+ * <p>
+ * Bucket {@code 0} holds values of {@code 0}, bucket {@code n} holds values in
+ * the range {@code [2^(n-1), 2^n)}. Percentiles are reported as the upper
+ * bound of the bucket they fall into, so they're accurate to within a factor
+ * of 2.
+ */
+public final class LatencyHistogram {
+
+  /** Amount of buckets in the histogram */
+  public static final int BUCKETS = Long.SIZE;
+
+  private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+  public LatencyHistogram() {
+    for (int i = 0; i < BUCKETS; i++) {
+      buckets[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * Gets the bucket index the specified {@code nanos} value falls into
+   * @param nanos Value
+   * @return Bucket index
+   */
+  public static int bucketIndex(long nanos) {
+    if (nanos <= 0) {
+      return 0;
+    }
+    return Math.min(BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(nanos));
+  }
+
+  /**
+   * Gets the exclusive upper bound of the specified bucket
+   * @param bucket Bucket index
+   * @return Upper bound, in nanoseconds
+   */
+  public static long bucketUpperBound(int bucket) {
+    if (bucket >= BUCKETS - 1) {
+      return Long.MAX_VALUE;
+    }
+    return 1L << bucket;
+  }
+
+  /**
+   * Records a single value
+   * @param nanos Latency, in nanoseconds
+   */
+  public void record(long nanos) {
+    buckets[bucketIndex(nanos)].increment();
+  }
+
+  /**
+   * Gets the amount of values recorded in the specified bucket
+   * @param bucket Bucket index
+   * @return Bucket's value count
+   */
+  public long getBucketCount(int bucket) {
+    return buckets[bucket].sum();
+  }
+
+  /**
+   * Gets the amount of recorded values
+   * @return Recorded value count
+   */
+  public long getCount() {
+    long count = 0;
+    for (LongAdder bucket: buckets) {
+      count += bucket.sum();
+    }
+    return count;
+  }
+
+  /**
+   * Gets the approximate value at the specified {@code percentile}
+   *
+   * @param percentile Percentile, in range {@code [0, 1]}
+   * @return Upper bound of the bucket the percentile falls into, or {@code 0}
+   *         if nothing has been recorded
+   */
+  public long percentile(double percentile) {
+    if (percentile < 0 || percentile > 1) {
+      throw new IllegalArgumentException(
+          "Percentile must be in range [0, 1], found: " + percentile
+      );
+    }
+
+    long[] counts = new long[BUCKETS];
+    long total = 0;
+
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = buckets[i].sum();
+      total += counts[i];
+    }
+
+    if (total == 0) {
+      return 0;
+    }
+
+    long target = Math.max(1, (long) Math.ceil(total * percentile));
+    long seen = 0;
+
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts[i];
+
+      if (seen >= target) {
+        return bucketUpperBound(i);
+      }
+    }
+
+    return bucketUpperBound(BUCKETS - 1);
+  }
+
+  /**
+   * Clears all recorded values
+   */
+  public void reset() {
+    for (LongAdder bucket: buckets) {
+      bucket.reset();
+    }
+  }
+}
@@ -0,0 +1,10 @@
+package net.forthecrown.nbt.metrics;
+
+/**
+ * Holds the active {@link NbtMetrics} listener
+ */
+final class MetricsHolder {
+  private MetricsHolder() {}
+
+  static volatile NbtMetrics metrics = NoopMetrics.INSTANCE;
+}
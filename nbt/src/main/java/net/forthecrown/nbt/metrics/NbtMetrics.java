@@ -0,0 +1,154 @@
+package net.forthecrown.nbt.metrics;
+
+import java.util.Objects;
+import net.forthecrown.nbt.util.TagCounter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Listener notified about binary IO, SNBT parsing and tag path operations.
+ * <p>
+ * A single global listener is active at a time, set with
+ * {@link #setMetrics(NbtMetrics)}. By default the {@link #noop()} listener is
+ * active, which reports itself as disabled with {@link #isEnabled()}. When
+ * metrics are disabled, operations skip all timing and counting and only pay
+ * for the check itself.
+ * <p>
+ * All callbacks are invoked on the thread that performed the operation, so
+ * implementations must be thread safe. {@link CountingMetrics} is a built-in
+ * implementation that keeps counters and latency histograms.
+ * <p>
+ * Example:
+ * <pre>
+ * CountingMetrics metrics = new CountingMetrics();
+ * NbtMetrics.setMetrics(metrics);
+ *
+ * // Read, write and parse NBT
+ *
+ * long readBytes = metrics.getReads().getBytes();
+ * long p99 = metrics.getReads().getLatency().percentile(0.99);
+ * </pre>
+ */
+public interface NbtMetrics {
+
+  /**
+   * Gets the active metrics listener
+   * @return Active listener
+   */
+  static @NotNull NbtMetrics metrics() {
+    return MetricsHolder.metrics;
+  }
+
+  /**
+   * Sets the active metrics listener
+   * @param metrics Listener, or {@code null}, to reset to the {@link #noop()}
+   *                listener
+   */
+  static void setMetrics(@Nullable NbtMetrics metrics) {
+    MetricsHolder.metrics = Objects.requireNonNullElse(metrics, noop());
+  }
+
+  /**
+   * Gets the no-op metrics listener
+   * @return No-op listener
+   */
+  static @NotNull NbtMetrics noop() {
+    return NoopMetrics.INSTANCE;
+  }
+
+  /**
+   * Tests if this listener wants to be notified. If this returns
+   * {@code false}, none of the callback methods are called
+   * @return {@code true}, if enabled, {@code false} otherwise
+   */
+  default boolean isEnabled() {
+    return true;
+  }
+
+  /**
+   * Tests if this listener wants the tags read, written or parsed to be
+   * counted. Counting requires walking the entire tag tree after the
+   * operation.
+   *
+   * @return {@code true}, to count tags, {@code false} to pass {@code null}
+   *         counters to the callbacks
+   */
+  default boolean countTags() {
+    return true;
+  }
+
+  /**
+   * Called after a tag is read from binary
+   *
+   * @param bytes Uncompressed bytes read
+   * @param compressedBytes Compressed bytes read, or {@code -1} if the input
+   *                        was not compressed
+   * @param tags Counter of the read tags, or {@code null}, if
+   *             {@link #countTags()} returned {@code false}
+   * @param elapsedNanos Time taken, in nanoseconds
+   */
+  default void binaryRead(long bytes,
+                          long compressedBytes,
+                          @Nullable TagCounter tags,
+                          long elapsedNanos
+  ) {
+
+  }
+
+  /**
+   * Called after a tag is written to binary
+   *
+   * @param bytes Uncompressed bytes written
+   * @param compressedBytes Compressed bytes written, or {@code -1} if the
+   *                        output was not compressed
+   * @param tags Counter of the written tags, or {@code null}, if
+   *             {@link #countTags()} returned {@code false}
+   * @param elapsedNanos Time taken, in nanoseconds
+   */
+  default void binaryWrite(long bytes,
+                           long compressedBytes,
+                           @Nullable TagCounter tags,
+                           long elapsedNanos
+  ) {
+
+  }
+
+  /**
+   * Called after an SNBT string is parsed
+   *
+   * @param characters Amount of characters read
+   * @param tags Counter of the parsed tags, or {@code null}, if
+   *             {@link #countTags()} returned {@code false}
+   * @param elapsedNanos Time taken, in nanoseconds
+   */
+  default void snbtParsed(long characters,
+                          @Nullable TagCounter tags,
+                          long elapsedNanos
+  ) {
+
+  }
+
+  /**
+   * Called after a tag path is evaluated
+   *
+   * @param operation Evaluated operation
+   * @param results Amount of tags returned by a {@link PathOperation#GET}, or
+   *                the amount of tags changed by other operations
+   * @param elapsedNanos Time taken, in nanoseconds
+   */
+  default void pathEvaluated(PathOperation operation,
+                             int results,
+                             long elapsedNanos
+  ) {
+
+  }
+
+  /**
+   * Tag path operation types
+   */
+  enum PathOperation {
+    GET,
+    SET,
+    REMOVE
+  }
+}
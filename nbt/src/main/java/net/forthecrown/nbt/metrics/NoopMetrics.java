@@ -0,0 +1,22 @@
+package net.forthecrown.nbt.metrics;
+
+final class NoopMetrics implements NbtMetrics {
+  static final NoopMetrics INSTANCE = new NoopMetrics();
+
+  private NoopMetrics() {}
+
+  @Override
+  public boolean isEnabled() {
+    return false;
+  }
+
+  @Override
+  public boolean countTags() {
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return "NoopMetrics";
+  }
+}
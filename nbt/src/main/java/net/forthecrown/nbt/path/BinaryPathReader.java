@@ -0,0 +1,375 @@
+package net.forthecrown.nbt.path;
+
+import static net.forthecrown.nbt.path.CompiledTagPathImpl.INDEX;
+import static net.forthecrown.nbt.path.CompiledTagPathImpl.OBJECT;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import net.forthecrown.nbt.BinaryTag;
+import net.forthecrown.nbt.BinaryTags;
+import net.forthecrown.nbt.TagTypes;
+import net.forthecrown.nbt.TypeIds;
+import net.forthecrown.nbt.io.ScopedDataInput;
+
+/**
+ * Evaluates a compiled path against binary NBT data.
+ * <p>
+ * The reader follows the path's nodes through the input, skipping over every
+ * value the path doesn't lead into. A value is only decoded into a tag once
+ * the path has been fully matched, or when a node's filter has to be tested
+ * against it, after which the rest of the path is evaluated on the decoded
+ * tag. Compound keys are compared against the path's keys in their encoded
+ * form, so skipped entries don't create any strings.
+ * <p>
+ * When the path can only match a single tag, reading stops as soon as the
+ * result is known, and the rest of the input is left unread.
+ */
+final class BinaryPathReader {
+
+  private final CompiledTagPathImpl path;
+  private final ScopedDataInput input;
+  private final Consumer<BinaryTag> consumer;
+
+  /** Encoded form of each object node's key */
+  private final byte[][] names;
+
+  /** If the data following a match must be skipped */
+  private final boolean consume;
+
+  private byte[] nameBuffer;
+
+  BinaryPathReader(CompiledTagPathImpl path,
+                   ScopedDataInput input,
+                   Consumer<BinaryTag> consumer
+  ) {
+    this.path = path;
+    this.input = input;
+    this.consumer = consumer;
+    this.consume = !path.singleResult;
+
+    this.names = new byte[path.kinds.length][];
+    int longest = 0;
+
+    for (int i = 0; i < names.length; i++) {
+      if (path.kinds[i] != OBJECT) {
+        continue;
+      }
+
+      names[i] = encode(path.names[i]);
+
+      if (names[i] != null) {
+        longest = Math.max(longest, names[i].length);
+      }
+    }
+
+    this.nameBuffer = new byte[longest];
+  }
+
+  private static byte[] encode(String name) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(name.length() + 2);
+
+    try {
+      new DataOutputStream(out).writeUTF(name);
+    } catch (IOException exc) {
+      // Too long to be encoded, so no key in the input can match it
+      return null;
+    }
+
+    byte[] bytes = out.toByteArray();
+    return Arrays.copyOfRange(bytes, 2, bytes.length);
+  }
+
+  int readRoot() throws IOException {
+    byte typeId = input.readByte();
+
+    if (typeId != TypeIds.COMPOUND) {
+      throw new IOException(
+          "Expected TAG_Compound (" + TypeIds.COMPOUND + "), found : " + typeId
+      );
+    }
+
+    skipFully(input.readUnsignedShort());
+
+    // The root filter has to be tested against the entire tag
+    if (path.rootFilter != null) {
+      BinaryTag root = TagTypes.compoundType().read(input);
+      return path.testRoot(root) ? path.walk(root, 0, consumer) : 0;
+    }
+
+    return read(TypeIds.COMPOUND, 0);
+  }
+
+  /**
+   * Evaluates the path from the specified {@code step} on the value at the
+   * input's current position
+   *
+   * @param typeId Type of the value
+   * @param step Path step to evaluate
+   * @return Amount of matched tags
+   */
+  private int read(byte typeId, int step) throws IOException {
+    if (step == path.kinds.length) {
+      consumer.accept(decode(typeId));
+      return 1;
+    }
+
+    return switch (path.kinds[step]) {
+      case OBJECT -> readMapping(typeId, step);
+      case INDEX -> readIndexed(typeId, step);
+      default -> readAll(typeId, step);
+    };
+  }
+
+  /**
+   * Evaluates the path from the specified {@code step} on a value that has
+   * been decoded, after it passes the step's filter
+   */
+  private int filtered(BinaryTag tag, Predicate<BinaryTag> filter, int step) {
+    if (!filter.test(tag)) {
+      return 0;
+    }
+
+    return path.walk(tag, step, consumer);
+  }
+
+  private int readMapping(byte typeId, int step) throws IOException {
+    if (typeId != TypeIds.COMPOUND) {
+      skip(typeId);
+      return 0;
+    }
+
+    Predicate<BinaryTag> filter = path.filters[step];
+    int results = 0;
+    byte entryType;
+
+    input.enterScope();
+
+    while ((entryType = input.readByte()) != TypeIds.END) {
+      if (!readName(step)) {
+        skip(entryType);
+        continue;
+      }
+
+      results = filter == null
+          ? read(entryType, step + 1)
+          : filtered(decode(entryType), filter, step + 1);
+
+      // Keys are unique, so nothing else in this compound can match
+      if (!consume) {
+        break;
+      }
+    }
+
+    input.endScope();
+    return results;
+  }
+
+  private int readIndexed(byte typeId, int step) throws IOException {
+    if (typeId == TypeIds.LIST) {
+      byte elementType = input.readByte();
+      int size = readListSize(elementType);
+      int index = resolveIndex(step, size);
+
+      if (index == -1) {
+        if (consume) {
+          skip(elementType, size);
+        }
+
+        return 0;
+      }
+
+      input.enterScope();
+      skip(elementType, index);
+
+      int results = read(elementType, step + 1);
+
+      if (consume) {
+        skip(elementType, size - index - 1);
+      }
+
+      input.endScope();
+      return results;
+    }
+
+    int elementSize = arrayElementSize(typeId);
+
+    if (elementSize == -1) {
+      skip(typeId);
+      return 0;
+    }
+
+    int size = readArraySize();
+    int index = resolveIndex(step, size);
+
+    if (index == -1) {
+      if (consume) {
+        skipFully((long) size * elementSize);
+      }
+
+      return 0;
+    }
+
+    skipFully((long) index * elementSize);
+    BinaryTag element = decodeArrayElement(typeId);
+
+    if (consume) {
+      skipFully((long) (size - index - 1) * elementSize);
+    }
+
+    return path.walk(element, step + 1, consumer);
+  }
+
+  private int readAll(byte typeId, int step) throws IOException {
+    Predicate<BinaryTag> filter = path.filters[step];
+    int results = 0;
+
+    if (typeId == TypeIds.LIST) {
+      byte elementType = input.readByte();
+      int size = readListSize(elementType);
+
+      input.enterScope();
+
+      for (int i = 0; i < size; i++) {
+        results += filter == null
+            ? read(elementType, step + 1)
+            : filtered(decode(elementType), filter, step + 1);
+      }
+
+      input.endScope();
+      return results;
+    }
+
+    if (arrayElementSize(typeId) == -1) {
+      skip(typeId);
+      return 0;
+    }
+
+    int size = readArraySize();
+
+    for (int i = 0; i < size; i++) {
+      BinaryTag element = decodeArrayElement(typeId);
+
+      results += filter == null
+          ? path.walk(element, step + 1, consumer)
+          : filtered(element, filter, step + 1);
+    }
+
+    return results;
+  }
+
+  /**
+   * Reads a compound entry's key and tests if it's the key the specified
+   * object {@code step} is looking for
+   */
+  private boolean readName(int step) throws IOException {
+    int length = input.readUnsignedShort();
+    byte[] name = names[step];
+
+    if (name == null || name.length != length) {
+      skipFully(length);
+      return false;
+    }
+
+    input.readFully(nameBuffer, 0, length);
+    return Arrays.equals(nameBuffer, 0, length, name, 0, length);
+  }
+
+  private int resolveIndex(int step, int size) {
+    int index = path.indices[step];
+
+    if (index < 0) {
+      index += size;
+    }
+
+    return index < 0 || index >= size ? -1 : index;
+  }
+
+  private int readListSize(byte elementType) throws IOException {
+    int size = input.readInt();
+
+    if (elementType == TypeIds.END && size > 0) {
+      throw new IOException("ListTag is missing type");
+    }
+
+    return Math.max(size, 0);
+  }
+
+  private int readArraySize() throws IOException {
+    int size = input.readInt();
+
+    if (size < 0) {
+      throw new IOException("Negative array length: " + size);
+    }
+
+    return size;
+  }
+
+  private static int arrayElementSize(byte typeId) {
+    return switch (typeId) {
+      case TypeIds.BYTE_ARRAY -> Byte.BYTES;
+      case TypeIds.INT_ARRAY -> Integer.BYTES;
+      case TypeIds.LONG_ARRAY -> Long.BYTES;
+      default -> -1;
+    };
+  }
+
+  private BinaryTag decodeArrayElement(byte typeId) throws IOException {
+    return switch (typeId) {
+      case TypeIds.BYTE_ARRAY -> BinaryTags.byteTag(input.readByte());
+      case TypeIds.INT_ARRAY -> BinaryTags.intTag(input.readInt());
+      default -> BinaryTags.longTag(input.readLong());
+    };
+  }
+
+  private BinaryTag decode(byte typeId) throws IOException {
+    return TagTypes.getType(typeId).read(input);
+  }
+
+  private void skip(byte typeId) throws IOException {
+    TagTypes.getType(typeId).skip(input);
+  }
+
+  private void skip(byte typeId, int count) throws IOException {
+    if (count <= 0) {
+      return;
+    }
+
+    int elementSize = switch (typeId) {
+      case TypeIds.BYTE -> Byte.BYTES;
+      case TypeIds.SHORT -> Short.BYTES;
+      case TypeIds.INT, TypeIds.FLOAT -> Integer.BYTES;
+      case TypeIds.LONG, TypeIds.DOUBLE -> Long.BYTES;
+      default -> -1;
+    };
+
+    if (elementSize != -1) {
+      skipFully((long) count * elementSize);
+      return;
+    }
+
+    var type = TagTypes.getType(typeId);
+
+    for (int i = 0; i < count; i++) {
+      type.skip(input);
+    }
+  }
+
+  private void skipFully(long bytes) throws IOException {
+    while (bytes > 0) {
+      int skipped = input.skipBytes((int) Math.min(bytes, Integer.MAX_VALUE));
+
+      // skipBytes may skip nothing without having reached the end of the
+      // input, read a single byte so EOF is detected
+      if (skipped <= 0) {
+        input.readByte();
+        skipped = 1;
+      }
+
+      bytes -= skipped;
+    }
+  }
+}
@@ -0,0 +1,145 @@
+package net.forthecrown.nbt.path;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.function.Consumer;
+import net.forthecrown.nbt.BinaryTag;
+import net.forthecrown.nbt.io.ScopedDataInput;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A {@link TagPath} compiled into an evaluator that doesn't allocate
+ * intermediate result lists.
+ * <p>
+ * Paths made up of only object and index nodes can match at most a single
+ * tag, these are resolved by {@link #getFirst(BinaryTag)} without any
+ * allocations. Paths containing match-all nodes can match several tags,
+ * those are best evaluated with {@link #forEach(BinaryTag, Consumer)}, which
+ * passes each match to a consumer as soon as it's found.
+ * <p>
+ * Compiled paths can also be evaluated directly against binary NBT data with
+ * {@link #read(ScopedDataInput, Consumer)}, which skips over the parts of the
+ * data the path doesn't lead into, instead of reading the entire tag first.
+ * <p>
+ * Compiled paths only read values, use the {@link #getPath() source path} to
+ * insert or remove values. Compiled paths are immutable and thread safe, as
+ * long as the filters used by the source path are.
+ *
+ * @see TagPath#compile()
+ */
+public interface CompiledTagPath {
+
+  /**
+   * Gets the path this evaluator was compiled from
+   * @return Source path
+   */
+  @NotNull TagPath getPath();
+
+  /**
+   * Tests if this path can match at most a single tag, meaning it contains
+   * no match-all nodes
+   *
+   * @return {@code true}, if this path matches 1 tag at most
+   */
+  boolean isSingleResult();
+
+  /**
+   * Gets the first tag matched by this path
+   * @param tag Tag to get the element from
+   * @return First matched element, or {@code null}, if no tag was matched
+   */
+  @Nullable BinaryTag getFirst(@NotNull BinaryTag tag);
+
+  /**
+   * Passes every tag matched by this path to the specified {@code consumer},
+   * in the same order {@link TagPath#get(BinaryTag)} returns them
+   *
+   * @param tag Tag to get elements from
+   * @param consumer Match consumer
+   * @return Amount of matched tags
+   */
+  int forEach(@NotNull BinaryTag tag, @NotNull Consumer<BinaryTag> consumer);
+
+  /**
+   * Gets all elements pointed to by this path.
+   * <p>
+   * Returns the same result {@link TagPath#get(BinaryTag)} would
+   *
+   * @param tag Tag to get elements from
+   * @return All matched elements, or an empty list, if no tags were matched
+   */
+  @NotNull List<BinaryTag> get(@NotNull BinaryTag tag);
+
+  /**
+   * Evaluates this path against a binary NBT root compound read from the
+   * specified {@code input}.
+   * <p>
+   * The input is expected to hold a named compound tag, in the same format
+   * {@link net.forthecrown.nbt.BinaryTags#read(java.io.InputStream)} reads.
+   * Values are only decoded into tags once this path has been fully matched,
+   * or when a filter has to be tested against them, every other value is
+   * skipped. If a root filter is set, the entire root compound is decoded.
+   * <p>
+   * Matches are passed to the {@code consumer} in the same order
+   * {@link TagPath#get(BinaryTag)} returns them. If this path
+   * {@link #isSingleResult() can match at most 1 tag}, reading stops as soon
+   * as the result is known, so the input may be left partially unread.
+   * Otherwise, the entire root compound is read.
+   *
+   * @param input Input to read from
+   * @param consumer Match consumer
+   * @return Amount of matched tags
+   * @throws IOException If an IO error occurs, if the data is malformed, or if
+   *                     the input's byte or depth limit is surpassed
+   */
+  int read(@NotNull ScopedDataInput input, @NotNull Consumer<BinaryTag> consumer)
+      throws IOException;
+
+  /**
+   * Gets all elements pointed to by this path from binary NBT data.
+   * @param input Input to read from
+   * @return All matched elements, or an empty list, if no tags were matched
+   * @throws IOException If an IO error occurs, if the data is malformed, or if
+   *                     the input's byte or depth limit is surpassed
+   * @see #read(ScopedDataInput, Consumer)
+   */
+  @NotNull List<BinaryTag> read(@NotNull ScopedDataInput input)
+      throws IOException;
+
+  /**
+   * Gets all elements pointed to by this path from uncompressed binary NBT
+   * data in the specified {@code stream}
+   *
+   * @param stream Stream to read from
+   * @return All matched elements, or an empty list, if no tags were matched
+   * @throws IOException If an IO error occurs or if the data is malformed
+   * @see #read(ScopedDataInput, Consumer)
+   */
+  default @NotNull List<BinaryTag> read(@NotNull InputStream stream)
+      throws IOException
+  {
+    return read(ScopedDataInput.create(new DataInputStream(stream)));
+  }
+
+  /**
+   * Gets all elements pointed to by this path from uncompressed binary NBT
+   * data in the specified {@code buffer}.
+   * <p>
+   * Reading starts at the buffer's current position, the buffer's position is
+   * not changed
+   *
+   * @param buffer Buffer to read from
+   * @return All matched elements, or an empty list, if no tags were matched
+   * @throws IOException If the data is malformed
+   * @see #read(ScopedDataInput, Consumer)
+   */
+  default @NotNull List<BinaryTag> read(@NotNull ByteBuffer buffer)
+      throws IOException
+  {
+    return read(ScopedDataInput.create(buffer));
+  }
+}
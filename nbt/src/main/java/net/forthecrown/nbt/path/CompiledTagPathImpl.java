@@ -0,0 +1,330 @@
+package net.forthecrown.nbt.path;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import net.forthecrown.nbt.BinaryTag;
+import net.forthecrown.nbt.CollectionTag;
+import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.io.ScopedDataInput;
+import net.forthecrown.nbt.metrics.NbtMetrics;
+import net.forthecrown.nbt.metrics.NbtMetrics.PathOperation;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Compiled path implementation. The path's nodes are flattened into parallel
+ * arrays, so evaluating a step is a switch over the step's kind instead of a
+ * virtual call that collects results into a new list.
+ */
+class CompiledTagPathImpl implements CompiledTagPath {
+
+  static final byte OBJECT = 0;
+  static final byte INDEX = 1;
+  static final byte MATCH_ALL = 2;
+
+  private final TagPathImpl path;
+
+  final Predicate<BinaryTag> rootFilter;
+
+  final byte[] kinds;
+  final String[] names;
+  final int[] indices;
+  final Predicate<BinaryTag>[] filters;
+
+  final boolean singleResult;
+
+  CompiledTagPathImpl(TagPathImpl path, Node[] nodes) {
+    this.path = path;
+    this.rootFilter = ((RootNode) nodes[0]).getMatcher();
+
+    int steps = nodes.length - 1;
+    this.kinds = new byte[steps];
+    this.names = new String[steps];
+    this.indices = new int[steps];
+
+    @SuppressWarnings("unchecked")
+    Predicate<BinaryTag>[] filters = (Predicate<BinaryTag>[])
+        new Predicate<?>[steps];
+    this.filters = filters;
+
+    boolean single = true;
+
+    for (int i = 0; i < steps; i++) {
+      Node node = nodes[i + 1];
+
+      if (node instanceof ObjectNode object) {
+        kinds[i] = OBJECT;
+        names[i] = object.getName();
+        filters[i] = object.getMatcher();
+      } else if (node instanceof IndexNode index) {
+        kinds[i] = INDEX;
+        indices[i] = index.getIndex();
+      } else if (node instanceof MatchAllNode matchAll) {
+        kinds[i] = MATCH_ALL;
+        filters[i] = matchAll.getMatcher();
+        single = false;
+      } else {
+        throw new IllegalArgumentException("Unknown node type: " + node);
+      }
+    }
+
+    this.singleResult = single;
+  }
+
+  @Override
+  public @NotNull TagPath getPath() {
+    return path;
+  }
+
+  @Override
+  public boolean isSingleResult() {
+    return singleResult;
+  }
+
+  @Override
+  public @Nullable BinaryTag getFirst(@NotNull BinaryTag tag) {
+    Objects.requireNonNull(tag);
+    NbtMetrics metrics = NbtMetrics.metrics();
+    TagPathEvent event = new TagPathEvent();
+
+    if (!metrics.isEnabled() && !event.isEnabled()) {
+      return first(tag);
+    }
+
+    event.begin();
+    long start = System.nanoTime();
+
+    BinaryTag result = first(tag);
+    path.report(metrics, event, PathOperation.GET, result == null ? 0 : 1, start);
+
+    return result;
+  }
+
+  @Override
+  public int forEach(@NotNull BinaryTag tag,
+                     @NotNull Consumer<BinaryTag> consumer
+  ) {
+    Objects.requireNonNull(tag);
+    Objects.requireNonNull(consumer);
+    NbtMetrics metrics = NbtMetrics.metrics();
+    TagPathEvent event = new TagPathEvent();
+
+    if (!metrics.isEnabled() && !event.isEnabled()) {
+      return walk(tag, consumer);
+    }
+
+    event.begin();
+    long start = System.nanoTime();
+
+    int result = walk(tag, consumer);
+    path.report(metrics, event, PathOperation.GET, result, start);
+
+    return result;
+  }
+
+  @Override
+  public @NotNull List<BinaryTag> get(@NotNull BinaryTag tag) {
+    if (singleResult) {
+      BinaryTag found = getFirst(tag);
+      return found == null ? Collections.emptyList() : List.of(found);
+    }
+
+    List<BinaryTag> results = new ArrayList<>();
+    forEach(tag, results::add);
+
+    return results.isEmpty() ? Collections.emptyList() : results;
+  }
+
+  @Override
+  public int read(@NotNull ScopedDataInput input,
+                  @NotNull Consumer<BinaryTag> consumer
+  ) throws IOException {
+    Objects.requireNonNull(input);
+    Objects.requireNonNull(consumer);
+    NbtMetrics metrics = NbtMetrics.metrics();
+    TagPathEvent event = new TagPathEvent();
+
+    if (!metrics.isEnabled() && !event.isEnabled()) {
+      return new BinaryPathReader(this, input, consumer).readRoot();
+    }
+
+    event.begin();
+    long start = System.nanoTime();
+
+    int result = new BinaryPathReader(this, input, consumer).readRoot();
+    path.report(metrics, event, PathOperation.GET, result, start);
+
+    return result;
+  }
+
+  @Override
+  public @NotNull List<BinaryTag> read(@NotNull ScopedDataInput input)
+      throws IOException
+  {
+    List<BinaryTag> results = new ArrayList<>();
+    read(input, results::add);
+    return results.isEmpty() ? Collections.emptyList() : results;
+  }
+
+  boolean testRoot(BinaryTag tag) {
+    return tag instanceof CompoundTag
+        && (rootFilter == null || rootFilter.test(tag));
+  }
+
+  private BinaryTag first(BinaryTag tag) {
+    if (!testRoot(tag)) {
+      return null;
+    }
+
+    if (singleResult) {
+      BinaryTag current = tag;
+
+      for (int step = 0; step < kinds.length && current != null; step++) {
+        current = kinds[step] == OBJECT
+            ? getMapping(current, step)
+            : getIndexed(current, step);
+      }
+
+      return current;
+    }
+
+    return first(tag, 0);
+  }
+
+  private BinaryTag first(BinaryTag tag, int step) {
+    if (step == kinds.length) {
+      return tag;
+    }
+
+    switch (kinds[step]) {
+      case OBJECT -> {
+        BinaryTag found = getMapping(tag, step);
+        return found == null ? null : first(found, step + 1);
+      }
+
+      case INDEX -> {
+        BinaryTag found = getIndexed(tag, step);
+        return found == null ? null : first(found, step + 1);
+      }
+
+      default -> {
+        if (!(tag instanceof CollectionTag c)) {
+          return null;
+        }
+
+        Predicate<BinaryTag> filter = filters[step];
+
+        for (int i = 0; i < c.size(); i++) {
+          BinaryTag element = c.getTag(i);
+
+          if (filter != null && !filter.test(element)) {
+            continue;
+          }
+
+          BinaryTag found = first(element, step + 1);
+
+          if (found != null) {
+            return found;
+          }
+        }
+
+        return null;
+      }
+    }
+  }
+
+  private int walk(BinaryTag tag, Consumer<BinaryTag> consumer) {
+    if (!singleResult) {
+      return testRoot(tag) ? walk(tag, 0, consumer) : 0;
+    }
+
+    BinaryTag found = first(tag);
+
+    if (found == null) {
+      return 0;
+    }
+
+    consumer.accept(found);
+    return 1;
+  }
+
+  int walk(BinaryTag tag, int step, Consumer<BinaryTag> consumer) {
+    if (step == kinds.length) {
+      consumer.accept(tag);
+      return 1;
+    }
+
+    switch (kinds[step]) {
+      case OBJECT -> {
+        BinaryTag found = getMapping(tag, step);
+        return found == null ? 0 : walk(found, step + 1, consumer);
+      }
+
+      case INDEX -> {
+        BinaryTag found = getIndexed(tag, step);
+        return found == null ? 0 : walk(found, step + 1, consumer);
+      }
+
+      default -> {
+        if (!(tag instanceof CollectionTag c)) {
+          return 0;
+        }
+
+        Predicate<BinaryTag> filter = filters[step];
+        int matched = 0;
+
+        for (int i = 0; i < c.size(); i++) {
+          BinaryTag element = c.getTag(i);
+
+          if (filter != null && !filter.test(element)) {
+            continue;
+          }
+
+          matched += walk(element, step + 1, consumer);
+        }
+
+        return matched;
+      }
+    }
+  }
+
+  private BinaryTag getMapping(BinaryTag tag, int step) {
+    if (!(tag instanceof CompoundTag compound)) {
+      return null;
+    }
+
+    BinaryTag found = compound.get(names[step]);
+    Predicate<BinaryTag> filter = filters[step];
+
+    if (found == null || (filter != null && !filter.test(found))) {
+      return null;
+    }
+
+    return found;
+  }
+
+  private BinaryTag getIndexed(BinaryTag tag, int step) {
+    if (!(tag instanceof CollectionTag c)) {
+      return null;
+    }
+
+    int size = c.size();
+    int index = indices[step] < 0 ? size + indices[step] : indices[step];
+
+    if (index < 0 || index >= size) {
+      return null;
+    }
+
+    return c.getTag(index);
+  }
+
+  @Override
+  public String toString() {
+    return "CompiledTagPath(" + path.getInput() + ")";
+  }
+}
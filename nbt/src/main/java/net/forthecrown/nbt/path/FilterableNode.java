@@ -8,17 +8,30 @@ import org.jetbrains.annotations.Nullable;
 abstract class FilterableNode implements Node, Predicate<BinaryTag> {
   private final Predicate<BinaryTag> filter;
 
+  /**
+   * Predicate tags are tested with, the filter itself, or the matcher
+   * compiled from it when the filter is a {@link TagPredicate}
+   */
+  private final Predicate<BinaryTag> matcher;
+
   public FilterableNode(@Nullable Predicate<BinaryTag> filter) {
     this.filter = filter;
+    this.matcher = filter instanceof TagPredicate predicate
+        ? predicate.compile()
+        : filter;
   }
 
   public Predicate<BinaryTag> getFilter() {
     return filter;
   }
 
+  public Predicate<BinaryTag> getMatcher() {
+    return matcher;
+  }
+
   @Override
   public boolean test(BinaryTag tag) {
-    return filter == null || filter.test(tag);
+    return matcher == null || matcher.test(tag);
   }
 
   public boolean isFiltered() {
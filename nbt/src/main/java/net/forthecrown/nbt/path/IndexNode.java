@@ -25,15 +25,15 @@ class IndexNode implements Node {
                   List<BinaryTag> results,
                   @Nullable Supplier<BinaryTag> supplier
   ) {
-    if (!(tag instanceof CollectionTag c)
-        || index >= c.size()
-    ) {
+    if (!(tag instanceof CollectionTag c)) {
       return;
     }
 
-    int index = this.index < 0
-        ? c.size() + this.index
-        : this.index;
+    int index = resolveIndex(c);
+
+    if (index == -1) {
+      return;
+    }
 
     BinaryTag element = c.getTag(index);
     results.add(element);
@@ -45,11 +45,9 @@ class IndexNode implements Node {
       return 0;
     }
 
-    int index = this.index < 0
-        ? c.size() + this.index
-        : this.index;
+    int index = resolveIndex(c);
 
-    if (index >= c.size()) {
+    if (index == -1) {
       return 0;
     }
 
@@ -63,9 +61,11 @@ class IndexNode implements Node {
       return 0;
     }
 
-    int index = this.index < 0
-        ? c.size() + this.index
-        : this.index;
+    int index = resolveIndex(c);
+
+    if (index == -1) {
+      return 0;
+    }
 
     BinaryTag existing = c.getTag(index);
     BinaryTag newTag = supplier.get();
@@ -77,6 +77,18 @@ class IndexNode implements Node {
     return c.setTag(index, newTag) ? 1 : 0;
   }
 
+  /**
+   * Resolves this node's index against the specified collection, negative
+   * indices count from the end of the collection
+   * @param c Collection to resolve the index in
+   * @return Resolved index, or {@code -1}, if the index is out of bounds
+   */
+  private int resolveIndex(CollectionTag c) {
+    int size = c.size();
+    int index = this.index < 0 ? size + this.index : this.index;
+    return index < 0 || index >= size ? -1 : index;
+  }
+
   @Override
   public BinaryTag createParent() {
     return BinaryTags.listTag();
@@ -45,8 +45,12 @@ interface Node {
   }
 
   default int apply(List<BinaryTag> list, ToIntFunction<BinaryTag> op) {
-    return list.stream()
-        .mapToInt(op)
-        .sum();
+    int result = 0;
+
+    for (int i = 0; i < list.size(); i++) {
+      result += op.applyAsInt(list.get(i));
+    }
+
+    return result;
   }
 }
\ No newline at end of file
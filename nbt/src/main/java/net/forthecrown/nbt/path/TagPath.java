@@ -9,7 +9,9 @@ import java.util.function.Supplier;
 import net.forthecrown.nbt.BinaryTag;
 import net.forthecrown.nbt.path.TagPathImpl.BuilderImpl;
 import net.forthecrown.nbt.string.TagParseException;
+import net.forthecrown.nbt.util.CharSequenceWrapper;
 import net.forthecrown.nbt.util.ReaderWrapper;
+import net.forthecrown.nbt.util.TagMatcher;
 import net.forthecrown.nbt.util.TagPredicate;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -111,7 +113,7 @@ public interface TagPath {
   static TagPath parse(@NotNull String string)
       throws PathParseException, TagParseException
   {
-    return new PathParser(new ReaderWrapper(string)).parse();
+    return new PathParser(new CharSequenceWrapper(string)).parse();
   }
 
   /**
@@ -172,6 +174,24 @@ public interface TagPath {
     return set(tag, element::copy);
   }
 
+  /**
+   * Compiles this path into an evaluator that reads values without creating
+   * intermediate result lists.
+   * <p>
+   * The compiled evaluator is created once and cached, so calling this
+   * method repeatedly is cheap.
+   * <p>
+   * The default implementation compiles the path parsed from
+   * {@link #getInput()} every time it's called, so the compiled evaluator's
+   * {@link CompiledTagPath#getPath()} is that parsed path, not this one.
+   *
+   * @return Compiled path
+   * @see CompiledTagPath
+   */
+  default @NotNull CompiledTagPath compile() {
+    return TagPath.parse(getInput()).compile();
+  }
+
   /**
    * Translates this path into parse-able input
    * @return A parse-able representation of this path
@@ -323,6 +343,10 @@ public interface TagPath {
 
     /**
      * Builds the path
+     * <p>
+     * {@link TagPredicate} filters are compiled into {@link TagMatcher}s
+     * here, so changes made to their tags afterwards don't affect the path.
+     *
      * @return The built path
      */
     TagPath build();
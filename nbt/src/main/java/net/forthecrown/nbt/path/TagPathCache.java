@@ -0,0 +1,220 @@
+package net.forthecrown.nbt.path;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import net.forthecrown.nbt.string.TagParseException;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A thread-safe, size bounded cache of parsed tag paths.
+ * <p>
+ * Parsing a path tokenizes the entire input and parses any filters in it as
+ * SNBT. When the same path strings are parsed over and over, for example
+ * when they come from commands or scripts, this cache returns the already
+ * parsed path instead. Once the cache is full, the least recently used path
+ * is evicted.
+ * <p>
+ * Lookups don't lock, threads only wait on each other when the cache is full
+ * and a path has to be evicted, which scans the cache for the least recently
+ * used path.
+ * <p>
+ * Paths are immutable, so a cached path can be shared freely. Inputs that
+ * fail to parse are not cached.
+ * <pre>
+ * TagPathCache cache = TagPathCache.create(256);
+ *
+ * TagPath path = cache.parse(input);
+ * List&lt;BinaryTag&gt; values = path.get(tag);
+ * </pre>
+ */
+public final class TagPathCache {
+
+  private final int maxSize;
+  private final Map<String, CachedPath> paths = new ConcurrentHashMap<>();
+
+  /** Source of the use stamps that order paths by when they were last used */
+  private final AtomicLong clock = new AtomicLong();
+  private final Object evictLock = new Object();
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  private TagPathCache(int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Creates a new cache
+   * @param maxSize Maximum amount of paths the cache holds
+   * @return Created cache
+   * @throws IllegalArgumentException If {@code maxSize} is less than 1
+   */
+  public static TagPathCache create(int maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("Max size must be at least 1");
+    }
+
+    return new TagPathCache(maxSize);
+  }
+
+  /**
+   * Gets a cached path for the specified {@code input}, or parses and caches
+   * it, if it isn't cached yet.
+   * <p>
+   * If multiple threads miss on the same input at the same time, each of
+   * them parses it, and the first result to be cached is returned to all of
+   * them.
+   *
+   * @param input Path input
+   * @return Parsed path
+   *
+   * @throws PathParseException If the input cannot be parsed
+   * @throws TagParseException If a filter in the input cannot be parsed
+   * @see TagPath#parse(String)
+   */
+  public @NotNull TagPath parse(@NotNull String input)
+      throws PathParseException, TagParseException
+  {
+    Objects.requireNonNull(input);
+    CachedPath cached = paths.get(input);
+
+    if (cached != null) {
+      hits.increment();
+      cached.lastUsed = clock.incrementAndGet();
+      return cached.path;
+    }
+
+    misses.increment();
+    TagPath parsed = TagPath.parse(input);
+
+    CachedPath created = new CachedPath(parsed, clock.incrementAndGet());
+    cached = paths.putIfAbsent(input, created);
+
+    if (cached != null) {
+      cached.lastUsed = clock.incrementAndGet();
+      return cached.path;
+    }
+
+    if (paths.size() > maxSize) {
+      evict();
+    }
+
+    return parsed;
+  }
+
+  /**
+   * Removes the least recently used paths until the cache is within its max
+   * size
+   */
+  private void evict() {
+    synchronized (evictLock) {
+      while (paths.size() > maxSize) {
+        Map.Entry<String, CachedPath> oldest = null;
+
+        for (Map.Entry<String, CachedPath> e: paths.entrySet()) {
+          if (oldest == null
+              || e.getValue().lastUsed < oldest.getValue().lastUsed
+          ) {
+            oldest = e;
+          }
+        }
+
+        if (oldest == null) {
+          return;
+        }
+
+        if (paths.remove(oldest.getKey(), oldest.getValue())) {
+          evictions.increment();
+        }
+      }
+    }
+  }
+
+  /**
+   * Gets the amount of {@link #parse(String)} calls that returned a cached
+   * path
+   *
+   * @return Hit count
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * Gets the amount of {@link #parse(String)} calls that had to parse their
+   * input
+   *
+   * @return Miss count
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * Gets the amount of paths evicted from the cache to stay within the max
+   * size
+   *
+   * @return Eviction count
+   */
+  public long getEvictions() {
+    return evictions.sum();
+  }
+
+  /**
+   * Gets the ratio of hits to total lookups
+   * @return Hit ratio, from 0 to 1, or 0 if nothing has been looked up
+   */
+  public double getHitRatio() {
+    long hits = getHits();
+    long total = hits + getMisses();
+    return total == 0 ? 0 : (double) hits / total;
+  }
+
+  /**
+   * Gets the amount of cached paths
+   * @return Cache size
+   */
+  public int size() {
+    return paths.size();
+  }
+
+  /**
+   * Gets the maximum amount of paths this cache holds
+   * @return Max size
+   */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Removes all cached paths, hit, miss and eviction counters are not reset
+   */
+  public void clear() {
+    paths.clear();
+  }
+
+  @Override
+  public String toString() {
+    return "TagPathCache{"
+        + "size=" + size()
+        + ", maxSize=" + maxSize
+        + ", hits=" + getHits()
+        + ", misses=" + getMisses()
+        + ", evictions=" + getEvictions()
+        + "}";
+  }
+
+  private static final class CachedPath {
+    private final TagPath path;
+    private volatile long lastUsed;
+
+    CachedPath(TagPath path, long lastUsed) {
+      this.path = path;
+      this.lastUsed = lastUsed;
+    }
+  }
+}
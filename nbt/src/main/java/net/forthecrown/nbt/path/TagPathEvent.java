@@ -0,0 +1,26 @@
+package net.forthecrown.nbt.path;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event emitted when a tag path is evaluated
+ */
+@Name("net.forthecrown.nbt.TagPath")
+@Label("Tag Path")
+@Category({"NBT", "Path"})
+@StackTrace(false)
+final class TagPathEvent extends Event {
+
+  @Label("Operation")
+  String operation;
+
+  @Label("Path")
+  String path;
+
+  @Label("Results")
+  int results;
+}
@@ -10,12 +10,20 @@ import java.util.StringJoiner;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import net.forthecrown.nbt.BinaryTag;
+import net.forthecrown.nbt.metrics.NbtMetrics;
+import net.forthecrown.nbt.metrics.NbtMetrics.PathOperation;
 import org.jetbrains.annotations.NotNull;
 
 class TagPathImpl implements TagPath, Iterable<Node> {
 
   private final Node[] nodes;
-  private String input;
+
+  /**
+   * Lazily created input, volatile so paths can be shared between threads,
+   * racing threads build equal strings
+   */
+  private volatile String input;
+  private volatile CompiledTagPath compiled;
 
   TagPathImpl(Node[] nodes) {
     this.nodes = nodes;
@@ -30,7 +38,23 @@ class TagPathImpl implements TagPath, Iterable<Node> {
   @Override
   public @NotNull List<BinaryTag> get(@NotNull BinaryTag tag) {
     Objects.requireNonNull(tag);
+    NbtMetrics metrics = NbtMetrics.metrics();
+    TagPathEvent event = new TagPathEvent();
+
+    if (!metrics.isEnabled() && !event.isEnabled()) {
+      return getTags(tag);
+    }
+
+    event.begin();
+    long start = System.nanoTime();
 
+    List<BinaryTag> result = getTags(tag);
+    report(metrics, event, PathOperation.GET, result.size(), start);
+
+    return result;
+  }
+
+  private List<BinaryTag> getTags(BinaryTag tag) {
     List<BinaryTag> tags = new ArrayList<>();
     tags.add(tag);
 
@@ -48,7 +72,23 @@ class TagPathImpl implements TagPath, Iterable<Node> {
   @Override
   public int remove(@NotNull BinaryTag tag) {
     Objects.requireNonNull(tag);
+    NbtMetrics metrics = NbtMetrics.metrics();
+    TagPathEvent event = new TagPathEvent();
+
+    if (!metrics.isEnabled() && !event.isEnabled()) {
+      return removeTags(tag);
+    }
+
+    event.begin();
+    long start = System.nanoTime();
+
+    int result = removeTags(tag);
+    report(metrics, event, PathOperation.REMOVE, result, start);
+
+    return result;
+  }
 
+  private int removeTags(BinaryTag tag) {
     List<BinaryTag> tags = new ArrayList<>();
     tags.add(tag);
 
@@ -71,7 +111,23 @@ class TagPathImpl implements TagPath, Iterable<Node> {
   public int set(@NotNull BinaryTag tag, @NotNull Supplier<BinaryTag> supplier) {
     Objects.requireNonNull(tag);
     Objects.requireNonNull(supplier);
+    NbtMetrics metrics = NbtMetrics.metrics();
+    TagPathEvent event = new TagPathEvent();
+
+    if (!metrics.isEnabled() && !event.isEnabled()) {
+      return setTags(tag, supplier);
+    }
+
+    event.begin();
+    long start = System.nanoTime();
 
+    int result = setTags(tag, supplier);
+    report(metrics, event, PathOperation.SET, result, start);
+
+    return result;
+  }
+
+  private int setTags(BinaryTag tag, Supplier<BinaryTag> supplier) {
     List<BinaryTag> tags = new ArrayList<>();
     tags.add(tag);
 
@@ -93,10 +149,45 @@ class TagPathImpl implements TagPath, Iterable<Node> {
     return 0;
   }
 
+  @Override
+  public @NotNull CompiledTagPath compile() {
+    CompiledTagPath result = compiled;
+
+    if (result == null) {
+      compiled = result = new CompiledTagPathImpl(this, nodes);
+    }
+
+    return result;
+  }
+
+  void report(
+      NbtMetrics metrics,
+      TagPathEvent event,
+      PathOperation operation,
+      int results,
+      long start
+  ) {
+    long elapsed = System.nanoTime() - start;
+    event.end();
+
+    if (metrics.isEnabled()) {
+      metrics.pathEvaluated(operation, results, elapsed);
+    }
+
+    if (event.shouldCommit()) {
+      event.operation = operation.name();
+      event.path = getInput();
+      event.results = results;
+      event.commit();
+    }
+  }
+
   @Override
   public @NotNull String getInput() {
-    if (input != null) {
-      return input;
+    String result = input;
+
+    if (result != null) {
+      return result;
     }
 
     StringBuilder builder = new StringBuilder();
@@ -0,0 +1,107 @@
+package net.forthecrown.nbt.path;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import net.forthecrown.nbt.BinaryTag;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A set of tag paths evaluated together in a single walk of a tag.
+ * <p>
+ * Paths in the set that share a prefix, for example {@code tag.display.Name}
+ * and {@code tag.display.Lore[]}, are merged into a trie, so the shared
+ * nodes are only evaluated once, no matter how many paths use them. Nodes are
+ * only shared when they match the same keys or indices with equal filters.
+ * <pre>
+ * TagPathSet paths = TagPathSet.of(
+ *     TagPath.parse("id"),
+ *     TagPath.parse("tag.display.Name"),
+ *     TagPath.parse("tag.Enchantments[{lvl:1s}].id")
+ * );
+ *
+ * List&lt;List&lt;BinaryTag&gt;&gt; results = paths.get(itemData);
+ * List&lt;BinaryTag&gt; names = results.get(1);
+ * </pre>
+ * Path sets only read values, they are immutable and thread safe, as long as
+ * the filters used by the paths are.
+ * <p>
+ * Only paths created with {@link TagPath#parse(String)} or
+ * {@link TagPath#builder()} are merged, other {@link TagPath} implementations
+ * are evaluated on their own with {@link TagPath#get(BinaryTag)}.
+ */
+public interface TagPathSet {
+
+  /**
+   * Creates a path set
+   * @param paths Paths in the set
+   * @return Created set
+   */
+  static TagPathSet of(@NotNull TagPath... paths) {
+    return of(Arrays.asList(paths));
+  }
+
+  /**
+   * Creates a path set.
+   * <p>
+   * The order of the paths in the collection is the order results are
+   * returned in
+   *
+   * @param paths Paths in the set
+   * @return Created set
+   */
+  static TagPathSet of(@NotNull Collection<? extends TagPath> paths) {
+    return new TagPathSetImpl(List.copyOf(paths));
+  }
+
+  /**
+   * Gets the paths in this set
+   * @return Paths, in the order they were given when this set was created
+   */
+  @NotNull List<TagPath> getPaths();
+
+  /**
+   * Gets the amount of paths in this set
+   * @return Path count
+   */
+  int size();
+
+  /**
+   * Gets all elements pointed to by all paths in this set.
+   * <p>
+   * The list at index {@code n} holds the results of the n-th path in
+   * {@link #getPaths()}, in the same order {@link TagPath#get(BinaryTag)}
+   * would return them
+   *
+   * @param tag Tag to get elements from
+   * @return Results of each path
+   */
+  @NotNull List<List<BinaryTag>> get(@NotNull BinaryTag tag);
+
+  /**
+   * Passes every tag matched by any path in this set to the specified
+   * {@code consumer}, along with the index of the path that matched it.
+   * <p>
+   * The tags matched by a single path are passed in the same order
+   * {@link TagPath#get(BinaryTag)} returns them
+   *
+   * @param tag Tag to get elements from
+   * @param consumer Match consumer
+   * @return Amount of matched tags, across all paths
+   */
+  int forEach(@NotNull BinaryTag tag, @NotNull ResultConsumer consumer);
+
+  /**
+   * Consumer of path set results
+   */
+  @FunctionalInterface
+  interface ResultConsumer {
+
+    /**
+     * Accepts a tag matched by a path
+     * @param pathIndex Index of the path in {@link TagPathSet#getPaths()}
+     * @param tag Matched tag
+     */
+    void accept(int pathIndex, BinaryTag tag);
+  }
+}
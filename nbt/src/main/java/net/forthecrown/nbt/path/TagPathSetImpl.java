@@ -0,0 +1,308 @@
+package net.forthecrown.nbt.path;
+
+import static net.forthecrown.nbt.path.CompiledTagPathImpl.INDEX;
+import static net.forthecrown.nbt.path.CompiledTagPathImpl.MATCH_ALL;
+import static net.forthecrown.nbt.path.CompiledTagPathImpl.OBJECT;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.function.Predicate;
+import net.forthecrown.nbt.BinaryTag;
+import net.forthecrown.nbt.CollectionTag;
+import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.metrics.NbtMetrics;
+import net.forthecrown.nbt.metrics.NbtMetrics.PathOperation;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Path set implementation. Each path's nodes are inserted into a trie of
+ * {@link Branch}es, paths with different root filters get separate roots.
+ * Evaluation is a depth first walk of the trie, which visits each branch once
+ * for every tag its parent matched.
+ */
+class TagPathSetImpl implements TagPathSet {
+
+  static final byte ROOT = -1;
+
+  private final List<TagPath> paths;
+  private final Branch[] roots;
+
+  /**
+   * Indices of the paths that aren't {@link TagPathImpl}s, and can't be
+   * merged into the trie
+   */
+  private final int[] unmerged;
+
+  TagPathSetImpl(List<TagPath> paths) {
+    this.paths = paths;
+
+    List<Branch> roots = new ArrayList<>();
+    int[] unmerged = new int[paths.size()];
+    int unmergedCount = 0;
+
+    for (int i = 0; i < paths.size(); i++) {
+      if (!(paths.get(i) instanceof TagPathImpl path)) {
+        unmerged[unmergedCount++] = i;
+        continue;
+      }
+
+      Branch branch = null;
+
+      for (Node node: path) {
+        if (node instanceof RootNode root) {
+          branch = Branch.find(roots, ROOT, null, 0, root);
+          continue;
+        }
+
+        Objects.requireNonNull(branch, "Path has no root node");
+        branch = branch.child(node);
+      }
+
+      Objects.requireNonNull(branch, "Path has no root node");
+      branch.addTerminal(i);
+    }
+
+    this.roots = roots.toArray(Branch[]::new);
+    this.unmerged = Arrays.copyOf(unmerged, unmergedCount);
+  }
+
+  @Override
+  public @NotNull List<TagPath> getPaths() {
+    return paths;
+  }
+
+  @Override
+  public int size() {
+    return paths.size();
+  }
+
+  @Override
+  public @NotNull List<List<BinaryTag>> get(@NotNull BinaryTag tag) {
+    @SuppressWarnings("unchecked")
+    List<BinaryTag>[] results = (List<BinaryTag>[]) new List<?>[paths.size()];
+
+    forEach(tag, (pathIndex, found) -> {
+      List<BinaryTag> list = results[pathIndex];
+
+      if (list == null) {
+        results[pathIndex] = list = new ArrayList<>();
+      }
+
+      list.add(found);
+    });
+
+    for (int i = 0; i < results.length; i++) {
+      if (results[i] == null) {
+        results[i] = Collections.emptyList();
+      }
+    }
+
+    return Arrays.asList(results);
+  }
+
+  @Override
+  public int forEach(@NotNull BinaryTag tag, @NotNull ResultConsumer consumer) {
+    Objects.requireNonNull(tag);
+    Objects.requireNonNull(consumer);
+    NbtMetrics metrics = NbtMetrics.metrics();
+    TagPathEvent event = new TagPathEvent();
+
+    if (!metrics.isEnabled() && !event.isEnabled()) {
+      return walkRoots(tag, consumer);
+    }
+
+    event.begin();
+    long start = System.nanoTime();
+
+    int result = walkRoots(tag, consumer);
+
+    long elapsed = System.nanoTime() - start;
+    event.end();
+
+    if (metrics.isEnabled()) {
+      metrics.pathEvaluated(PathOperation.GET, result, elapsed);
+    }
+
+    if (event.shouldCommit()) {
+      event.operation = PathOperation.GET.name();
+      event.path = toString();
+      event.results = result;
+      event.commit();
+    }
+
+    return result;
+  }
+
+  private int walkRoots(BinaryTag tag, ResultConsumer consumer) {
+    int results = 0;
+
+    for (int pathIndex: unmerged) {
+      for (BinaryTag found: paths.get(pathIndex).get(tag)) {
+        consumer.accept(pathIndex, found);
+        results++;
+      }
+    }
+
+    if (!(tag instanceof CompoundTag)) {
+      return results;
+    }
+
+    for (Branch root: roots) {
+      if (root.test(tag)) {
+        results += walk(root, tag, consumer);
+      }
+    }
+
+    return results;
+  }
+
+  private int walk(Branch branch, BinaryTag tag, ResultConsumer consumer) {
+    int results = 0;
+
+    for (int pathIndex: branch.terminals) {
+      consumer.accept(pathIndex, tag);
+      results++;
+    }
+
+    for (Branch child: branch.children) {
+      switch (child.kind) {
+        case OBJECT -> {
+          if (!(tag instanceof CompoundTag compound)) {
+            continue;
+          }
+
+          BinaryTag found = compound.get(child.name);
+
+          if (found != null && child.test(found)) {
+            results += walk(child, found, consumer);
+          }
+        }
+
+        case INDEX -> {
+          if (!(tag instanceof CollectionTag c)) {
+            continue;
+          }
+
+          int size = c.size();
+          int index = child.index < 0 ? size + child.index : child.index;
+
+          if (index >= 0 && index < size) {
+            results += walk(child, c.getTag(index), consumer);
+          }
+        }
+
+        default -> {
+          if (!(tag instanceof CollectionTag c)) {
+            continue;
+          }
+
+          for (int i = 0; i < c.size(); i++) {
+            BinaryTag element = c.getTag(i);
+
+            if (child.test(element)) {
+              results += walk(child, element, consumer);
+            }
+          }
+        }
+      }
+    }
+
+    return results;
+  }
+
+  @Override
+  public String toString() {
+    StringJoiner joiner = new StringJoiner(", ", "TagPathSet[", "]");
+
+    for (TagPath path: paths) {
+      joiner.add(path.getInput());
+    }
+
+    return joiner.toString();
+  }
+
+  static final class Branch {
+
+    private static final Branch[] NO_CHILDREN = new Branch[0];
+    private static final int[] NO_TERMINALS = new int[0];
+
+    final byte kind;
+    final String name;
+    final int index;
+    final Predicate<BinaryTag> filter;
+
+    /** Predicate tags are tested with, see {@link FilterableNode} */
+    final Predicate<BinaryTag> matcher;
+
+    Branch[] children = NO_CHILDREN;
+
+    /** Indices of the paths that end at this branch */
+    int[] terminals = NO_TERMINALS;
+
+    Branch(byte kind, String name, int index, @Nullable FilterableNode node) {
+      this.kind = kind;
+      this.name = name;
+      this.index = index;
+      this.filter = node == null ? null : node.getFilter();
+      this.matcher = node == null ? null : node.getMatcher();
+    }
+
+    static Branch find(List<Branch> branches,
+                       byte kind,
+                       String name,
+                       int index,
+                       @Nullable FilterableNode node
+    ) {
+      Predicate<BinaryTag> filter = node == null ? null : node.getFilter();
+
+      for (Branch branch: branches) {
+        if (branch.kind == kind
+            && branch.index == index
+            && Objects.equals(branch.name, name)
+            && Objects.equals(branch.filter, filter)
+        ) {
+          return branch;
+        }
+      }
+
+      Branch created = new Branch(kind, name, index, node);
+      branches.add(created);
+      return created;
+    }
+
+    Branch child(Node node) {
+      List<Branch> list = new ArrayList<>(Arrays.asList(children));
+      Branch result;
+
+      if (node instanceof ObjectNode object) {
+        result = find(list, OBJECT, object.getName(), 0, object);
+      } else if (node instanceof IndexNode indexNode) {
+        result = find(list, INDEX, null, indexNode.getIndex(), null);
+      } else if (node instanceof MatchAllNode matchAll) {
+        result = find(list, MATCH_ALL, null, 0, matchAll);
+      } else {
+        throw new IllegalArgumentException("Unknown node type: " + node);
+      }
+
+      if (list.size() != children.length) {
+        children = list.toArray(Branch[]::new);
+      }
+
+      return result;
+    }
+
+    void addTerminal(int pathIndex) {
+      terminals = Arrays.copyOf(terminals, terminals.length + 1);
+      terminals[terminals.length - 1] = pathIndex;
+    }
+
+    boolean test(BinaryTag tag) {
+      return matcher == null || matcher.test(tag);
+    }
+  }
+}
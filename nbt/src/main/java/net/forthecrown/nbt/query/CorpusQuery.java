@@ -0,0 +1,197 @@
+package net.forthecrown.nbt.query;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import net.forthecrown.nbt.BinaryTag;
+import net.forthecrown.nbt.path.TagPath;
+import net.forthecrown.nbt.util.TagPredicate;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A query run against every binary NBT file in a directory, on a pool of
+ * worker threads.
+ * <p>
+ * A query matches files with a {@link TagPath}, a filter, or both. When a path
+ * is set, files are evaluated with the {@link TagPath#compile() compiled}
+ * path's projected reads, so only the values the path points to are decoded,
+ * and the filter is tested against each of them. Without a path,
+ * the entire file is read and the filter is tested against the root compound.
+ * <pre>
+ * CorpusQuery query = CorpusQuery.builder()
+ *     .path(TagPath.parse("Inventory[].tag.custom_data.id"))
+ *     .filter(new TagPredicate(BinaryTags.stringTag("x")))
+ *     .errorPolicy(ErrorPolicy.SKIP)
+ *     .build();
+ *
+ * query.forEach(playerDataDir, match -&gt; {
+ *   System.out.println(match.file());
+ * });
+ * </pre>
+ * Both GZIP compressed and uncompressed files are supported, compression is
+ * detected for each file.
+ * <p>
+ * Matches are handed from the workers to the thread that called
+ * {@code forEach} through a bounded queue, so the consumer always runs on the
+ * calling thread, and workers wait when the consumer can't keep up.
+ */
+public interface CorpusQuery {
+
+  /**
+   * Default glob used to find files in a directory, matches all {@code .dat}
+   * and {@code .nbt} files in the directory and its subdirectories
+   */
+  String DEFAULT_GLOB = "**.{dat,nbt}";
+
+  /**
+   * Creates a new query builder
+   * @return Created builder
+   */
+  static Builder builder() {
+    return new CorpusQueryImpl.BuilderImpl();
+  }
+
+  /**
+   * Runs this query against every {@code .dat} and {@code .nbt} file in the
+   * specified {@code directory}
+   *
+   * @param directory Directory to search
+   * @param consumer Match consumer, called on the calling thread
+   * @return Query statistics
+   * @throws IOException If the directory cannot be read, or if a file cannot
+   *                     be read with the {@link ErrorPolicy#FAIL} policy
+   * @see #forEach(Path, String, Consumer)
+   */
+  default QueryStats forEach(@NotNull Path directory,
+                             @NotNull Consumer<QueryMatch> consumer
+  ) throws IOException {
+    return forEach(directory, DEFAULT_GLOB, consumer);
+  }
+
+  /**
+   * Runs this query against every file in the specified {@code directory},
+   * and its subdirectories, that matches the specified {@code glob}.
+   * <p>
+   * The glob is matched against each file's path relative to the directory,
+   * see {@link java.nio.file.FileSystem#getPathMatcher(String)} for the
+   * syntax. Directories are searched lazily, as workers need more files.
+   *
+   * @param directory Directory to search
+   * @param glob File glob
+   * @param consumer Match consumer, called on the calling thread
+   * @return Query statistics
+   * @throws IOException If the directory cannot be read, or if a file cannot
+   *                     be read with the {@link ErrorPolicy#FAIL} policy
+   */
+  QueryStats forEach(@NotNull Path directory,
+                     @NotNull String glob,
+                     @NotNull Consumer<QueryMatch> consumer
+  ) throws IOException;
+
+  /**
+   * Runs this query against the specified {@code files}
+   *
+   * @param files Files to read
+   * @param consumer Match consumer, called on the calling thread
+   * @return Query statistics
+   * @throws IOException If a file cannot be read with the
+   *                     {@link ErrorPolicy#FAIL} policy
+   */
+  QueryStats forEach(@NotNull Iterable<Path> files,
+                     @NotNull Consumer<QueryMatch> consumer
+  ) throws IOException;
+
+  /**
+   * Runs this query against every {@code .dat} and {@code .nbt} file in the
+   * specified {@code directory} and collects the matches into a list
+   *
+   * @param directory Directory to search
+   * @return Matches, in the order they were found
+   * @throws IOException If the directory cannot be read, or if a file cannot
+   *                     be read with the {@link ErrorPolicy#FAIL} policy
+   */
+  default List<QueryMatch> collect(@NotNull Path directory) throws IOException {
+    List<QueryMatch> matches = new ArrayList<>();
+    forEach(directory, matches::add);
+    return matches;
+  }
+
+  /**
+   * Query builder
+   */
+  interface Builder {
+
+    /**
+     * Sets the path used to find values in each file
+     * @param path Path, or {@code null}, to test the filter against each
+     *             file's root compound
+     * @return This
+     */
+    Builder path(@Nullable TagPath path);
+
+    /**
+     * Sets the filter values must pass for a file to match, for example, a
+     * {@link TagPredicate}
+     *
+     * @param filter Filter, or {@code null}, to match every file in which the
+     *               path finds a value
+     * @return This
+     */
+    Builder filter(@Nullable Predicate<BinaryTag> filter);
+
+    /**
+     * Sets the amount of worker threads
+     * @param threads Worker count, defaults to the amount of available
+     *                processors
+     * @return This
+     */
+    Builder threads(int threads);
+
+    /**
+     * Sets the amount of matches that can be waiting for the consumer before
+     * workers are blocked
+     *
+     * @param capacity Queue capacity, defaults to 256
+     * @return This
+     */
+    Builder queueCapacity(int capacity);
+
+    /**
+     * Sets the maximum amount of bytes read from each file, after
+     * decompression
+     *
+     * @param maxBytes Max bytes, 0 or less for no limit, the default
+     * @return This
+     */
+    Builder maxBytes(long maxBytes);
+
+    /**
+     * Sets what's done when a file cannot be read
+     * @param policy Error policy, defaults to {@link ErrorPolicy#FAIL}
+     * @return This
+     */
+    Builder errorPolicy(@NotNull ErrorPolicy policy);
+
+    /**
+     * Sets the handler that's called with each file skipped because of the
+     * {@link ErrorPolicy#SKIP} policy. The handler is called on the worker
+     * thread that failed to read the file
+     *
+     * @param handler Error handler
+     * @return This
+     */
+    Builder errorHandler(@Nullable BiConsumer<Path, Exception> handler);
+
+    /**
+     * Builds the query
+     * @return Built query
+     * @throws IllegalStateException If neither a path nor filter is set
+     */
+    CorpusQuery build() throws IllegalStateException;
+  }
+}
@@ -0,0 +1,398 @@
+package net.forthecrown.nbt.query;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import net.forthecrown.nbt.BinaryTag;
+import net.forthecrown.nbt.BinaryTags;
+import net.forthecrown.nbt.io.ScopedDataInput;
+import net.forthecrown.nbt.path.CompiledTagPath;
+import net.forthecrown.nbt.path.TagPath;
+import net.forthecrown.nbt.util.TagPredicate;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+class CorpusQueryImpl implements CorpusQuery {
+
+  static final int DEFAULT_QUEUE_CAPACITY = 256;
+  static final int BUFFER_SIZE = 8192;
+
+  /** Put into the match queue by each worker when it stops */
+  private static final Object DONE = new Object();
+
+  private static final AtomicInteger POOL_ID = new AtomicInteger();
+
+  private final CompiledTagPath path;
+  private final Predicate<BinaryTag> filter;
+  private final int threads;
+  private final int queueCapacity;
+  private final long maxBytes;
+  private final ErrorPolicy errorPolicy;
+  private final BiConsumer<Path, Exception> errorHandler;
+
+  CorpusQueryImpl(BuilderImpl builder) {
+    this.path = builder.path == null ? null : builder.path.compile();
+    this.filter = builder.filter instanceof TagPredicate predicate
+        ? predicate.compile()
+        : builder.filter;
+    this.threads = builder.threads;
+    this.queueCapacity = builder.queueCapacity;
+    this.maxBytes = builder.maxBytes;
+    this.errorPolicy = builder.errorPolicy;
+    this.errorHandler = builder.errorHandler;
+  }
+
+  @Override
+  public QueryStats forEach(@NotNull Path directory,
+                            @NotNull String glob,
+                            @NotNull Consumer<QueryMatch> consumer
+  ) throws IOException {
+    Objects.requireNonNull(directory);
+    Objects.requireNonNull(consumer);
+
+    PathMatcher matcher = FileSystems.getDefault()
+        .getPathMatcher("glob:" + glob);
+
+    try (Stream<Path> files = Files.walk(directory)) {
+      Iterator<Path> it = files
+          .filter(Files::isRegularFile)
+          .filter(file -> matcher.matches(directory.relativize(file)))
+          .iterator();
+
+      return run(it, consumer);
+    }
+  }
+
+  @Override
+  public QueryStats forEach(@NotNull Iterable<Path> files,
+                            @NotNull Consumer<QueryMatch> consumer
+  ) throws IOException {
+    Objects.requireNonNull(files);
+    Objects.requireNonNull(consumer);
+    return run(files.iterator(), consumer);
+  }
+
+  private QueryStats run(Iterator<Path> files, Consumer<QueryMatch> consumer)
+      throws IOException
+  {
+    Run run = new Run(files);
+    ExecutorService pool
+        = Executors.newFixedThreadPool(threads, threadFactory());
+
+    for (int i = 0; i < threads; i++) {
+      pool.execute(run::work);
+    }
+
+    int stopped = 0;
+    int matched = 0;
+
+    try {
+      while (stopped < threads) {
+        Object next = run.queue.take();
+
+        if (next == DONE) {
+          stopped++;
+          continue;
+        }
+
+        // After a failure, matches are drained so blocked workers can stop
+        if (run.failure.get() != null) {
+          continue;
+        }
+
+        matched++;
+        consumer.accept((QueryMatch) next);
+      }
+    } catch (InterruptedException exc) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Query interrupted");
+    } finally {
+      run.stop.set(true);
+      pool.shutdownNow();
+    }
+
+    IOException failure = run.failure.get();
+
+    if (failure != null) {
+      throw failure;
+    }
+
+    return new QueryStats(run.read.get(), matched, run.failed.get());
+  }
+
+  private static ThreadFactory threadFactory() {
+    String prefix = "nbt-query-" + POOL_ID.incrementAndGet() + "-";
+    AtomicInteger count = new AtomicInteger();
+
+    return runnable -> {
+      Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  /**
+   * Reads a single file and evaluates the query on it
+   * @param file File to read
+   * @return Matched values, or {@code null}, if the file didn't match
+   * @throws IOException If the file couldn't be read
+   */
+  private List<BinaryTag> evaluate(Path file) throws IOException {
+    try (InputStream stream = open(file)) {
+      if (path == null) {
+        BinaryTag root = BinaryTags.read(stream, maxBytes);
+        return filter.test(root) ? List.of(root) : null;
+      }
+
+      List<BinaryTag> values = new ArrayList<>();
+      var input = ScopedDataInput.create(new DataInputStream(stream), maxBytes);
+
+      path.read(input, value -> {
+        if (filter == null || filter.test(value)) {
+          values.add(value);
+        }
+      });
+
+      return values.isEmpty() ? null : values;
+    }
+  }
+
+  private static InputStream open(Path file) throws IOException {
+    InputStream stream = new BufferedInputStream(
+        Files.newInputStream(file),
+        BUFFER_SIZE
+    );
+
+    try {
+      // GZIP streams start with the 0x1F 0x8B magic number
+      stream.mark(2);
+      int first = stream.read();
+      int second = stream.read();
+      stream.reset();
+
+      if (first == 0x1F && second == 0x8B) {
+        return new BufferedInputStream(
+            new GZIPInputStream(stream),
+            BUFFER_SIZE
+        );
+      }
+
+      return stream;
+    } catch (IOException exc) {
+      stream.close();
+      throw exc;
+    }
+  }
+
+  /**
+   * State shared by the workers of a single query run
+   */
+  private class Run {
+    final Iterator<Path> files;
+    final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(queueCapacity);
+
+    final AtomicBoolean stop = new AtomicBoolean();
+    final AtomicReference<IOException> failure = new AtomicReference<>();
+
+    final AtomicInteger read = new AtomicInteger();
+    final AtomicInteger failed = new AtomicInteger();
+
+    Run(Iterator<Path> files) {
+      this.files = files;
+    }
+
+    void work() {
+      try {
+        Path file;
+
+        while (!stop.get() && (file = nextFile()) != null) {
+          List<BinaryTag> values;
+
+          try {
+            values = evaluate(file);
+            read.incrementAndGet();
+          } catch (IOException | RuntimeException exc) {
+            failed.incrementAndGet();
+
+            if (errorPolicy == ErrorPolicy.FAIL) {
+              fail(new IOException("Failed to read file '" + file + "'", exc));
+              break;
+            }
+
+            if (!handleError(file, exc)) {
+              break;
+            }
+
+            continue;
+          }
+
+          if (values != null) {
+            queue.put(new QueryMatch(file, List.copyOf(values)));
+          }
+        }
+      } catch (InterruptedException exc) {
+        // Query was cancelled by the calling thread
+        Thread.currentThread().interrupt();
+      } catch (Throwable t) {
+        fail(new IOException("Query worker failed", t));
+      } finally {
+        done();
+      }
+    }
+
+    /**
+     * Passes a skipped file's error to the error handler
+     * @return {@code true}, if the worker should continue, {@code false} if
+     *         the handler threw an exception and the query was failed
+     */
+    boolean handleError(Path file, Exception exc) {
+      if (errorHandler == null) {
+        return true;
+      }
+
+      try {
+        errorHandler.accept(file, exc);
+        return true;
+      } catch (Throwable t) {
+        IOException failure = new IOException(
+            "Error handler failed on file '" + file + "'", t
+        );
+        failure.addSuppressed(exc);
+
+        fail(failure);
+        return false;
+      }
+    }
+
+    /**
+     * Tells the calling thread this worker has stopped. Must be called by
+     * every worker, or the calling thread waits forever
+     */
+    void done() {
+      // If the worker was interrupted, the calling thread cancelled the
+      // query and isn't waiting for workers anymore
+      if (Thread.currentThread().isInterrupted()) {
+        return;
+      }
+
+      try {
+        queue.put(DONE);
+      } catch (InterruptedException exc) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    Path nextFile() {
+      synchronized (files) {
+        if (stop.get()) {
+          return null;
+        }
+
+        try {
+          return files.hasNext() ? files.next() : null;
+        } catch (UncheckedIOException exc) {
+          fail(exc.getCause());
+          return null;
+        }
+      }
+    }
+
+    void fail(IOException exc) {
+      failure.compareAndSet(null, exc);
+      stop.set(true);
+    }
+  }
+
+  static class BuilderImpl implements Builder {
+    private TagPath path;
+    private Predicate<BinaryTag> filter;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private long maxBytes;
+    private ErrorPolicy errorPolicy = ErrorPolicy.FAIL;
+    private BiConsumer<Path, Exception> errorHandler;
+
+    @Override
+    public Builder path(@Nullable TagPath path) {
+      this.path = path;
+      return this;
+    }
+
+    @Override
+    public Builder filter(@Nullable Predicate<BinaryTag> filter) {
+      this.filter = filter;
+      return this;
+    }
+
+    @Override
+    public Builder threads(int threads) {
+      if (threads < 1) {
+        throw new IllegalArgumentException("Thread count must be at least 1");
+      }
+
+      this.threads = threads;
+      return this;
+    }
+
+    @Override
+    public Builder queueCapacity(int capacity) {
+      if (capacity < 1) {
+        throw new IllegalArgumentException("Queue capacity must be at least 1");
+      }
+
+      this.queueCapacity = capacity;
+      return this;
+    }
+
+    @Override
+    public Builder maxBytes(long maxBytes) {
+      this.maxBytes = maxBytes;
+      return this;
+    }
+
+    @Override
+    public Builder errorPolicy(@NotNull ErrorPolicy policy) {
+      this.errorPolicy = Objects.requireNonNull(policy);
+      return this;
+    }
+
+    @Override
+    public Builder errorHandler(@Nullable BiConsumer<Path, Exception> handler) {
+      this.errorHandler = handler;
+      return this;
+    }
+
+    @Override
+    public CorpusQuery build() throws IllegalStateException {
+      if (path == null && filter == null) {
+        throw new IllegalStateException("Query needs a path, a filter or both");
+      }
+
+      return new CorpusQueryImpl(this);
+    }
+  }
+}
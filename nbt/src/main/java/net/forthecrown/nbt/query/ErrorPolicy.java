@@ -0,0 +1,19 @@
+package net.forthecrown.nbt.query;
+
+/**
+ * Determines what a {@link CorpusQuery} does when a file cannot be read
+ */
+public enum ErrorPolicy {
+
+  /**
+   * Stop the query and throw the error once all workers have stopped. Matches
+   * found after the error are discarded
+   */
+  FAIL,
+
+  /**
+   * Report the error to the query's error handler, if one is set, and
+   * continue with the next file
+   */
+  SKIP
+}
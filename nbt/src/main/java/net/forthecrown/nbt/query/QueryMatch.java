@@ -0,0 +1,17 @@
+package net.forthecrown.nbt.query;
+
+import java.nio.file.Path;
+import java.util.List;
+import net.forthecrown.nbt.BinaryTag;
+
+/**
+ * A file matched by a {@link CorpusQuery}
+ *
+ * @param file Matched file
+ * @param values Values matched in the file. If the query has a path, these are
+ *               the values found by the path that passed the query's filter,
+ *               otherwise, this is the file's root compound
+ */
+public record QueryMatch(Path file, List<BinaryTag> values) {
+
+}
@@ -0,0 +1,12 @@
+package net.forthecrown.nbt.query;
+
+/**
+ * Statistics of a finished {@link CorpusQuery} run
+ *
+ * @param files Amount of files that were read
+ * @param matched Amount of files that matched the query
+ * @param failed Amount of files that could not be read
+ */
+public record QueryStats(int files, int matched, int failed) {
+
+}
@@ -0,0 +1,160 @@
+package net.forthecrown.nbt.query;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import net.forthecrown.nbt.BinaryTag;
+import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.path.TagPath;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A secondary index over a set of documents, mapping the values found at one
+ * or more tag paths to the IDs of the documents they were found in.
+ * <p>
+ * Documents are added with {@link #put(String, CompoundTag)}, which evaluates
+ * all indexed paths in a single walk of the document. Putting a document with
+ * an ID that's already indexed replaces the old document's entries, so the
+ * index can be kept up to date as documents change without being rebuilt.
+ * <pre>
+ * TagPath itemIds = TagPath.parse("Inventory[].tag.custom_data.id");
+ * TagIndex index = TagIndex.create(itemIds);
+ *
+ * for (var player: players) {
+ *   index.put(player.getId(), player.getData());
+ * }
+ *
+ * Set&lt;String&gt; holders = index.find(itemIds, BinaryTags.stringTag("x"));
+ * </pre>
+ * Indexes can be saved with {@link #write(OutputStream)} and loaded again with
+ * {@link #read(InputStream)}. Since paths are saved as their
+ * {@link TagPath#getInput() input}, every indexed path must be parseable.
+ * <p>
+ * Indexes are thread safe, lookups can run concurrently with each other,
+ * updates are exclusive.
+ */
+public interface TagIndex {
+
+  /**
+   * Creates an empty index
+   * @param paths Paths to index
+   * @return Created index
+   */
+  static TagIndex create(@NotNull TagPath... paths) {
+    return create(Arrays.asList(paths));
+  }
+
+  /**
+   * Creates an empty index
+   * @param paths Paths to index
+   * @return Created index
+   * @throws IllegalArgumentException If {@code paths} is empty
+   */
+  static TagIndex create(@NotNull Collection<? extends TagPath> paths) {
+    if (paths.isEmpty()) {
+      throw new IllegalArgumentException("No paths to index");
+    }
+
+    return new TagIndexImpl(List.copyOf(paths));
+  }
+
+  /**
+   * Reads an index written by {@link #write(OutputStream)}
+   * @param stream Stream to read from
+   * @return Read index
+   * @throws IOException If an IO error occurs, or if the data is malformed
+   */
+  static TagIndex read(@NotNull InputStream stream) throws IOException {
+    return TagIndexImpl.read(stream);
+  }
+
+  /**
+   * Gets the indexed paths
+   * @return Indexed paths
+   */
+  @NotNull List<TagPath> getPaths();
+
+  /**
+   * Indexes a document, replacing any previous document with the same ID.
+   * <p>
+   * Values are copied into the index, so modifying the document afterwards
+   * doesn't affect the index, the document must be put again for the changes
+   * to be indexed.
+   *
+   * @param id Document ID
+   * @param document Document data
+   */
+  void put(@NotNull String id, @NotNull CompoundTag document);
+
+  /**
+   * Removes a document from the index
+   * @param id Document ID
+   * @return {@code true}, if the document was indexed, {@code false} otherwise
+   */
+  boolean remove(@NotNull String id);
+
+  /**
+   * Tests if a document is indexed
+   * @param id Document ID
+   * @return {@code true}, if the document is indexed
+   */
+  boolean contains(@NotNull String id);
+
+  /**
+   * Finds the documents in which the specified {@code path} matched a tag
+   * equal to the specified {@code value}
+   *
+   * @param path Indexed path, either the same instance given when creating
+   *             this index, or a path with the same input
+   * @param value Value to find
+   * @return Set of matching document IDs, empty, if none were found
+   * @throws IllegalArgumentException If the path is not indexed
+   */
+  @NotNull Set<String> find(@NotNull TagPath path, @NotNull BinaryTag value);
+
+  /**
+   * Finds the documents in which the path at the specified {@code pathIndex}
+   * matched a tag equal to the specified {@code value}
+   *
+   * @param pathIndex Index of the path in {@link #getPaths()}
+   * @param value Value to find
+   * @return Set of matching document IDs, empty, if none were found
+   * @throws IndexOutOfBoundsException If the path index is out of bounds
+   */
+  @NotNull Set<String> find(int pathIndex, @NotNull BinaryTag value);
+
+  /**
+   * Gets the amount of distinct values indexed for a path
+   * @param pathIndex Index of the path in {@link #getPaths()}
+   * @return Distinct value count
+   * @throws IndexOutOfBoundsException If the path index is out of bounds
+   */
+  int distinctValues(int pathIndex);
+
+  /**
+   * Gets the amount of indexed documents
+   * @return Document count
+   */
+  int size();
+
+  /**
+   * Removes all documents from the index
+   */
+  void clear();
+
+  /**
+   * Writes this index to the specified {@code stream}.
+   * <p>
+   * Document IDs are written once and referenced by number, and every value
+   * is written once per path, followed by the delta encoded numbers of the
+   * documents it was found in. The stream is not closed.
+   *
+   * @param stream Stream to write to
+   * @throws IOException If an IO error occurs
+   */
+  void write(@NotNull OutputStream stream) throws IOException;
+}
@@ -0,0 +1,460 @@
+package net.forthecrown.nbt.query;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import net.forthecrown.nbt.BinaryTag;
+import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.TagType;
+import net.forthecrown.nbt.TagTypes;
+import net.forthecrown.nbt.io.ScopedDataInput;
+import net.forthecrown.nbt.path.PathParseException;
+import net.forthecrown.nbt.path.TagPath;
+import net.forthecrown.nbt.path.TagPathSet;
+import net.forthecrown.nbt.string.TagParseException;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Hash based index implementation. Each path has a map of values to the IDs
+ * of the documents they were found in, and each document keeps the distinct
+ * values found by each path, so its entries can be removed without
+ * evaluating the paths again.
+ */
+class TagIndexImpl implements TagIndex {
+
+  /** 'NBIX' */
+  static final int MAGIC = 0x4E424958;
+  static final byte VERSION = 1;
+
+  private static final BinaryTag[] NO_VALUES = new BinaryTag[0];
+
+  private final List<TagPath> paths;
+  private final TagPathSet pathSet;
+
+  private final Map<BinaryTag, Set<String>>[] postings;
+  private final Map<String, BinaryTag[][]> documents = new HashMap<>();
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  TagIndexImpl(List<TagPath> paths) {
+    this.paths = paths;
+    this.pathSet = TagPathSet.of(paths);
+    @SuppressWarnings("unchecked")
+    Map<BinaryTag, Set<String>>[] postings
+        = (Map<BinaryTag, Set<String>>[]) new Map<?, ?>[paths.size()];
+
+    for (int i = 0; i < postings.length; i++) {
+      postings[i] = new HashMap<>();
+    }
+
+    this.postings = postings;
+  }
+
+  @Override
+  public @NotNull List<TagPath> getPaths() {
+    return paths;
+  }
+
+  @Override
+  public void put(@NotNull String id, @NotNull CompoundTag document) {
+    Objects.requireNonNull(id);
+    Objects.requireNonNull(document);
+
+    // Evaluate outside the lock, lookups don't have to wait for this
+    List<List<BinaryTag>> results = pathSet.get(document);
+    BinaryTag[][] values = new BinaryTag[results.size()][];
+
+    for (int i = 0; i < values.length; i++) {
+      values[i] = distinctCopies(results.get(i));
+    }
+
+    lock.writeLock().lock();
+    try {
+      BinaryTag[][] old = documents.put(id, values);
+
+      if (old != null) {
+        unindex(id, old);
+      }
+
+      index(id, values);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private static BinaryTag[] distinctCopies(List<BinaryTag> found) {
+    if (found.isEmpty()) {
+      return NO_VALUES;
+    }
+
+    Set<BinaryTag> distinct = new LinkedHashSet<>(found);
+    BinaryTag[] result = new BinaryTag[distinct.size()];
+    int i = 0;
+
+    for (BinaryTag tag: distinct) {
+      result[i++] = tag.copy();
+    }
+
+    return result;
+  }
+
+  private void index(String id, BinaryTag[][] values) {
+    for (int i = 0; i < values.length; i++) {
+      for (BinaryTag value: values[i]) {
+        postings[i].computeIfAbsent(value, v -> new HashSet<>()).add(id);
+      }
+    }
+  }
+
+  private void unindex(String id, BinaryTag[][] values) {
+    for (int i = 0; i < values.length; i++) {
+      for (BinaryTag value: values[i]) {
+        Set<String> ids = postings[i].get(value);
+
+        if (ids == null) {
+          continue;
+        }
+
+        ids.remove(id);
+
+        if (ids.isEmpty()) {
+          postings[i].remove(value);
+        }
+      }
+    }
+  }
+
+  @Override
+  public boolean remove(@NotNull String id) {
+    Objects.requireNonNull(id);
+
+    lock.writeLock().lock();
+    try {
+      BinaryTag[][] old = documents.remove(id);
+
+      if (old == null) {
+        return false;
+      }
+
+      unindex(id, old);
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public boolean contains(@NotNull String id) {
+    lock.readLock().lock();
+    try {
+      return documents.containsKey(id);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public @NotNull Set<String> find(@NotNull TagPath path,
+                                   @NotNull BinaryTag value
+  ) {
+    return find(indexOf(path), value);
+  }
+
+  private int indexOf(TagPath path) {
+    Objects.requireNonNull(path);
+
+    for (int i = 0; i < paths.size(); i++) {
+      if (paths.get(i) == path) {
+        return i;
+      }
+    }
+
+    String input = path.getInput();
+
+    for (int i = 0; i < paths.size(); i++) {
+      if (paths.get(i).getInput().equals(input)) {
+        return i;
+      }
+    }
+
+    throw new IllegalArgumentException("Path '" + input + "' is not indexed");
+  }
+
+  @Override
+  public @NotNull Set<String> find(int pathIndex, @NotNull BinaryTag value) {
+    Objects.requireNonNull(value);
+    Objects.checkIndex(pathIndex, postings.length);
+
+    lock.readLock().lock();
+    try {
+      Set<String> ids = postings[pathIndex].get(value);
+      return ids == null ? Collections.emptySet() : Set.copyOf(ids);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public int distinctValues(int pathIndex) {
+    Objects.checkIndex(pathIndex, postings.length);
+
+    lock.readLock().lock();
+    try {
+      return postings[pathIndex].size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return documents.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    lock.writeLock().lock();
+    try {
+      documents.clear();
+
+      for (var map: postings) {
+        map.clear();
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder("TagIndex{paths=[");
+
+    for (int i = 0; i < paths.size(); i++) {
+      if (i > 0) {
+        builder.append(", ");
+      }
+
+      builder.append(paths.get(i).getInput());
+    }
+
+    return builder.append("], documents=").append(size()).append('}').toString();
+  }
+
+  /* ------------------------------ STORAGE ------------------------------- */
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void write(@NotNull OutputStream stream) throws IOException {
+    DataOutputStream output = new DataOutputStream(stream);
+
+    lock.readLock().lock();
+    try {
+      output.writeInt(MAGIC);
+      output.writeByte(VERSION);
+
+      writeVarInt(output, paths.size());
+      for (TagPath path: paths) {
+        output.writeUTF(path.getInput());
+      }
+
+      // Document IDs are written once, postings refer to them by number
+      Map<String, Integer> numbers = new HashMap<>(documents.size());
+      writeVarInt(output, documents.size());
+
+      for (String id: documents.keySet()) {
+        numbers.put(id, numbers.size());
+        output.writeUTF(id);
+      }
+
+      int[] buffer = new int[16];
+
+      for (var map: postings) {
+        writeVarInt(output, map.size());
+
+        for (var e: map.entrySet()) {
+          BinaryTag value = e.getKey();
+          Set<String> ids = e.getValue();
+
+          output.writeByte(value.getId());
+          ((TagType<BinaryTag>) value.getType()).write(value, output);
+
+          if (buffer.length < ids.size()) {
+            buffer = new int[ids.size()];
+          }
+
+          int count = 0;
+          for (String id: ids) {
+            buffer[count++] = numbers.get(id);
+          }
+
+          Arrays.sort(buffer, 0, count);
+          writeVarInt(output, count);
+
+          int previous = 0;
+          for (int i = 0; i < count; i++) {
+            writeVarInt(output, buffer[i] - previous);
+            previous = buffer[i];
+          }
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+
+    output.flush();
+  }
+
+  static TagIndexImpl read(InputStream stream) throws IOException {
+    DataInputStream input = new DataInputStream(stream);
+
+    int magic = input.readInt();
+    if (magic != MAGIC) {
+      throw new IOException("Not a tag index, invalid header: " + magic);
+    }
+
+    byte version = input.readByte();
+    if (version != VERSION) {
+      throw new IOException("Unsupported tag index version: " + version);
+    }
+
+    // Counts are only trusted as loop bounds, collections grow as entries
+    // are actually read, so a corrupt count can't allocate huge arrays
+    int pathCount = readCount(input);
+    List<TagPath> paths = new ArrayList<>();
+
+    for (int i = 0; i < pathCount; i++) {
+      String path = input.readUTF();
+
+      try {
+        paths.add(TagPath.parse(path));
+      } catch (PathParseException | TagParseException exc) {
+        throw new IOException("Invalid path in index: '" + path + "'", exc);
+      }
+    }
+
+    if (paths.isEmpty()) {
+      throw new IOException("Index has no paths");
+    }
+
+    int docCount = readCount(input);
+    List<String> ids = new ArrayList<>();
+
+    for (int i = 0; i < docCount; i++) {
+      ids.add(input.readUTF());
+    }
+
+    // Values found by each path, per document, created when a document's
+    // first value is read
+    List<List<List<BinaryTag>>> found
+        = new ArrayList<>(Collections.nCopies(docCount, null));
+
+    TagIndexImpl index = new TagIndexImpl(List.copyOf(paths));
+    ScopedDataInput tagInput = ScopedDataInput.create(input);
+
+    for (int path = 0; path < pathCount; path++) {
+      int valueCount = readCount(input);
+      Map<BinaryTag, Set<String>> map = index.postings[path];
+
+      for (int v = 0; v < valueCount; v++) {
+        BinaryTag value = TagTypes.getType(input.readByte()).read(tagInput);
+        int postingCount = readCount(input);
+        Set<String> postings = new HashSet<>();
+        int doc = 0;
+
+        for (int p = 0; p < postingCount; p++) {
+          doc += readVarInt(input);
+
+          if (doc < 0 || doc >= docCount) {
+            throw new IOException("Invalid document number: " + doc);
+          }
+
+          postings.add(ids.get(doc));
+
+          List<List<BinaryTag>> docValues = found.get(doc);
+          if (docValues == null) {
+            docValues = new ArrayList<>(Collections.nCopies(pathCount, null));
+            found.set(doc, docValues);
+          }
+
+          List<BinaryTag> values = docValues.get(path);
+          if (values == null) {
+            values = new ArrayList<>();
+            docValues.set(path, values);
+          }
+          values.add(value);
+        }
+
+        map.put(value, postings);
+      }
+    }
+
+    for (int i = 0; i < docCount; i++) {
+      BinaryTag[][] values = new BinaryTag[pathCount][];
+      List<List<BinaryTag>> docValues = found.get(i);
+
+      for (int path = 0; path < pathCount; path++) {
+        List<BinaryTag> list = docValues == null ? null : docValues.get(path);
+        values[path] = list == null ? NO_VALUES : list.toArray(BinaryTag[]::new);
+      }
+
+      index.documents.put(ids.get(i), values);
+    }
+
+    return index;
+  }
+
+  private static int readCount(DataInput input) throws IOException {
+    int count = readVarInt(input);
+
+    if (count < 0) {
+      throw new IOException("Negative count: " + count);
+    }
+
+    return count;
+  }
+
+  static void writeVarInt(DataOutput output, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      output.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+
+    output.writeByte(value);
+  }
+
+  static int readVarInt(DataInput input) throws IOException {
+    int value = 0;
+
+    for (int shift = 0; shift < 32; shift += 7) {
+      byte b = input.readByte();
+      value |= (b & 0x7F) << shift;
+
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+
+    throw new IOException("VarInt too long");
+  }
+}
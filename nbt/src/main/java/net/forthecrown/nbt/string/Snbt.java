@@ -1,10 +1,17 @@
 package net.forthecrown.nbt.string;
 
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Reader;
-import java.io.StringReader;
+import java.io.UncheckedIOException;
 import net.forthecrown.nbt.BinaryTag;
 import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.io.ScopedDataInput;
+import net.forthecrown.nbt.util.CharSequenceWrapper;
 import net.forthecrown.nbt.util.ReaderWrapper;
+import net.forthecrown.nbt.util.TagCounter;
 
 /**
  * SNBT, or Stringified NBT, is a format used to represent NBT data in a string
@@ -57,11 +64,148 @@ public final class Snbt {
                                 boolean collapsePrimitiveArrays
   ) {
     SnbtVisitor visitor = new SnbtVisitor();
+    visit(tag, visitor, prettyPrinting, collapsePrimitiveArrays);
+    return visitor.toString();
+  }
+
+  /**
+   * Writes the specified {@code tag} as SNBT to the specified {@code output}
+   * @param tag Tag to write
+   * @param output Output to write to
+   * @throws IOException If an IO error occurs
+   * @see #write(BinaryTag, Appendable, boolean, boolean)
+   */
+  public static void write(BinaryTag tag, Appendable output)
+      throws IOException
+  {
+    write(tag, output, false, false);
+  }
+
+  /**
+   * Writes the specified {@code tag} as SNBT to the specified {@code output}.
+   * <p>
+   * The produced text is exactly what {@link #toString(BinaryTag, boolean, boolean)}
+   * would return, but unless the output is a {@link StringBuilder}, it's
+   * written in small chunks as the tag is visited instead of being built
+   * into a single string first. The output is not flushed or closed.
+   *
+   * @param tag Tag to write
+   * @param output Output to write to
+   * @param prettyPrinting {@code true} to allow for newline characters,
+   *                       indentation, {@code false} to format to a flat
+   *                       string
+   * @param collapsePrimitiveArrays {@code true}, to always keep primitive
+   *                                arrays as single line even when
+   *                                {@code prettyPrinting} is enabled,
+   *                                {@code false} otherwise
+   * @throws IOException If an IO error occurs
+   */
+  public static void write(BinaryTag tag,
+                           Appendable output,
+                           boolean prettyPrinting,
+                           boolean collapsePrimitiveArrays
+  ) throws IOException {
+    SnbtVisitor visitor = new SnbtVisitor(output);
+
+    try {
+      visit(tag, visitor, prettyPrinting, collapsePrimitiveArrays);
+      visitor.flush();
+    } catch (UncheckedIOException exc) {
+      throw exc.getCause();
+    }
+  }
+
+  private static void visit(BinaryTag tag,
+                            SnbtVisitor visitor,
+                            boolean prettyPrinting,
+                            boolean collapsePrimitiveArrays
+  ) {
+    SnbtEvent.Write event = new SnbtEvent.Write();
+    event.begin();
+
     visitor.setPrettyPrinting(prettyPrinting);
     visitor.setCollapsePrimitiveLists(collapsePrimitiveArrays);
-
     tag.visit(visitor);
-    return visitor.toString();
+
+    event.end();
+
+    if (event.shouldCommit()) {
+      TagCounter counter = TagCounter.count(tag);
+
+      event.characters = visitor.getWritten();
+      event.prettyPrinting = prettyPrinting;
+      event.tagCount = counter.getTotal();
+      event.maxDepth = counter.getMaxDepth();
+      event.commit();
+    }
+  }
+
+  /**
+   * Reads a single named tag from the specified binary {@code input} and
+   * writes its value as SNBT to the specified {@code output}.
+   * <p>
+   * Delegate method for
+   * {@link #dump(ScopedDataInput, Appendable, boolean, boolean, int)}
+   *
+   * @param input Binary input
+   * @param output Output to write to
+   * @param prettyPrinting {@code true} to allow for newline characters,
+   *                       indentation, {@code false} to format to a flat
+   *                       string
+   * @throws IOException If an IO error occurs, or if the input is invalid
+   */
+  public static void dump(ScopedDataInput input,
+                          Appendable output,
+                          boolean prettyPrinting
+  ) throws IOException {
+    dump(input, output, prettyPrinting, false, 0);
+  }
+
+  /**
+   * Reads a single named tag from the specified binary {@code input} and
+   * writes its value as SNBT to the specified {@code output}.
+   * <p>
+   * The input is read incrementally and written to the output as it's read,
+   * no tag objects are created, so memory use doesn't depend on the size of
+   * the input. This makes it usable for inspecting files too large to be read
+   * with {@link net.forthecrown.nbt.BinaryTags#read(java.io.InputStream)}.
+   * <p>
+   * The output is formatted the same way as
+   * {@link #toString(BinaryTag, boolean, boolean)}, except compound entries
+   * are written in the order they appear in the input, and primitive arrays
+   * longer than {@code maxArrayLength} are cut short with a
+   * {@code ... N more} marker. The output is not flushed or closed.
+   * <p>
+   * Note: If any array is cut short, the output is no longer valid SNBT.
+   *
+   * @param input Binary input
+   * @param output Output to write to
+   * @param prettyPrinting {@code true} to allow for newline characters,
+   *                       indentation, {@code false} to format to a flat
+   *                       string
+   * @param collapsePrimitiveArrays {@code true}, to always keep primitive
+   *                                arrays as single line even when
+   *                                {@code prettyPrinting} is enabled,
+   *                                {@code false} otherwise
+   * @param maxArrayLength Maximum amount of elements written for each
+   *                       primitive array, 0 or less for no limit
+   * @throws IOException If an IO error occurs, or if the input is invalid
+   */
+  public static void dump(ScopedDataInput input,
+                          Appendable output,
+                          boolean prettyPrinting,
+                          boolean collapsePrimitiveArrays,
+                          int maxArrayLength
+  ) throws IOException {
+    SnbtVisitor visitor = new SnbtVisitor(output);
+    visitor.setPrettyPrinting(prettyPrinting);
+    visitor.setCollapsePrimitiveLists(collapsePrimitiveArrays);
+
+    try {
+      new SnbtDumper(input, visitor, maxArrayLength).dump();
+    } catch (UncheckedIOException exc) {
+      throw exc.getCause();
+    }
   }
 
   /* ------------------------------ PARSING ------------------------------- */
@@ -71,17 +215,48 @@ public final class Snbt {
    * <p>
    * This method only parses a tag at the beginning of the string.
    * <p>
-   * Calls {@link #parse(Reader)} by wrapping the string in a
-   * {@link StringReader}
+   * Calls {@link #parse(ReaderWrapper)} by wrapping the string in a
+   * {@link CharSequenceWrapper}
    *
    * @param input Input to parse
    * @return Parsed tag
    * @throws TagParseException If the tag fails to parse
-   * @see #parse(Reader)
-   * @see #parse(ReaderWrapper)
+   * @see #parse(CharSequence)
    */
   public static BinaryTag parse(String input) throws TagParseException {
-    return parse(new ReaderWrapper(input));
+    return parse((CharSequence) input);
+  }
+
+  /**
+   * Parses the specified {@code input} into a tag.
+   * <p>
+   * This method only parses a tag at the beginning of the input.
+   * <p>
+   * Calls {@link #parse(ReaderWrapper)} by wrapping the input in a
+   * {@link CharSequenceWrapper}
+   *
+   * @param input Input to parse
+   * @return Parsed tag
+   * @throws TagParseException If the tag fails to parse
+   */
+  public static BinaryTag parse(CharSequence input) throws TagParseException {
+    return parse(new CharSequenceWrapper(input));
+  }
+
+  /**
+   * Parses the specified {@code input} into a tag.
+   * <p>
+   * This method only parses a tag at the beginning of the input.
+   * <p>
+   * Calls {@link #parse(ReaderWrapper)} by wrapping the input in a
+   * {@link CharSequenceWrapper}
+   *
+   * @param input Input to parse
+   * @return Parsed tag
+   * @throws TagParseException If the tag fails to parse
+   */
+  public static BinaryTag parse(char[] input) throws TagParseException {
+    return parse(new CharSequenceWrapper(input));
   }
 
   /**
@@ -116,7 +291,19 @@ public final class Snbt {
   public static CompoundTag parseCompound(String input)
       throws TagParseException
   {
-    return parseCompound(new ReaderWrapper(input));
+    return parseCompound((CharSequence) input);
+  }
+
+  public static CompoundTag parseCompound(CharSequence input)
+      throws TagParseException
+  {
+    return parseCompound(new CharSequenceWrapper(input));
+  }
+
+  public static CompoundTag parseCompound(char[] input)
+      throws TagParseException
+  {
+    return parseCompound(new CharSequenceWrapper(input));
   }
 
   public static CompoundTag parseCompound(Reader reader)
@@ -130,4 +317,73 @@ public final class Snbt {
   {
     return new SnbtParser(reader).parseCompound();
   }
-}
\ No newline at end of file
+
+  /* ---------------------------- TRANSCODING ----------------------------- */
+
+  /**
+   * Reads a compound tag from the specified SNBT {@code input} and writes it
+   * to the specified {@code output} in the binary NBT format.
+   * <p>
+   * Delegate method for {@link #transcode(ReaderWrapper, DataOutput)}
+   *
+   * @param input SNBT input
+   * @param output Binary output
+   * @throws IOException If an IO error occurs while writing
+   * @throws TagParseException If the input cannot be parsed
+   * @see #transcode(ReaderWrapper, DataOutput)
+   */
+  public static void transcode(CharSequence input, OutputStream output)
+      throws IOException, TagParseException
+  {
+    transcode(new CharSequenceWrapper(input), new DataOutputStream(output));
+  }
+
+  /**
+   * Reads a compound tag from the specified SNBT {@code reader} and writes it
+   * to the specified {@code output} in the binary NBT format.
+   * <p>
+   * Delegate method for {@link #transcode(ReaderWrapper, DataOutput)}
+   *
+   * @param reader SNBT input
+   * @param output Binary output
+   * @throws IOException If an IO error occurs while writing
+   * @throws TagParseException If the input cannot be parsed
+   * @see #transcode(ReaderWrapper, DataOutput)
+   */
+  public static void transcode(Reader reader, OutputStream output)
+      throws IOException, TagParseException
+  {
+    transcode(new ReaderWrapper(reader), new DataOutputStream(output));
+  }
+
+  /**
+   * Reads a compound tag from the specified SNBT {@code reader} and writes it
+   * to the specified {@code output} in the binary NBT format.
+   * <p>
+   * The output decodes to the same tag as the result of
+   * {@link #parseCompound(ReaderWrapper)}, but no tag objects are created.
+   * Compound entries are streamed to the output as they're read, list and
+   * array contents are buffered until their closing bracket, as their length
+   * must be written before them.
+   * <p>
+   * Since entries are written as they're read, they're written in input order,
+   * and a name that appears more than once in the same compound is written
+   * once for every time it appears. Binary readers, like
+   * {@link net.forthecrown.nbt.io.TagIo}, keep the last value, which is the
+   * same value {@link #parseCompound(ReaderWrapper)} keeps.
+   * <p>
+   * List element types are validated the same way they are when parsing. If
+   * the input fails to parse, some of it may already have been written to the
+   * output.
+   *
+   * @param reader SNBT input
+   * @param output Binary output
+   * @throws IOException If an IO error occurs while writing
+   * @throws TagParseException If the input cannot be parsed
+   */
+  public static void transcode(ReaderWrapper reader, DataOutput output)
+      throws IOException, TagParseException
+  {
+    new SnbtTranscoder(reader, output).transcode();
+  }
+}
@@ -0,0 +1,156 @@
+package net.forthecrown.nbt.string;
+
+import static net.forthecrown.nbt.string.Tokens.ARRAY_END;
+import static net.forthecrown.nbt.string.Tokens.ARRAY_START;
+import static net.forthecrown.nbt.string.Tokens.COMPOUND_END;
+import static net.forthecrown.nbt.string.Tokens.COMPOUND_START;
+import static net.forthecrown.nbt.string.Tokens.SUFFIX_BYTE;
+import static net.forthecrown.nbt.string.Tokens.SUFFIX_INT;
+import static net.forthecrown.nbt.string.Tokens.SUFFIX_LONG;
+
+import java.io.IOException;
+import net.forthecrown.nbt.TypeIds;
+import net.forthecrown.nbt.io.ScopedDataInput;
+
+/**
+ * Reads binary NBT and writes it as SNBT while it's being read, without
+ * creating any tag objects.
+ * <p>
+ * Formatting is delegated to a {@link SnbtVisitor}, so the output looks the
+ * same as the output of {@link Snbt#toString(net.forthecrown.nbt.BinaryTag)}
+ * except compound entries are written in the order they appear in the input.
+ */
+class SnbtDumper {
+
+  private final ScopedDataInput input;
+  private final SnbtVisitor visitor;
+  private final int maxArrayLength;
+
+  public SnbtDumper(ScopedDataInput input,
+                    SnbtVisitor visitor,
+                    int maxArrayLength
+  ) {
+    this.input = input;
+    this.visitor = visitor;
+    this.maxArrayLength = maxArrayLength;
+  }
+
+  /**
+   * Reads a single named tag from the input and writes its value
+   * @throws IOException If an IO error occurs, or if the input is invalid
+   */
+  public void dump() throws IOException {
+    byte typeId = input.readByte();
+
+    if (typeId == TypeIds.END) {
+      throw new IOException("Unexpected TAG_End");
+    }
+
+    // Root tag's name, not included in the output
+    input.readUTF();
+
+    dumpPayload(typeId);
+    visitor.flush();
+  }
+
+  private void dumpPayload(byte typeId) throws IOException {
+    switch (typeId) {
+      case TypeIds.BYTE -> visitor.appendByte(input.readByte());
+      case TypeIds.SHORT -> visitor.appendShort(input.readShort());
+      case TypeIds.INT -> visitor.appendInt(input.readInt());
+      case TypeIds.LONG -> visitor.appendLong(input.readLong());
+      case TypeIds.FLOAT -> visitor.appendFloat(input.readFloat());
+      case TypeIds.DOUBLE -> visitor.appendDouble(input.readDouble());
+      case TypeIds.STRING -> visitor.appendQuoted(input.readUTF());
+
+      case TypeIds.BYTE_ARRAY -> dumpArray(SUFFIX_BYTE, Byte.BYTES);
+      case TypeIds.INT_ARRAY -> dumpArray(SUFFIX_INT, Integer.BYTES);
+      case TypeIds.LONG_ARRAY -> dumpArray(SUFFIX_LONG, Long.BYTES);
+
+      case TypeIds.LIST -> dumpList();
+      case TypeIds.COMPOUND -> dumpCompound();
+
+      default -> throw new IOException("Unknown tag type: " + typeId);
+    }
+  }
+
+  private void dumpCompound() throws IOException {
+    input.enterScope();
+    visitor.beginStructure(COMPOUND_START);
+
+    int size = 0;
+    byte typeId;
+
+    while ((typeId = input.readByte()) != TypeIds.END) {
+      visitor.structureEntry(size++);
+      visitor.appendKey(input.readUTF());
+      dumpPayload(typeId);
+      visitor.checkFlush();
+    }
+
+    visitor.endStructure(COMPOUND_END, size);
+    input.endScope();
+  }
+
+  private void dumpList() throws IOException {
+    byte typeId = input.readByte();
+    int size = input.readInt();
+
+    if (typeId == TypeIds.END && size > 0) {
+      throw new IOException("ListTag is missing type");
+    }
+
+    visitor.beginStructure(ARRAY_START);
+    input.enterScope();
+
+    for (int i = 0; i < size; i++) {
+      visitor.structureEntry(i);
+      dumpPayload(typeId);
+      visitor.checkFlush();
+    }
+
+    input.endScope();
+    visitor.endStructure(ARRAY_END, Math.max(size, 0));
+  }
+
+  private void dumpArray(char prefix, int elementSize) throws IOException {
+    int length = input.readInt();
+    int shown = maxArrayLength > 0 ? Math.min(length, maxArrayLength) : length;
+
+    visitor.beginArray(prefix);
+
+    for (int i = 0; i < shown; i++) {
+      visitor.arrayEntry(i);
+
+      switch (prefix) {
+        case SUFFIX_BYTE -> visitor.appendByte(input.readByte());
+        case SUFFIX_INT -> visitor.appendInt(input.readInt());
+        default -> visitor.appendLong(input.readLong());
+      }
+
+      visitor.checkFlush();
+    }
+
+    if (shown < length) {
+      visitor.arrayOmitted(shown, length - shown);
+      skipFully((long) (length - shown) * elementSize);
+    }
+
+    visitor.endArray(Math.max(length, 0));
+  }
+
+  private void skipFully(long bytes) throws IOException {
+    while (bytes > 0) {
+      int skipped = input.skipBytes((int) Math.min(bytes, Integer.MAX_VALUE));
+
+      // skipBytes may skip nothing without having reached the end of the
+      // input, read a single byte so EOF is detected
+      if (skipped <= 0) {
+        input.readByte();
+        skipped = 1;
+      }
+
+      bytes -= skipped;
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package net.forthecrown.nbt.string;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR events emitted when parsing and formatting SNBT
+ */
+@Category({"NBT", "SNBT"})
+@StackTrace(false)
+abstract class SnbtEvent extends Event {
+
+  @Label("Characters")
+  long characters;
+
+  @Label("Tag Count")
+  long tagCount;
+
+  @Label("Max Depth")
+  int maxDepth;
+
+  @Name("net.forthecrown.nbt.SnbtParse")
+  @Label("SNBT Parse")
+  static final class Parse extends SnbtEvent {
+
+  }
+
+  @Name("net.forthecrown.nbt.SnbtWrite")
+  @Label("SNBT Write")
+  static final class Write extends SnbtEvent {
+
+    @Label("Pretty Printing")
+    boolean prettyPrinting;
+  }
+}
@@ -10,8 +10,10 @@ import net.forthecrown.nbt.ListTag;
 import net.forthecrown.nbt.LongArrayTag;
 import net.forthecrown.nbt.NumberTag;
 import net.forthecrown.nbt.StringTag;
+import net.forthecrown.nbt.metrics.NbtMetrics;
 import net.forthecrown.nbt.string.TagToken.Type;
 import net.forthecrown.nbt.util.ReaderWrapper;
+import net.forthecrown.nbt.util.TagCounter;
 
 class SnbtParser {
   private final TagTokenizer tokenizer;
@@ -34,7 +36,47 @@ class SnbtParser {
     return doSafe(this::parseCompoundInternal);
   }
 
-  private <T> T doSafe(IoSupplier<T> supplier) {
+  private <T extends BinaryTag> T doSafe(IoSupplier<T> supplier) {
+    NbtMetrics metrics = NbtMetrics.metrics();
+    SnbtEvent event = new SnbtEvent.Parse();
+
+    if (!metrics.isEnabled() && !event.isEnabled()) {
+      return parseSafe(supplier);
+    }
+
+    event.begin();
+    long start = System.nanoTime();
+    int startPosition = tokenizer.getReader().getPosition();
+
+    T result = parseSafe(supplier);
+
+    long elapsed = System.nanoTime() - start;
+    int characters = tokenizer.getReader().getPosition() - startPosition;
+    event.end();
+
+    TagCounter counter = metrics.countTags() || event.shouldCommit()
+        ? TagCounter.count(result)
+        : null;
+
+    if (metrics.isEnabled()) {
+      metrics.snbtParsed(
+          characters,
+          metrics.countTags() ? counter : null,
+          elapsed
+      );
+    }
+
+    if (event.shouldCommit()) {
+      event.characters = characters;
+      event.tagCount = counter.getTotal();
+      event.maxDepth = counter.getMaxDepth();
+      event.commit();
+    }
+
+    return result;
+  }
+
+  private <T> T parseSafe(IoSupplier<T> supplier) {
     try {
       return supplier.get();
     } catch (IOException exc) {
@@ -0,0 +1,261 @@
+package net.forthecrown.nbt.string;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import net.forthecrown.nbt.TagTypes;
+import net.forthecrown.nbt.TypeIds;
+import net.forthecrown.nbt.string.TagToken.Type;
+import net.forthecrown.nbt.util.ReaderWrapper;
+
+/**
+ * Translates SNBT input directly into binary NBT, without creating any tag
+ * objects.
+ * <p>
+ * Compound entries are written as soon as they're read, since a compound's
+ * size is never written. Lists and arrays, however, are prefixed with their
+ * length, so their payload is written with a placeholder length that's
+ * filled in once the closing bracket is read. Output is buffered and flushed
+ * to the underlying output whenever no list or array is open.
+ */
+class SnbtTranscoder {
+  static final int FLUSH_THRESHOLD = 8192;
+
+  private final TagTokenizer tokenizer;
+  private final DataOutput output;
+
+  private final Buffer buffer = new Buffer();
+  private final DataOutputStream data = new DataOutputStream(buffer);
+
+  /** Amount of lists and arrays whose length hasn't been written yet */
+  private int openLists;
+
+  public SnbtTranscoder(ReaderWrapper reader, DataOutput output) {
+    this.tokenizer = new TagTokenizer(reader);
+    this.output = output;
+  }
+
+  private void fillContext(TagParseException exc) {
+    var reader = tokenizer.getReader();
+    exc.setContext(reader.getContext().toString());
+    exc.setParseOffset(reader.getPosition());
+  }
+
+  /**
+   * Transcodes a compound tag from the input and writes it as a root tag with
+   * an empty name
+   *
+   * @throws IOException If the output throws an IO error
+   * @throws TagParseException If the input cannot be parsed
+   */
+  public void transcode() throws IOException, TagParseException {
+    try {
+      data.writeByte(TypeIds.COMPOUND);
+      data.writeUTF("");
+      writeCompound();
+      flush();
+    } catch (UncheckedIOException exc) {
+      throw exc.getCause();
+    } catch (IOException exc) {
+      var err = new TagParseException(exc.getMessage());
+      fillContext(err);
+      throw err;
+    } catch (TagParseException exc) {
+      fillContext(exc);
+      throw exc;
+    }
+  }
+
+  private void flush() {
+    try {
+      buffer.writeTo(output);
+    } catch (IOException exc) {
+      throw new UncheckedIOException(exc);
+    }
+  }
+
+  private byte typeOf(TagToken token) {
+    Type type = token.type();
+
+    return switch (type) {
+      case COMPOUND_OPEN -> TypeIds.COMPOUND;
+      case ARRAY_OPEN -> TypeIds.LIST;
+
+      case BYTE_ARRAY_OPEN -> TypeIds.BYTE_ARRAY;
+      case INT_ARRAY_OPEN -> TypeIds.INT_ARRAY;
+      case LONG_ARRAY_OPEN -> TypeIds.LONG_ARRAY;
+
+      case STRING -> TypeIds.STRING;
+
+      case BYTE -> TypeIds.BYTE;
+      case SHORT -> TypeIds.SHORT;
+      case INT -> TypeIds.INT;
+      case LONG -> TypeIds.LONG;
+      case FLOAT -> TypeIds.FLOAT;
+      case DOUBLE -> TypeIds.DOUBLE;
+
+      default -> throw new TagParseException("Unexpected token: " + type);
+    };
+  }
+
+  private void writePayload(byte typeId) throws IOException {
+    switch (typeId) {
+      case TypeIds.COMPOUND -> writeCompound();
+      case TypeIds.LIST -> writeList();
+
+      case TypeIds.BYTE_ARRAY -> writeArray(Type.BYTE_ARRAY_OPEN, Type.BYTE);
+      case TypeIds.INT_ARRAY -> writeArray(Type.INT_ARRAY_OPEN, Type.INT);
+      case TypeIds.LONG_ARRAY -> writeArray(Type.LONG_ARRAY_OPEN, Type.LONG);
+
+      case TypeIds.STRING -> data.writeUTF(tokenizer.expect(Type.STRING).value());
+
+      default -> {
+        Number n = tokenizer.nextToken().number();
+
+        switch (typeId) {
+          case TypeIds.BYTE -> data.writeByte(n.byteValue());
+          case TypeIds.SHORT -> data.writeShort(n.shortValue());
+          case TypeIds.INT -> data.writeInt(n.intValue());
+          case TypeIds.LONG -> data.writeLong(n.longValue());
+          case TypeIds.FLOAT -> data.writeFloat(n.floatValue());
+          default -> data.writeDouble(n.doubleValue());
+        }
+      }
+    }
+  }
+
+  private void writeCompound() throws IOException {
+    tokenizer.expect(Type.COMPOUND_OPEN);
+
+    for (int i = 0; nextEntry(Type.COMPOUND_CLOSE, i); i++) {
+      String name = tokenizer.expect(Type.STRING).value();
+      tokenizer.expect(Type.ASSIGNMENT);
+
+      byte typeId = typeOf(tokenizer.peekToken());
+      data.writeByte(typeId);
+      data.writeUTF(name);
+      writePayload(typeId);
+
+      if (openLists == 0 && buffer.size() >= FLUSH_THRESHOLD) {
+        flush();
+      }
+    }
+
+    tokenizer.expect(Type.COMPOUND_CLOSE);
+    data.writeByte(TypeIds.END);
+  }
+
+  private void writeList() throws IOException {
+    tokenizer.expect(Type.ARRAY_OPEN);
+    openLists++;
+
+    int headerPosition = buffer.size();
+    data.writeByte(TypeIds.END);
+    data.writeInt(0);
+
+    byte listType = TypeIds.END;
+    int size = 0;
+
+    for (; nextEntry(Type.ARRAY_CLOSE, size); size++) {
+      byte typeId = typeOf(tokenizer.peekToken());
+
+      if (size == 0) {
+        listType = typeId;
+      } else if (typeId != listType) {
+        throw new TagParseException(
+            "Unexpected tag '"
+                + TagTypes.getType(typeId).getName() + "' in '"
+                + TagTypes.getType(listType).getName() + "' list"
+        );
+      }
+
+      writePayload(typeId);
+    }
+
+    tokenizer.expect(Type.ARRAY_CLOSE);
+
+    buffer.setByte(headerPosition, listType);
+    buffer.setInt(headerPosition + 1, size);
+    openLists--;
+  }
+
+  private void writeArray(Type start, Type element) throws IOException {
+    tokenizer.expect(start);
+    openLists++;
+
+    int sizePosition = buffer.size();
+    data.writeInt(0);
+
+    int size = 0;
+
+    for (; nextEntry(Type.ARRAY_CLOSE, size); size++) {
+      Number n = tokenizer.expect(element).number();
+
+      switch (element) {
+        case BYTE -> data.writeByte(n.byteValue());
+        case INT -> data.writeInt(n.intValue());
+        default -> data.writeLong(n.longValue());
+      }
+    }
+
+    tokenizer.expect(Type.ARRAY_CLOSE);
+
+    buffer.setInt(sizePosition, size);
+    openLists--;
+  }
+
+  /**
+   * Tests if there's another entry to read in a list based structure,
+   * consuming the comma that separates it from the previous entry
+   *
+   * @param end Token that closes the structure
+   * @param index Index of the next entry
+   * @return {@code true}, if there's another entry to read
+   */
+  private boolean nextEntry(Type end, int index) throws IOException {
+    if (index > 0) {
+      Type separator = tokenizer.peekToken().type();
+
+      if (separator == end) {
+        return false;
+      }
+
+      if (separator != Type.COMMA) {
+        throw new TagParseException(
+            "Unexpected token " + separator + ", expected "
+                + Type.COMMA + " or " + end
+        );
+      }
+
+      tokenizer.nextToken();
+    }
+
+    Type peeked = tokenizer.peekToken().type();
+    return peeked != Type.EOF && peeked != end;
+  }
+
+  static class Buffer extends ByteArrayOutputStream {
+
+    Buffer() {
+      super(FLUSH_THRESHOLD * 2);
+    }
+
+    void setByte(int position, int value) {
+      buf[position] = (byte) value;
+    }
+
+    void setInt(int position, int value) {
+      buf[position    ] = (byte) (value >>> 24);
+      buf[position + 1] = (byte) (value >>> 16);
+      buf[position + 2] = (byte) (value >>>  8);
+      buf[position + 3] = (byte) value;
+    }
+
+    void writeTo(DataOutput output) throws IOException {
+      output.write(buf, 0, count);
+      reset();
+    }
+  }
+}
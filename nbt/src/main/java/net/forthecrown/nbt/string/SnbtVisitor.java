@@ -14,7 +14,9 @@ import static net.forthecrown.nbt.string.Tokens.SUFFIX_INT;
 import static net.forthecrown.nbt.string.Tokens.SUFFIX_LONG;
 import static net.forthecrown.nbt.string.Tokens.SUFFIX_SHORT;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import net.forthecrown.nbt.BinaryTagVisitor;
 import net.forthecrown.nbt.ByteArrayTag;
 import net.forthecrown.nbt.ByteTag;
@@ -30,17 +32,38 @@ import net.forthecrown.nbt.ShortTag;
 import net.forthecrown.nbt.StringTag;
 import net.forthecrown.nbt.util.ReaderWrapper;
 
+/**
+ * Visitor that formats tags into SNBT.
+ * <p>
+ * When created with an output other than a {@link StringBuilder}, formatted
+ * text is collected in a small buffer which is flushed to the output roughly
+ * every {@link #FLUSH_THRESHOLD} characters, so the full SNBT string is never
+ * held in memory. IO errors thrown by the output are rethrown as
+ * {@link UncheckedIOException}s.
+ */
 class SnbtVisitor implements BinaryTagVisitor {
   public static final int INDENT_CHANGE = 2;
+  public static final int FLUSH_THRESHOLD = 8192;
 
   private final StringBuilder builder;
+  private final Appendable output;
+
   private boolean prettyPrinting = false;
   private boolean collapsePrimitiveLists = false;
 
   private int indent = 0;
 
-  public SnbtVisitor(StringBuilder builder) {
-    this.builder = builder;
+  private long flushed = 0;
+  private char[] flushBuffer;
+
+  public SnbtVisitor(Appendable output) {
+    if (output instanceof StringBuilder sb) {
+      this.builder = sb;
+      this.output = null;
+    } else {
+      this.builder = new StringBuilder(FLUSH_THRESHOLD);
+      this.output = output;
+    }
   }
 
   public SnbtVisitor() {
@@ -63,179 +86,315 @@ class SnbtVisitor implements BinaryTagVisitor {
     this.collapsePrimitiveLists = collapsePrimitiveLists;
   }
 
-  @Override
-  public void visitString(StringTag tag) {
-    appendQuoted(tag.value());
+  /**
+   * Gets the amount of characters this visitor has written
+   * @return Written character count
+   */
+  public long getWritten() {
+    return flushed + builder.length();
   }
 
-  private void appendQuoted(String s) {
-    builder.append(STR_QUOTE)
-        .append(escape(s))
-        .append(STR_QUOTE);
+  /**
+   * Flushes any buffered text to the output. Does nothing if this visitor
+   * writes directly into a {@link StringBuilder}
+   */
+  public void flush() {
+    if (output == null || builder.isEmpty()) {
+      return;
+    }
+
+    int len = builder.length();
+
+    try {
+      if (output instanceof Writer writer) {
+        if (flushBuffer == null || flushBuffer.length < len) {
+          flushBuffer = new char[Math.max(len, FLUSH_THRESHOLD)];
+        }
+
+        builder.getChars(0, len, flushBuffer, 0);
+        writer.write(flushBuffer, 0, len);
+      } else {
+        output.append(builder);
+      }
+    } catch (IOException exc) {
+      throw new UncheckedIOException(exc);
+    }
+
+    flushed += len;
+    builder.setLength(0);
   }
 
-  private String escape(String s) {
-    return s
-        .replace("\\", "\\\\")
-        .replace(STR_QUOTE + "", "\\" + STR_QUOTE);
+  void checkFlush() {
+    if (output != null && builder.length() >= FLUSH_THRESHOLD) {
+      flush();
+    }
   }
 
-  @Override
-  public void visitByte(ByteTag tag) {
-    builder.append(tag.byteValue()).append(SUFFIX_BYTE);
+  /* ------------------------- FORMATTING HELPERS ------------------------- */
+
+  // The helpers below let the structure of a tag be written without having
+  // the tag itself, which the binary dumper relies on
+
+  void appendKey(String key) {
+    if (ReaderWrapper.isValidWord(key)) {
+      builder.append(key);
+    } else {
+      appendQuoted(key);
+    }
+
+    builder.append(ASSIGNMENT);
+
+    if (prettyPrinting) {
+      builder.append(' ');
+    }
   }
 
-  @Override
-  public void visitShort(ShortTag tag) {
-    builder.append(tag.shortValue()).append(SUFFIX_SHORT);
+  void appendQuoted(String s) {
+    builder.append(STR_QUOTE);
+    appendEscaped(s);
+    builder.append(STR_QUOTE);
   }
 
-  @Override
-  public void visitInt(IntTag tag) {
-    builder.append(tag.intValue());
+  private void appendEscaped(String s) {
+    int len = s.length();
+    int start = 0;
+
+    for (int i = 0; i < len; i++) {
+      char c = s.charAt(i);
+
+      if (c != '\\' && c != STR_QUOTE) {
+        continue;
+      }
+
+      builder.append(s, start, i).append('\\').append(c);
+      start = i + 1;
+    }
+
+    if (start == 0) {
+      builder.append(s);
+    } else {
+      builder.append(s, start, len);
+    }
   }
 
-  @Override
-  public void visitLong(LongTag tag) {
-    builder.append(tag.longValue()).append(SUFFIX_LONG);
+  void appendByte(byte value) {
+    builder.append(value).append(SUFFIX_BYTE);
   }
 
-  @Override
-  public void visitFloat(FloatTag tag) {
-    builder.append(tag.floatValue()).append(SUFFIX_FLOAT);
+  void appendShort(short value) {
+    builder.append(value).append(SUFFIX_SHORT);
   }
 
-  @Override
-  public void visitDouble(DoubleTag tag) {
-    builder.append(tag.doubleValue()).append(SUFFIX_DOUBLE);
+  void appendInt(int value) {
+    builder.append(value);
   }
 
-  @Override
-  public void visitByteArray(ByteArrayTag tag) {
-    appendPrimitiveList(tag, SUFFIX_BYTE);
+  void appendLong(long value) {
+    builder.append(value).append(SUFFIX_LONG);
   }
 
-  @Override
-  public void visitIntArray(IntArrayTag tag) {
-    appendPrimitiveList(tag, SUFFIX_INT);
+  void appendFloat(float value) {
+    builder.append(value).append(SUFFIX_FLOAT);
   }
 
-  @Override
-  public void visitLongArray(LongArrayTag tag) {
-    appendPrimitiveList(tag, SUFFIX_LONG);
+  void appendDouble(double value) {
+    builder.append(value).append(SUFFIX_DOUBLE);
   }
 
-  private void appendPrimitiveList(List<?> list, char prefix) {
-    builder.append(ARRAY_START)
-        .append(prefix)
-        .append(';');
+  /**
+   * Begins a list or compound
+   * @param open Opening character
+   */
+  void beginStructure(char open) {
+    builder.append(open);
+    increaseIndent();
+  }
 
-    if (list.isEmpty()) {
-      builder.append(ARRAY_END);
-      return;
+  /**
+   * Begins an entry in a list or compound
+   * @param index Entry's index
+   */
+  void structureEntry(int index) {
+    if (index > 0) {
+      builder.append(COMMA);
     }
 
-    var it = list.iterator();
-    increaseIndent();
+    nlIndent();
+  }
 
-    while (it.hasNext()) {
-      Object l = it.next();
+  /**
+   * Ends a list or compound
+   * @param close Closing character
+   * @param size Amount of entries that were written
+   */
+  void endStructure(char close, int size) {
+    decreaseIndent();
 
-      if (!collapsePrimitiveLists) {
-        nlIndent();
-      } else {
-        builder.append(" ");
-      }
+    if (size > 0) {
+      nlIndent();
+    }
 
-      builder.append(l);
+    builder.append(close);
+  }
 
-      if (!(list instanceof IntArrayTag)) {
-        builder.append(prefix);
-      }
+  /**
+   * Begins a primitive array
+   * @param prefix Array type prefix
+   */
+  void beginArray(char prefix) {
+    builder.append(ARRAY_START)
+        .append(prefix)
+        .append(';');
 
-      if (it.hasNext()) {
-        builder.append(COMMA);
-      }
+    increaseIndent();
+  }
+
+  /**
+   * Begins an element in a primitive array
+   * @param index Element's index
+   */
+  void arrayEntry(int index) {
+    if (index > 0) {
+      builder.append(COMMA);
+    }
+
+    if (!collapsePrimitiveLists) {
+      nlIndent();
+    } else {
+      builder.append(' ');
     }
+  }
 
+  /**
+   * Writes a marker noting that the rest of an array's elements were left out
+   * @param index Index of the first omitted element
+   * @param omitted Amount of omitted elements
+   */
+  void arrayOmitted(int index, int omitted) {
+    arrayEntry(index);
+    builder.append("... ").append(omitted).append(" more");
+  }
+
+  /**
+   * Ends a primitive array
+   * @param size Amount of elements that were written
+   */
+  void endArray(int size) {
     decreaseIndent();
 
-    if (!collapsePrimitiveLists) {
+    if (size > 0 && !collapsePrimitiveLists) {
       nlIndent();
     }
 
     builder.append(ARRAY_END);
   }
 
-  @Override
-  public void visitList(ListTag tag) {
-    if (tag.isEmpty()) {
-      builder.append(ARRAY_START).append(ARRAY_END);
-      return;
-    }
+  /* ------------------------------ VISITING ------------------------------ */
 
-    builder.append(ARRAY_START);
+  @Override
+  public void visitString(StringTag tag) {
+    appendQuoted(tag.value());
+  }
 
-    var it = tag.iterator();
-    increaseIndent();
+  @Override
+  public void visitByte(ByteTag tag) {
+    appendByte(tag.byteValue());
+  }
 
-    while (it.hasNext()) {
-      var next = it.next();
+  @Override
+  public void visitShort(ShortTag tag) {
+    appendShort(tag.shortValue());
+  }
 
-      nlIndent();
-      next.visit(this);
+  @Override
+  public void visitInt(IntTag tag) {
+    appendInt(tag.intValue());
+  }
 
-      if (it.hasNext()) {
-        builder.append(COMMA);
-      }
-    }
+  @Override
+  public void visitLong(LongTag tag) {
+    appendLong(tag.longValue());
+  }
 
-    decreaseIndent();
-    nlIndent();
+  @Override
+  public void visitFloat(FloatTag tag) {
+    appendFloat(tag.floatValue());
+  }
 
-    builder.append(ARRAY_END);
+  @Override
+  public void visitDouble(DoubleTag tag) {
+    appendDouble(tag.doubleValue());
   }
 
   @Override
-  public void visitCompound(CompoundTag tag) {
-    if (tag.isEmpty()) {
-      builder.append(COMPOUND_START).append(COMPOUND_END);
-      return;
+  public void visitByteArray(ByteArrayTag tag) {
+    int size = tag.size();
+    beginArray(SUFFIX_BYTE);
+
+    for (int i = 0; i < size; i++) {
+      arrayEntry(i);
+      appendByte(tag.getByte(i));
+      checkFlush();
     }
 
-    builder.append(COMPOUND_START);
+    endArray(size);
+  }
 
-    var set = tag.entrySet();
-    var it = set.iterator();
-    increaseIndent();
+  @Override
+  public void visitIntArray(IntArrayTag tag) {
+    int size = tag.size();
+    beginArray(SUFFIX_INT);
 
-    while (it.hasNext()) {
-      var entry = it.next();
+    for (int i = 0; i < size; i++) {
+      arrayEntry(i);
+      appendInt(tag.getInt(i));
+      checkFlush();
+    }
 
-      nlIndent();
+    endArray(size);
+  }
 
-      String key = entry.getKey();
+  @Override
+  public void visitLongArray(LongArrayTag tag) {
+    int size = tag.size();
+    beginArray(SUFFIX_LONG);
 
-      if (ReaderWrapper.isValidWord(key)) {
-        builder.append(key);
-      } else {
-        appendQuoted(key);
-      }
+    for (int i = 0; i < size; i++) {
+      arrayEntry(i);
+      appendLong(tag.getLong(i));
+      checkFlush();
+    }
 
-      builder.append(ASSIGNMENT)
-          .append(!prettyPrinting ? "" : " ");
+    endArray(size);
+  }
 
-      entry.getValue().visit(this);
+  @Override
+  public void visitList(ListTag tag) {
+    int size = tag.size();
+    beginStructure(ARRAY_START);
 
-      if (it.hasNext()) {
-        builder.append(COMMA);
-      }
+    for (int i = 0; i < size; i++) {
+      structureEntry(i);
+      tag.get(i).visit(this);
+      checkFlush();
     }
 
-    decreaseIndent();
-    nlIndent();
+    endStructure(ARRAY_END, size);
+  }
 
-    builder.append(COMPOUND_END);
+  @Override
+  public void visitCompound(CompoundTag tag) {
+    int index = 0;
+    beginStructure(COMPOUND_START);
+
+    for (var entry: tag.entrySet()) {
+      structureEntry(index++);
+      appendKey(entry.getKey());
+      entry.getValue().visit(this);
+      checkFlush();
+    }
+
+    endStructure(COMPOUND_END, index);
   }
 
   private void increaseIndent() {
@@ -251,12 +410,15 @@ class SnbtVisitor implements BinaryTagVisitor {
       return;
     }
 
-    builder.append("\n")
-        .append(" ".repeat(indent));
+    builder.append('\n');
+
+    for (int i = 0; i < indent; i++) {
+      builder.append(' ');
+    }
   }
 
   @Override
   public String toString() {
     return builder.toString();
   }
-}
\ No newline at end of file
+}
@@ -2,37 +2,48 @@ package net.forthecrown.nbt.string;
 
 import java.io.IOException;
 import java.util.Objects;
-import java.util.regex.Pattern;
 import net.forthecrown.nbt.string.TagToken.Type;
 import net.forthecrown.nbt.util.ReaderWrapper;
-import org.intellij.lang.annotations.Language;
 
 class TagTokenizer {
 
-  @Language("RegExp")
-  static final String NUMERIC_PATTERN = "[+-]?[0-9]+";
-
-  static final Pattern BYTE_PATTERN
-      = Pattern.compile(NUMERIC_PATTERN + "[bB]");
-
-  static final Pattern SHORT_PATTERN
-      = Pattern.compile(NUMERIC_PATTERN + "[sS]");
-
-  static final Pattern INT_PATTERN
-      = Pattern.compile(NUMERIC_PATTERN);
-
-  static final Pattern LONG_PATTERN
-      = Pattern.compile(NUMERIC_PATTERN + "+[lL]");
-
-  static final Pattern FLOAT_PATTERN
-      = Pattern.compile("[+-]?([0-9]+)?(\\.([0-9]+([eE][+-]?[0-9]+)?)?)?[fF]");
-
-  static final Pattern DOUBLE_PATTERN
-      = Pattern.compile("[+-]?([0-9]+)?(\\.([0-9]+([eE][+-]?[0-9]+)?)?)?[dD]?");
+  /* Lexer states used by readWordOrNumber */
+
+  /** Nothing read yet */
+  private static final int START = 0;
+  /** Read a leading '+' or '-' */
+  private static final int SIGN = 1;
+  /** Read integer digits */
+  private static final int DIGITS = 2;
+  /** Read the decimal point */
+  private static final int DOT = 3;
+  /** Read fraction digits */
+  private static final int FRACTION = 4;
+  /** Read the exponent 'e' */
+  private static final int EXPONENT = 5;
+  /** Read the exponent's sign */
+  private static final int EXPONENT_SIGN = 6;
+  /** Read exponent digits */
+  private static final int EXPONENT_DIGITS = 7;
+
+  private static final int BYTE_SUFFIX = 8;
+  private static final int SHORT_SUFFIX = 9;
+  private static final int LONG_SUFFIX = 10;
+  private static final int FLOAT_SUFFIX = 11;
+  private static final int DOUBLE_SUFFIX = 12;
+
+  /** Input cannot be a number */
+  private static final int WORD = 13;
 
   private TagToken peekedToken;
   private final ReaderWrapper reader;
 
+  /** Buffer for unquoted words, reused between tokens */
+  private final StringBuilder word = new StringBuilder();
+
+  /** Result of the last successful parseInteger call */
+  private long parsedInteger;
+
   public TagTokenizer(ReaderWrapper reader) {
     this.reader = Objects.requireNonNull(reader);
   }
@@ -154,61 +165,245 @@ class TagTokenizer {
     return readWordOrNumber(read);
   }
 
+  /**
+   * Reads an unquoted word and classifies it as a number, boolean or string
+   * in a single pass over its characters.
+   * <p>
+   * Accepted number formats are:
+   * <pre>
+   * byte:   [+-]?[0-9]+[bB]
+   * short:  [+-]?[0-9]+[sS]
+   * int:    [+-]?[0-9]+
+   * long:   [+-]?[0-9]+[lL]
+   * float:  [+-]?([0-9]+)?(\.([0-9]+([eE][+-]?[0-9]+)?)?)?[fF]
+   * double: [+-]?([0-9]+)?(\.([0-9]+([eE][+-]?[0-9]+)?)?)?[dD]?
+   * </pre>
+   * Integers out of their type's range, and decimals without any digits, are
+   * returned as strings. {@code true} and {@code false} are case-insensitive
+   * and returned as bytes.
+   *
+   * @param startChar First character of the word
+   * @return Read token
+   * @throws IOException If an IO error occurs
+   */
   private TagToken readWordOrNumber(int startChar) throws IOException {
-    String str = Character.toString(startChar) + reader.readWord();
-
-    if ("true".equalsIgnoreCase(str)) {
-      return Type.BYTE.token(1);
-    }
+    StringBuilder word = this.word;
+    word.setLength(0);
+    word.appendCodePoint(startChar);
+
+    int state = nextState(START, startChar);
+    boolean hasDigits = startChar >= '0' && startChar <= '9';
+
+    int peek;
+    while ((peek = reader.peek()) != -1
+        && ReaderWrapper.isValidUnquotedChar(peek)
+    ) {
+      int c = reader.read();
+      word.appendCodePoint(c);
+
+      // Exponent digits don't count, ".e5" is never valid anyway
+      if (state < EXPONENT && c >= '0' && c <= '9') {
+        hasDigits = true;
+      }
 
-    if ("false".equalsIgnoreCase(str)) {
-      return Type.BYTE.token(0);
+      state = nextState(state, c);
     }
 
-    try {
-      var token = readNumeric(str);
+    int length = word.length();
+
+    switch (state) {
+      case DIGITS:
+        if (parseInteger(word, length, Integer.MIN_VALUE, Integer.MAX_VALUE)) {
+          return Type.INT.token((int) parsedInteger);
+        }
+        break;
+
+      case BYTE_SUFFIX:
+        if (parseInteger(word, length - 1, Byte.MIN_VALUE, Byte.MAX_VALUE)) {
+          return Type.BYTE.token((byte) parsedInteger);
+        }
+        break;
+
+      case SHORT_SUFFIX:
+        if (parseInteger(word, length - 1, Short.MIN_VALUE, Short.MAX_VALUE)) {
+          return Type.SHORT.token((short) parsedInteger);
+        }
+        break;
+
+      case LONG_SUFFIX:
+        if (parseInteger(word, length - 1, Long.MIN_VALUE, Long.MAX_VALUE)) {
+          return Type.LONG.token(parsedInteger);
+        }
+        break;
+
+      case FLOAT_SUFFIX:
+        if (hasDigits) {
+          return Type.FLOAT.token(Float.parseFloat(word.substring(0, length - 1)));
+        }
+        break;
+
+      case DOUBLE_SUFFIX:
+        if (hasDigits) {
+          return Type.DOUBLE.token(Double.parseDouble(word.substring(0, length - 1)));
+        }
+        break;
+
+      case DOT:
+      case FRACTION:
+      case EXPONENT_DIGITS:
+        if (hasDigits) {
+          return Type.DOUBLE.token(Double.parseDouble(word.toString()));
+        }
+        break;
+
+      case WORD:
+        if (length == 4 && equalsIgnoreCase(word, "true")) {
+          return Type.BYTE.token(1);
+        }
+        if (length == 5 && equalsIgnoreCase(word, "false")) {
+          return Type.BYTE.token(0);
+        }
+        break;
 
-      if (token != null) {
-        return token;
-      }
-    } catch (NumberFormatException ignored) {
-      // Exception being thrown means it's not a number
+      default:
     }
 
-    return Type.STRING.token(str);
+    return Type.STRING.token(word.toString());
   }
 
-  private TagToken readNumeric(String str) {
-    String trimmed = str.substring(0, str.length()-1);
+  @SuppressWarnings("fallthrough")
+  private static int nextState(int state, int c) {
+    boolean digit = c >= '0' && c <= '9';
+
+    switch (state) {
+      case START:
+        if (c == '+' || c == '-') {
+          return SIGN;
+        }
+        // fallthrough, a sign is optional
+      case SIGN:
+        if (digit) {
+          return DIGITS;
+        }
+        if (c == '.') {
+          return DOT;
+        }
+        return decimalSuffix(c);
+
+      case DIGITS:
+        if (digit) {
+          return DIGITS;
+        }
+        if (c == '.') {
+          return DOT;
+        }
+        if (isByteSuffix(c)) {
+          return BYTE_SUFFIX;
+        }
+        if (isShortSuffix(c)) {
+          return SHORT_SUFFIX;
+        }
+        if (isLongSuffix(c)) {
+          return LONG_SUFFIX;
+        }
+        return decimalSuffix(c);
+
+      case DOT:
+        if (digit) {
+          return FRACTION;
+        }
+        return decimalSuffix(c);
+
+      case FRACTION:
+        if (digit) {
+          return FRACTION;
+        }
+        if (c == 'e' || c == 'E') {
+          return EXPONENT;
+        }
+        return decimalSuffix(c);
+
+      case EXPONENT:
+        if (c == '+' || c == '-') {
+          return EXPONENT_SIGN;
+        }
+        // fallthrough, a sign is optional
+      case EXPONENT_SIGN:
+        return digit ? EXPONENT_DIGITS : WORD;
+
+      case EXPONENT_DIGITS:
+        if (digit) {
+          return EXPONENT_DIGITS;
+        }
+        return decimalSuffix(c);
 
-    if (BYTE_PATTERN.matcher(str).matches()) {
-      return Type.BYTE.token(Byte.parseByte(trimmed));
+      default:
+        // Suffixes must be the last character
+        return WORD;
     }
+  }
 
-    if (SHORT_PATTERN.matcher(str).matches()) {
-      return Type.SHORT.token(Short.parseShort(trimmed));
+  private static int decimalSuffix(int c) {
+    if (isFloatSuffix(c)) {
+      return FLOAT_SUFFIX;
     }
-
-    if (INT_PATTERN.matcher(str).matches()) {
-      return Type.INT.token(Integer.parseInt(str));
+    if (isDoubleSuffix(c)) {
+      return DOUBLE_SUFFIX;
     }
+    return WORD;
+  }
 
-    if (LONG_PATTERN.matcher(str).matches()) {
-      return Type.LONG.token(Long.parseLong(trimmed));
+  /**
+   * Parses an optionally signed string of ASCII digits into
+   * {@link #parsedInteger}
+   *
+   * @param chars Characters to parse
+   * @param end End index of the number, exclusive
+   * @param min Minimum allowed value
+   * @param max Maximum allowed value
+   * @return {@code true}, if the number was in range, {@code false} otherwise
+   */
+  private boolean parseInteger(CharSequence chars, int end, long min, long max) {
+    int i = 0;
+    boolean negative = false;
+    char first = chars.charAt(0);
+
+    if (first == '-' || first == '+') {
+      negative = first == '-';
+      i++;
     }
 
-    if (FLOAT_PATTERN.matcher(str).matches()) {
-      return Type.FLOAT.token(Float.parseFloat(trimmed));
-    }
+    // Accumulate negatively, the negative range is larger than the positive
+    long limit = negative ? min : -max;
+    long multiplyLimit = limit / 10;
+    long result = 0;
+
+    for (; i < end; i++) {
+      int digit = chars.charAt(i) - '0';
 
-    if (DOUBLE_PATTERN.matcher(str).matches()) {
-      if (str.endsWith("d") || str.endsWith("D")) {
-        return Type.DOUBLE.token(Double.parseDouble(trimmed));
+      if (result < multiplyLimit) {
+        return false;
       }
 
-      return Type.DOUBLE.token(Double.parseDouble(str));
+      result *= 10;
+
+      if (result < limit + digit) {
+        return false;
+      }
+
+      result -= digit;
     }
 
-    return null;
+    parsedInteger = negative ? result : -result;
+    return true;
+  }
+
+  private static boolean equalsIgnoreCase(CharSequence chars, String str) {
+    for (int i = 0; i < str.length(); i++) {
+      if (Character.toLowerCase(chars.charAt(i)) != str.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,114 @@
+package net.forthecrown.nbt.util;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+
+/**
+ * A {@link ReaderWrapper} that reads directly from a {@link CharSequence} by
+ * index instead of going through a {@link java.io.Reader}.
+ * <p>
+ * Since the entire input is always available, no read characters are
+ * buffered. Error context is instead computed from the current position when
+ * {@link #getContext()} is called.
+ */
+public class CharSequenceWrapper extends ReaderWrapper {
+
+  private final CharSequence input;
+  private final int length;
+
+  private int cursor;
+  private String inputOverride;
+
+  public CharSequenceWrapper(CharSequence input) {
+    this.input = Objects.requireNonNull(input);
+    this.length = input.length();
+  }
+
+  public CharSequenceWrapper(char[] input) {
+    this(CharBuffer.wrap(input));
+  }
+
+  @Override
+  public int getPosition() {
+    return cursor;
+  }
+
+  @Override
+  public StringBuilder getContext() {
+    int start = cursor;
+    int limit = Math.max(0, cursor - MAX_CONTEXT);
+
+    while (start > limit) {
+      char c = input.charAt(start - 1);
+
+      if (c == '\n' || c == '\r') {
+        break;
+      }
+
+      start--;
+    }
+
+    return new StringBuilder(cursor - start).append(input, start, cursor);
+  }
+
+  @Override
+  public String getInput() {
+    return inputOverride == null ? input.toString() : inputOverride;
+  }
+
+  @Override
+  public void setInput(String str) {
+    inputOverride = str;
+  }
+
+  @Override
+  public int peek() {
+    return cursor < length ? input.charAt(cursor) : EOF;
+  }
+
+  @Override
+  public int read() {
+    return cursor < length ? input.charAt(cursor++) : EOF;
+  }
+
+  @Override
+  public String readString(IntPredicate characterPredicate) {
+    int start = cursor;
+
+    while (cursor < length && characterPredicate.test(input.charAt(cursor))) {
+      cursor++;
+    }
+
+    return input.subSequence(start, cursor).toString();
+  }
+
+  @Override
+  public String readQuoted(int quoteChar) throws IOException {
+    // Fast path, if the string contains no escapes, it can be copied
+    // directly out of the input
+    for (int i = cursor; i < length; i++) {
+      char c = input.charAt(i);
+
+      if (c == quoteChar) {
+        String result = input.subSequence(cursor, i).toString();
+        cursor = i + 1;
+        return result;
+      }
+
+      if (c == '\\') {
+        break;
+      }
+    }
+
+    return super.readQuoted(quoteChar);
+  }
+
+  @Override
+  public void skipEmpty() {
+    while (cursor < length && Character.isWhitespace(input.charAt(cursor))) {
+      cursor++;
+    }
+  }
+}
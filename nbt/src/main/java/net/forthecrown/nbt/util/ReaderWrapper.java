@@ -5,7 +5,6 @@ import java.io.Reader;
 import java.io.StringReader;
 import java.util.Objects;
 import java.util.function.IntPredicate;
-import java.util.regex.Pattern;
 
 public class ReaderWrapper {
 
@@ -14,8 +13,6 @@ public class ReaderWrapper {
   static final int EOF = -1;
   static final int MAX_CONTEXT = 50;
 
-  private static final Pattern VALID_WORD = Pattern.compile("[a-zA-Z0-9+_.-]+");
-
   private final Reader reader;
   private int peeked = NO_PEEK;
 
@@ -29,6 +26,15 @@ public class ReaderWrapper {
     this.reader = Objects.requireNonNull(reader);
   }
 
+  /**
+   * Constructor for subclasses that read their input from a source other
+   * than a {@link Reader}. Such subclasses must override every method that
+   * reads input
+   */
+  ReaderWrapper() {
+    this.reader = null;
+  }
+
   public ReaderWrapper(String string) {
     Objects.requireNonNull(string);
 
@@ -45,7 +51,19 @@ public class ReaderWrapper {
    *         otherwise
    */
   public static boolean isValidWord(String string) {
-    return VALID_WORD.matcher(string).matches();
+    int len = string.length();
+
+    if (len == 0) {
+      return false;
+    }
+
+    for (int i = 0; i < len; i++) {
+      if (!isValidUnquotedChar(string.charAt(i))) {
+        return false;
+      }
+    }
+
+    return true;
   }
 
   /**
@@ -0,0 +1,97 @@
+package net.forthecrown.nbt.util;
+
+import net.forthecrown.nbt.BinaryTag;
+import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.ListTag;
+import net.forthecrown.nbt.TagType;
+import net.forthecrown.nbt.TypeIds;
+
+/**
+ * Counts the tags in a tag tree by type and measures the tree's depth.
+ * <p>
+ * The root tag has a depth of 0, its direct children have a depth of 1 and
+ * so on. Array tags are counted as a single tag.
+ */
+public final class TagCounter {
+
+  private final long[] counts = new long[TypeIds.ID_COUNT];
+  private int maxDepth;
+
+  /**
+   * Counts the tags in the specified {@code tag}
+   * @param tag Tag to count
+   * @return Created counter
+   */
+  public static TagCounter count(BinaryTag tag) {
+    TagCounter counter = new TagCounter();
+    counter.add(tag);
+    return counter;
+  }
+
+  /**
+   * Adds the specified {@code tag} and all its children to this counter
+   * @param tag Tag to count
+   */
+  public void add(BinaryTag tag) {
+    add(tag, 0);
+  }
+
+  private void add(BinaryTag tag, int depth) {
+    counts[tag.getId()]++;
+    maxDepth = Math.max(maxDepth, depth);
+
+    if (tag instanceof CompoundTag compound) {
+      for (BinaryTag child: compound.values()) {
+        add(child, depth + 1);
+      }
+    } else if (tag instanceof ListTag list) {
+      for (int i = 0; i < list.size(); i++) {
+        add(list.get(i), depth + 1);
+      }
+    }
+  }
+
+  /**
+   * Gets the amount of counted tags with the specified type ID
+   * @param typeId Tag type ID
+   * @return Tag count
+   * @see TypeIds
+   */
+  public long getCount(byte typeId) {
+    return counts[typeId];
+  }
+
+  /**
+   * Gets the amount of counted tags of the specified {@code type}
+   * @param type Tag type
+   * @return Tag count
+   */
+  public long getCount(TagType<?> type) {
+    return getCount(type.getId());
+  }
+
+  /**
+   * Gets the total amount of counted tags
+   * @return Total tag count
+   */
+  public long getTotal() {
+    long total = 0;
+    for (long count: counts) {
+      total += count;
+    }
+    return total;
+  }
+
+  /**
+   * Gets the depth of the deepest counted tag
+   * @return Max depth
+   */
+  public int getMaxDepth() {
+    return maxDepth;
+  }
+
+  @Override
+  public String toString() {
+    return "TagCounter{total=" + getTotal() + ", maxDepth=" + maxDepth + "}";
+  }
+}
@@ -0,0 +1,51 @@
+package net.forthecrown.nbt.util;
+
+import java.util.function.Predicate;
+import net.forthecrown.nbt.BinaryTag;
+import net.forthecrown.nbt.BinaryTags;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A predicate tag compiled into a matcher that gives the same results as
+ * {@link BinaryTags#compareTags(BinaryTag, BinaryTag, boolean)}, without
+ * re-inspecting the predicate on every test.
+ * <p>
+ * The predicate's structure is resolved once: compound keys are ordered so
+ * cheap, exact comparisons run first, and subjects with the wrong type or with
+ * fewer entries than the predicate are rejected before any entry is compared.
+ * <p>
+ * When list order is ignored, each element of a predicate list has to match
+ * some element of the subject list. Instead of comparing every predicate
+ * element against every subject element, large subject lists are grouped by
+ * hash first: by the elements themselves for primitive lists, or by the value
+ * of a key every predicate element requires an exact value for, like
+ * {@code id} in {@code [{id:"a"}, {id:"b"}]}. Each predicate element is then
+ * only compared against the subject elements in its own group.
+ * <p>
+ * The predicate tag must not be modified after it has been compiled.
+ */
+public interface TagMatcher extends Predicate<BinaryTag> {
+
+  /**
+   * Compiles a predicate tag
+   *
+   * @param predicate Predicate tag, or {@code null}, to match every tag
+   * @param ignoreListOrder {@code true}, to ignore list order if the tags are
+   *                        array based
+   * @return Compiled matcher
+   * @see BinaryTags#compareTags(BinaryTag, BinaryTag, boolean)
+   */
+  static TagMatcher compile(@Nullable BinaryTag predicate,
+                            boolean ignoreListOrder
+  ) {
+    return TagMatchers.compile(predicate, ignoreListOrder);
+  }
+
+  /**
+   * Tests if the specified {@code subject} matches this matcher's predicate
+   * @param subject Tag to test, may be {@code null}
+   * @return {@code true}, if the subject matches, {@code false} otherwise
+   */
+  @Override
+  boolean test(@Nullable BinaryTag subject);
+}
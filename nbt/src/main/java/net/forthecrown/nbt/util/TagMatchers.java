@@ -0,0 +1,325 @@
+package net.forthecrown.nbt.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import net.forthecrown.nbt.BinaryTag;
+import net.forthecrown.nbt.CollectionTag;
+import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.ListTag;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Matcher implementations
+ */
+final class TagMatchers {
+  private TagMatchers() {}
+
+  /**
+   * Minimum subject list size at which list elements are grouped by hash,
+   * below this, a linear scan is faster than building the groups
+   */
+  static final int HASH_THRESHOLD = 8;
+
+  static final TagMatcher ANY = subject -> true;
+
+  static TagMatcher compile(@Nullable BinaryTag predicate,
+                            boolean ignoreListOrder
+  ) {
+    if (predicate == null) {
+      return ANY;
+    }
+
+    if (predicate instanceof CompoundTag compound) {
+      return new CompoundMatcher(compound, ignoreListOrder);
+    }
+
+    if (predicate instanceof ListTag list && ignoreListOrder) {
+      return new ListMatcher(list);
+    }
+
+    return new EqualsMatcher(predicate);
+  }
+
+  /**
+   * Tests if a predicate tag is only ever compared with equals, so it can be
+   * hashed
+   */
+  static boolean isExact(TagMatcher matcher) {
+    return matcher instanceof EqualsMatcher;
+  }
+
+  static final class EqualsMatcher implements TagMatcher {
+    private final BinaryTag predicate;
+    private final byte typeId;
+    private final int size;
+
+    EqualsMatcher(BinaryTag predicate) {
+      this.predicate = predicate;
+      this.typeId = predicate.getId();
+      this.size = predicate instanceof CollectionTag c ? c.size() : -1;
+    }
+
+    @Override
+    public boolean test(@Nullable BinaryTag subject) {
+      if (subject == null || subject.getId() != typeId) {
+        return false;
+      }
+
+      if (size != -1 && ((CollectionTag) subject).size() != size) {
+        return false;
+      }
+
+      return predicate.equals(subject);
+    }
+
+    @Override
+    public String toString() {
+      return "Equals(" + predicate + ")";
+    }
+  }
+
+  static final class CompoundMatcher implements TagMatcher {
+    private final String[] keys;
+    private final TagMatcher[] values;
+
+    CompoundMatcher(CompoundTag predicate, boolean ignoreListOrder) {
+      List<Map.Entry<String, TagMatcher>> entries = new ArrayList<>();
+
+      for (var e: predicate.entrySet()) {
+        entries.add(Map.entry(
+            e.getKey(),
+            compile(e.getValue(), ignoreListOrder)
+        ));
+      }
+
+      // Exact comparisons are the cheapest and most likely to fail, run
+      // them first
+      entries.sort(Comparator.comparingInt(e -> isExact(e.getValue()) ? 0 : 1));
+
+      this.keys = new String[entries.size()];
+      this.values = new TagMatcher[entries.size()];
+
+      for (int i = 0; i < keys.length; i++) {
+        keys[i] = entries.get(i).getKey();
+        values[i] = entries.get(i).getValue();
+      }
+    }
+
+    /**
+     * Gets the exact value this compound requires for the specified key
+     * @return Exact value, or {@code null}, if the key isn't required to have
+     *         an exact value
+     */
+    BinaryTag exactValue(String key) {
+      for (int i = 0; i < keys.length; i++) {
+        if (keys[i].equals(key) && values[i] instanceof EqualsMatcher equals) {
+          return equals.predicate;
+        }
+      }
+
+      return null;
+    }
+
+    @Override
+    public boolean test(@Nullable BinaryTag subject) {
+      if (!(subject instanceof CompoundTag compound)
+          || compound.size() < keys.length
+      ) {
+        return false;
+      }
+
+      for (int i = 0; i < keys.length; i++) {
+        if (!values[i].test(compound.get(keys[i]))) {
+          return false;
+        }
+      }
+
+      return true;
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder builder = new StringBuilder("Compound{");
+
+      for (int i = 0; i < keys.length; i++) {
+        if (i > 0) {
+          builder.append(", ");
+        }
+
+        builder.append(keys[i]).append('=').append(values[i]);
+      }
+
+      return builder.append('}').toString();
+    }
+  }
+
+  /**
+   * List matcher that ignores element order, every predicate element must
+   * match at least one subject element
+   */
+  static final class ListMatcher implements TagMatcher {
+    private final TagMatcher[] elements;
+
+    /** If all elements are exact, and can be looked up in a hash set */
+    private final boolean exact;
+
+    /**
+     * Key all compound elements require an exact value for, or {@code null},
+     * if there's no such key
+     */
+    private final String probeKey;
+    private final BinaryTag[] probeValues;
+
+    ListMatcher(ListTag predicate) {
+      this.elements = new TagMatcher[predicate.size()];
+      boolean exact = true;
+
+      for (int i = 0; i < elements.length; i++) {
+        elements[i] = compile(predicate.get(i), true);
+        exact &= isExact(elements[i]);
+      }
+
+      this.exact = exact;
+
+      String probeKey = null;
+      BinaryTag[] probeValues = null;
+
+      if (!exact && elements.length > 1) {
+        probeKey = findProbeKey(predicate);
+
+        if (probeKey != null) {
+          probeValues = new BinaryTag[elements.length];
+
+          for (int i = 0; i < elements.length; i++) {
+            CompoundMatcher element = (CompoundMatcher) elements[i];
+            probeValues[i] = element.exactValue(probeKey);
+          }
+        }
+      }
+
+      this.probeKey = probeKey;
+      this.probeValues = probeValues;
+    }
+
+    private String findProbeKey(ListTag predicate) {
+      if (!(predicate.get(0) instanceof CompoundTag first)) {
+        return null;
+      }
+
+      CompoundMatcher firstMatcher = (CompoundMatcher) elements[0];
+
+      outer:
+      for (String key: first.keySet()) {
+        if (firstMatcher.exactValue(key) == null) {
+          continue;
+        }
+
+        for (int i = 1; i < elements.length; i++) {
+          if (!(elements[i] instanceof CompoundMatcher c)
+              || c.exactValue(key) == null
+          ) {
+            continue outer;
+          }
+        }
+
+        return key;
+      }
+
+      return null;
+    }
+
+    @Override
+    public boolean test(@Nullable BinaryTag subject) {
+      if (!(subject instanceof ListTag list)) {
+        return false;
+      }
+
+      if (elements.length == 0) {
+        return list.isEmpty();
+      }
+
+      if (list.isEmpty()) {
+        return false;
+      }
+
+      if (elements.length > 1 && list.size() >= HASH_THRESHOLD) {
+        if (exact) {
+          return testHashed(list);
+        }
+
+        if (probeKey != null) {
+          return testProbed(list);
+        }
+      }
+
+      for (TagMatcher element: elements) {
+        if (!anyMatch(element, list)) {
+          return false;
+        }
+      }
+
+      return true;
+    }
+
+    private static boolean anyMatch(TagMatcher element, List<BinaryTag> list) {
+      for (int i = 0; i < list.size(); i++) {
+        if (element.test(list.get(i))) {
+          return true;
+        }
+      }
+
+      return false;
+    }
+
+    private boolean testHashed(ListTag list) {
+      Set<BinaryTag> subjects = new HashSet<>(list);
+
+      for (TagMatcher element: elements) {
+        if (!subjects.contains(((EqualsMatcher) element).predicate)) {
+          return false;
+        }
+      }
+
+      return true;
+    }
+
+    private boolean testProbed(ListTag list) {
+      Map<BinaryTag, List<BinaryTag>> groups = new HashMap<>();
+
+      for (BinaryTag element: list) {
+        if (!(element instanceof CompoundTag compound)) {
+          continue;
+        }
+
+        BinaryTag probe = compound.get(probeKey);
+
+        if (probe == null) {
+          continue;
+        }
+
+        groups.computeIfAbsent(probe, p -> new ArrayList<>(2)).add(compound);
+      }
+
+      for (int i = 0; i < elements.length; i++) {
+        List<BinaryTag> group = groups.get(probeValues[i]);
+
+        if (group == null || !anyMatch(elements[i], group)) {
+          return false;
+        }
+      }
+
+      return true;
+    }
+
+    @Override
+    public String toString() {
+      return "AnyOrder" + Arrays.toString(elements);
+    }
+  }
+}
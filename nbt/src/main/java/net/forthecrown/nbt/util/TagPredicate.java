@@ -7,6 +7,10 @@ import net.forthecrown.nbt.BinaryTags;
 /**
  * Implementation of {@link Predicate} that returns a Tag's SNBT string when
  * {@link #toString()} is called
+ * <p>
+ * Testing compares the predicate tag against the tested tag each time, for
+ * repeated tests, {@link #compile()} the predicate into a {@link TagMatcher}
+ * instead.
  */
 public record TagPredicate(BinaryTag tag) implements Predicate<BinaryTag> {
 
@@ -15,8 +19,21 @@ public record TagPredicate(BinaryTag tag) implements Predicate<BinaryTag> {
     return BinaryTags.compareTags(this.tag, tag, true);
   }
 
+  /**
+   * Compiles this predicate into a matcher that accepts the same tags, but
+   * tests them faster.
+   * <p>
+   * The matcher is a snapshot of the predicate tag, changes made to the tag
+   * afterwards don't affect it.
+   *
+   * @return Compiled matcher
+   */
+  public TagMatcher compile() {
+    return TagMatcher.compile(tag, true);
+  }
+
   @Override
   public String toString() {
     return tag.toNbtString();
   }
-}
\ No newline at end of file
+}
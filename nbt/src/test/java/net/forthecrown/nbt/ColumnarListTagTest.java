@@ -0,0 +1,162 @@
+package net.forthecrown.nbt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+import java.util.Set;
+import net.forthecrown.nbt.string.Snbt;
+import org.junit.jupiter.api.Test;
+
+class ColumnarListTagTest {
+
+  static ListTag createItems() {
+    ListTag list = BinaryTags.listTag();
+
+    for (int i = 0; i < 20; i++) {
+      CompoundTag item = BinaryTags.compoundTag();
+      item.putString("id", i % 2 == 0 ? "minecraft:stone" : "minecraft:dirt");
+      item.putByte("Count", (byte) (i + 1));
+      item.putByte("Slot", (byte) i);
+
+      if (i % 5 == 0) {
+        CompoundTag tag = BinaryTags.compoundTag();
+        tag.putInt("Damage", i);
+        item.put("tag", tag);
+      }
+
+      list.add(item);
+    }
+
+    return list;
+  }
+
+  @Test
+  void equalsSource() {
+    ListTag source = createItems();
+    ColumnarListTag columnar = BinaryTags.columnarList(source);
+
+    assertEquals(source, columnar);
+    assertEquals(columnar, source);
+    assertEquals(source.hashCode(), columnar.hashCode());
+    assertEquals(TagTypes.compoundType(), columnar.listType());
+    assertTrue(columnar.typeMatches(TagTypes.compoundType()));
+    assertEquals(Set.of("id", "Count", "Slot", "tag"), columnar.columnNames());
+  }
+
+  @Test
+  void scansColumns() {
+    ColumnarListTag list = BinaryTags.columnarList(createItems());
+
+    TagColumn count = list.column("Count");
+    assertEquals(TagTypes.byteType(), count.type());
+    assertEquals(210, count.ints().sum());
+    assertEquals(20, count.count());
+
+    TagColumn tag = list.column("tag");
+    assertEquals(4, tag.count());
+    assertFalse(tag.isPresent(1));
+    assertNull(tag.get(1));
+    assertEquals(15, tag.get(15).asCompound().getInt("Damage"));
+
+    TagColumn id = list.column("id");
+    assertEquals("minecraft:dirt", id.getString(3, null));
+    assertEquals(0, id.ints().count());
+    assertNull(list.column("missing"));
+  }
+
+  @Test
+  void rowsWriteThrough() {
+    ColumnarListTag list = BinaryTags.columnarList(createItems());
+    CompoundTag row = list.get(3).asCompound();
+
+    assertEquals(4, row.getInt("Count"));
+    assertEquals(3, row.size());
+
+    row.putByte("Count", (byte) 64);
+    row.remove("Slot");
+    row.putString("name", "custom");
+
+    assertEquals(64, list.column("Count").getInt(3, 0));
+    assertFalse(list.column("Slot").isPresent(3));
+    assertEquals(1, list.column("name").count());
+    assertEquals(Set.of("id", "Count", "name"), row.keySet());
+  }
+
+  @Test
+  void mixedTypes() {
+    ColumnarListTag list = BinaryTags.columnarList();
+    list.add(BinaryTags.compoundTag(Map.of("v", BinaryTags.intTag(1))));
+    list.add(BinaryTags.compoundTag(Map.of("v", BinaryTags.stringTag("a"))));
+
+    TagColumn column = list.column("v");
+    assertNull(column.type());
+    assertEquals(1, column.ints().sum());
+    assertEquals(BinaryTags.intTag(1), list.get(0).asCompound().get("v"));
+    assertEquals("a", list.get(1).asCompound().getString("v"));
+
+    assertFalse(list.add(BinaryTags.intTag(1)));
+    assertEquals(2, list.size());
+  }
+
+  @Test
+  void insertAndRemove() {
+    ListTag source = createItems();
+    ColumnarListTag list = BinaryTags.columnarList(source);
+
+    CompoundTag inserted = BinaryTags.compoundTag();
+    inserted.putInt("new", 1);
+
+    list.add(5, inserted);
+    source.add(5, inserted);
+    assertEquals(source, list);
+
+    CompoundTag removed = list.remove(7).asCompound();
+    assertEquals(source.remove(7), removed);
+    assertEquals(source, list);
+
+    list.add(0, list.get(3));
+    source.add(0, source.get(3).copy());
+    assertEquals(source, list);
+
+    list.removeMatchingTags(tag -> tag.asCompound().getByte("Count") > 10);
+    source.removeMatchingTags(tag -> tag.asCompound().getByte("Count") > 10);
+    assertEquals(source, list);
+  }
+
+  @Test
+  void copyIsIndependent() {
+    ColumnarListTag list = BinaryTags.columnarList(createItems());
+    ColumnarListTag copy = list.copy();
+
+    assertEquals(list, copy);
+
+    copy.get(0).asCompound().putByte("Count", (byte) 99);
+    copy.get(5).asCompound().getCompound("tag").putInt("Damage", 99);
+
+    assertEquals(1, list.get(0).asCompound().getByte("Count"));
+    CompoundTag tag = list.get(5).asCompound().getCompound("tag");
+    assertEquals(5, tag.getInt("Damage"));
+  }
+
+  @Test
+  void writesOrdinaryNbt() throws Exception {
+    ListTag source = createItems();
+    CompoundTag tag = BinaryTags.compoundTag();
+    tag.put("Items", BinaryTags.columnarList(source));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryTags.write(out, tag);
+
+    var in = new ByteArrayInputStream(out.toByteArray());
+    CompoundTag read = BinaryTags.read(in);
+    assertEquals(source, read.getList("Items"));
+
+    BinaryTag parsed = Snbt.parse(tag.toNbtString());
+    assertEquals(source, parsed.asCompound().getList("Items"));
+  }
+}
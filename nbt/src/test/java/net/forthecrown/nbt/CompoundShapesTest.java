@@ -0,0 +1,178 @@
+package net.forthecrown.nbt;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ConcurrentModificationException;
+import java.util.Random;
+import net.forthecrown.nbt.io.TagIo;
+import org.junit.jupiter.api.Test;
+
+class CompoundShapesTest {
+
+  static CompoundTag createTag() {
+    CompoundTag tag = BinaryTags.compoundTag();
+    ListTag entities = BinaryTags.listTag();
+
+    for (int i = 0; i < 100; i++) {
+      CompoundTag entity = BinaryTags.compoundTag();
+      entity.putString("id", "minecraft:pig");
+      entity.putInt("Health", i);
+      entity.putIntArray("UUID", i, i, i, i);
+
+      if (i % 10 == 0) {
+        entity.putString("CustomName", "pig " + i);
+      }
+
+      entities.add(entity);
+    }
+
+    tag.put("Entities", entities);
+    return tag;
+  }
+
+  static CompoundTag readShaped(CompoundTag tag, CompoundShapes shapes)
+      throws Exception
+  {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    TagIo.tagIo().write(out, tag);
+
+    var in = new ByteArrayInputStream(out.toByteArray());
+    return TagIo.tagIo().withShapes(shapes).read(in);
+  }
+
+  @Test
+  void decodesSharedShapes() throws Exception {
+    CompoundShapes shapes = CompoundShapes.create(64);
+    CompoundTag tag = createTag();
+    CompoundTag read = readShaped(tag, shapes);
+
+    assertEquals(tag, read);
+    assertEquals(read, tag);
+    assertEquals(tag.hashCode(), read.hashCode());
+    assertInstanceOf(ShapedCompoundTag.class, read);
+    assertInstanceOf(
+        ShapedCompoundTag.class,
+        read.getList("Entities").get(0)
+    );
+
+    // 101 compounds, but only the shapes along the transition paths
+    assertTrue(shapes.size() < 10);
+
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    ByteArrayOutputStream actual = new ByteArrayOutputStream();
+    TagIo.tagIo().write(expected, tag);
+    TagIo.tagIo().write(actual, read);
+    assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+  }
+
+  @Test
+  void fullRegistryFallsBack() throws Exception {
+    CompoundShapes shapes = CompoundShapes.create(2);
+    CompoundTag tag = createTag();
+    CompoundTag read = readShaped(tag, shapes);
+
+    assertEquals(tag, read);
+    assertTrue(shapes.size() <= 3);
+    assertInstanceOf(
+        CompoundTagImpl.class,
+        read.getList("Entities").get(0)
+    );
+  }
+
+  @Test
+  void matchesRegularCompound() {
+    CompoundShapes shapes = CompoundShapes.create(16);
+    CompoundTag shaped = shapes.compoundTag();
+    CompoundTag regular = BinaryTags.compoundTag();
+    Random random = new Random(1);
+
+    // Small registry and more names than a shape can hold, so shaped
+    // compounds transition, fall back to owned shapes and back again
+    for (int i = 0; i < 2000; i++) {
+      String key = "key" + random.nextInt(80);
+
+      if (random.nextInt(3) == 0) {
+        assertEquals(regular.remove(key), shaped.remove(key));
+      } else if (random.nextInt(50) == 0) {
+        regular.clear();
+        shaped.clear();
+      } else {
+        IntTag value = BinaryTags.intTag(i);
+        assertEquals(regular.put(key, value), shaped.put(key, value));
+      }
+
+      assertEquals(regular.size(), shaped.size());
+    }
+
+    assertEquals(regular, shaped);
+    assertEquals(regular, shaped.copy());
+    assertTrue(shapes.size() <= 16);
+  }
+
+  @Test
+  void iteratorWritesThrough() {
+    CompoundShapes shapes = CompoundShapes.create(16);
+    CompoundTag source = createTag().getList("Entities").get(0).asCompound();
+    CompoundTag tag = shapes.copyOf(source);
+
+    var it = tag.entrySet().iterator();
+
+    while (it.hasNext()) {
+      var e = it.next();
+
+      if (e.getKey().equals("Health")) {
+        e.setValue(BinaryTags.intTag(20));
+      } else if (e.getKey().equals("UUID")) {
+        it.remove();
+      }
+    }
+
+    assertEquals(20, tag.getInt("Health"));
+    assertNull(tag.get("UUID"));
+    assertEquals(3, tag.size());
+    assertEquals("minecraft:pig", tag.getString("id"));
+
+    var concurrent = tag.entrySet().iterator();
+    concurrent.next();
+    tag.putBoolean("added", true);
+    assertThrows(ConcurrentModificationException.class, concurrent::next);
+  }
+
+  @Test
+  void copyIsIndependent() throws Exception {
+    CompoundTag read = readShaped(createTag(), CompoundShapes.create(64));
+    CompoundTag copy = read.copy();
+
+    CompoundTag first = copy.getList("Entities").get(0).asCompound();
+    first.putInt("Health", 99);
+    first.remove("id");
+
+    CompoundTag original = read.getList("Entities").get(0).asCompound();
+    assertEquals(0, original.getInt("Health"));
+    assertEquals("minecraft:pig", original.getString("id"));
+    assertEquals(createTag(), read);
+  }
+
+  @Test
+  void shapesAreOrdered() {
+    CompoundShapes shapes = CompoundShapes.create(16);
+    CompoundTag first = shapes.compoundTag();
+    CompoundTag second = shapes.compoundTag();
+
+    first.putInt("a", 1);
+    first.putInt("b", 2);
+    second.putInt("b", 2);
+    second.putInt("a", 1);
+
+    assertEquals(first, second);
+    // empty, {a}, {a, b}, {b}, {b, a}
+    assertEquals(5, shapes.size());
+  }
+}
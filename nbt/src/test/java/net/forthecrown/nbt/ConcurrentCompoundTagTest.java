@@ -0,0 +1,160 @@
+package net.forthecrown.nbt;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentCompoundTagTest {
+
+  static void runThreads(int count, Runnable task) throws InterruptedException {
+    List<Thread> threads = new ArrayList<>();
+
+    for (int i = 0; i < count; i++) {
+      Thread thread = new Thread(task);
+      thread.start();
+      threads.add(thread);
+    }
+
+    for (Thread thread: threads) {
+      thread.join();
+    }
+  }
+
+  @Test
+  void atomicMerge() throws InterruptedException {
+    ConcurrentCompoundTag tag = BinaryTags.concurrentCompoundTag();
+
+    runThreads(4, () -> {
+      for (int i = 0; i < 10_000; i++) {
+        tag.merge("counter", BinaryTags.intTag(1), (a, b) -> {
+          return BinaryTags.intTag(((IntTag) a).intValue() + 1);
+        });
+      }
+    });
+
+    assertEquals(40_000, tag.getInt("counter"));
+  }
+
+  @Test
+  void getOrCreateCompound() throws InterruptedException {
+    ConcurrentCompoundTag tag = BinaryTags.concurrentCompoundTag(true);
+    tag.putInt("replaced", 1);
+
+    CompoundTag nested = tag.getOrCreateCompound("nested");
+    assertInstanceOf(ConcurrentCompoundTag.class, nested);
+    assertSame(nested, tag.getOrCreateCompound("nested"));
+    assertTrue(tag.getOrCreateCompound("replaced").isEmpty());
+
+    runThreads(4, () -> {
+      String name = Thread.currentThread().getName();
+
+      for (int i = 0; i < 1000; i++) {
+        tag.getOrCreateCompound("shared").putInt(name + i, i);
+      }
+    });
+
+    assertEquals(4000, tag.getCompound("shared").size());
+
+    ConcurrentCompoundTag plain = BinaryTags.concurrentCompoundTag(false);
+    CompoundTag plainNested = plain.getOrCreateCompound("nested");
+    assertFalse(plainNested instanceof ConcurrentCompoundTag);
+  }
+
+  @Test
+  void mergeCompound() {
+    ConcurrentCompoundTag tag = BinaryTags.concurrentCompoundTag(true);
+    tag.getOrCreateCompound("a").putInt("x", 1);
+
+    CompoundTag source = BinaryTags.compoundTag();
+    CompoundTag a = BinaryTags.compoundTag();
+    a.putInt("y", 2);
+    CompoundTag b = BinaryTags.compoundTag();
+    b.putString("z", "value");
+
+    source.put("a", a);
+    source.put("b", b);
+    source.putByte("c", 3);
+
+    tag.merge(source);
+
+    assertEquals(2, tag.getCompound("a").size());
+    assertEquals("value", tag.getCompound("b").getString("z"));
+    assertInstanceOf(ConcurrentCompoundTag.class, tag.get("b"));
+    assertEquals(3, tag.getByte("c"));
+  }
+
+  @Test
+  void copyAndSnapshot() {
+    CompoundTag source = BinaryTags.compoundTag();
+    CompoundTag nested = BinaryTags.compoundTag();
+    nested.putString("name", "value");
+    source.put("nested", nested);
+    source.put("list", BinaryTags.stringList("a", "b"));
+
+    ConcurrentCompoundTag tag = BinaryTags.concurrentCompoundTag(source, true);
+    assertEquals(source, tag);
+    assertEquals(tag, source);
+    assertEquals(source.hashCode(), tag.hashCode());
+    assertInstanceOf(ConcurrentCompoundTag.class, tag.get("nested"));
+
+    ConcurrentCompoundTag copy = tag.copy();
+    assertEquals(tag, copy);
+    assertInstanceOf(ConcurrentCompoundTag.class, copy.get("nested"));
+
+    CompoundTag snapshot = tag.snapshot();
+    assertFalse(snapshot instanceof ConcurrentCompoundTag);
+    assertFalse(snapshot.get("nested") instanceof ConcurrentCompoundTag);
+    assertNotSame(tag.get("list"), snapshot.get("list"));
+
+    tag.getCompound("nested").putInt("added", 1);
+    assertEquals(source, snapshot);
+  }
+
+  @Test
+  void writeWhileModified() throws InterruptedException {
+    ConcurrentCompoundTag tag = BinaryTags.concurrentCompoundTag(true);
+    AtomicBoolean running = new AtomicBoolean(true);
+
+    Thread writer = new Thread(() -> {
+      int i = 0;
+
+      while (running.get()) {
+        tag.getOrCreateCompound("nested").putInt("value_" + (i % 500), i);
+        tag.putInt("key_" + (i % 500), i);
+
+        if (i % 3 == 0) {
+          tag.remove("key_" + ((i + 250) % 500));
+        }
+
+        i++;
+      }
+    });
+
+    writer.start();
+
+    try {
+      for (int i = 0; i < 50; i++) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertDoesNotThrow(() -> BinaryTags.write(out, tag));
+
+        var in = new ByteArrayInputStream(out.toByteArray());
+        assertDoesNotThrow(() -> BinaryTags.read(in));
+        assertDoesNotThrow(tag::snapshot);
+      }
+    } finally {
+      running.set(false);
+      writer.join();
+    }
+  }
+}
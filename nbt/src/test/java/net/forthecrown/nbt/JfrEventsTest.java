@@ -0,0 +1,77 @@
+package net.forthecrown.nbt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import net.forthecrown.nbt.path.TagPath;
+import net.forthecrown.nbt.string.Snbt;
+import org.junit.jupiter.api.Test;
+
+class JfrEventsTest {
+
+  static final String[] EVENTS = {
+      "net.forthecrown.nbt.BinaryRead",
+      "net.forthecrown.nbt.BinaryWrite",
+      "net.forthecrown.nbt.SnbtParse",
+      "net.forthecrown.nbt.SnbtWrite",
+      "net.forthecrown.nbt.TagPath"
+  };
+
+  @Test
+  void recordEvents() throws Exception {
+    List<RecordedEvent> events;
+
+    try (Recording recording = new Recording()) {
+      for (String event: EVENTS) {
+        recording.enable(event).withoutThreshold();
+      }
+
+      recording.start();
+
+      CompoundTag tag = Snbt.parseCompound("{a:1,b:{c:[1b,2b]}}");
+      Snbt.toString(tag, true);
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      BinaryTags.writeCompressed(out, tag);
+      BinaryTags.readCompressed(new ByteArrayInputStream(out.toByteArray()));
+
+      TagPath.parse("b.c[]").get(tag);
+
+      recording.stop();
+
+      Path file = Files.createTempFile("nbt", ".jfr");
+      try {
+        recording.dump(file);
+        events = RecordingFile.readAllEvents(file);
+      } finally {
+        Files.deleteIfExists(file);
+      }
+    }
+
+    var byName = events.stream()
+        .collect(Collectors.groupingBy(e -> e.getEventType().getName()));
+
+    for (String event: EVENTS) {
+      assertTrue(byName.containsKey(event), event);
+    }
+
+    RecordedEvent read = byName.get("net.forthecrown.nbt.BinaryRead").get(0);
+    assertEquals("gzip", read.getString("compression"));
+    assertEquals(6, read.getLong("tagCount"));
+    assertEquals(3, read.getInt("maxDepth"));
+    assertTrue(read.getLong("compressedBytes") > 0);
+
+    RecordedEvent path = byName.get("net.forthecrown.nbt.TagPath").get(0);
+    assertEquals("GET", path.getString("operation"));
+    assertEquals(2, path.getInt("results"));
+  }
+}
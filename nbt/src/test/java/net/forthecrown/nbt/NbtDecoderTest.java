@@ -0,0 +1,212 @@
+package net.forthecrown.nbt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class NbtDecoderTest {
+
+  static CompoundTag createTag() {
+    CompoundTag tag = BinaryTags.compoundTag();
+    tag.putByte("byte", 1);
+    tag.putShort("short", -2);
+    tag.putInt("int", 300_000);
+    tag.putLong("long", Long.MIN_VALUE);
+    tag.putFloat("float", 1.5F);
+    tag.putDouble("double", -0.25D);
+    tag.putString("ascii", "Hello, world!");
+    tag.putString("unicode", "Grüße \0 € 😀");
+    tag.putString("empty", "");
+    tag.putString("long_string", "x".repeat(100));
+    tag.putByteArray("bytes", (byte) 1, (byte) -2);
+    tag.putIntArray("ints", 3, -4, 5);
+    tag.putLongArray("longs", 6L, Long.MAX_VALUE);
+    tag.put("empty_list", BinaryTags.listTag());
+
+    ListTag items = BinaryTags.listTag();
+    for (int i = 0; i < 20; i++) {
+      CompoundTag item = BinaryTags.compoundTag();
+      item.putString("id", "minecraft:stone");
+      item.putByte("Count", i);
+      items.add(item);
+    }
+
+    tag.put("Items", items);
+    tag.put("strings", BinaryTags.stringList("a", "b", "a"));
+    return tag;
+  }
+
+  static byte[] write(CompoundTag tag) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryTags.write(out, tag);
+    return out.toByteArray();
+  }
+
+  @Test
+  void decodeMatchesRead() throws IOException {
+    CompoundTag tag = createTag();
+    byte[] data = write(tag);
+    NbtDecoder decoder = NbtDecoder.create();
+
+    assertEquals(tag, decoder.decode(data));
+    assertEquals(tag, decoder.decode(ByteBuffer.wrap(data)));
+    assertEquals(tag, decoder.decode(new ByteArrayInputStream(data)));
+
+    ByteBuffer direct = ByteBuffer.allocateDirect(data.length + 2);
+    direct.put((byte) 0).put(data).put((byte) 0);
+    direct.position(1).limit(data.length + 1);
+    assertEquals(tag, decoder.decode(direct));
+    assertEquals(1, direct.position());
+
+    byte[] padded = new byte[data.length + 4];
+    System.arraycopy(data, 0, padded, 2, data.length);
+    assertEquals(tag, decoder.decode(padded, 2, data.length));
+  }
+
+  @Test
+  void decodeGrowsStreamBuffer() throws IOException {
+    CompoundTag tag = BinaryTags.compoundTag();
+    tag.putByteArray("data", new byte[NbtDecoderImpl.INITIAL_BUFFER_SIZE * 5]);
+    byte[] data = write(tag);
+
+    NbtDecoder decoder = NbtDecoder.create();
+    assertEquals(tag, decoder.decode(new ByteArrayInputStream(data)));
+  }
+
+  @Test
+  void decodeMaxBytes() throws IOException {
+    CompoundTag tag = BinaryTags.compoundTag();
+    tag.putByteArray("data", new byte[NbtDecoderImpl.INITIAL_BUFFER_SIZE * 3]);
+    byte[] data = write(tag);
+
+    NbtDecoder decoder = NbtDecoder.create();
+    var exact = new ByteArrayInputStream(data);
+    assertEquals(tag, decoder.decode(exact, data.length));
+
+    assertThrows(
+        IOException.class,
+        () -> decoder.decode(new ByteArrayInputStream(data), data.length - 1)
+    );
+    assertThrows(
+        IOException.class,
+        () -> decoder.decode(new ByteArrayInputStream(data), 100)
+    );
+  }
+
+  @Test
+  void releasesLargeBuffer() throws IOException {
+    CompoundTag tag = BinaryTags.compoundTag();
+    tag.putByteArray("data", new byte[NbtDecoderImpl.MAX_RETAINED_BUFFER_SIZE]);
+
+    NbtDecoderImpl decoder = new NbtDecoderImpl(NbtDecoder.DEFAULT_MAX_POOLED);
+    decoder.decode(new ByteArrayInputStream(write(tag)));
+
+    assertTrue(
+        decoder.getBufferSize() > NbtDecoderImpl.MAX_RETAINED_BUFFER_SIZE
+    );
+
+    decoder.reset();
+    assertEquals(0, decoder.getBufferSize());
+
+    decoder.decode(new ByteArrayInputStream(write(createTag())));
+    decoder.reset();
+    assertEquals(NbtDecoderImpl.INITIAL_BUFFER_SIZE, decoder.getBufferSize());
+  }
+
+  @Test
+  void decodeLevel() throws IOException {
+    InputStream input = Thread.currentThread()
+        .getContextClassLoader()
+        .getResourceAsStream("level.dat");
+
+    assertNotNull(input);
+    CompoundTag expected = BinaryTags.readCompressed(input);
+
+    NbtDecoder decoder = NbtDecoder.create();
+    assertEquals(expected, decoder.decode(write(expected)));
+  }
+
+  @Test
+  void recyclesTags() throws IOException {
+    byte[] data = write(createTag());
+    NbtDecoder decoder = NbtDecoder.create();
+
+    CompoundTag first = decoder.decode(data);
+    int inUse = decoder.getInUseCount();
+    assertEquals(0, decoder.getPooledCount());
+    assertTrue(inUse > 20);
+
+    decoder.reset();
+    assertTrue(first.isEmpty());
+    assertEquals(0, decoder.getInUseCount());
+    assertEquals(inUse, decoder.getPooledCount());
+
+    // The cleared root is reused somewhere in the next tree
+    CompoundTag second = decoder.decode(data);
+    assertFalse(first.isEmpty());
+    assertEquals(createTag(), second);
+    assertEquals(0, decoder.getPooledCount());
+
+    CompoundTag copy = second.copy();
+    decoder.reset();
+    assertEquals(createTag(), copy);
+  }
+
+  @Test
+  void limitsPool() throws IOException {
+    byte[] data = write(createTag());
+    NbtDecoder decoder = NbtDecoder.create(0);
+
+    CompoundTag first = decoder.decode(data);
+    decoder.reset();
+
+    assertEquals(0, decoder.getPooledCount());
+    assertNotSame(first, decoder.decode(data));
+    assertEquals(createTag(), first);
+
+    assertThrows(IllegalArgumentException.class, () -> NbtDecoder.create(-1));
+  }
+
+  @Test
+  void rejectsMalformed() throws IOException {
+    byte[] data = write(createTag());
+    NbtDecoder decoder = NbtDecoder.create();
+
+    assertThrows(EOFException.class,
+        () -> decoder.decode(Arrays.copyOf(data, data.length / 2))
+    );
+
+    byte[] wrongRoot = data.clone();
+    wrongRoot[0] = TypeIds.LIST;
+    assertThrows(IOException.class, () -> decoder.decode(wrongRoot));
+
+    // Root compound holding an int array claiming Integer.MAX_VALUE elements
+    byte[] hugeArray = {
+        TypeIds.COMPOUND, 0, 0,
+        TypeIds.INT_ARRAY, 0, 1, 'a', 0x7F, -1, -1, -1
+    };
+    assertThrows(EOFException.class, () -> decoder.decode(hugeArray));
+
+    ByteArrayOutputStream deep = new ByteArrayOutputStream();
+    deep.write(new byte[] {TypeIds.COMPOUND, 0, 0});
+    for (int i = 0; i < 600; i++) {
+      deep.write(new byte[] {TypeIds.COMPOUND, 0, 0});
+    }
+    assertThrows(IOException.class, () -> decoder.decode(deep.toByteArray()));
+
+    decoder.reset();
+    assertEquals(createTag(), decoder.decode(data));
+  }
+}
@@ -0,0 +1,102 @@
+package net.forthecrown.nbt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+class ParallelCopyTest {
+
+  static CompoundTag largeTree() {
+    CompoundTag root = BinaryTags.compoundTag();
+    ListTag entities = BinaryTags.listTag();
+
+    for (int i = 0; i < 2000; i++) {
+      CompoundTag entity = BinaryTags.compoundTag();
+      entity.putInt("id", i);
+      entity.putString("name", "entity_" + i);
+      entity.putIntArray("pos", i, i * 2, i * 3);
+
+      ListTag items = BinaryTags.listTag();
+      for (int j = 0; j < (i % 100); j++) {
+        items.add(BinaryTags.stringTag("item_" + j));
+      }
+
+      entity.put("items", items);
+      entities.add(entity);
+    }
+
+    CompoundTag lookup = BinaryTags.compoundTag();
+    for (int i = 0; i < 600; i++) {
+      lookup.putLong("key_" + i, i * 31L);
+    }
+
+    root.put("entities", entities);
+    root.put("lookup", lookup);
+    root.put("empty", BinaryTags.listTag());
+    root.putString("name", "root");
+
+    return root;
+  }
+
+  @Test
+  void copyCompound() {
+    CompoundTag tag = largeTree();
+    CompoundTag copy;
+
+    try (ForkJoinPool pool = new ForkJoinPool(4)) {
+      copy = tag.copyParallel(pool);
+    }
+
+    assertEquals(tag, copy);
+
+    ListTag entities = tag.getList("entities");
+    ListTag copied = copy.getList("entities");
+
+    assertNotSame(entities, copied);
+    assertNotSame(entities.get(1500), copied.get(1500));
+
+    copied.get(1500).asCompound().getList("items").clear();
+
+    ListTag items = entities.get(1500).asCompound().getList("items");
+    assertEquals(1500 % 100, items.size());
+  }
+
+  @Test
+  void copyList() {
+    ListTag list = largeTree().getList("entities");
+    ListTag copy = list.copyParallel();
+
+    assertEquals(list, copy);
+    assertNotSame(list.get(0), copy.get(0));
+  }
+
+  @Test
+  void keepsImplementation() {
+    ConcurrentCompoundTag concurrent = BinaryTags.concurrentCompoundTag(true);
+    concurrent.merge(largeTree());
+
+    CompoundTag shaped = CompoundShapes.create(64).copyOf(largeTree());
+
+    CompoundTag root = BinaryTags.compoundTag();
+    root.put("concurrent", concurrent);
+    root.put("shaped", shaped);
+    root.put("columnar", BinaryTags.columnarList(largeTree().getList("entities")));
+
+    try (ForkJoinPool pool = new ForkJoinPool(4)) {
+      assertInstanceOf(
+          ConcurrentCompoundTag.class,
+          concurrent.copyParallel(pool)
+      );
+      assertInstanceOf(ShapedCompoundTag.class, shaped.copyParallel(pool));
+
+      CompoundTag copy = root.copyParallel(pool);
+      assertEquals(root, copy);
+      assertInstanceOf(ConcurrentCompoundTag.class, copy.get("concurrent"));
+      assertInstanceOf(ShapedCompoundTag.class, copy.get("shaped"));
+      assertInstanceOf(ColumnarListTag.class, copy.get("columnar"));
+    }
+  }
+}
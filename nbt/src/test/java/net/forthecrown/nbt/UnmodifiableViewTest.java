@@ -0,0 +1,111 @@
+package net.forthecrown.nbt;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import org.junit.jupiter.api.Test;
+
+class UnmodifiableViewTest {
+
+  static CompoundTag createTag() {
+    CompoundTag tag = BinaryTags.compoundTag();
+    tag.putString("name", "value");
+    tag.putIntArray("ints", 1, 2, 3);
+
+    CompoundTag nested = BinaryTags.compoundTag();
+    nested.putLongArray("longs", 4L, 5L);
+    nested.putByteArray("bytes", (byte) 6);
+    tag.put("nested", nested);
+
+    ListTag list = BinaryTags.listTag();
+    list.add(nested.copy());
+    tag.put("list", list);
+
+    return tag;
+  }
+
+  @Test
+  void rejectsMutation() {
+    CompoundTag tag = createTag();
+    CompoundTag view = tag.unmodifiableView();
+
+    assertThrows(UnsupportedOperationException.class, () -> view.putInt("a", 1));
+    assertThrows(UnsupportedOperationException.class, () -> view.remove("name"));
+    assertThrows(UnsupportedOperationException.class, view::clear);
+    assertThrows(UnsupportedOperationException.class, () -> view.merge(tag));
+    assertThrows(UnsupportedOperationException.class,
+        () -> view.entrySet().iterator().remove()
+    );
+
+    CompoundTag nested = view.getCompound("nested");
+    assertThrows(UnsupportedOperationException.class,
+        () -> nested.putString("a", "b")
+    );
+    assertThrows(UnsupportedOperationException.class,
+        () -> nested.get("longs", TagTypes.longArrayType()).add(1L)
+    );
+    assertThrows(UnsupportedOperationException.class,
+        () -> ((ByteArrayTag) nested.get("bytes")).set(0, (byte) 1)
+    );
+
+    ListTag list = view.getList("list");
+    assertThrows(UnsupportedOperationException.class, () -> list.addInt(1));
+    assertThrows(UnsupportedOperationException.class, () -> list.remove(0));
+    assertThrows(UnsupportedOperationException.class, list::clear);
+    assertThrows(UnsupportedOperationException.class,
+        () -> list.get(0).asCompound().clear()
+    );
+    assertThrows(UnsupportedOperationException.class,
+        () -> ((IntArrayTag) view.get("ints")).removeInt(0)
+    );
+
+    assertEquals(createTag(), tag);
+  }
+
+  @Test
+  void reflectsChanges() {
+    CompoundTag tag = createTag();
+    CompoundTag view = tag.unmodifiableView();
+
+    assertEquals(tag, view);
+    assertEquals(view, tag);
+    assertEquals(tag.hashCode(), view.hashCode());
+    assertEquals(tag.toNbtString(), view.toNbtString());
+    assertSame(view, view.unmodifiableView());
+
+    tag.getCompound("nested").putInt("added", 1);
+    tag.getList("list").add(BinaryTags.compoundTag());
+
+    assertEquals(1, view.getCompound("nested").getInt("added"));
+    assertEquals(2, view.getList("list").size());
+    assertEquals(tag, view);
+  }
+
+  @Test
+  void copyIsModifiable() {
+    CompoundTag tag = createTag();
+    CompoundTag copy = tag.unmodifiableView().copy();
+
+    copy.getCompound("nested").putInt("added", 1);
+    copy.getList("list").clear();
+
+    assertEquals(createTag(), tag);
+  }
+
+  @Test
+  void writesLikeTag() throws Exception {
+    CompoundTag tag = createTag();
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    ByteArrayOutputStream actual = new ByteArrayOutputStream();
+
+    BinaryTags.write(expected, tag);
+    BinaryTags.write(actual, tag.unmodifiableView());
+
+    assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+    assertTrue(BinaryTags.compareTags(tag, tag.unmodifiableView(), false));
+  }
+}
@@ -0,0 +1,153 @@
+package net.forthecrown.nbt.codec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import net.forthecrown.nbt.BinaryTags;
+import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.TagTypes;
+import org.junit.jupiter.api.Test;
+
+class TagCodecTest {
+
+  enum Rank { MEMBER, ADMIN }
+
+  record Position(double x, double y, double z) {}
+
+  record Home(String name, Position position) {}
+
+  record Player(
+      UUID id,
+      String name,
+      int level,
+      long playtime,
+      float health,
+      boolean flying,
+      byte flags,
+      Rank rank,
+      List<Home> homes,
+      List<String> tags,
+      Map<String, Integer> stats,
+      int[] scores
+  ) {}
+
+  public static class Settings {
+    private int volume;
+    private String language;
+    private boolean muted;
+
+    public int getVolume() {
+      return volume;
+    }
+
+    public void setVolume(int volume) {
+      this.volume = volume;
+    }
+
+    public String getLanguage() {
+      return language;
+    }
+
+    public void setLanguage(String language) {
+      this.language = language;
+    }
+
+    public boolean isMuted() {
+      return muted;
+    }
+
+    public void setMuted(boolean muted) {
+      this.muted = muted;
+    }
+  }
+
+  record NoCodec(Object value) {}
+
+  @Test
+  void roundTripRecord() {
+    UUID id = UUID.randomUUID();
+
+    Player player = new Player(
+        id,
+        "Jules",
+        30,
+        8_000_000_000L,
+        18.5f,
+        true,
+        (byte) 3,
+        Rank.ADMIN,
+        List.of(new Home("base", new Position(1, 64, -3))),
+        List.of("a", "b"),
+        Map.of("kills", 12),
+        new int[] { 1, 2, 3 }
+    );
+
+    TagCodec<Player> codec = TagCodec.of(Player.class);
+    CompoundTag tag = codec.encode(player);
+
+    assertEquals(id, tag.getUUID("id"));
+    assertEquals(30, tag.getInt("level"));
+    assertEquals(TagTypes.byteType(), tag.get("flags").getType());
+    assertEquals("ADMIN", tag.getString("rank"));
+    assertEquals(
+        64D,
+        tag.getList("homes").get(0).asCompound().getCompound("position").getDouble("y")
+    );
+
+    Player decoded = codec.decode(tag);
+    assertEquals(player.id(), decoded.id());
+    assertEquals(player.playtime(), decoded.playtime());
+    assertEquals(player.health(), decoded.health());
+    assertEquals(player.flying(), decoded.flying());
+    assertEquals(player.flags(), decoded.flags());
+    assertEquals(player.rank(), decoded.rank());
+    assertEquals(player.homes(), decoded.homes());
+    assertEquals(player.tags(), decoded.tags());
+    assertEquals(player.stats(), decoded.stats());
+    assertEquals(3, decoded.scores().length);
+  }
+
+  @Test
+  void decodeMissing() {
+    Player decoded = TagCodec.of(Player.class).decode(BinaryTags.compoundTag());
+
+    assertNull(decoded.name());
+    assertNull(decoded.homes());
+    assertEquals(0, decoded.level());
+  }
+
+  @Test
+  void roundTripBean() {
+    Settings settings = new Settings();
+    settings.setVolume(75);
+    settings.setLanguage("en_us");
+    settings.setMuted(true);
+
+    TagCodec<Settings> codec = TagCodec.of(Settings.class);
+    CompoundTag tag = codec.encode(settings);
+
+    assertEquals(75, tag.getInt("volume"));
+    assertEquals("en_us", tag.getString("language"));
+    assertEquals(true, tag.getBoolean("muted"));
+
+    Settings decoded = codec.decode(tag);
+    assertEquals(75, decoded.getVolume());
+    assertEquals("en_us", decoded.getLanguage());
+    assertEquals(true, decoded.isMuted());
+  }
+
+  @Test
+  void cached() {
+    assertSame(TagCodec.of(Position.class), TagCodec.of(Position.class));
+  }
+
+  @Test
+  void unsupported() {
+    assertThrows(TagCodecException.class, () -> TagCodec.of(NoCodec.class));
+  }
+}
@@ -0,0 +1,270 @@
+package net.forthecrown.nbt.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.forthecrown.nbt.BinaryTag;
+import net.forthecrown.nbt.BinaryTags;
+import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.ListTag;
+import net.forthecrown.nbt.TypeIds;
+import org.junit.jupiter.api.Test;
+
+class TagBufferTest {
+
+  static CompoundTag createTag() {
+    CompoundTag tag = BinaryTags.compoundTag();
+    tag.putByte("byte", 7);
+    tag.putShort("short", -300);
+    tag.putInt("int", 123456);
+    tag.putLong("long", Long.MAX_VALUE);
+    tag.putFloat("float", 2.5F);
+    tag.putDouble("double", -1.25D);
+    tag.putString("string", "value");
+    tag.putString("grüße", "€ and \0");
+    tag.putByteArray("bytes", (byte) 1, (byte) 2, (byte) 3);
+    tag.putIntArray("ints", 4, 5, 6);
+    tag.putLongArray("longs", 7L, 8L);
+    tag.put("empty", BinaryTags.listTag());
+
+    ListTag items = BinaryTags.listTag();
+    for (int i = 0; i < 10; i++) {
+      CompoundTag item = BinaryTags.compoundTag();
+      item.putString("id", "item_" + i);
+      item.putByte("Count", i);
+
+      CompoundTag nested = BinaryTags.compoundTag();
+      nested.put("lore", BinaryTags.stringList("line " + i, "other"));
+      item.put("tag", nested);
+
+      items.add(item);
+    }
+
+    tag.put("Items", items);
+    tag.put("names", BinaryTags.stringList("a", "bb", "ccc"));
+    tag.put("doubles", BinaryTags.doubleList(1, 2, 3));
+
+    ListTag nestedLists = BinaryTags.listTag();
+    nestedLists.add(BinaryTags.stringList("x"));
+    nestedLists.add(BinaryTags.stringList("y", "z"));
+    tag.put("lists", nestedLists);
+
+    tag.putInt("last", 99);
+    return tag;
+  }
+
+  @Test
+  void navigate() {
+    CompoundTag tag = createTag();
+
+    for (TagBuffer buffer: List.of(TagBuffer.of(tag), TagBuffer.of(tag, false))) {
+      TagCursor root = buffer.root();
+
+      assertEquals(tag.size(), root.size());
+      assertEquals(7, root.getByte("byte"));
+      assertEquals(-300, root.getShort("short"));
+      assertEquals(123456, root.getInt("int"));
+      assertEquals(Long.MAX_VALUE, root.getLong("long"));
+      assertEquals(2.5F, root.getFloat("float"));
+      assertEquals(-1.25D, root.getDouble("double"));
+      assertEquals("value", root.getString("string"));
+      assertEquals("€ and \0", root.getString("grüße"));
+      assertEquals(99, root.getInt("last"));
+
+      // Conversions and defaults match CompoundTag
+      assertEquals(tag.getInt("long"), root.getInt("long"));
+      assertEquals(tag.getByte("float"), root.getByte("float"));
+      assertEquals(tag.getLong("double"), root.getLong("double"));
+      assertEquals(5, root.getInt("missing", 5));
+      assertEquals(0, root.getInt("string"));
+      assertEquals("", root.getString("int"));
+      assertNull(root.getCompound("Items"));
+      assertNull(root.get("missing"));
+      assertTrue(root.contains("lists"));
+      assertFalse(root.contains("list"));
+
+      TagCursor items = root.getList("Items");
+      assertNotNull(items);
+      assertEquals(10, items.size());
+      assertEquals(TypeIds.COMPOUND, items.listTypeId());
+
+      TagCursor item = items.get(7);
+      assertEquals("item_7", item.getString("id"));
+      assertEquals(7, item.getByte("Count"));
+      assertEquals("line 7", item.getCompound("tag").getList("lore").get(0).stringValue());
+
+      assertEquals("ccc", root.getList("names").get(2).stringValue());
+      assertEquals(3.0D, root.getList("doubles").get(2).doubleValue());
+      assertEquals("z", root.getList("lists").get(1).get(1).stringValue());
+      assertEquals(0, root.getList("empty").size());
+
+      assertEquals(3, root.get("bytes").byteAt(2));
+      assertEquals(5, root.get("ints").intAt(1));
+      assertEquals(8L, root.get("longs").longAt(1));
+      assertThrows(IndexOutOfBoundsException.class, () -> root.get("ints").intAt(3));
+
+      assertEquals(tag, buffer.toCompound());
+      assertEquals(tag.get("Items"), items.toTag());
+      assertEquals(tag.getList("Items").get(3), items.get(3).toCompound());
+      assertEquals(tag.get("grüße"), root.get("grüße").toTag());
+    }
+  }
+
+  @Test
+  void iterate() {
+    CompoundTag tag = createTag();
+    TagCursor root = TagBuffer.of(tag).root();
+
+    Map<String, BinaryTag> entries = new HashMap<>();
+    root.forEachEntry((name, cursor) -> entries.put(name, cursor.toTag()));
+    assertEquals(tag, BinaryTags.compoundTag(entries));
+
+    List<String> ids = new ArrayList<>();
+    root.getList("Items").forEach(item -> ids.add(item.getString("id")));
+    assertEquals(10, ids.size());
+    assertEquals("item_9", ids.get(9));
+  }
+
+  @Test
+  void wrongType() {
+    TagCursor root = TagBuffer.of(createTag()).root();
+
+    assertThrows(IllegalStateException.class, () -> root.get(0));
+    assertThrows(IllegalStateException.class, () -> root.intValue());
+    assertThrows(IllegalStateException.class, () -> root.get("int").getInt("x"));
+    assertThrows(IllegalStateException.class, () -> root.get("string").size());
+    assertThrows(IllegalStateException.class, () -> root.get("ints").longAt(0));
+    assertThrows(IndexOutOfBoundsException.class, () -> root.getList("names").get(3));
+  }
+
+  @Test
+  void wrap() throws IOException {
+    CompoundTag tag = createTag();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    TagIo.tagIo().write(out, tag);
+    byte[] data = out.toByteArray();
+
+    byte[] padded = new byte[data.length + 3];
+    System.arraycopy(data, 0, padded, 3, data.length);
+    ByteBuffer source = ByteBuffer.wrap(padded).position(3);
+
+    TagBuffer buffer = TagBuffer.wrap(source);
+    assertEquals(3, source.position());
+    assertEquals(data.length, buffer.byteSize());
+    assertEquals(tag, buffer.toCompound());
+
+    // Root, Items, 10 items with 3 structures each, names, doubles, lists
+    // with 2 lists, and the empty list
+    assertEquals(1 + 1 + 30 + 1 + 1 + 3 + 1, buffer.structureCount());
+
+    assertThrows(EOFException.class,
+        () -> TagBuffer.wrap(ByteBuffer.wrap(data, 0, data.length - 1))
+    );
+    assertThrows(IOException.class,
+        () -> TagBuffer.wrap(ByteBuffer.wrap(Arrays.copyOf(data, data.length + 1)))
+    );
+
+    byte[] wrongRoot = data.clone();
+    wrongRoot[0] = TypeIds.LIST;
+    assertThrows(IOException.class, () -> TagBuffer.wrap(ByteBuffer.wrap(wrongRoot)));
+  }
+
+  @Test
+  void readLevel() throws IOException {
+    InputStream input = Thread.currentThread()
+        .getContextClassLoader()
+        .getResourceAsStream("level.dat");
+
+    assertNotNull(input);
+    CompoundTag level = BinaryTags.readCompressed(input);
+    TagBuffer buffer = TagBuffer.of(level);
+
+    assertEquals(level, buffer.toCompound());
+    assertEquals(
+        level.getCompound("Data").getString("LevelName"),
+        buffer.root().getCompound("Data").getString("LevelName")
+    );
+  }
+
+  @Test
+  void maxDepth() throws IOException {
+    byte[] allowed = nested(ScopedDataInput.MAX_DEPTH);
+    byte[] tooDeep = nested(ScopedDataInput.MAX_DEPTH + 1);
+
+    TagBuffer.wrap(ByteBuffer.wrap(allowed));
+    TagIo.tagIo().read(new ByteArrayInputStream(allowed));
+
+    assertThrows(
+        IOException.class,
+        () -> TagBuffer.wrap(ByteBuffer.wrap(tooDeep))
+    );
+    assertThrows(
+        IOException.class,
+        () -> TagIo.tagIo().read(new ByteArrayInputStream(tooDeep))
+    );
+  }
+
+  /** Creates a root compound with the specified amount of nested compounds */
+  static byte[] nested(int depth) throws IOException {
+    CompoundTag root = BinaryTags.compoundTag();
+    CompoundTag tag = root;
+
+    for (int i = 1; i < depth; i++) {
+      CompoundTag child = BinaryTags.compoundTag();
+      tag.put("a", child);
+      tag = child;
+    }
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    TagIo.tagIo().write(out, root);
+    return out.toByteArray();
+  }
+
+  @Test
+  void duplicateKeys() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    DataOutputStream data = new DataOutputStream(out);
+
+    data.writeByte(TypeIds.COMPOUND);
+    data.writeUTF("");
+
+    data.writeByte(TypeIds.INT);
+    data.writeUTF("a");
+    data.writeInt(1);
+
+    data.writeByte(TypeIds.STRING);
+    data.writeUTF("b");
+    data.writeUTF("first");
+
+    data.writeByte(TypeIds.INT);
+    data.writeUTF("a");
+    data.writeInt(2);
+
+    data.writeByte(TypeIds.END);
+
+    byte[] bytes = out.toByteArray();
+    CompoundTag read = TagIo.tagIo().read(new ByteArrayInputStream(bytes));
+    TagCursor root = TagBuffer.wrap(ByteBuffer.wrap(bytes)).root();
+
+    assertEquals(2, read.getInt("a"));
+    assertEquals(read.getInt("a"), root.getInt("a"));
+    assertEquals(read.get("a"), root.get("a").toTag());
+    assertEquals("first", root.getString("b"));
+  }
+}
@@ -1,15 +1,23 @@
 package net.forthecrown.nbt.io;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.ForkJoinPool;
 import net.forthecrown.nbt.string.Snbt;
 import net.forthecrown.nbt.BinaryTags;
 import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.ListTag;
 import org.junit.jupiter.api.Test;
 
 class TagIoTest {
@@ -50,4 +58,79 @@ class TagIoTest {
     var tag = assertDoesNotThrow(() -> BinaryTags.readCompressed(input));
     System.out.println(Snbt.toString(tag, true, true));
   }
-}
\ No newline at end of file
+
+  @Test
+  void writeParallel() {
+    CompoundTag tag = BinaryTags.compoundTag();
+    ListTag chunks = BinaryTags.listTag();
+
+    for (int i = 0; i < 1000; i++) {
+      CompoundTag chunk = BinaryTags.compoundTag();
+      chunk.putInt("x", i);
+      chunk.putLongArray("states", i, i + 1, i + 2);
+
+      ListTag entities = BinaryTags.listTag();
+      for (int j = 0; j < i % 150; j++) {
+        entities.add(BinaryTags.stringTag("entity_" + j));
+      }
+
+      chunk.put("entities", entities);
+      chunks.add(chunk);
+    }
+
+    tag.put("chunks", chunks);
+    tag.put("empty", BinaryTags.listTag());
+    tag.putString("name", "level");
+
+    ByteArrayOutputStream sequential = new ByteArrayOutputStream();
+    ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+
+    try (ForkJoinPool pool = new ForkJoinPool(4)) {
+      assertDoesNotThrow(() -> {
+        BinaryTags.write(sequential, tag);
+        TagIo.tagIo().writeParallel(parallel, tag, pool);
+      });
+    }
+
+    assertArrayEquals(sequential.toByteArray(), parallel.toByteArray());
+  }
+
+  @Test
+  void skipAccountsSkippedBytes() throws Exception {
+    var data = new DataInputStream(new ByteArrayInputStream(new byte[10]));
+    ScopedDataInput input = ScopedDataInput.create(data, 100);
+
+    assertEquals(10, input.skipBytes(50));
+    assertEquals(10, input.accountedBytes());
+  }
+
+  @Test
+  void readPastMaxBytes() throws Exception {
+    CompoundTag tag = BinaryTags.compoundTag();
+    tag.putString("value", "a".repeat(1000));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryTags.write(out, tag);
+    byte[] bytes = out.toByteArray();
+
+    TagIo io = TagIo.tagIo();
+
+    assertEquals(tag, io.read(new ByteArrayInputStream(bytes), bytes.length));
+    assertThrows(
+        IOException.class,
+        () -> io.read(new ByteArrayInputStream(bytes), 500)
+    );
+  }
+
+  @Test
+  void readUtfAccountsEncodedSize() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new DataOutputStream(out).writeUTF("\u00e9abc");
+
+    var data = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+    ScopedDataInput input = ScopedDataInput.create(data, 100);
+
+    assertEquals("\u00e9abc", input.readUTF());
+    assertEquals(out.size(), input.accountedBytes());
+  }
+}
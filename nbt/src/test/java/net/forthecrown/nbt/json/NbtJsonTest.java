@@ -0,0 +1,158 @@
+package net.forthecrown.nbt.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import net.forthecrown.nbt.BinaryTags;
+import net.forthecrown.nbt.ByteArrayTag;
+import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.IntArrayTag;
+import net.forthecrown.nbt.ListTag;
+import net.forthecrown.nbt.LongArrayTag;
+import net.forthecrown.nbt.TypeIds;
+import org.junit.jupiter.api.Test;
+
+class NbtJsonTest {
+
+  @Test
+  void write() throws IOException {
+    CompoundTag tag = BinaryTags.compoundTag();
+    tag.putString("text", "a \"quoted\"\n\u0001 line");
+    tag.putLongArray("longs", 1L, Long.MAX_VALUE);
+    tag.putByteArray("bytes", (byte) 1, (byte) 2);
+    tag.putDouble("nan", Double.NaN);
+    tag.put("list", BinaryTags.listTag());
+
+    var options = JsonOptions.defaults()
+        .withLongsAsStrings(true)
+        .withByteArraysAsBase64(true);
+
+    String json = NbtJson.toJson(tag, options);
+
+    assertTrue(json.contains("\"text\":\"a \\\"quoted\\\"\\n\\u0001 line\""), json);
+    assertTrue(json.contains("\"longs\":[\"1\",\"9223372036854775807\"]"), json);
+    assertTrue(json.contains("\"bytes\":\"AQI=\""), json);
+    assertTrue(json.contains("\"nan\":\"NaN\""), json);
+    assertTrue(json.contains("\"list\":[]"), json);
+
+    StringWriter writer = new StringWriter();
+    NbtJson.write(tag, writer, options);
+    assertEquals(json, writer.toString());
+  }
+
+  @Test
+  void roundTrip() {
+    CompoundTag tag = BinaryTags.compoundTag();
+    tag.putInt("int", 5);
+    tag.putLong("long", 5_000_000_000L);
+    tag.putDouble("double", 1.5D);
+    tag.putString("string", "value \\ with / escapes é");
+    tag.put("strings", BinaryTags.stringList("a", "b"));
+
+    CompoundTag nested = BinaryTags.compoundTag();
+    nested.put("doubles", BinaryTags.doubleList(1.0D, 2.5D));
+    tag.put("nested", nested);
+
+    var pretty = JsonOptions.defaults().withPrettyPrinting(true);
+    assertEquals(tag, NbtJson.parse(NbtJson.toJson(tag, pretty)));
+    assertEquals(tag, NbtJson.parse(new StringReader(NbtJson.toJson(tag))));
+  }
+
+  @Test
+  void numberTyping() {
+    String json = "{\"a\": 1, \"b\": 300, \"c\": 100000, \"d\": 1e3, "
+        + "\"e\": -9223372036854775808, \"f\": 9223372036854775808, \"g\": true}";
+
+    var narrow = NbtJson.parse(
+        json,
+        JsonOptions.defaults().withNumberTyping(NumberTyping.NARROWEST)
+    ).asCompound();
+
+    assertEquals(TypeIds.BYTE, narrow.get("a").getId());
+    assertEquals(TypeIds.SHORT, narrow.get("b").getId());
+    assertEquals(TypeIds.INT, narrow.get("c").getId());
+    assertEquals(TypeIds.DOUBLE, narrow.get("d").getId());
+    assertEquals(Long.MIN_VALUE, narrow.getLong("e"));
+    assertEquals(TypeIds.DOUBLE, narrow.get("f").getId());
+    assertEquals(TypeIds.BYTE, narrow.get("g").getId());
+
+    var defaults = NbtJson.parse(json).asCompound();
+    assertEquals(TypeIds.INT, defaults.get("a").getId());
+
+    var doubles = NbtJson.parse(
+        json,
+        JsonOptions.defaults().withNumberTyping(NumberTyping.DOUBLE)
+    ).asCompound();
+    assertEquals(TypeIds.DOUBLE, doubles.get("a").getId());
+  }
+
+  @Test
+  void arrays() {
+    ListTag widened = assertInstanceOf(
+        ListTag.class,
+        NbtJson.parse("[1, 2.5, null, 3]")
+    );
+
+    assertEquals(3, widened.size());
+    assertEquals(TypeIds.DOUBLE, widened.listType().getId());
+
+    var arrays = JsonOptions.defaults()
+        .withPrimitiveArrays(true)
+        .withNumberTyping(NumberTyping.NARROWEST);
+
+    assertInstanceOf(ByteArrayTag.class, NbtJson.parse("[1, 2]", arrays));
+    assertInstanceOf(IntArrayTag.class, NbtJson.parse("[1, 300]", arrays));
+    assertInstanceOf(LongArrayTag.class, NbtJson.parse("[1, 5000000000]", arrays));
+    assertInstanceOf(ListTag.class, NbtJson.parse("[1, 2.5]", arrays));
+  }
+
+  @Test
+  void invalid() {
+    assertThrows(JsonParseException.class, () -> NbtJson.parse("[1, \"a\"]"));
+    assertThrows(JsonParseException.class, () -> NbtJson.parse("{\"a\" 1}"));
+    assertThrows(JsonParseException.class, () -> NbtJson.parse("{\"a\": tru}"));
+    assertThrows(JsonParseException.class, () -> NbtJson.parse("\"open"));
+    assertThrows(JsonParseException.class, () -> NbtJson.parse("null"));
+    assertThrows(JsonParseException.class, () -> NbtJson.parse("-"));
+  }
+
+  @Test
+  void leadingZeros() {
+    assertThrows(JsonParseException.class, () -> NbtJson.parse("012"));
+    assertThrows(JsonParseException.class, () -> NbtJson.parse("[-012]"));
+    assertThrows(JsonParseException.class, () -> NbtJson.parse("00.5"));
+
+    assertEquals(BinaryTags.intTag(0), NbtJson.parse("[0]").asList().get(0));
+    assertEquals(BinaryTags.doubleTag(-0.5), NbtJson.parse("-0.5"));
+  }
+
+  @Test
+  void trailingInput() {
+    assertThrows(JsonParseException.class, () -> NbtJson.parse("{} {}"));
+    assertThrows(JsonParseException.class, () -> NbtJson.parse("[1]]"));
+    assertThrows(JsonParseException.class, () -> NbtJson.parse("1 2"));
+
+    assertEquals(BinaryTags.compoundTag(), NbtJson.parse(" {} \n"));
+  }
+
+  @Test
+  void maxDepth() {
+    String nested = "[".repeat(512) + "]".repeat(512);
+    assertInstanceOf(ListTag.class, NbtJson.parse(nested));
+
+    String tooDeep = "[".repeat(513) + "]".repeat(513);
+    var exc = assertThrows(
+        JsonParseException.class,
+        () -> NbtJson.parse(tooDeep)
+    );
+    assertTrue(exc.getMessage().contains("depth"), exc.getMessage());
+
+    String deepObjects = "{\"a\":".repeat(100_000);
+    assertThrows(JsonParseException.class, () -> NbtJson.parse(deepObjects));
+  }
+}
@@ -0,0 +1,125 @@
+package net.forthecrown.nbt.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import net.forthecrown.nbt.BinaryTags;
+import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.TypeIds;
+import net.forthecrown.nbt.metrics.NbtMetrics.PathOperation;
+import net.forthecrown.nbt.path.TagPath;
+import net.forthecrown.nbt.string.Snbt;
+import net.forthecrown.nbt.util.TagCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CountingMetricsTest {
+
+  CountingMetrics metrics;
+
+  @BeforeEach
+  void setUp() {
+    metrics = new CountingMetrics();
+    NbtMetrics.setMetrics(metrics);
+  }
+
+  @AfterEach
+  void tearDown() {
+    NbtMetrics.setMetrics(null);
+  }
+
+  static CompoundTag testTag() {
+    return Snbt.parseCompound("{a:1,b:{c:[1b,2b,3b],d:\"str\"},e:[I;1,2]}");
+  }
+
+  @Test
+  void noopByDefault() {
+    NbtMetrics.setMetrics(null);
+    assertSame(NbtMetrics.noop(), NbtMetrics.metrics());
+    assertFalse(NbtMetrics.metrics().isEnabled());
+  }
+
+  @Test
+  void binaryIo() throws IOException {
+    CompoundTag tag = testTag();
+    metrics.reset();
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryTags.write(out, tag);
+    BinaryTags.read(new ByteArrayInputStream(out.toByteArray()));
+
+    assertEquals(1, metrics.getWrites().getCount());
+    assertEquals(out.size(), metrics.getWrites().getBytes());
+    assertEquals(out.size(), metrics.getReads().getBytes());
+    assertEquals(0, metrics.getReads().getCompressedBytes());
+
+    assertEquals(6, metrics.getTagCount(TypeIds.BYTE));
+    assertEquals(4, metrics.getTagCount(TypeIds.COMPOUND));
+    assertEquals(3, metrics.getMaxDepth());
+
+    out.reset();
+    BinaryTags.writeCompressed(out, tag);
+    BinaryTags.readCompressed(new ByteArrayInputStream(out.toByteArray()));
+
+    assertEquals(2, metrics.getReads().getCount());
+    assertEquals(out.size(), metrics.getWrites().getCompressedBytes());
+    assertEquals(out.size(), metrics.getReads().getCompressedBytes());
+    assertEquals(
+        metrics.getWrites().getBytes(),
+        metrics.getReads().getBytes()
+    );
+    assertTrue(metrics.getWrites().getCompressionRatio() > 0);
+    assertEquals(2, metrics.getWrites().getLatency().getCount());
+  }
+
+  @Test
+  void snbtAndPaths() {
+    String input = "{a:1,b:{c:[1b,2b,3b]}}";
+    Snbt.parse(input);
+
+    assertEquals(1, metrics.getSnbtParses().getCount());
+    assertEquals(input.length(), metrics.getSnbtParses().getBytes());
+
+    CompoundTag tag = testTag();
+    TagPath path = TagPath.parse("b.c[]");
+
+    assertEquals(3, path.get(tag).size());
+    path.set(tag, BinaryTags.byteTag(0));
+    path.remove(tag);
+
+    assertEquals(3, metrics.getPathStats(PathOperation.GET).getBytes());
+    assertEquals(1, metrics.getPathStats(PathOperation.SET).getCount());
+    assertEquals(1, metrics.getPathStats(PathOperation.REMOVE).getCount());
+  }
+
+  @Test
+  void tagCounter() {
+    TagCounter counter = TagCounter.count(testTag());
+
+    assertEquals(2, counter.getCount(TypeIds.COMPOUND));
+    assertEquals(3, counter.getCount(TypeIds.BYTE));
+    assertEquals(1, counter.getCount(TypeIds.INT_ARRAY));
+    assertEquals(9, counter.getTotal());
+    assertEquals(3, counter.getMaxDepth());
+  }
+
+  @Test
+  void histogram() {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    for (int i = 0; i < 99; i++) {
+      histogram.record(100);
+    }
+    histogram.record(10_000);
+
+    assertEquals(100, histogram.getCount());
+    assertEquals(128, histogram.percentile(0.5));
+    assertEquals(16384, histogram.percentile(1));
+  }
+}
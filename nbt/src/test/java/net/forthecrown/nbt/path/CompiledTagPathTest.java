@@ -0,0 +1,166 @@
+package net.forthecrown.nbt.path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import net.forthecrown.nbt.BinaryTag;
+import net.forthecrown.nbt.BinaryTags;
+import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.string.Snbt;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+class CompiledTagPathTest {
+
+  static final CompoundTag TAG = Snbt.parseCompound("""
+      {
+        id: 'minecraft:chest',
+        tag: {
+          display: {Name: 'Chest', Lore: ['a', 'b', 'c']},
+          Items: [
+            {Slot: 0b, id: 'stone', Count: 64b, tag: {Damage: 1}},
+            {Slot: 1b, id: 'dirt', Count: 1b},
+            {Slot: 2b, id: 'stone', Count: 3b, tag: {Damage: 2}}
+          ],
+          Pos: [I; 1, 2, 3],
+          Ids: [L; 4L, 5L],
+          Flags: [B; 1b, 0b],
+          Shorts: [1s, 2s, 3s],
+          Durability: 12s,
+          Nested: [[{a: 1}, {a: 2}], [], [{a: 3}]]
+        }
+      }
+      """);
+
+  static final String[] PATHS = {
+      "id",
+      "tag.display.Name",
+      "tag.display.Lore[1]",
+      "tag.display.Lore[-1]",
+      "tag.display.Lore[5]",
+      "tag.display.Lore[-5]",
+      "tag.Pos[0]",
+      "tag.Pos[-1]",
+      "tag.Pos[3]",
+      "tag.Pos[]",
+      "tag.Ids[1]",
+      "tag.Flags[]",
+      "tag.Shorts[2]",
+      "tag.Shorts[]",
+      "tag.Durability",
+      "tag.Nested[][].a",
+      "tag.Nested[-1][0]",
+      "tag.Nested[][{a:2}]",
+      "tag.Items[]",
+      "tag.Items[].id",
+      "tag.Items[{id:'stone'}].tag.Damage",
+      "tag.Items[].tag.Damage",
+      "tag{display:{Name:'Chest'}}.Items[0].Count",
+      "tag{display:{Name:'Other'}}.Items[0].Count",
+      "{id:'minecraft:chest'}tag.Pos[]",
+      "{id:'other'}tag.Pos[]",
+      "not.there",
+      "id.not_a_compound",
+  };
+
+  @Test
+  void matchesPath() {
+    for (String input: PATHS) {
+      TagPath path = TagPath.parse(input);
+      CompiledTagPath compiled = path.compile();
+
+      List<BinaryTag> expected = path.get(TAG);
+      assertEquals(expected, compiled.get(TAG), input);
+
+      List<BinaryTag> streamed = new ArrayList<>();
+      assertEquals(expected.size(), compiled.forEach(TAG, streamed::add), input);
+      assertEquals(expected, streamed, input);
+
+      BinaryTag first = compiled.getFirst(TAG);
+
+      if (expected.isEmpty()) {
+        assertNull(first, input);
+      } else {
+        assertEquals(expected.get(0), first, input);
+      }
+    }
+  }
+
+  @Test
+  void matchesBinary() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryTags.write(out, TAG);
+    byte[] bytes = out.toByteArray();
+
+    for (String input: PATHS) {
+      TagPath path = TagPath.parse(input);
+      CompiledTagPath compiled = path.compile();
+      List<BinaryTag> expected = path.get(TAG);
+
+      assertEquals(expected, compiled.read(ByteBuffer.wrap(bytes)), input);
+      assertEquals(
+          expected,
+          compiled.read(new ByteArrayInputStream(bytes)),
+          input
+      );
+    }
+  }
+
+  @Test
+  void singleResult() {
+    assertTrue(TagPath.parse("tag.display.Lore[1]").compile().isSingleResult());
+    assertFalse(TagPath.parse("tag.Items[].id").compile().isSingleResult());
+  }
+
+  @Test
+  void cached() {
+    TagPath path = TagPath.parse("tag.display.Name");
+    assertSame(path.compile(), path.compile());
+    assertSame(path, path.compile().getPath());
+  }
+
+  @Test
+  void compileOtherImplementation() {
+    TagPath parsed = TagPath.parse("tag.Items[].id");
+    TagPath other = delegating(parsed);
+
+    assertEquals(parsed.get(TAG), other.compile().get(TAG));
+  }
+
+  /** Creates a path that isn't a TagPathImpl, but evaluates like one */
+  static TagPath delegating(TagPath parsed) {
+    return new TagPath() {
+      @Override
+      public @NotNull List<BinaryTag> get(@NotNull BinaryTag tag) {
+        return parsed.get(tag);
+      }
+
+      @Override
+      public int remove(@NotNull BinaryTag tag) {
+        return parsed.remove(tag);
+      }
+
+      @Override
+      public int set(@NotNull BinaryTag tag,
+                     @NotNull Supplier<BinaryTag> supplier
+      ) {
+        return parsed.set(tag, supplier);
+      }
+
+      @Override
+      public @NotNull String getInput() {
+        return parsed.getInput();
+      }
+    };
+  }
+}
@@ -0,0 +1,97 @@
+package net.forthecrown.nbt.path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class TagPathCacheTest {
+
+  @Test
+  void parse() {
+    TagPathCache cache = TagPathCache.create(8);
+
+    TagPath first = cache.parse("tag.Items[{id:'stone'}].Count");
+    TagPath second = cache.parse("tag.Items[{id:'stone'}].Count");
+
+    assertSame(first, second);
+    assertEquals(1, cache.getHits());
+    assertEquals(1, cache.getMisses());
+    assertEquals(1, cache.size());
+    assertEquals(0.5D, cache.getHitRatio());
+  }
+
+  @Test
+  void eviction() {
+    TagPathCache cache = TagPathCache.create(2);
+
+    TagPath a = cache.parse("a");
+    cache.parse("b");
+
+    // Access 'a' so 'b' becomes the least recently used entry
+    assertSame(a, cache.parse("a"));
+    cache.parse("c");
+
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.getEvictions());
+    assertSame(a, cache.parse("a"));
+
+    long misses = cache.getMisses();
+    cache.parse("b");
+    assertEquals(misses + 1, cache.getMisses());
+  }
+
+  @Test
+  void clear() {
+    TagPathCache cache = TagPathCache.create(4);
+    TagPath path = cache.parse("a.b");
+    cache.clear();
+
+    assertEquals(0, cache.size());
+    assertNotSame(path, cache.parse("a.b"));
+    assertEquals(2, cache.getMisses());
+  }
+
+  @Test
+  void invalid() {
+    TagPathCache cache = TagPathCache.create(4);
+
+    assertThrows(PathParseException.class, () -> cache.parse("a..b"));
+    assertEquals(0, cache.size());
+    assertThrows(IllegalArgumentException.class, () -> TagPathCache.create(0));
+  }
+
+  @Test
+  void concurrentParse() throws InterruptedException {
+    TagPathCache cache = TagPathCache.create(16);
+    Thread[] threads = new Thread[4];
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    for (int t = 0; t < threads.length; t++) {
+      threads[t] = new Thread(() -> {
+        try {
+          for (int i = 0; i < 2000; i++) {
+            String input = "a.b[" + (i % 32) + "]";
+            assertEquals(input, cache.parse(input).getInput());
+          }
+        } catch (Throwable e) {
+          failure.compareAndSet(null, e);
+        }
+      });
+      threads[t].start();
+    }
+
+    for (Thread thread: threads) {
+      thread.join();
+    }
+
+    assertNull(failure.get());
+    assertTrue(cache.size() <= 16);
+    assertEquals(8000, cache.getHits() + cache.getMisses());
+  }
+}
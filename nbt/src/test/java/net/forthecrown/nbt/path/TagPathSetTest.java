@@ -0,0 +1,75 @@
+package net.forthecrown.nbt.path;
+
+import static net.forthecrown.nbt.path.CompiledTagPathTest.PATHS;
+import static net.forthecrown.nbt.path.CompiledTagPathTest.TAG;
+import static net.forthecrown.nbt.path.CompiledTagPathTest.delegating;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import net.forthecrown.nbt.BinaryTag;
+import net.forthecrown.nbt.BinaryTags;
+import org.junit.jupiter.api.Test;
+
+class TagPathSetTest {
+
+  @Test
+  void matchesPaths() {
+    List<TagPath> paths = Arrays.stream(PATHS).map(TagPath::parse).toList();
+    TagPathSet set = TagPathSet.of(paths);
+    List<List<BinaryTag>> results = set.get(TAG);
+
+    assertEquals(paths.size(), set.size());
+    assertEquals(paths.size(), results.size());
+
+    int total = 0;
+
+    for (int i = 0; i < paths.size(); i++) {
+      List<BinaryTag> expected = paths.get(i).get(TAG);
+      assertEquals(expected, results.get(i), PATHS[i]);
+      total += expected.size();
+    }
+
+    List<BinaryTag> streamed = new ArrayList<>();
+    assertEquals(total, set.forEach(TAG, (index, tag) -> streamed.add(tag)));
+    assertEquals(total, streamed.size());
+  }
+
+  @Test
+  void duplicatePaths() {
+    TagPathSet set = TagPathSet.of(
+        TagPath.parse("tag.display.Name"),
+        TagPath.parse("tag.display.Name"),
+        TagPath.parse("tag.display")
+    );
+
+    List<List<BinaryTag>> results = set.get(TAG);
+    assertEquals(BinaryTags.stringTag("Chest"), results.get(0).get(0));
+    assertEquals(results.get(0), results.get(1));
+    assertEquals(1, results.get(2).size());
+  }
+
+  @Test
+  void notCompound() {
+    TagPathSet set = TagPathSet.of(TagPath.parse("a"), TagPath.parse("[]"));
+    List<List<BinaryTag>> results = set.get(BinaryTags.listTag());
+
+    assertTrue(results.get(0).isEmpty());
+    assertTrue(results.get(1).isEmpty());
+  }
+
+  @Test
+  void otherImplementations() {
+    TagPath name = TagPath.parse("tag.display.Name");
+    TagPath ids = TagPath.parse("tag.Items[].id");
+
+    TagPathSet set = TagPathSet.of(delegating(name), ids, delegating(ids));
+    List<List<BinaryTag>> results = set.get(TAG);
+
+    assertEquals(name.get(TAG), results.get(0));
+    assertEquals(ids.get(TAG), results.get(1));
+    assertEquals(ids.get(TAG), results.get(2));
+  }
+}
@@ -195,4 +195,26 @@ class TagPathTest {
     System.out.println(Snbt.toString(tag, true, true));
     assertTrue(changed >= 1);
   }
-}
\ No newline at end of file
+
+  @Test
+  void indexOutOfBounds() {
+    var tag = createTestTag();
+
+    for (String input: new String[] {"string_list[3]", "string_list[-4]"}) {
+      TagPath path = TagPath.parse(input);
+
+      assertTrue(path.get(tag).isEmpty());
+      assertEquals(0, path.remove(tag));
+      assertEquals(0, path.set(tag, SET_VALUE));
+    }
+
+    assertEquals(createTestTag(), tag);
+
+    TagPath last = TagPath.parse("string_list[-3]");
+    assertEquals(1, last.remove(tag));
+    assertEquals(
+        BinaryTags.stringList("Bar", "Foobar"),
+        tag.get("string_list")
+    );
+  }
+}
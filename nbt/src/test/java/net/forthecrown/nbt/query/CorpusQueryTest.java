@@ -0,0 +1,162 @@
+package net.forthecrown.nbt.query;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import net.forthecrown.nbt.BinaryTags;
+import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.path.TagPath;
+import net.forthecrown.nbt.util.TagPredicate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CorpusQueryTest {
+
+  static final int FILES = 40;
+
+  @TempDir
+  Path directory;
+
+  void createCorpus() throws IOException {
+    Files.createDirectories(directory.resolve("nested"));
+
+    for (int i = 0; i < FILES; i++) {
+      CompoundTag tag = TagIndexTest.player(i, "item_" + (i % 4));
+      Path parent = i % 2 == 0 ? directory : directory.resolve("nested");
+      String extension = i % 3 == 0 ? ".nbt" : ".dat";
+
+      Path file = parent.resolve(i + extension);
+
+      try (OutputStream out = Files.newOutputStream(file)) {
+        // Mix of compressed and uncompressed files
+        if (i % 2 == 0) {
+          BinaryTags.writeCompressed(out, tag);
+        } else {
+          BinaryTags.write(out, tag);
+        }
+      }
+    }
+
+    Files.writeString(directory.resolve("ignored.txt"), "not nbt");
+  }
+
+  static Set<String> names(List<QueryMatch> matches) {
+    return matches.stream()
+        .map(match -> match.file().getFileName().toString())
+        .collect(Collectors.toSet());
+  }
+
+  @Test
+  void pathAndFilter() throws IOException {
+    createCorpus();
+
+    CorpusQuery query = CorpusQuery.builder()
+        .path(TagIndexTest.ITEM_IDS)
+        .filter(new TagPredicate(BinaryTags.stringTag("item_1")))
+        .threads(4)
+        .build();
+
+    List<QueryMatch> matches = query.collect(directory);
+    assertEquals(FILES / 4, matches.size());
+
+    for (QueryMatch match: matches) {
+      assertEquals(List.of(BinaryTags.stringTag("item_1")), match.values());
+    }
+  }
+
+  @Test
+  void filterOnly() throws IOException {
+    createCorpus();
+
+    CorpusQuery query = CorpusQuery.builder()
+        .filter(tag -> tag.asCompound().getInt("XpLevel") < 3)
+        .build();
+
+    assertEquals(
+        Set.of("0.nbt", "1.dat", "2.dat"),
+        names(query.collect(directory))
+    );
+  }
+
+  @Test
+  void backpressure() throws IOException {
+    createCorpus();
+
+    CorpusQuery query = CorpusQuery.builder()
+        .path(TagPath.parse("XpLevel"))
+        .threads(8)
+        .queueCapacity(1)
+        .build();
+
+    List<QueryMatch> matches = new ArrayList<>();
+    QueryStats stats = query.forEach(directory, "*.nbt", matches::add);
+
+    // Only the top level .nbt files: every 6th file
+    assertEquals(7, matches.size());
+    assertEquals(new QueryStats(7, 7, 0), stats);
+  }
+
+  @Test
+  void errorPolicy() throws IOException {
+    createCorpus();
+    Files.write(directory.resolve("corrupt.dat"), new byte[] {10, 0, 0, 99});
+
+    CorpusQuery failing = CorpusQuery.builder()
+        .path(TagPath.parse("XpLevel"))
+        .build();
+
+    assertThrows(IOException.class, () -> failing.collect(directory));
+
+    Set<Path> skipped = ConcurrentHashMap.newKeySet();
+    CorpusQuery skipping = CorpusQuery.builder()
+        .path(TagPath.parse("XpLevel"))
+        .errorPolicy(ErrorPolicy.SKIP)
+        .errorHandler((file, exc) -> skipped.add(file.getFileName()))
+        .build();
+
+    QueryStats stats = skipping.forEach(directory, match -> {});
+    assertEquals(new QueryStats(FILES, FILES, 1), stats);
+    assertEquals(Set.of(Path.of("corrupt.dat")), skipped);
+  }
+
+  @Test
+  void throwingErrorHandler() throws IOException {
+    Files.write(directory.resolve("corrupt.dat"), new byte[] {10, 0, 0, 99});
+
+    CorpusQuery query = CorpusQuery.builder()
+        .path(TagPath.parse("XpLevel"))
+        .threads(1)
+        .errorPolicy(ErrorPolicy.SKIP)
+        .errorHandler((file, exc) -> {
+          throw new IllegalStateException("handler failed");
+        })
+        .build();
+
+    // Used to hang, as the worker never told the calling thread it stopped
+    IOException exc = assertTimeoutPreemptively(
+        Duration.ofSeconds(30),
+        () -> assertThrows(IOException.class, () -> query.collect(directory))
+    );
+    assertInstanceOf(IllegalStateException.class, exc.getCause());
+  }
+
+  @Test
+  void invalid() {
+    assertThrows(
+        IllegalStateException.class,
+        () -> CorpusQuery.builder().build()
+    );
+  }
+}
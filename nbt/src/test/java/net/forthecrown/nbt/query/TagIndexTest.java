@@ -0,0 +1,161 @@
+package net.forthecrown.nbt.query;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Set;
+import net.forthecrown.nbt.BinaryTag;
+import net.forthecrown.nbt.BinaryTags;
+import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.path.TagPath;
+import net.forthecrown.nbt.string.Snbt;
+import org.junit.jupiter.api.Test;
+
+class TagIndexTest {
+
+  static final TagPath ITEM_IDS = TagPath.parse("Inventory[].tag.custom_data.id");
+  static final TagPath LEVEL = TagPath.parse("XpLevel");
+
+  static CompoundTag player(int level, String... items) {
+    CompoundTag tag = Snbt.parseCompound("{Inventory: []}");
+    tag.putInt("XpLevel", level);
+
+    for (String item: items) {
+      tag.getList("Inventory").add(
+          Snbt.parse("{tag: {custom_data: {id: '" + item + "'}}}")
+      );
+    }
+
+    return tag;
+  }
+
+  static BinaryTag id(String id) {
+    return BinaryTags.stringTag(id);
+  }
+
+  @Test
+  void find() {
+    TagIndex index = TagIndex.create(ITEM_IDS, LEVEL);
+    index.put("a", player(10, "sword", "wand"));
+    index.put("b", player(10, "sword", "sword"));
+    index.put("c", player(3));
+
+    assertEquals(Set.of("a", "b"), index.find(ITEM_IDS, id("sword")));
+    assertEquals(Set.of("a"), index.find(ITEM_IDS, id("wand")));
+    assertEquals(Set.of(), index.find(ITEM_IDS, id("bow")));
+    assertEquals(Set.of("a", "b"), index.find(1, BinaryTags.intTag(10)));
+
+    // Lookup by an equal, but not identical, path
+    assertEquals(
+        Set.of("a"),
+        index.find(TagPath.parse("Inventory[].tag.custom_data.id"), id("wand"))
+    );
+
+    assertEquals(3, index.size());
+    assertEquals(2, index.distinctValues(0));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> index.find(TagPath.parse("x"), id("a"))
+    );
+  }
+
+  @Test
+  void update() {
+    TagIndex index = TagIndex.create(ITEM_IDS);
+    CompoundTag player = player(1, "sword");
+    index.put("a", player);
+
+    // Changes aren't visible until the document is put again
+    player.getList("Inventory").clear();
+    assertEquals(Set.of("a"), index.find(0, id("sword")));
+
+    index.put("a", player(1, "wand"));
+    assertEquals(Set.of(), index.find(0, id("sword")));
+    assertEquals(Set.of("a"), index.find(0, id("wand")));
+    assertEquals(1, index.distinctValues(0));
+
+    assertTrue(index.remove("a"));
+    assertFalse(index.remove("a"));
+    assertFalse(index.contains("a"));
+    assertEquals(0, index.distinctValues(0));
+  }
+
+  @Test
+  void persistence() throws IOException {
+    TagIndex index = TagIndex.create(ITEM_IDS, LEVEL);
+
+    for (int i = 0; i < 100; i++) {
+      String[] items = {"item_" + (i % 5), "item_" + (i % 3)};
+      index.put("player_" + i, player(i % 7, items));
+    }
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    index.write(out);
+
+    TagIndex read = TagIndex.read(new ByteArrayInputStream(out.toByteArray()));
+
+    assertEquals(index.size(), read.size());
+    assertEquals(ITEM_IDS.getInput(), read.getPaths().get(0).getInput());
+
+    for (int i = 0; i < 5; i++) {
+      assertEquals(index.find(0, id("item_" + i)), read.find(0, id("item_" + i)));
+    }
+
+    for (int i = 0; i < 7; i++) {
+      BinaryTag level = BinaryTags.intTag(i);
+      assertEquals(index.find(1, level), read.find(1, level));
+    }
+
+    // Loaded indexes can still be updated incrementally
+    read.put("player_0", player(0));
+    assertFalse(read.find(0, id("item_0")).contains("player_0"));
+  }
+
+  @Test
+  void invalidHeader() {
+    byte[] data = {0, 1, 2, 3, 4};
+    assertThrows(
+        IOException.class,
+        () -> TagIndex.read(new ByteArrayInputStream(data))
+    );
+  }
+
+  static byte[] header(String path, int docCount) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    DataOutputStream output = new DataOutputStream(out);
+
+    output.writeInt(TagIndexImpl.MAGIC);
+    output.writeByte(TagIndexImpl.VERSION);
+    TagIndexImpl.writeVarInt(output, 1);
+    output.writeUTF(path);
+    TagIndexImpl.writeVarInt(output, docCount);
+
+    return out.toByteArray();
+  }
+
+  @Test
+  void corruptCounts() throws IOException {
+    // Claims far more documents than the input holds, must fail with an
+    // IOException rather than try to allocate them up front
+    byte[] data = header("a", Integer.MAX_VALUE);
+    assertThrows(
+        IOException.class,
+        () -> TagIndex.read(new ByteArrayInputStream(data))
+    );
+  }
+
+  @Test
+  void corruptPath() throws IOException {
+    byte[] data = header("a[", 0);
+    assertThrows(
+        IOException.class,
+        () -> TagIndex.read(new ByteArrayInputStream(data))
+    );
+  }
+}
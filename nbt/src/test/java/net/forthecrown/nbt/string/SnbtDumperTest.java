@@ -0,0 +1,121 @@
+package net.forthecrown.nbt.string;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import net.forthecrown.nbt.BinaryTags;
+import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.ListTag;
+import net.forthecrown.nbt.io.ScopedDataInput;
+import org.junit.jupiter.api.Test;
+
+class SnbtDumperTest {
+
+  static CompoundTag sample() {
+    CompoundTag tag = BinaryTags.compoundTag();
+    tag.putString("name", "it's a \\ test");
+    tag.putByte("byte", (byte) 3);
+    tag.putShort("short", (short) 4);
+    tag.putLong("long", 5L);
+    tag.putFloat("float", 1.5F);
+    tag.putDouble("double", 2.5D);
+    tag.putIntArray("ints", 1, 2, 3);
+    tag.putByteArray("bytes");
+
+    ListTag list = BinaryTags.listTag();
+    list.add(tag.copy());
+    list.add(BinaryTags.compoundTag());
+    tag.put("list", list);
+    tag.put("empty", BinaryTags.listTag());
+
+    return tag;
+  }
+
+  static ScopedDataInput input(CompoundTag tag) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryTags.write(out, tag);
+
+    var in = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+    return ScopedDataInput.create(in);
+  }
+
+  @Test
+  void dump() throws IOException {
+    CompoundTag tag = sample();
+
+    for (int i = 0; i < 4; i++) {
+      boolean pretty = (i & 1) != 0;
+      boolean collapse = (i & 2) != 0;
+
+      StringWriter writer = new StringWriter();
+      Snbt.dump(input(tag), writer, pretty, collapse, 0);
+
+      assertEquals(tag, Snbt.parse(writer.toString()));
+    }
+  }
+
+  @Test
+  void singleEntry() throws IOException {
+    CompoundTag tag = BinaryTags.compoundTag();
+    tag.putLongArray("longs", 1L, 2L);
+
+    StringWriter writer = new StringWriter();
+    Snbt.dump(input(tag), writer, true, true, 0);
+
+    assertEquals(Snbt.toString(tag, true, true), writer.toString());
+  }
+
+  @Test
+  void arrayPreview() throws IOException {
+    int[] values = new int[1000];
+    Arrays.fill(values, 7);
+
+    CompoundTag tag = BinaryTags.compoundTag();
+    tag.putIntArray("big", values);
+    tag.putString("after", "value");
+
+    StringWriter writer = new StringWriter();
+    Snbt.dump(input(tag), writer, false, true, 2);
+
+    String dumped = writer.toString();
+    assertTrue(dumped.contains("big:[I; 7, 7, ... 998 more]"), dumped);
+    assertTrue(dumped.contains("after:'value'"), dumped);
+  }
+
+  @Test
+  void truncated() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryTags.write(out, sample());
+    byte[] bytes = Arrays.copyOf(out.toByteArray(), out.size() / 2);
+
+    var in = new DataInputStream(new ByteArrayInputStream(bytes));
+
+    assertThrows(EOFException.class, () -> {
+      Snbt.dump(ScopedDataInput.create(in), new StringWriter(), false);
+    });
+  }
+
+  @Test
+  void maxBytes() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryTags.write(out, sample());
+    byte[] bytes = out.toByteArray();
+
+    var exact = new DataInputStream(new ByteArrayInputStream(bytes));
+    Snbt.dump(ScopedDataInput.create(exact, bytes.length), new StringWriter(), false);
+
+    var limited = new DataInputStream(new ByteArrayInputStream(bytes));
+    var exc = assertThrows(IOException.class, () -> {
+      Snbt.dump(ScopedDataInput.create(limited, 10), new StringWriter(), false);
+    });
+    assertTrue(exc.getMessage().startsWith("NBT too large!"));
+  }
+}
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.StringReader;
 import net.forthecrown.nbt.StringTag;
 import org.junit.jupiter.api.Test;
 
@@ -50,4 +51,31 @@ public class SnbtParserTest {
       Snbt.parseCompound(nbt);
     });
   }
-}
\ No newline at end of file
+
+  @Test
+  void parseCharSequence() {
+    String input = "{a:1b,b:[I;1,2],c:'quoted \\'string\\'',d:[1.5d,2.0d]}";
+    var expected = Snbt.parse(new StringReader(input));
+
+    assertEquals(expected, Snbt.parse(new StringBuilder(input)));
+    assertEquals(expected, Snbt.parse(input.toCharArray()));
+    assertEquals(expected, Snbt.parseCompound(input.toCharArray()));
+  }
+
+  @Test
+  void errorContext() {
+    String nbt = "{\n  key: 1,\n  key_2 = 2321s\n}";
+
+    var fromString = assertThrows(TagParseException.class, () -> {
+      Snbt.parseCompound(nbt);
+    });
+
+    var fromReader = assertThrows(TagParseException.class, () -> {
+      Snbt.parseCompound(new StringReader(nbt));
+    });
+
+    assertEquals("  key_2 =", fromString.getContext());
+    assertEquals(fromReader.getContext(), fromString.getContext());
+    assertEquals(fromReader.getParseOffset(), fromString.getParseOffset());
+  }
+}
@@ -2,6 +2,9 @@ package net.forthecrown.nbt.string;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Collections;
 import net.forthecrown.nbt.BinaryTag;
 import net.forthecrown.nbt.BinaryTags;
 import net.forthecrown.nbt.CompoundTag;
@@ -99,4 +102,118 @@ class SnbtTest {
     assertEquals(arr[2], -1786688212);
     assertEquals(arr[3], -1396749916);
   }
-}
\ No newline at end of file
+
+  @Test
+  void testWrite() throws IOException {
+    CompoundTag tag = BinaryTags.compoundTag();
+    tag.putString("escaped", "it's a \\ string");
+    tag.putString("not escaped", "plain");
+    tag.putByteArray("bytes", (byte) 1, (byte) -2);
+    tag.putLongArray("longs", 1L, Long.MIN_VALUE);
+    tag.putFloat("float", 1.5F);
+    tag.put("list", BinaryTags.listTag(
+        BinaryTags.intTag(1),
+        BinaryTags.intTag(2)
+    ));
+
+    CompoundTag nested = BinaryTags.compoundTag();
+    nested.putByte("b", (byte) 3);
+    tag.put("nested", nested);
+
+    assertWrites(
+        "{bytes:[b;1b,-2b],'not escaped':'plain',"
+            + "longs:[L;1L,-9223372036854775808L],float:1.5f,"
+            + "escaped:'it\\'s a \\\\ string',nested:{b:3b},list:[1,2]}",
+        tag, false, false
+    );
+
+    assertWrites(
+        "{bytes:[b; 1b, -2b],'not escaped':'plain',"
+            + "longs:[L; 1L, -9223372036854775808L],float:1.5f,"
+            + "escaped:'it\\'s a \\\\ string',nested:{b:3b},list:[1,2]}",
+        tag, false, true
+    );
+
+    assertWrites(
+        """
+        {
+          bytes: [b;
+            1b,
+            -2b
+          ],
+          'not escaped': 'plain',
+          longs: [L;
+            1L,
+            -9223372036854775808L
+          ],
+          float: 1.5f,
+          escaped: 'it\\'s a \\\\ string',
+          nested: {
+            b: 3b
+          },
+          list: [
+            1,
+            2
+          ]
+        }""",
+        tag, true, false
+    );
+
+    assertWrites(
+        """
+        {
+          bytes: [b; 1b, -2b],
+          'not escaped': 'plain',
+          longs: [L; 1L, -9223372036854775808L],
+          float: 1.5f,
+          escaped: 'it\\'s a \\\\ string',
+          nested: {
+            b: 3b
+          },
+          list: [
+            1,
+            2
+          ]
+        }""",
+        tag, true, true
+    );
+  }
+
+  @Test
+  void writeLarge() throws IOException {
+    CompoundTag entry = BinaryTags.compoundTag();
+    entry.putString("name", "entry");
+    entry.putIntArray("pos", 1, 2, 3);
+
+    var list = BinaryTags.listTag();
+    for (int i = 0; i < 2000; i++) {
+      list.add(entry.copy());
+    }
+
+    CompoundTag tag = BinaryTags.compoundTag();
+    tag.put("list", list);
+
+    String entrySnbt = "{pos:[I;1,2,3],name:'entry'}";
+    String expected = "{list:["
+        + String.join(",", Collections.nCopies(2000, entrySnbt))
+        + "]}";
+
+    assertWrites(expected, tag, false, false);
+  }
+
+  static void assertWrites(String expected,
+                           BinaryTag tag,
+                           boolean pretty,
+                           boolean collapse
+  ) throws IOException {
+    StringWriter writer = new StringWriter();
+    Snbt.write(tag, writer, pretty, collapse);
+
+    StringBuilder builder = new StringBuilder();
+    Snbt.write(tag, builder, pretty, collapse);
+
+    assertEquals(expected, writer.toString());
+    assertEquals(expected, builder.toString());
+    assertEquals(expected, Snbt.toString(tag, pretty, collapse));
+  }
+}
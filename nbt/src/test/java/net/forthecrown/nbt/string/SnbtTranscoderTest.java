@@ -0,0 +1,113 @@
+package net.forthecrown.nbt.string;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import net.forthecrown.nbt.BinaryTags;
+import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.ListTag;
+import org.junit.jupiter.api.Test;
+
+class SnbtTranscoderTest {
+
+  static final String INPUT = """
+      {
+        name: 'Steve',
+        'quoted key': "it's",
+        level: 12,
+        health: 19.5f,
+        xp: 1.25d,
+        flags: 3b,
+        time: 123456789L,
+        slot: 4s,
+        uuid: [I; 1, -2, 3, 4],
+        bytes: [B; 1b, 2b,],
+        longs: [L;],
+        empty: [],
+        nested: [[1, 2], ['a'], []],
+        items: [{id: 'stone', count: 64b}, {id: 'dirt'}],
+        pos: {x: 1.0d, y: 2.0d, z: 3.0d}
+      }
+      """;
+
+  static byte[] transcode(String input) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Snbt.transcode(input, out);
+    return out.toByteArray();
+  }
+
+  static byte[] write(CompoundTag tag) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryTags.write(out, tag);
+    return out.toByteArray();
+  }
+
+  @Test
+  void transcode() throws IOException {
+    byte[] bytes = transcode(INPUT);
+    CompoundTag read = BinaryTags.read(new ByteArrayInputStream(bytes));
+
+    assertEquals(Snbt.parseCompound(INPUT), read);
+  }
+
+  @Test
+  void sameBytes() throws IOException {
+    String input = "{list:[{a:1,b:[L;1L,2L]},{c:'d'}]}";
+    assertArrayEquals(write(Snbt.parseCompound(input)), transcode(input));
+  }
+
+  @Test
+  void duplicateKeys() throws IOException {
+    String input = "{a: 1, b: {c: 'x', c: 'y'}, a: 2}";
+    byte[] bytes = transcode(input);
+    CompoundTag read = BinaryTags.read(new ByteArrayInputStream(bytes));
+
+    // Written once per occurrence, the last value wins when read back
+    assertEquals(Snbt.parseCompound(input), read);
+    assertEquals(2, read.getInt("a"));
+    assertEquals("y", read.getCompound("b").getString("c"));
+    assertTrue(bytes.length > write(read).length);
+  }
+
+  @Test
+  void largeList() throws IOException {
+    ListTag list = BinaryTags.listTag();
+    for (int i = 0; i < 10_000; i++) {
+      CompoundTag entry = BinaryTags.compoundTag();
+      entry.putInt("index", i);
+      list.add(entry);
+    }
+
+    CompoundTag tag = BinaryTags.compoundTag();
+    tag.put("list", list);
+    tag.putString("after", "value");
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Snbt.transcode(new StringReader(Snbt.toString(tag)), out);
+
+    assertEquals(tag, BinaryTags.read(new ByteArrayInputStream(out.toByteArray())));
+  }
+
+  @Test
+  void mixedList() {
+    var exc = assertThrows(TagParseException.class, () -> {
+      transcode("{list: [1, 'a']}");
+    });
+
+    assertTrue(exc.getMessage().contains("in 'TAG_Int' list"), exc.getMessage());
+  }
+
+  @Test
+  void invalid() {
+    assertThrows(TagParseException.class, () -> transcode("{a: 1 b: 2}"));
+    assertThrows(TagParseException.class, () -> transcode("{a: [I; 1b]}"));
+    assertThrows(TagParseException.class, () -> transcode("[1, 2]"));
+    assertThrows(TagParseException.class, () -> transcode("{a: 1"));
+  }
+}
@@ -0,0 +1,136 @@
+package net.forthecrown.nbt.string;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.regex.Pattern;
+import net.forthecrown.nbt.string.TagToken.Type;
+import net.forthecrown.nbt.util.ReaderWrapper;
+import org.junit.jupiter.api.Test;
+
+public class TagTokenizerTest {
+
+  static TagToken tokenize(String input) throws IOException {
+    return new TagTokenizer(new ReaderWrapper(input)).nextToken();
+  }
+
+  static void assertToken(Type type, Object value, String input)
+      throws IOException
+  {
+    TagToken token = tokenize(input);
+    assertEquals(type, token.type(), input);
+
+    if (type == Type.STRING) {
+      assertEquals(value, token.value(), input);
+    } else {
+      assertEquals(value, token.number(), input);
+    }
+  }
+
+  @Test
+  void numbers() throws IOException {
+    assertToken(Type.BYTE, (byte) 12, "12b");
+    assertToken(Type.BYTE, (byte) -128, "-128B");
+    assertToken(Type.SHORT, (short) 300, "+300s");
+    assertToken(Type.INT, 42, "42");
+    assertToken(Type.INT, Integer.MIN_VALUE, "-2147483648");
+    assertToken(Type.LONG, Long.MAX_VALUE, "9223372036854775807L");
+    assertToken(Type.FLOAT, 1.0F, "1.f");
+    assertToken(Type.FLOAT, 0.5F, ".5F");
+    assertToken(Type.FLOAT, 1500.0F, "1.5e3f");
+    assertToken(Type.DOUBLE, 1.0D, "1.");
+    assertToken(Type.DOUBLE, -0.5D, "-.5");
+    assertToken(Type.DOUBLE, 2.0D, "2d");
+    assertToken(Type.DOUBLE, 1.5e-3D, "1.5E-3");
+  }
+
+  @Test
+  void booleans() throws IOException {
+    assertToken(Type.BYTE, 1, "true");
+    assertToken(Type.BYTE, 0, "FaLsE");
+  }
+
+  @Test
+  void words() throws IOException {
+    assertToken(Type.STRING, "128b", "128b");
+    assertToken(Type.STRING, "2147483648", "2147483648");
+    assertToken(Type.STRING, "1e5", "1e5");
+    assertToken(Type.STRING, "1.e5", "1.e5");
+    assertToken(Type.STRING, "f", "f");
+    assertToken(Type.STRING, ".", ".");
+    assertToken(Type.STRING, "-", "-");
+    assertToken(Type.STRING, "1.5b", "1.5b");
+    assertToken(Type.STRING, "minecraft", "minecraft");
+    assertToken(Type.STRING, "trueish", "trueish");
+  }
+
+  /* ----------------- Reference regex-based implementation ----------------- */
+
+  static final String NUMERIC = "[+-]?[0-9]+";
+  static final Pattern BYTE = Pattern.compile(NUMERIC + "[bB]");
+  static final Pattern SHORT = Pattern.compile(NUMERIC + "[sS]");
+  static final Pattern INT = Pattern.compile(NUMERIC);
+  static final Pattern LONG = Pattern.compile(NUMERIC + "+[lL]");
+  static final Pattern FLOAT
+      = Pattern.compile("[+-]?([0-9]+)?(\\.([0-9]+([eE][+-]?[0-9]+)?)?)?[fF]");
+  static final Pattern DOUBLE
+      = Pattern.compile("[+-]?([0-9]+)?(\\.([0-9]+([eE][+-]?[0-9]+)?)?)?[dD]?");
+
+  static TagToken reference(String str) {
+    if ("true".equalsIgnoreCase(str)) {
+      return Type.BYTE.token(1);
+    }
+    if ("false".equalsIgnoreCase(str)) {
+      return Type.BYTE.token(0);
+    }
+
+    String trimmed = str.substring(0, str.length() - 1);
+
+    try {
+      if (BYTE.matcher(str).matches()) {
+        return Type.BYTE.token(Byte.parseByte(trimmed));
+      }
+      if (SHORT.matcher(str).matches()) {
+        return Type.SHORT.token(Short.parseShort(trimmed));
+      }
+      if (INT.matcher(str).matches()) {
+        return Type.INT.token(Integer.parseInt(str));
+      }
+      if (LONG.matcher(str).matches()) {
+        return Type.LONG.token(Long.parseLong(trimmed));
+      }
+      if (FLOAT.matcher(str).matches()) {
+        return Type.FLOAT.token(Float.parseFloat(trimmed));
+      }
+      if (DOUBLE.matcher(str).matches()) {
+        if (str.endsWith("d") || str.endsWith("D")) {
+          return Type.DOUBLE.token(Double.parseDouble(trimmed));
+        }
+        return Type.DOUBLE.token(Double.parseDouble(str));
+      }
+    } catch (NumberFormatException ignored) {
+      // Not a number
+    }
+
+    return Type.STRING.token(str);
+  }
+
+  @Test
+  void matchesRegexImplementation() throws IOException {
+    Random random = new Random(31L);
+    String alphabet = "0123456789+-.eEbBsSlLfFdDx";
+
+    for (int i = 0; i < 100_000; i++) {
+      int length = 1 + random.nextInt(i % 3 == 0 ? 22 : 6);
+      StringBuilder builder = new StringBuilder();
+
+      for (int j = 0; j < length; j++) {
+        builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+      }
+
+      String input = builder.toString();
+      assertEquals(reference(input), tokenize(input), input);
+    }
+  }
+}
@@ -0,0 +1,185 @@
+package net.forthecrown.nbt.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import net.forthecrown.nbt.BinaryTag;
+import net.forthecrown.nbt.BinaryTags;
+import net.forthecrown.nbt.CompoundTag;
+import net.forthecrown.nbt.ListTag;
+import net.forthecrown.nbt.string.Snbt;
+import org.junit.jupiter.api.Test;
+
+class TagMatcherTest {
+
+  static final String[] KEYS = {"id", "Count", "Slot", "tag", "Items"};
+  static final String[] IDS = {"stone", "dirt", "diamond", "sword"};
+
+  static BinaryTag randomTag(Random random, int depth) {
+    int kind = depth > 2 ? random.nextInt(2) : random.nextInt(5);
+
+    return switch (kind) {
+      case 0 -> BinaryTags.stringTag(IDS[random.nextInt(IDS.length)]);
+      case 1 -> BinaryTags.intTag(random.nextInt(4));
+      case 2 -> randomCompound(random, depth + 1);
+      case 3 -> {
+        ListTag list = BinaryTags.listTag();
+        int size = random.nextInt(20);
+
+        for (int i = 0; i < size; i++) {
+          list.add(BinaryTags.intTag(random.nextInt(12)));
+        }
+
+        yield list;
+      }
+      default -> {
+        ListTag list = BinaryTags.listTag();
+        int size = random.nextInt(20);
+
+        for (int i = 0; i < size; i++) {
+          list.add(randomCompound(random, depth + 1));
+        }
+
+        yield list;
+      }
+    };
+  }
+
+  static CompoundTag randomCompound(Random random, int depth) {
+    CompoundTag tag = BinaryTags.compoundTag();
+    tag.putString("id", IDS[random.nextInt(IDS.length)]);
+
+    int size = random.nextInt(KEYS.length);
+
+    for (int i = 0; i < size; i++) {
+      String key = KEYS[1 + random.nextInt(KEYS.length - 1)];
+      tag.put(key, randomTag(random, depth));
+    }
+
+    return tag;
+  }
+
+  /** Creates a predicate from parts of the subject, so matches are common */
+  static BinaryTag derive(Random random, BinaryTag subject) {
+    if (subject instanceof CompoundTag compound) {
+      CompoundTag result = BinaryTags.compoundTag();
+
+      for (var e: compound.entrySet()) {
+        if (random.nextInt(3) == 0) {
+          continue;
+        }
+
+        result.put(e.getKey(), derive(random, e.getValue()));
+      }
+
+      return result;
+    }
+
+    if (subject instanceof ListTag list && !list.isEmpty()) {
+      ListTag result = BinaryTags.listTag();
+      int size = 1 + random.nextInt(3);
+
+      for (int i = 0; i < size; i++) {
+        BinaryTag element = list.get(random.nextInt(list.size()));
+
+        // Occasionally use an element that might not be in the list
+        if (random.nextInt(5) == 0) {
+          element = randomTag(random, 3);
+          if (element.getId() != list.get(0).getId()) {
+            continue;
+          }
+        }
+
+        result.add(derive(random, element));
+      }
+
+      return result;
+    }
+
+    return subject;
+  }
+
+  @Test
+  void matchesCompareTags() {
+    Random random = new Random(7);
+
+    for (int i = 0; i < 5000; i++) {
+      CompoundTag subject = randomCompound(random, 0);
+      BinaryTag predicate = random.nextBoolean()
+          ? derive(random, subject)
+          : randomCompound(random, 0);
+
+      for (boolean ignoreOrder: new boolean[] {true, false}) {
+        assertEquals(
+            BinaryTags.compareTags(predicate, subject, ignoreOrder),
+            TagMatcher.compile(predicate, ignoreOrder).test(subject),
+            () -> predicate + " / " + subject
+        );
+      }
+    }
+  }
+
+  @Test
+  void hashedLists() {
+    CompoundTag subject = Snbt.parseCompound("""
+        {Inventory: [
+          {Slot: 0b, id: "stone", Count: 1b},
+          {Slot: 1b, id: "dirt", Count: 3b},
+          {Slot: 2b, id: "stone", Count: 5b},
+          {Slot: 3b, id: "sand"},
+          {Slot: 4b, id: "glass"},
+          {Slot: 5b, id: "diamond", tag: {Damage: 2}},
+          {Slot: 6b, id: "gold"},
+          {Slot: 7b, id: "iron"},
+          {Slot: 8b}
+        ],
+        Ints: [1, 2, 3, 4, 5, 6, 7, 8, 9]}
+        """);
+
+    assertTrue(test("{Inventory:[{id:'stone',Count:5b},{id:'gold'}]}", subject));
+    assertTrue(test("{Inventory:[{id:'diamond',tag:{}},{Slot:8b}]}", subject));
+    assertFalse(test("{Inventory:[{id:'stone',Count:3b},{id:'gold'}]}", subject));
+    assertFalse(test("{Inventory:[{id:'emerald'},{id:'gold'}]}", subject));
+    assertTrue(test("{Ints: [9, 1]}", subject));
+    assertFalse(test("{Ints: [9, 10]}", subject));
+    assertFalse(test("{Ints: [9b, 1b]}", subject));
+  }
+
+  @Test
+  void predicateRecord() {
+    BinaryTag tag = Snbt.parse("{id:'stone'}");
+    TagPredicate predicate = new TagPredicate(tag);
+
+    assertEquals(new TagPredicate(tag), predicate);
+    assertEquals(tag, predicate.tag());
+
+    assertTrue(predicate.test(Snbt.parse("{id:'stone',Count:1b}")));
+    assertFalse(predicate.test(Snbt.parse("{id:'dirt'}")));
+  }
+
+  @Test
+  void predicateSeesChanges() {
+    CompoundTag tag = Snbt.parseCompound("{id:'stone'}");
+    TagPredicate predicate = new TagPredicate(tag);
+    TagMatcher matcher = predicate.compile();
+
+    tag.putString("id", "dirt");
+
+    assertTrue(predicate.test(Snbt.parse("{id:'dirt'}")));
+    assertFalse(predicate.test(Snbt.parse("{id:'stone'}")));
+
+    // Compiled matchers are snapshots
+    assertTrue(matcher.test(Snbt.parse("{id:'stone'}")));
+  }
+
+  static boolean test(String predicate, BinaryTag subject) {
+    BinaryTag tag = Snbt.parse(predicate);
+    boolean result = TagMatcher.compile(tag, true).test(subject);
+
+    assertEquals(BinaryTags.compareTags(tag, subject, true), result, predicate);
+    assertEquals(result, new TagPredicate(tag).test(subject), predicate);
+    return result;
+  }
+}
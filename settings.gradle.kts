@@ -1,4 +1,6 @@
 rootProject.name = "NBT"
 include("paper-nbt")
 include("nbt")
-include("test-plugin")
\ No newline at end of file
+include("nbt-processor")
+include("nbt-benchmarks")
+include("test-plugin")